@@ -18,9 +18,17 @@
 package entities;
 
 import currency.CurrencyAmount;
+import currency.CurrencyConversionNeededException;
 import entities.idnumbers.SocialSecurityNumber;
 import postal.MailingAddress;
+import time.DateTimeRange;
+import time.TimeSource;
 
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Currency;
 import java.util.Locale;
 
@@ -40,6 +48,24 @@ public class Employee extends Person {
     
     private CurrencyAmount hourlyPayRate;
     
+    /**
+     * When each change to the hourly rate takes effect, in seconds since the 
+     * epoch, in ascending order. Only the first <code>rateChangeCount</code> 
+     * elements are in use. The rate in effect before the first change is 
+     * <code>hourlyPayRate</code>. This is null for an employee whose rate has 
+     * never changed, as it will be for records written before rate changes 
+     * were kept.
+     */
+    private long[] rateChangeSeconds = null;
+    
+    /**
+     * The new hourly rate, in cents, for each change in 
+     * <code>rateChangeSeconds</code>.
+     */
+    private long[] rateChangeCents = null;
+    
+    private int rateChangeCount = 0;
+    
     private MailingAddress addressWork = null;
     
     public String getJobTitle() {
@@ -50,12 +76,155 @@ public class Employee extends Person {
         this.rank = title;
     }
     
+    private static long toEpochSeconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+    
+    /**
+     * Finds the rate change in effect at a given moment.
+     * @return The index of the change in <code>rateChangeSeconds</code>, or 
+     * &minus;1 if <code>second</code> is before the first change.
+     */
+    private int rateIndexAt(long second) {
+        int index = Arrays.binarySearch(this.rateChangeSeconds, 0, 
+                this.rateChangeCount, second);
+        return (index < 0) ? -index - 2 : index;
+    }
+    
+    private long centsAt(int index) {
+        return (index < 0) ? this.hourlyPayRate.getAmountInCents() 
+                : this.rateChangeCents[index];
+    }
+    
+    /**
+     * Gives the hourly rate in effect now, according to {@link TimeSource}.
+     * @return The hourly rate. For example, $35.00.
+     */
     public CurrencyAmount getHourlyRate() {
-        return this.hourlyPayRate;
+        if (this.rateChangeCount == 0) {
+            return this.hourlyPayRate;
+        }
+        return this.getHourlyRate(TimeSource.now());
     }
     
+    /**
+     * Gives the hourly rate in effect at a given moment.
+     * @param asOf The moment. For example, October 14, 2026 at 1:30 p.m.
+     * @return The rate of the latest change that took effect at or before 
+     * <code>asOf</code>, or the rate set with {@link 
+     * #setHourlyRate(CurrencyAmount)} if there is no such change. For example, 
+     * $35.00.
+     */
+    public CurrencyAmount getHourlyRate(LocalDateTime asOf) {
+        if (this.rateChangeCount == 0) {
+            return this.hourlyPayRate;
+        }
+        int index = this.rateIndexAt(toEpochSeconds(asOf));
+        if (index < 0) {
+            return this.hourlyPayRate;
+        }
+        return new CurrencyAmount(this.rateChangeCents[index], 
+                this.hourlyPayRate.getCurrency());
+    }
+    
+    /**
+     * Sets the hourly rate for all time, discarding any rate changes set with 
+     * {@link #setHourlyRate(CurrencyAmount, LocalDateTime)}.
+     * @param rate The hourly rate. For example, $35.00.
+     */
     public void setHourlyRate(CurrencyAmount rate) {
         this.hourlyPayRate = rate;
+        this.rateChangeSeconds = null;
+        this.rateChangeCents = null;
+        this.rateChangeCount = 0;
+    }
+    
+    /**
+     * Changes the hourly rate as of a given moment. Time worked before that 
+     * moment is still paid at the earlier rate. If there is already a change 
+     * at that exact moment, it is replaced.
+     * @param rate The new hourly rate. For example, $37.50.
+     * @param effective When the new rate takes effect. For example, October 
+     * 15, 2026 at 12:00 a.m.
+     * @throws CurrencyConversionNeededException If <code>rate</code> is not 
+     * in the same currency as the rate set with {@link 
+     * #setHourlyRate(CurrencyAmount)}.
+     */
+    public void setHourlyRate(CurrencyAmount rate, LocalDateTime effective) {
+        if (!rate.getCurrency().equals(this.hourlyPayRate.getCurrency())) {
+            String excMsg = "Rate change must be in the same currency";
+            throw new CurrencyConversionNeededException(excMsg, 
+                    this.hourlyPayRate, rate);
+        }
+        long second = toEpochSeconds(effective);
+        if (this.rateChangeSeconds == null) {
+            this.rateChangeSeconds = new long[4];
+            this.rateChangeCents = new long[4];
+        }
+        int index = Arrays.binarySearch(this.rateChangeSeconds, 0, 
+                this.rateChangeCount, second);
+        if (index >= 0) {
+            this.rateChangeCents[index] = rate.getAmountInCents();
+            return;
+        }
+        index = -index - 1;
+        if (this.rateChangeCount == this.rateChangeSeconds.length) {
+            int capacity = 2 * this.rateChangeCount;
+            this.rateChangeSeconds = Arrays.copyOf(this.rateChangeSeconds, 
+                    capacity);
+            this.rateChangeCents = Arrays.copyOf(this.rateChangeCents, 
+                    capacity);
+        }
+        int tail = this.rateChangeCount - index;
+        System.arraycopy(this.rateChangeSeconds, index, 
+                this.rateChangeSeconds, index + 1, tail);
+        System.arraycopy(this.rateChangeCents, index, this.rateChangeCents, 
+                index + 1, tail);
+        this.rateChangeSeconds[index] = second;
+        this.rateChangeCents[index] = rate.getAmountInCents();
+        this.rateChangeCount++;
+    }
+    
+    /**
+     * Tells how many changes to the hourly rate have been set with {@link 
+     * #setHourlyRate(CurrencyAmount, LocalDateTime)}.
+     * @return The number of rate changes. For example, 2.
+     */
+    public int getRateChangeCount() {
+        return this.rateChangeCount;
+    }
+    
+    /**
+     * Works out the straight time pay for a collection of blocks of time 
+     * worked, at the hourly rates in effect during each block. A block during 
+     * which the rate changed is split at the change. The rate for each block 
+     * is found by a binary search, and the pay is rounded to the cent only 
+     * once, at the end. As with {@link DateTimeRange#getDuration(ChronoUnit)}, 
+     * each block counts in whole minutes.
+     * @param blocks The blocks of time worked. For example, the blocks on a 
+     * time card.
+     * @return The pay. For example, $140.00 for four hours at $35.00 an hour.
+     */
+    public CurrencyAmount getPayFor(Collection<DateTimeRange> blocks) {
+        long centSeconds = 0L;
+        for (DateTimeRange block : blocks) {
+            long start = toEpochSeconds(block.getStart());
+            long end = start + 60L * block.getDuration(ChronoUnit.MINUTES);
+            int index = -1;
+            if (this.rateChangeCount > 0) {
+                index = this.rateIndexAt(start);
+                while (index + 1 < this.rateChangeCount 
+                        && this.rateChangeSeconds[index + 1] < end) {
+                    long change = this.rateChangeSeconds[index + 1];
+                    centSeconds += this.centsAt(index) * (change - start);
+                    start = change;
+                    index++;
+                }
+            }
+            centSeconds += this.centsAt(index) * (end - start);
+        }
+        return new CurrencyAmount(Math.round(centSeconds / 3600.0), 
+                this.hourlyPayRate.getCurrency());
     }
     
     // TODO: Write test for this
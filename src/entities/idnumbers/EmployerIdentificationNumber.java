@@ -36,6 +36,11 @@ public class EmployerIdentificationNumber extends TaxpayerIdentificationNumber {
         return -1073741824;
     }
     
+    @Override
+    String recordKeyTag() {
+        return "EIN";
+    }
+    
     @Override
     public String toString() {
         String digits = Integer.toString(this.idNum);
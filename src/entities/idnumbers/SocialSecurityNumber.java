@@ -64,6 +64,11 @@ public class SocialSecurityNumber extends TaxpayerIdentificationNumber {
         return hash;
     }
 
+    @Override
+    String recordKeyTag() {
+        return "SSN";
+    }
+
     /**
      * Gives a textual representation of this Social Security Number (SSN) with 
      * dashes. If a textual representation with the first five digits redacted 
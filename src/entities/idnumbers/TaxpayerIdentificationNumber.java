@@ -122,6 +122,40 @@ public abstract class TaxpayerIdentificationNumber implements Serializable {
         return this.hashCodeObscurant() + this.hashCodeOffset();
     }
     
+    /**
+     * Gives a short tag for the kind of taxpayer identification number, to 
+     * start {@link #toRecordKey()} with. Subclasses should override so as to 
+     * have a tag that is short and not the same as other subclasses' tags.
+     * @return The simple name of the runtime class, unless overridden.
+     */
+    String recordKeyTag() {
+        return this.getClass().getSimpleName();
+    }
+    
+    /**
+     * Gives a key for storing records about the holder of this taxpayer 
+     * identification number. Unlike {@link #hashCode()}, this is guaranteed to 
+     * be unique: two instances give the same key if and only if they're equal 
+     * according to {@link #equals(Object)}. The identification number is 
+     * scrambled by a reversible mixing function, so the key doesn't show the 
+     * number at a glance, but it is not meant to keep it secret from a 
+     * determined reader.
+     * @return A tag for the runtime class followed by eight lowercase 
+     * hexadecimal digits. For example, for the 
+     * <code>SocialSecurityNumber</code> instance for 750-10-1729, this might 
+     * be "SSNded3a56d". The key contains only ASCII letters and digits, so it 
+     * can safely be used as part of a file name.
+     */
+    public String toRecordKey() {
+        int mixed = this.idNum;
+        mixed ^= mixed >>> 16;
+        mixed *= 0x45D9F3B;
+        mixed ^= mixed >>> 16;
+        mixed *= 0x45D9F3B;
+        mixed ^= mixed >>> 16;
+        return this.recordKeyTag() + String.format("%08x", mixed);
+    }
+    
     /**
      * Constructor. Provides only minimal validation.
      * @param number The identification number. The only constraint this 
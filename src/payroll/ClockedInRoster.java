@@ -0,0 +1,228 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package payroll;
+
+import entities.Employee;
+import entities.idnumbers.TaxpayerIdentificationNumber;
+import time.TimeSource;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Keeps track of which employees are clocked in right now, without having to 
+ * load every current time card and ask each one whether it's punched in. The 
+ * roster is a {@link TimeCardListener}, so once it's added to a card with 
+ * {@link #track(TimeCard)} it's updated as the employee punches in and out.
+ * <p>Employees are looked up by taxpayer identification number (TIN), so 
+ * telling whether a given employee is in and how many are in take constant 
+ * time. Employees are also kept in order of when they punched in, so finding 
+ * those who have been in longer than a given time takes time logarithmic in 
+ * the number clocked in, plus the number found.</p>
+ * @author Alonso del Arte
+ */
+public class ClockedInRoster implements TimeCardListener {
+
+    private static class Entry implements Comparable<Entry> {
+
+        private final Employee employee;
+
+        private final LocalDateTime since;
+
+        private final long order;
+
+        @Override
+        public int compareTo(Entry other) {
+            int comparison = this.since.compareTo(other.since);
+            if (comparison == 0) {
+                comparison = Long.compare(this.order, other.order);
+            }
+            return comparison;
+        }
+
+        Entry(Employee employee, LocalDateTime since, long order) {
+            this.employee = employee;
+            this.since = since;
+            this.order = order;
+        }
+
+    }
+
+    private final Map<TaxpayerIdentificationNumber, Entry> byTIN 
+            = new HashMap<>();
+
+    private final NavigableSet<Entry> bySince = new TreeSet<>();
+
+    private long nextOrder = 0L;
+
+    /**
+     * Starts keeping track of a card. If the card is already punched in, the 
+     * employee is added to the roster right away.
+     * @param card The card. For example, John Lopez's card for the week of 
+     * October 12, 2026.
+     */
+    public void track(TimeCard card) {
+        card.addTimeCardListener(this);
+        if (card.isPunchedIn()) {
+            this.punchedIn(card);
+        }
+    }
+
+    /**
+     * Starts keeping track of several cards. See {@link #track(TimeCard)}.
+     * @param cards The cards. For example, all the current cards.
+     */
+    public void trackAll(Collection<TimeCard> cards) {
+        for (TimeCard card : cards) {
+            this.track(card);
+        }
+    }
+
+    /**
+     * Stops keeping track of a card and takes the employee off the roster if 
+     * the employee is on it.
+     * @param card The card. For example, John Lopez's card for the week of 
+     * October 12, 2026.
+     */
+    public synchronized void untrack(TimeCard card) {
+        card.removeTimeCardListener(this);
+        this.remove(card.getEmployee());
+    }
+
+    private void remove(Employee employee) {
+        Entry entry = this.byTIN.remove(employee.getTIN());
+        if (entry != null) {
+            this.bySince.remove(entry);
+        }
+    }
+
+    /**
+     * Does nothing, since a card's status doesn't affect whether the employee 
+     * is clocked in.
+     * @param card The card whose status changed.
+     */
+    @Override
+    public void statusChanged(TimeCard card) {
+        // Nothing to do
+    }
+
+    /**
+     * Puts the employee on the roster as of the card's last punch in. If the 
+     * employee was already on the roster, as from a punch on another card, 
+     * the earlier entry is replaced.
+     * @param card The card that was punched in.
+     */
+    @Override
+    public synchronized void punchedIn(TimeCard card) {
+        Employee employee = card.getEmployee();
+        this.remove(employee);
+        Entry entry = new Entry(employee, card.getLastPunchIn(), 
+                this.nextOrder++);
+        this.byTIN.put(employee.getTIN(), entry);
+        this.bySince.add(entry);
+    }
+
+    /**
+     * Takes the employee off the roster.
+     * @param card The card that was punched out.
+     */
+    @Override
+    public synchronized void punchedOut(TimeCard card) {
+        this.remove(card.getEmployee());
+    }
+
+    /**
+     * Tells whether an employee is clocked in.
+     * @param employee The employee. For example, John Lopez, SSN 750-10-1729.
+     * @return True if the employee is on the roster, false otherwise.
+     */
+    public synchronized boolean isClockedIn(Employee employee) {
+        return this.byTIN.containsKey(employee.getTIN());
+    }
+
+    /**
+     * Tells when an employee clocked in.
+     * @param employee The employee. For example, John Lopez, SSN 750-10-1729.
+     * @return The time of the punch in. For example, 8:00 a.m. on October 12, 
+     * 2026. Null if the employee is not clocked in.
+     */
+    public synchronized LocalDateTime getClockedInSince(Employee employee) {
+        Entry entry = this.byTIN.get(employee.getTIN());
+        return entry == null ? null : entry.since;
+    }
+
+    /**
+     * Tells how many employees are clocked in.
+     * @return The number of employees on the roster. For example, 14.
+     */
+    public synchronized int getCount() {
+        return this.byTIN.size();
+    }
+
+    /**
+     * Gives the employees who are clocked in.
+     * @return The employees, in order of when they clocked in, earliest first. 
+     * It will be an empty list if no one is clocked in.
+     */
+    public synchronized List<Employee> getClockedIn() {
+        List<Employee> list = new ArrayList<>(this.bySince.size());
+        for (Entry entry : this.bySince) {
+            list.add(entry.employee);
+        }
+        return list;
+    }
+
+    /**
+     * Gives the employees who have been clocked in longer than a given time 
+     * as of a given moment.
+     * @param length How long. For example, 10 hours.
+     * @param asOf The moment to measure from. For example, October 12, 2026 
+     * at 6:30 p.m.
+     * @return The employees who clocked in before <code>asOf</code> minus 
+     * <code>length</code>, earliest first. For example, those who clocked in 
+     * before 8:30 a.m. It will be an empty list if there are none.
+     */
+    public synchronized List<Employee> getClockedInLongerThan(Duration length, 
+            LocalDateTime asOf) {
+        Entry cutoff = new Entry(null, asOf.minus(length), -1L);
+        List<Employee> list = new ArrayList<>();
+        for (Entry entry : this.bySince.headSet(cutoff, false)) {
+            list.add(entry.employee);
+        }
+        return list;
+    }
+
+    /**
+     * Gives the employees who have been clocked in longer than a given time 
+     * as of now, according to {@link TimeSource}.
+     * @param length How long. For example, 10 hours.
+     * @return The employees who clocked in more than <code>length</code> ago, 
+     * earliest first. It will be an empty list if there are none.
+     */
+    public List<Employee> getClockedInLongerThan(Duration length) {
+        return this.getClockedInLongerThan(length, TimeSource.now());
+    }
+
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package payroll;
+
+import time.DateTimeRange;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+/**
+ * Minutes worked by day of the week and hour of the day, as for a heat map of 
+ * when employees are at work. The minutes are kept in a 
+ * <code>long[7][24]</code> array, the first index being the day of the week 
+ * counting from 0 for Monday, and the second the hour of the day counting 
+ * from 0 for the hour starting at midnight.
+ * <p>Each time block is gone through once, an hour at a time, so adding a 
+ * block takes time proportional to the number of hours it spans. Blocks are 
+ * taken to the minute, seconds dropped, and overlapping blocks are counted as 
+ * many times as they overlap, the same as in {@link 
+ * TimeCard#getMinutesSoFar()}; use {@link TimeCard#coalesceTimeBlocks()} 
+ * first to count the time only once. Histograms for many cards are worked out 
+ * in parallel by {@link #of(Collection)} and {@link #byGroup(Collection, 
+ * Function)}, each thread adding cards to a histogram of its own, and the 
+ * histograms are then merged.</p>
+ * @author Alonso del Arte
+ */
+public class LaborHistogram {
+
+    private static final int DAYS_PER_WEEK = 7;
+
+    private static final int HOURS_PER_DAY = 24;
+
+    private static final int MINUTES_PER_HOUR = 60;
+
+    private static final int SECONDS_PER_MINUTE = 60;
+
+    /**
+     * The day of the week of January 1, 1970, a Thursday, counting from 0 for 
+     * Monday.
+     */
+    private static final int EPOCH_DAY_OF_WEEK = 3;
+
+    private final long[][] minutes = new long[DAYS_PER_WEEK][HOURS_PER_DAY];
+
+    private static long toEpochMinutes(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 
+                SECONDS_PER_MINUTE);
+    }
+
+    /**
+     * Adds a time block. A block that spans several hours is split up among 
+     * them. For example, a block from 8:30 a.m. to 10:15 a.m. on a Monday 
+     * adds 30 minutes to Monday 8:00, 60 minutes to Monday 9:00 and 15 
+     * minutes to Monday 10:00.
+     * @param block The block. For example, October 12, 2026 from 8:30 a.m. 
+     * to 10:15 a.m.
+     */
+    public void add(DateTimeRange block) {
+        long start = toEpochMinutes(block.getStart());
+        long end = toEpochMinutes(block.getEnd());
+        long hourIndex = Math.floorDiv(start, MINUTES_PER_HOUR);
+        while (start < end) {
+            long hourEnd = Math.min((hourIndex + 1) * MINUTES_PER_HOUR, end);
+            long dayIndex = Math.floorDiv(hourIndex, HOURS_PER_DAY);
+            int day = (int) Math.floorMod(dayIndex + EPOCH_DAY_OF_WEEK, 
+                    (long) DAYS_PER_WEEK);
+            int hour = (int) Math.floorMod(hourIndex, (long) HOURS_PER_DAY);
+            this.minutes[day][hour] += hourEnd - start;
+            start = hourEnd;
+            hourIndex++;
+        }
+    }
+
+    /**
+     * Adds all the time blocks on a card.
+     * @param card The card. For example, John Lopez's card for the week of 
+     * October 12, 2026.
+     */
+    public void add(TimeCard card) {
+        for (DateTimeRange block : card.getTimeBlocks()) {
+            this.add(block);
+        }
+    }
+
+    /**
+     * Adds the minutes of another histogram to this one. The other histogram 
+     * is not changed.
+     * @param other The other histogram.
+     */
+    public void merge(LaborHistogram other) {
+        for (int day = 0; day < DAYS_PER_WEEK; day++) {
+            for (int hour = 0; hour < HOURS_PER_DAY; hour++) {
+                this.minutes[day][hour] += other.minutes[day][hour];
+            }
+        }
+    }
+
+    /**
+     * Gives the minutes worked in a given hour of a given day of the week.
+     * @param day The day of the week. For example, Monday.
+     * @param hour The hour of the day, from 0 for the hour starting at 
+     * midnight to 23 for the hour starting at 11:00 p.m. For example, 9 for 
+     * the hour starting at 9:00 a.m.
+     * @return The minutes worked. For example, 1440 if 24 employees worked 
+     * that whole hour on one Monday.
+     * @throws ArrayIndexOutOfBoundsException If <code>hour</code> is 
+     * negative or greater than 23.
+     */
+    public long getMinutes(DayOfWeek day, int hour) {
+        return this.minutes[day.getValue() - 1][hour];
+    }
+
+    /**
+     * Gives the total minutes worked on a given day of the week.
+     * @param day The day of the week. For example, Monday.
+     * @return The minutes worked. For example, 11520 if 24 employees worked 
+     * eight hours each on one Monday.
+     */
+    public long getMinutes(DayOfWeek day) {
+        long total = 0L;
+        for (long m : this.minutes[day.getValue() - 1]) {
+            total += m;
+        }
+        return total;
+    }
+
+    /**
+     * Gives the total minutes in the histogram.
+     * @return The minutes worked. For example, 57600 if 24 employees worked 
+     * forty hours each.
+     */
+    public long getTotalMinutes() {
+        long total = 0L;
+        for (DayOfWeek day : DayOfWeek.values()) {
+            total += this.getMinutes(day);
+        }
+        return total;
+    }
+
+    /**
+     * Gives the minutes as an array.
+     * @return A new <code>long[7][24]</code> array, indexed first by day of 
+     * the week counting from 0 for Monday and then by hour of the day. 
+     * Changing the array doesn't change the histogram.
+     */
+    public long[][] toArray() {
+        long[][] copy = new long[DAYS_PER_WEEK][];
+        for (int day = 0; day < DAYS_PER_WEEK; day++) {
+            copy[day] = this.minutes[day].clone();
+        }
+        return copy;
+    }
+
+    private static Collector<TimeCard, LaborHistogram, LaborHistogram> 
+            collector() {
+        return Collector.of(LaborHistogram::new, LaborHistogram::add, 
+                (histogram, other) -> {
+                    histogram.merge(other);
+                    return histogram;
+                });
+    }
+
+    /**
+     * Works out the histogram of many cards, working on several cards at 
+     * once.
+     * @param cards The cards. For example, all the cards for the week of 
+     * October 12, 2026.
+     * @return The histogram of all the time blocks on all the cards.
+     */
+    public static LaborHistogram of(Collection<TimeCard> cards) {
+        return cards.parallelStream().collect(collector());
+    }
+
+    /**
+     * Works out a histogram for each group of cards, working on several cards 
+     * at once.
+     * @param <K> The type of the group keys. For example, <code>String</code> 
+     * for job titles.
+     * @param cards The cards. For example, all the cards for the week of 
+     * October 12, 2026.
+     * @param groupOf Gives the group of each card. For example, 
+     * <code>(card) -&gt; card.getEmployee().getJobTitle()</code>. Called from 
+     * several threads at once. Must not give null for any card; if some 
+     * employees have no job title, for example, the function should give a 
+     * group such as "(none)" for them.
+     * @return A histogram for each group that has at least one card. Use 
+     * {@link #of(Collection)} for the histogram of all the groups together.
+     * @throws IllegalArgumentException If <code>groupOf</code> gives null for 
+     * any of the cards.
+     */
+    public static <K> Map<K, LaborHistogram> byGroup(
+            Collection<TimeCard> cards, 
+            Function<? super TimeCard, ? extends K> groupOf) {
+        Function<TimeCard, K> checkedGroupOf = (card) -> {
+            K group = groupOf.apply(card);
+            if (group == null) {
+                String excMsg = "No group given for card of " 
+                        + card.getEmployee().getFullName() + " starting " 
+                        + card.getStartTime();
+                throw new IllegalArgumentException(excMsg);
+            }
+            return group;
+        };
+        return cards.parallelStream().collect(Collectors
+                .groupingBy(checkedGroupOf, collector()));
+    }
+
+}
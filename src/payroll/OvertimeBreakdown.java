@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package payroll;
+
+import currency.CurrencyAmount;
+
+/**
+ * How the minutes on a time card break down into regular time, overtime and 
+ * double time under a given set of {@link OvertimeRules}. Given by {@link 
+ * OvertimeCalculator}.
+ * @author Alonso del Arte
+ */
+public class OvertimeBreakdown {
+
+    private static final double MINUTES_PER_HOUR = 60.0;
+
+    private final long regularMinutes;
+
+    private final long overtimeMinutes;
+
+    private final long doubleTimeMinutes;
+
+    private final OvertimeRules rules;
+
+    public long getRegularMinutes() {
+        return this.regularMinutes;
+    }
+
+    public long getOvertimeMinutes() {
+        return this.overtimeMinutes;
+    }
+
+    public long getDoubleTimeMinutes() {
+        return this.doubleTimeMinutes;
+    }
+
+    /**
+     * Gives the total of regular time, overtime and double time.
+     * @return The total number of minutes. For example, 2700.
+     */
+    public long getTotalMinutes() {
+        return this.regularMinutes + this.overtimeMinutes 
+                + this.doubleTimeMinutes;
+    }
+
+    public OvertimeRules getRules() {
+        return this.rules;
+    }
+
+    /**
+     * Works out the pay for the time, before taxes.
+     * @param hourlyRate The regular hourly pay rate. For example, $40.00.
+     * @return The pay for the regular time at <code>hourlyRate</code>, plus 
+     * the pay for the overtime and double time at <code>hourlyRate</code> 
+     * times the multipliers in the rules. For example, for 40 regular hours 
+     * and 5 overtime hours at $40.00 an hour with time and a half for 
+     * overtime, $1,900.00.
+     */
+    public CurrencyAmount getPay(CurrencyAmount hourlyRate) {
+        double hours = this.regularMinutes / MINUTES_PER_HOUR 
+                + this.overtimeMinutes / MINUTES_PER_HOUR 
+                * this.rules.getOvertimeMultiplier() 
+                + this.doubleTimeMinutes / MINUTES_PER_HOUR 
+                * this.rules.getDoubleTimeMultiplier();
+        return hourlyRate.times(hours);
+    }
+
+    @Override
+    public String toString() {
+        return this.regularMinutes + " regular, " + this.overtimeMinutes 
+                + " overtime, " + this.doubleTimeMinutes 
+                + " double time minutes";
+    }
+
+    OvertimeBreakdown(long regular, long overtime, long doubleTime, 
+            OvertimeRules overtimeRules) {
+        this.regularMinutes = regular;
+        this.overtimeMinutes = overtime;
+        this.doubleTimeMinutes = doubleTime;
+        this.rules = overtimeRules;
+    }
+
+}
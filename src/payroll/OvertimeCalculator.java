@@ -0,0 +1,267 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package payroll;
+
+import currency.CurrencyAmount;
+import entities.Employee;
+import time.DateTimeRange;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sorts the time on time cards into regular time, overtime and double time 
+ * according to {@link OvertimeRules}. Each card's blocks are gone through once 
+ * in order, keeping running totals for the day and the workweek, so working 
+ * out a card takes time proportional to the number of blocks on it. The 
+ * weekly limit applies to each workweek on the card separately, so a card for 
+ * a biweekly or monthly pay period gets a fresh 40 hours each week. Nothing is 
+ * shared between cards, so a whole payroll run's worth of cards can be worked 
+ * out in parallel with {@link #calculateAll(List, Function)}.
+ * @author Alonso del Arte
+ */
+public final class OvertimeCalculator {
+
+    /**
+     * The day workweeks start on unless told otherwise, Monday, the same day 
+     * the periods of {@link PayCalendar#getDefault()} start on.
+     */
+    public static final DayOfWeek DEFAULT_WORKWEEK_START = DayOfWeek.MONDAY;
+
+    /**
+     * Sorts the time on a card into regular time, overtime and double time, 
+     * with workweeks starting on {@link #DEFAULT_WORKWEEK_START}. See {@link 
+     * #calculate(TimeCard, OvertimeRules, DayOfWeek)}.
+     * @param card The time card. For example, John Lopez's card for the week 
+     * of October 12, 2026.
+     * @param rules The overtime rules to apply. For example, {@link 
+     * OvertimeRules#CALIFORNIA}.
+     * @return The breakdown of the card's time.
+     */
+    public static OvertimeBreakdown calculate(TimeCard card, 
+            OvertimeRules rules) {
+        return calculate(card, rules, DEFAULT_WORKWEEK_START);
+    }
+
+    /**
+     * Sorts the time on a card into regular time, overtime and double time. 
+     * Blocks that overlap, as from duplicate punches, are only counted once. 
+     * A block that goes past midnight counts partly toward each day.
+     * @param card The time card. For example, John Lopez's card for the week 
+     * of October 12, 2026.
+     * @param rules The overtime rules to apply. For example, {@link 
+     * OvertimeRules#CALIFORNIA}.
+     * @return The breakdown of the card's time. For example, for a card with 
+     * five ten-hour days under California's rules, 40 hours regular and 10 
+     * hours overtime.
+     * @param workweekStart The day of the week workweeks start on. For 
+     * example, {@link PayCalendar#getWorkweekStart()} for the calendar the 
+     * card was made for.
+     */
+    public static OvertimeBreakdown calculate(TimeCard card, 
+            OvertimeRules rules, DayOfWeek workweekStart) {
+        return sort(card, rules, workweekStart, null, null, null);
+    }
+
+    /**
+     * Sorts the time on a card into regular time, overtime and double time, 
+     * and if asked, gathers the stretches of each. Within each stretch of a 
+     * block on one day, the regular time comes first, then the overtime, then 
+     * the double time, so each stretch is split at most twice.
+     * @param regularTime Where to put the stretches of regular time, or null 
+     * if they're not needed.
+     * @param overtimeTime Where to put the stretches of overtime, or null.
+     * @param doubleTimeTime Where to put the stretches of double time, or 
+     * null.
+     */
+    private static OvertimeBreakdown sort(TimeCard card, OvertimeRules rules, 
+            DayOfWeek workweekStart, List<DateTimeRange> regularTime, 
+            List<DateTimeRange> overtimeTime, 
+            List<DateTimeRange> doubleTimeTime) {
+        long dailyOvertime = rules.getDailyOvertimeMinutes();
+        long dailyDoubleTime = rules.getDailyDoubleTimeMinutes();
+        long weeklyOvertime = rules.getWeeklyOvertimeMinutes();
+        long regular = 0L;
+        long overtime = 0L;
+        long doubleTime = 0L;
+        long weekRegular = 0L;
+        long dayMinutes = 0L;
+        LocalDate currentDay = null;
+        LocalDate currentWeek = null;
+        for (DateTimeRange block 
+                : DateTimeRange.coalesce(card.getTimeBlocks())) {
+            LocalDateTime segmentStart = block.getStart();
+            while (segmentStart.isBefore(block.getEnd())) {
+                LocalDate day = segmentStart.toLocalDate();
+                LocalDateTime nextMidnight = day.plusDays(1).atStartOfDay();
+                LocalDateTime segmentEnd = block.getEnd()
+                        .isBefore(nextMidnight) ? block.getEnd() 
+                        : nextMidnight;
+                if (!day.equals(currentDay)) {
+                    currentDay = day;
+                    dayMinutes = 0L;
+                    LocalDate week = day.with(TemporalAdjusters
+                            .previousOrSame(workweekStart));
+                    if (!week.equals(currentWeek)) {
+                        currentWeek = week;
+                        weekRegular = 0L;
+                    }
+                }
+                long minutes = ChronoUnit.MINUTES.between(segmentStart, 
+                        segmentEnd);
+                long before = dayMinutes;
+                long after = before + minutes;
+                long doublePart = Math.max(0L, after 
+                        - Math.max(before, dailyDoubleTime));
+                long overtimePart = Math.max(0L, Math.min(after, 
+                        dailyDoubleTime) - Math.max(before, dailyOvertime));
+                long regularPart = minutes - doublePart - overtimePart;
+                long weeklyRoom = Math.max(0L, weeklyOvertime - weekRegular);
+                if (regularPart > weeklyRoom) {
+                    overtimePart += regularPart - weeklyRoom;
+                    regularPart = weeklyRoom;
+                }
+                if (regularTime != null) {
+                    LocalDateTime overtimeStart = segmentStart
+                            .plusMinutes(regularPart);
+                    LocalDateTime doubleTimeStart = overtimeStart
+                            .plusMinutes(overtimePart);
+                    addStretch(regularTime, segmentStart, overtimeStart);
+                    addStretch(overtimeTime, overtimeStart, doubleTimeStart);
+                    addStretch(doubleTimeTime, doubleTimeStart, 
+                            doubleTimeStart.plusMinutes(doublePart));
+                }
+                regular += regularPart;
+                overtime += overtimePart;
+                doubleTime += doublePart;
+                weekRegular += regularPart;
+                dayMinutes = after;
+                segmentStart = segmentEnd;
+            }
+        }
+        return new OvertimeBreakdown(regular, overtime, doubleTime, rules);
+    }
+
+    private static void addStretch(List<DateTimeRange> stretches, 
+            LocalDateTime start, LocalDateTime end) {
+        if (start.isBefore(end)) {
+            stretches.add(new DateTimeRange(start, end));
+        }
+    }
+
+    /**
+     * Works out the pay for a card before taxes, with overtime, with 
+     * workweeks starting on {@link #DEFAULT_WORKWEEK_START}. See {@link 
+     * #calculatePay(TimeCard, Employee, OvertimeRules, DayOfWeek)}.
+     * @param card The time card. For example, John Lopez's card for the week 
+     * of October 12, 2026.
+     * @param rates The employee record to take the hourly rates from. For 
+     * example, John Lopez's record as just read from the store.
+     * @param rules The overtime rules to apply. For example, {@link 
+     * OvertimeRules#CALIFORNIA}.
+     * @return The pay. For example, $2,200.00 for 50 hours in one week at 
+     * $40.00 an hour under the federal rules.
+     */
+    public static CurrencyAmount calculatePay(TimeCard card, Employee rates, 
+            OvertimeRules rules) {
+        return calculatePay(card, rates, rules, DEFAULT_WORKWEEK_START);
+    }
+
+    /**
+     * Works out the pay for a card before taxes, with overtime. Each stretch 
+     * of regular time, overtime and double time is paid at the hourly rate 
+     * in effect at the time, as given by {@link 
+     * Employee#getPayFor(java.util.Collection)}, so a raise partway through 
+     * the period applies to the overtime worked after it, too.
+     * @param card The time card. For example, John Lopez's card for the week 
+     * of October 12, 2026.
+     * @param rates The employee record to take the hourly rates from. For 
+     * example, John Lopez's record as just read from the store.
+     * @param rules The overtime rules to apply. For example, {@link 
+     * OvertimeRules#CALIFORNIA}.
+     * @param workweekStart The day of the week workweeks start on. For 
+     * example, {@link PayCalendar#getWorkweekStart()} for the calendar the 
+     * card was made for.
+     * @return The pay for the regular time, plus the pay for the overtime and 
+     * double time times the multipliers in <code>rules</code>. For example, 
+     * $2,550.00 for 50 hours in one week under the federal rules, if the 
+     * rate went from $40.00 to $50.00 an hour halfway through the first 40 
+     * hours.
+     */
+    public static CurrencyAmount calculatePay(TimeCard card, Employee rates, 
+            OvertimeRules rules, DayOfWeek workweekStart) {
+        List<DateTimeRange> regularTime = new ArrayList<>();
+        List<DateTimeRange> overtimeTime = new ArrayList<>();
+        List<DateTimeRange> doubleTimeTime = new ArrayList<>();
+        sort(card, rules, workweekStart, regularTime, overtimeTime, 
+                doubleTimeTime);
+        CurrencyAmount pay = rates.getPayFor(regularTime);
+        if (!overtimeTime.isEmpty()) {
+            pay = pay.plus(rates.getPayFor(overtimeTime)
+                    .times(rules.getOvertimeMultiplier()));
+        }
+        if (!doubleTimeTime.isEmpty()) {
+            pay = pay.plus(rates.getPayFor(doubleTimeTime)
+                    .times(rules.getDoubleTimeMultiplier()));
+        }
+        return pay;
+    }
+
+    /**
+     * Sorts the time on many cards into regular time, overtime and double 
+     * time, working on several cards at once.
+     * @param cards The time cards. For example, all the cards for the week of 
+     * October 12, 2026.
+     * @param rulesFor Gives the overtime rules for each card, as for example 
+     * according to where the employee works. Called from several threads at 
+     * once.
+     * @return The breakdowns, in the same order as <code>cards</code>.
+     */
+    public static List<OvertimeBreakdown> calculateAll(List<TimeCard> cards, 
+            Function<TimeCard, OvertimeRules> rulesFor) {
+        return cards.parallelStream().map((card) 
+                -> calculate(card, rulesFor.apply(card)))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Sorts the time on many cards into regular time, overtime and double 
+     * time under the same rules, working on several cards at once.
+     * @param cards The time cards. For example, all the cards for the week of 
+     * October 12, 2026.
+     * @param rules The overtime rules to apply to all the cards. For example, 
+     * {@link OvertimeRules#FEDERAL}.
+     * @return The breakdowns, in the same order as <code>cards</code>.
+     */
+    public static List<OvertimeBreakdown> calculateAll(List<TimeCard> cards, 
+            OvertimeRules rules) {
+        return calculateAll(cards, (card) -> rules);
+    }
+
+    private OvertimeCalculator() {
+        // Prevent instantiation
+    }
+
+}
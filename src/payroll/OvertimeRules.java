@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package payroll;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The overtime rules of a jurisdiction: after how many hours in a day or in a 
+ * week overtime starts, and how much more overtime pays. For example, under 
+ * the federal Fair Labor Standards Act, hours over 40 in a week are paid at 
+ * time and a half, while California also pays time and a half for hours over 
+ * 8 in a day and double time for hours over 12 in a day.
+ * <p>Hours paid as overtime because of a daily limit don't count toward the 
+ * weekly limit, so no hour is paid as overtime twice. Days are calendar days, 
+ * midnight to midnight, and weeks are workweeks, seven days starting on a 
+ * given day of the week, Monday unless told otherwise. The weekly limit 
+ * applies to each workweek on a card separately, so a card for a biweekly or 
+ * monthly pay period gets a fresh limit each week. See {@link 
+ * OvertimeCalculator}.</p>
+ * @author Alonso del Arte
+ */
+public class OvertimeRules {
+
+    /**
+     * Stands for a limit that doesn't apply.
+     */
+    public static final int NO_LIMIT = Integer.MAX_VALUE;
+
+    private static final int MINUTES_PER_HOUR = 60;
+
+    /**
+     * The federal rules: time and a half for hours over 40 in a week.
+     */
+    public static final OvertimeRules FEDERAL = new OvertimeRules(NO_LIMIT, 
+            NO_LIMIT, 40 * MINUTES_PER_HOUR, 1.5, 2.0);
+
+    /**
+     * California's rules: time and a half for hours over 8 in a day or 40 in 
+     * a week, double time for hours over 12 in a day. The seventh consecutive 
+     * day rule is not applied.
+     */
+    public static final OvertimeRules CALIFORNIA = new OvertimeRules(
+            8 * MINUTES_PER_HOUR, 12 * MINUTES_PER_HOUR, 
+            40 * MINUTES_PER_HOUR, 1.5, 2.0);
+
+    /**
+     * Alaska's rules: time and a half for hours over 8 in a day or 40 in a 
+     * week.
+     */
+    public static final OvertimeRules ALASKA = new OvertimeRules(
+            8 * MINUTES_PER_HOUR, NO_LIMIT, 40 * MINUTES_PER_HOUR, 1.5, 2.0);
+
+    /**
+     * Colorado's rules: time and a half for hours over 12 in a day or 40 in a 
+     * week.
+     */
+    public static final OvertimeRules COLORADO = new OvertimeRules(
+            12 * MINUTES_PER_HOUR, NO_LIMIT, 40 * MINUTES_PER_HOUR, 1.5, 2.0);
+
+    private static final Map<String, OvertimeRules> BY_JURISDICTION;
+
+    static {
+        Map<String, OvertimeRules> map = new HashMap<>();
+        map.put("US", FEDERAL);
+        map.put("US-AK", ALASKA);
+        map.put("US-CA", CALIFORNIA);
+        map.put("US-CO", COLORADO);
+        BY_JURISDICTION = Collections.unmodifiableMap(map);
+    }
+
+    private final int dailyOvertimeMinutes;
+
+    private final int dailyDoubleTimeMinutes;
+
+    private final int weeklyOvertimeMinutes;
+
+    private final double overtimeMultiplier;
+
+    private final double doubleTimeMultiplier;
+
+    /**
+     * Gives the rules for a jurisdiction.
+     * @param code The jurisdiction's ISO 3166 code. For example, "US-CA" for 
+     * California. Jurisdictions with no rules of their own beyond the federal 
+     * rules, such as "US-TX", get the federal rules.
+     * @return The rules. For example, {@link #CALIFORNIA}.
+     * @throws IllegalArgumentException If <code>code</code> is not "US" or a 
+     * code beginning with "US-".
+     */
+    public static OvertimeRules forJurisdiction(String code) {
+        OvertimeRules rules = BY_JURISDICTION.get(code);
+        if (rules != null) {
+            return rules;
+        }
+        if (code.startsWith("US-")) {
+            return FEDERAL;
+        }
+        String excMsg = "No overtime rules for jurisdiction " + code;
+        throw new IllegalArgumentException(excMsg);
+    }
+
+    /**
+     * Tells after how many minutes worked in a day overtime starts.
+     * @return The number of minutes. For example, 480. {@link #NO_LIMIT} if 
+     * there is no daily limit.
+     */
+    public int getDailyOvertimeMinutes() {
+        return this.dailyOvertimeMinutes;
+    }
+
+    /**
+     * Tells after how many minutes worked in a day double time starts.
+     * @return The number of minutes. For example, 720. {@link #NO_LIMIT} if 
+     * there is no double time.
+     */
+    public int getDailyDoubleTimeMinutes() {
+        return this.dailyDoubleTimeMinutes;
+    }
+
+    /**
+     * Tells after how many regular minutes worked in a week overtime starts.
+     * @return The number of minutes. For example, 2400. {@link #NO_LIMIT} if 
+     * there is no weekly limit.
+     */
+    public int getWeeklyOvertimeMinutes() {
+        return this.weeklyOvertimeMinutes;
+    }
+
+    /**
+     * Tells how much overtime pays compared to regular time.
+     * @return The multiplier. For example, 1.5.
+     */
+    public double getOvertimeMultiplier() {
+        return this.overtimeMultiplier;
+    }
+
+    /**
+     * Tells how much double time pays compared to regular time.
+     * @return The multiplier. For example, 2.0.
+     */
+    public double getDoubleTimeMultiplier() {
+        return this.doubleTimeMultiplier;
+    }
+
+    @Override
+    public String toString() {
+        return "OvertimeRules[daily " + this.dailyOvertimeMinutes 
+                + ", double " + this.dailyDoubleTimeMinutes + ", weekly " 
+                + this.weeklyOvertimeMinutes + ", x" + this.overtimeMultiplier 
+                + ", x" + this.doubleTimeMultiplier + "]";
+    }
+
+    /**
+     * Constructor.
+     * @param dailyOvertime After how many minutes worked in a day overtime 
+     * starts. For example, 480. Use {@link #NO_LIMIT} for no daily overtime.
+     * @param dailyDoubleTime After how many minutes worked in a day double 
+     * time starts. For example, 720. Use {@link #NO_LIMIT} for no double time.
+     * @param weeklyOvertime After how many regular minutes worked in a week 
+     * overtime starts. For example, 2400. Use {@link #NO_LIMIT} for no weekly 
+     * overtime.
+     * @param overtimeRate How much overtime pays compared to regular time. 
+     * For example, 1.5.
+     * @param doubleTimeRate How much double time pays compared to regular 
+     * time. For example, 2.0.
+     * @throws IllegalArgumentException If any of the limits is negative, if 
+     * the double time limit is less than the daily overtime limit, or if 
+     * either rate is less than 1.
+     */
+    public OvertimeRules(int dailyOvertime, int dailyDoubleTime, 
+            int weeklyOvertime, double overtimeRate, double doubleTimeRate) {
+        if (dailyOvertime < 0 || dailyDoubleTime < 0 || weeklyOvertime < 0) {
+            String excMsg = "Overtime limits must not be negative";
+            throw new IllegalArgumentException(excMsg);
+        }
+        if (dailyDoubleTime < dailyOvertime) {
+            String excMsg = "Double time limit " + dailyDoubleTime 
+                    + " must not be less than overtime limit " 
+                    + dailyOvertime;
+            throw new IllegalArgumentException(excMsg);
+        }
+        if (!(overtimeRate >= 1.0) || !(doubleTimeRate >= 1.0)) {
+            String excMsg = "Overtime rates must be at least 1";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.dailyOvertimeMinutes = dailyOvertime;
+        this.dailyDoubleTimeMinutes = dailyDoubleTime;
+        this.weeklyOvertimeMinutes = weeklyOvertime;
+        this.overtimeMultiplier = overtimeRate;
+        this.doubleTimeMultiplier = doubleTimeRate;
+    }
+
+}
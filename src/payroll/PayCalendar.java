@@ -0,0 +1,260 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package payroll;
+
+import time.DateTimeRange;
+import time.TimeSource;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tells which pay period any given time falls in. Pay periods start at 12:00 
+ * a.m. and end at 11:59 p.m. the day before the next period starts, so for 
+ * example a weekly period starting on Monday, October 12, 2026 ends on Sunday, 
+ * October 18, 2026 at 11:59 p.m.
+ * <p>The first time a year is asked about, the starts of all the periods in 
+ * that year are worked out and kept in a sorted array, so from then on 
+ * finding the period of a time in that year is a binary search.</p>
+ * @author Alonso del Arte
+ */
+public class PayCalendar {
+
+    /**
+     * How often employees are paid.
+     */
+    public enum PaySchedule {
+
+        /**
+         * Every week, on the same day of the week as the anchor date.
+         */
+        WEEKLY,
+
+        /**
+         * Every other week, counting from the anchor date.
+         */
+        BIWEEKLY,
+
+        /**
+         * Twice a month, from the 1st to the 15th and from the 16th to the 
+         * end of the month.
+         */
+        SEMI_MONTHLY,
+
+        /**
+         * Once a month, from the 1st to the end of the month.
+         */
+        MONTHLY
+
+    }
+
+    /**
+     * Monday, January 5, 1970, the first Monday after the epoch.
+     */
+    private static final LocalDate FIRST_MONDAY = LocalDate.of(1970, 1, 5);
+
+    private static final PayCalendar DEFAULT 
+            = new PayCalendar(PaySchedule.WEEKLY, FIRST_MONDAY);
+
+    private final PaySchedule schedule;
+
+    private final LocalDate anchor;
+
+    /**
+     * For each year asked about so far, the starts in minutes since the epoch 
+     * of the periods overlapping that year, plus the start of the first 
+     * period after the year.
+     */
+    private final ConcurrentHashMap<Integer, long[]> startsByYear 
+            = new ConcurrentHashMap<>();
+
+    private static long toMinutes(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60L);
+    }
+
+    private static LocalDateTime fromMinutes(long minutes) {
+        return LocalDateTime.ofEpochSecond(minutes * 60L, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Works out the start of the period containing a date without the cache.
+     */
+    private LocalDate periodStartFor(LocalDate date) {
+        switch (this.schedule) {
+            case WEEKLY:
+            case BIWEEKLY:
+                int length = (this.schedule == PaySchedule.WEEKLY) ? 7 : 14;
+                long days = ChronoUnit.DAYS.between(this.anchor, date);
+                return this.anchor.plusDays(Math.floorDiv(days, length) 
+                        * length);
+            case SEMI_MONTHLY:
+                return date.withDayOfMonth(date.getDayOfMonth() > 15 ? 16 : 1);
+            default:
+                return date.withDayOfMonth(1);
+        }
+    }
+
+    private LocalDate nextPeriodStart(LocalDate periodStart) {
+        switch (this.schedule) {
+            case WEEKLY:
+                return periodStart.plusWeeks(1);
+            case BIWEEKLY:
+                return periodStart.plusWeeks(2);
+            case SEMI_MONTHLY:
+                if (periodStart.getDayOfMonth() == 1) {
+                    return periodStart.withDayOfMonth(16);
+                }
+                return periodStart.plusMonths(1).withDayOfMonth(1);
+            default:
+                return periodStart.plusMonths(1);
+        }
+    }
+
+    private long[] startsFor(int year) {
+        return this.startsByYear.computeIfAbsent(year, (y) -> {
+            LocalDate nextYear = LocalDate.of(y + 1, 1, 1);
+            List<Long> starts = new ArrayList<>();
+            LocalDate start = this.periodStartFor(LocalDate.of(y, 1, 1));
+            while (!start.isAfter(nextYear)) {
+                starts.add(toMinutes(start.atStartOfDay()));
+                start = this.nextPeriodStart(start);
+            }
+            starts.add(toMinutes(start.atStartOfDay()));
+            long[] array = new long[starts.size()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = starts.get(i);
+            }
+            return array;
+        });
+    }
+
+    /**
+     * Finds the pay period a given time falls in.
+     * @param time The time. For example, October 14, 2026 at 1:30 p.m.
+     * @return The pay period. For example, for the default weekly calendar, 
+     * Monday, October 12, 2026 at 12:00 a.m. to Sunday, October 18, 2026 at 
+     * 11:59 p.m.
+     */
+    public DateTimeRange getPeriod(LocalDateTime time) {
+        long[] starts = this.startsFor(time.getYear());
+        long minutes = toMinutes(time);
+        int index = Arrays.binarySearch(starts, minutes);
+        if (index < 0) {
+            index = -index - 2;
+        }
+        return new DateTimeRange(fromMinutes(starts[index]), 
+                fromMinutes(starts[index + 1] - 1));
+    }
+
+    /**
+     * Finds the start of the pay period a given time falls in.
+     * @param time The time. For example, October 14, 2026 at 1:30 p.m.
+     * @return The start of the pay period. For example, for the default 
+     * weekly calendar, Monday, October 12, 2026 at 12:00 a.m.
+     */
+    public LocalDateTime getPeriodStart(LocalDateTime time) {
+        return this.getPeriod(time).getStart();
+    }
+
+    /**
+     * Finds the pay period going on right now, according to {@link 
+     * TimeSource}.
+     * @return The current pay period.
+     */
+    public DateTimeRange getCurrentPeriod() {
+        return this.getPeriod(TimeSource.now());
+    }
+
+    /**
+     * Lists the pay periods starting in a given year.
+     * @param year The year. For example, 2026.
+     * @return The pay periods, in order. For example, for a semi-monthly 
+     * calendar, 24 periods, the first from January 1 to January 15.
+     */
+    public List<DateTimeRange> getPeriods(int year) {
+        long[] starts = this.startsFor(year);
+        long yearStart = toMinutes(LocalDate.of(year, 1, 1).atStartOfDay());
+        long nextYearStart = toMinutes(LocalDate.of(year + 1, 1, 1)
+                .atStartOfDay());
+        List<DateTimeRange> periods = new ArrayList<>();
+        for (int i = 0; i + 1 < starts.length; i++) {
+            if (starts[i] >= yearStart && starts[i] < nextYearStart) {
+                periods.add(new DateTimeRange(fromMinutes(starts[i]), 
+                        fromMinutes(starts[i + 1] - 1)));
+            }
+        }
+        return periods;
+    }
+
+    public PaySchedule getSchedule() {
+        return this.schedule;
+    }
+
+    /**
+     * Tells which day of the week the workweeks for overtime start on. For 
+     * weekly and biweekly calendars this is the day periods start on, so that 
+     * each period is made up of whole workweeks.
+     * @return The day of the week of the anchor date for a {@link 
+     * PaySchedule#WEEKLY} or {@link PaySchedule#BIWEEKLY} calendar, {@link 
+     * OvertimeCalculator#DEFAULT_WORKWEEK_START} otherwise.
+     */
+    public DayOfWeek getWorkweekStart() {
+        if (this.schedule == PaySchedule.WEEKLY 
+                || this.schedule == PaySchedule.BIWEEKLY) {
+            return this.anchor.getDayOfWeek();
+        }
+        return OvertimeCalculator.DEFAULT_WORKWEEK_START;
+    }
+
+    /**
+     * Gives the calendar this program has always used: weekly periods 
+     * starting on Mondays.
+     * @return The default calendar.
+     */
+    public static PayCalendar getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Constructor.
+     * @param paySchedule How often employees are paid. For example, {@link 
+     * PaySchedule#BIWEEKLY}.
+     * @param firstPeriodStart The first day of any pay period, which sets the 
+     * day of the week weekly periods start on and which weeks biweekly periods 
+     * start on. For example, Monday, January 5, 2026. Ignored for {@link 
+     * PaySchedule#SEMI_MONTHLY} and {@link PaySchedule#MONTHLY} calendars, 
+     * whose periods always start on the 1st and the 16th or on the 1st.
+     * @throws NullPointerException If either parameter is null.
+     */
+    public PayCalendar(PaySchedule paySchedule, LocalDate firstPeriodStart) {
+        if (paySchedule == null || firstPeriodStart == null) {
+            String excMsg = "Pay schedule and first period start are needed";
+            throw new NullPointerException(excMsg);
+        }
+        this.schedule = paySchedule;
+        this.anchor = firstPeriodStart;
+    }
+
+}
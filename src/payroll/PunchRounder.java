@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package payroll;
+
+import entities.Employee;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Rounds the punches on many time cards at once, each card according to the 
+ * {@link RoundingRules} for the employee's group. Nothing is shared between 
+ * cards, so the cards are worked on in parallel, the same as in {@link 
+ * OvertimeCalculator#calculateAll(List, Function)}.
+ * @author Alonso del Arte
+ */
+public final class PunchRounder {
+
+    /**
+     * Rounds the time blocks on many cards. See {@link 
+     * TimeCard#roundTimeBlocks(RoundingRules)}.
+     * @param cards The time cards. For example, all the cards for the week of 
+     * October 12, 2026.
+     * @param rulesFor Gives the rounding rules for each card, as for example 
+     * according to the employee's job title. Called from several threads at 
+     * once.
+     * @return How many blocks were changed or removed on all the cards put 
+     * together. For example, 112.
+     */
+    public static int roundAll(List<TimeCard> cards, 
+            Function<TimeCard, RoundingRules> rulesFor) {
+        return cards.parallelStream().mapToInt((card) 
+                -> card.roundTimeBlocks(rulesFor.apply(card))).sum();
+    }
+
+    /**
+     * Rounds the time blocks on many cards under the same rules.
+     * @param cards The time cards. For example, all the cards for the week of 
+     * October 12, 2026.
+     * @param rules The rounding rules. For example, {@link 
+     * RoundingRules#NEAREST_QUARTER_HOUR}.
+     * @return How many blocks were changed or removed on all the cards put 
+     * together. For example, 112.
+     */
+    public static int roundAll(List<TimeCard> cards, RoundingRules rules) {
+        return roundAll(cards, (card) -> rules);
+    }
+
+    /**
+     * Gives the rounding rules for each card according to the employee's job 
+     * title, for use with {@link #roundAll(List, Function)}.
+     * @param byTitle The rules for each job title. For example, {@link 
+     * RoundingRules#NONE} for "Manager". The map is copied, so later changes 
+     * to it have no effect.
+     * @param otherwise The rules for job titles not in <code>byTitle</code>. 
+     * For example, {@link RoundingRules#NEAREST_QUARTER_HOUR}.
+     * @return A function giving the rules for a card.
+     */
+    public static Function<TimeCard, RoundingRules> byJobTitle(
+            Map<String, RoundingRules> byTitle, RoundingRules otherwise) {
+        Map<String, RoundingRules> copy 
+                = Collections.unmodifiableMap(new HashMap<>(byTitle));
+        return (card) -> {
+            Employee employee = card.getEmployee();
+            return copy.getOrDefault(employee.getJobTitle(), otherwise);
+        };
+    }
+
+    private PunchRounder() {
+        // Prevent instantiation
+    }
+
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package payroll;
+
+import time.PackedDateTimeRange;
+
+import java.util.Arrays;
+
+/**
+ * Rules for rounding punches, as for example to the nearest quarter hour. 
+ * Punches are rounded to a boundary of a given increment, counting from 
+ * midnight, either to the nearest boundary, always down or always up. On top 
+ * of that, there may be a grace period: a punch in at most that many minutes 
+ * after a boundary is rounded back to it, and a punch out at most that many 
+ * minutes before a boundary is rounded forward to it, whatever the rounding 
+ * mode would otherwise do.
+ * <p>Rounding works on time blocks packed by {@link PackedDateTimeRange}, 
+ * the start of a block being the punch in and the end being the punch out, so 
+ * punches are taken to the minute, seconds dropped, before being rounded. A 
+ * whole array of blocks can be rounded in place with {@link 
+ * #roundAll(long[])}. Since the rounding of punches in never goes past the 
+ * rounding of punches out, rounding never makes a block end before it 
+ * starts, though it may leave a block with no time at all.</p>
+ * @author Alonso del Arte
+ */
+public class RoundingRules {
+
+    /**
+     * How to round a punch that is not within a grace period.
+     */
+    public enum Mode {
+
+        /**
+         * Round to the nearest boundary. A punch halfway between two 
+         * boundaries is rounded up.
+         */
+        NEAREST,
+
+        /**
+         * Round down to the boundary at or before the punch.
+         */
+        DOWN,
+
+        /**
+         * Round up to the boundary at or after the punch.
+         */
+        UP
+
+    }
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    /**
+     * How many blocks an array should have for {@link #roundAll(long[])} to 
+     * work on several parts of it at once.
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /**
+     * No rounding: punches are only taken to the minute.
+     */
+    public static final RoundingRules NONE = new RoundingRules(1, Mode.DOWN, 
+            0);
+
+    /**
+     * Rounding to the nearest quarter hour, with no grace period. Under this 
+     * rule, a punch at 8:07 a.m. is rounded to 8:00 a.m. and a punch at 8:08 
+     * a.m. is rounded to 8:15 a.m.
+     */
+    public static final RoundingRules NEAREST_QUARTER_HOUR 
+            = new RoundingRules(15, Mode.NEAREST, 0);
+
+    private final int incrementMinutes;
+
+    private final Mode roundingMode;
+
+    private final int graceMinutes;
+
+    private int roundByMode(int minutes, int sinceBoundary) {
+        if (sinceBoundary == 0) {
+            return minutes;
+        }
+        switch (this.roundingMode) {
+            case NEAREST:
+                if (2 * sinceBoundary < this.incrementMinutes) {
+                    return minutes - sinceBoundary;
+                }
+                return minutes - sinceBoundary + this.incrementMinutes;
+            case DOWN:
+                return minutes - sinceBoundary;
+            case UP:
+                return minutes - sinceBoundary + this.incrementMinutes;
+            default:
+                throw new AssertionError("Unhandled " + this.roundingMode);
+        }
+    }
+
+    /**
+     * Rounds a punch in.
+     * @param minutes The time of the punch in minutes since the epoch. For 
+     * example, 29863207 for 8:07 a.m. on October 12, 2026.
+     * @return The rounded time in minutes since the epoch. For example, 
+     * 29863200 for 8:00 a.m. on October 12, 2026, under {@link 
+     * #NEAREST_QUARTER_HOUR}.
+     */
+    public int roundIn(int minutes) {
+        int sinceBoundary = Math.floorMod(minutes, this.incrementMinutes);
+        if (sinceBoundary <= this.graceMinutes) {
+            return minutes - sinceBoundary;
+        }
+        return this.roundByMode(minutes, sinceBoundary);
+    }
+
+    /**
+     * Rounds a punch out.
+     * @param minutes The time of the punch in minutes since the epoch. For 
+     * example, 29863438 for 11:58 a.m. on October 12, 2026.
+     * @return The rounded time in minutes since the epoch. For example, 
+     * 29863440 for 12:00 p.m. on October 12, 2026, under {@link 
+     * #NEAREST_QUARTER_HOUR}.
+     */
+    public int roundOut(int minutes) {
+        int sinceBoundary = Math.floorMod(minutes, this.incrementMinutes);
+        int untilBoundary = sinceBoundary == 0 ? 0 
+                : this.incrementMinutes - sinceBoundary;
+        if (untilBoundary <= this.graceMinutes) {
+            return minutes + untilBoundary;
+        }
+        return this.roundByMode(minutes, sinceBoundary);
+    }
+
+    /**
+     * Rounds a packed time block, its start as a punch in and its end as a 
+     * punch out.
+     * @param packed The block, packed by {@link PackedDateTimeRange}. For 
+     * example, October 12, 2026 from 8:07 a.m. to 11:58 a.m.
+     * @return The rounded block, packed. For example, October 12, 2026 from 
+     * 8:00 a.m. to 12:00 p.m., under {@link #NEAREST_QUARTER_HOUR}.
+     */
+    public long round(long packed) {
+        return PackedDateTimeRange.pack(
+                this.roundIn(PackedDateTimeRange.getStartMinutes(packed)), 
+                this.roundOut(PackedDateTimeRange.getEndMinutes(packed)));
+    }
+
+    /**
+     * Rounds an array of packed time blocks in place. Large arrays are worked 
+     * on several parts at once.
+     * @param packed The blocks, packed by {@link PackedDateTimeRange}. For 
+     * example, all the punches of the week of October 12, 2026. Each is 
+     * replaced by its rounding.
+     */
+    public void roundAll(long[] packed) {
+        if (packed.length < PARALLEL_THRESHOLD) {
+            for (int i = 0; i < packed.length; i++) {
+                packed[i] = this.round(packed[i]);
+            }
+        } else {
+            Arrays.parallelSetAll(packed, (i) -> this.round(packed[i]));
+        }
+    }
+
+    /**
+     * Gives the increment punches are rounded to.
+     * @return The increment in minutes. For example, 15.
+     */
+    public int getIncrementMinutes() {
+        return this.incrementMinutes;
+    }
+
+    /**
+     * Gives how punches outside the grace period are rounded.
+     * @return The mode. For example, {@link Mode#NEAREST}.
+     */
+    public Mode getMode() {
+        return this.roundingMode;
+    }
+
+    /**
+     * Gives the grace period.
+     * @return The grace period in minutes. For example, 7. 0 if there is no 
+     * grace period.
+     */
+    public int getGraceMinutes() {
+        return this.graceMinutes;
+    }
+
+    @Override
+    public String toString() {
+        return "RoundingRules[" + this.incrementMinutes + " minutes, " 
+                + this.roundingMode + ", grace " + this.graceMinutes + "]";
+    }
+
+    /**
+     * Constructor.
+     * @param increment The increment to round to, in minutes. For example, 
+     * 15. It must divide evenly into a day, so that the boundaries fall the 
+     * same way every day.
+     * @param mode How to round punches outside the grace period. For example, 
+     * {@link Mode#NEAREST}.
+     * @param grace The grace period in minutes. For example, 7. Use 0 for no 
+     * grace period.
+     * @throws IllegalArgumentException If <code>increment</code> is not 
+     * positive or doesn't divide evenly into 1440, or if <code>grace</code> 
+     * is negative or not less than <code>increment</code>.
+     * @throws NullPointerException If <code>mode</code> is null.
+     */
+    public RoundingRules(int increment, Mode mode, int grace) {
+        if (increment < 1 || MINUTES_PER_DAY % increment != 0) {
+            String excMsg = "Rounding increment " + increment 
+                    + " should divide evenly into " + MINUTES_PER_DAY;
+            throw new IllegalArgumentException(excMsg);
+        }
+        if (grace < 0 || grace >= increment) {
+            String excMsg = "Grace period " + grace 
+                    + " should be at least 0 and less than " + increment;
+            throw new IllegalArgumentException(excMsg);
+        }
+        if (mode == null) {
+            throw new NullPointerException("Rounding mode must not be null");
+        }
+        this.incrementMinutes = increment;
+        this.roundingMode = mode;
+        this.graceMinutes = grace;
+    }
+
+}
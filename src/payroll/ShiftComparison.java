@@ -0,0 +1,150 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package payroll;
+
+import time.DateTimeRange;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the time employees actually worked, as recorded on their time 
+ * cards, to their {@link ShiftSchedule}s. The card's blocks, put in order 
+ * with {@link DateTimeRange#coalesce(java.util.Collection)}, and the 
+ * schedule's shifts are gone through together in a single pass, the way two 
+ * sorted lists are merged, so comparing a card takes time proportional to the 
+ * number of blocks and shifts once the blocks are in order. Nothing is shared 
+ * between cards, so a whole period's worth of cards can be compared in 
+ * parallel with {@link #compareAll(List, Function)}.
+ * <p>Times are compared to the second and reported in whole minutes, rounded 
+ * down.</p>
+ * @author Alonso del Arte
+ */
+public final class ShiftComparison {
+
+    private static final long SECONDS_PER_MINUTE = 60L;
+
+    private static long seconds(LocalDateTime from, LocalDateTime to) {
+        return ChronoUnit.SECONDS.between(from, to);
+    }
+
+    /**
+     * Compares a card to a schedule. A shift on which the employee worked 
+     * counts as a late arrival if the first time worked during the shift 
+     * starts after the shift does, and as an early departure if the last time 
+     * worked during the shift ends before the shift does. Gaps in the middle 
+     * of a shift, as for an unscheduled break, are not counted either way. 
+     * Time worked outside of all the shifts counts as unscheduled.
+     * @param card The time card. For example, John Lopez's card for the week 
+     * of October 12, 2026.
+     * @param schedule The employee's schedule. For example, 8:00 a.m. to 5:00 
+     * p.m. on each weekday of the week of October 12, 2026. May be null if 
+     * the employee has no schedule, in which case all the time on the card is 
+     * unscheduled.
+     * @return How the card differs from the schedule. For example, for an 
+     * employee who came in at 8:10 a.m. one day and stayed until 5:30 p.m. 
+     * another, one late arrival of 10 minutes and 30 minutes unscheduled.
+     */
+    public static ShiftVariance compare(TimeCard card, 
+            ShiftSchedule schedule) {
+        List<DateTimeRange> shifts = (schedule == null) 
+                ? Collections.emptyList() : schedule.getShifts();
+        List<DateTimeRange> blocks 
+                = DateTimeRange.coalesce(card.getTimeBlocks());
+        long workedSeconds = 0L;
+        for (DateTimeRange block : blocks) {
+            workedSeconds += seconds(block.getStart(), block.getEnd());
+        }
+        long overlapSeconds = 0L;
+        int late = 0;
+        long lateSeconds = 0L;
+        int early = 0;
+        long earlySeconds = 0L;
+        int missed = 0;
+        LocalDateTime firstIn = null;
+        LocalDateTime lastOut = null;
+        int blockIndex = 0;
+        for (DateTimeRange shift : shifts) {
+            while (blockIndex < blocks.size()) {
+                DateTimeRange block = blocks.get(blockIndex);
+                LocalDateTime start = shift.getStart();
+                if (block.getStart().isAfter(start)) {
+                    start = block.getStart();
+                }
+                LocalDateTime end = shift.getEnd();
+                if (block.getEnd().isBefore(end)) {
+                    end = block.getEnd();
+                }
+                if (start.isBefore(end)) {
+                    overlapSeconds += seconds(start, end);
+                    if (firstIn == null) {
+                        firstIn = start;
+                    }
+                    lastOut = end;
+                }
+                if (!block.getEnd().isBefore(shift.getEnd())) {
+                    break;
+                }
+                blockIndex++;
+            }
+            if (firstIn == null) {
+                missed++;
+            } else {
+                if (firstIn.isAfter(shift.getStart())) {
+                    late++;
+                    lateSeconds += seconds(shift.getStart(), firstIn);
+                }
+                if (lastOut.isBefore(shift.getEnd())) {
+                    early++;
+                    earlySeconds += seconds(lastOut, shift.getEnd());
+                }
+            }
+            firstIn = null;
+            lastOut = null;
+        }
+        return new ShiftVariance(card.getEmployee(), late, 
+                lateSeconds / SECONDS_PER_MINUTE, early, 
+                earlySeconds / SECONDS_PER_MINUTE, missed, 
+                (workedSeconds - overlapSeconds) / SECONDS_PER_MINUTE);
+    }
+
+    /**
+     * Compares many cards to their schedules, working on several cards at 
+     * once.
+     * @param cards The time cards. For example, all the cards for the week of 
+     * October 12, 2026.
+     * @param scheduleFor Gives the schedule for each card, or null for an 
+     * employee with no schedule. Called from several threads at once.
+     * @return The variances, in the same order as <code>cards</code>.
+     */
+    public static List<ShiftVariance> compareAll(List<TimeCard> cards, 
+            Function<TimeCard, ShiftSchedule> scheduleFor) {
+        return cards.parallelStream().map((card) 
+                -> compare(card, scheduleFor.apply(card)))
+                .collect(Collectors.toList());
+    }
+
+    private ShiftComparison() {
+        // Prevent instantiation
+    }
+
+}
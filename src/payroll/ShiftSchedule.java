@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package payroll;
+
+import entities.Employee;
+import time.DateTimeRange;
+
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The shifts an employee is scheduled to work, as for example over a pay 
+ * period. Shifts are kept in order of start time and may not overlap, though 
+ * one shift may start at the same time another ends. To compare the schedule 
+ * to the time the employee actually worked, see {@link ShiftComparison}.
+ * @author Alonso del Arte
+ */
+public class ShiftSchedule {
+
+    private final Employee scheduledEmployee;
+
+    private final List<DateTimeRange> shifts;
+
+    public Employee getEmployee() {
+        return this.scheduledEmployee;
+    }
+
+    /**
+     * Gives the scheduled shifts.
+     * @return The shifts, in order of start time. For example, 8:00 a.m. to 
+     * 5:00 p.m. on each weekday of the week of October 12, 2026. The list 
+     * can't be changed.
+     */
+    public List<DateTimeRange> getShifts() {
+        return this.shifts;
+    }
+
+    /**
+     * Gives the total length of the scheduled shifts.
+     * @return The number of minutes. For example, 2700 for five nine-hour 
+     * shifts.
+     */
+    public long getScheduledMinutes() {
+        long minutes = 0L;
+        for (DateTimeRange shift : this.shifts) {
+            minutes += shift.getDuration(ChronoUnit.MINUTES);
+        }
+        return minutes;
+    }
+
+    @Override
+    public String toString() {
+        return "Schedule for " + this.scheduledEmployee.toString() + ": " 
+                + this.shifts.size() + " shifts";
+    }
+
+    /**
+     * Constructor.
+     * @param employee The employee. For example, John Lopez, SSN 750-10-1729.
+     * @param scheduledShifts The shifts. For example, 8:00 a.m. to 5:00 p.m. 
+     * on each weekday of the week of October 12, 2026. They need not be in 
+     * order. The collection is copied, so later changes to it have no effect.
+     * @throws IllegalArgumentException If any two of the shifts overlap.
+     * @throws NullPointerException If <code>employee</code> is null.
+     */
+    public ShiftSchedule(Employee employee, 
+            Collection<DateTimeRange> scheduledShifts) {
+        if (employee == null) {
+            throw new NullPointerException("Employee must not be null");
+        }
+        List<DateTimeRange> list = new ArrayList<>(scheduledShifts);
+        Collections.sort(list);
+        for (int i = 1; i < list.size(); i++) {
+            DateTimeRange previous = list.get(i - 1);
+            DateTimeRange shift = list.get(i);
+            if (shift.getStart().isBefore(previous.getEnd())) {
+                String excMsg = "Shift " + shift.toString() 
+                        + " overlaps shift " + previous.toString();
+                throw new IllegalArgumentException(excMsg);
+            }
+        }
+        this.scheduledEmployee = employee;
+        this.shifts = Collections.unmodifiableList(list);
+    }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package payroll;
+
+import entities.Employee;
+
+/**
+ * How the time an employee actually worked differs from the employee's 
+ * schedule. Given by {@link ShiftComparison}.
+ * @author Alonso del Arte
+ */
+public class ShiftVariance {
+
+    private final Employee employee;
+
+    private final int lateArrivals;
+
+    private final long lateMinutes;
+
+    private final int earlyDepartures;
+
+    private final long earlyMinutes;
+
+    private final int missedShifts;
+
+    private final long unscheduledMinutes;
+
+    public Employee getEmployee() {
+        return this.employee;
+    }
+
+    /**
+     * Tells in how many shifts the employee started work after the shift 
+     * began.
+     * @return The number of late arrivals. For example, 2.
+     */
+    public int getLateArrivals() {
+        return this.lateArrivals;
+    }
+
+    /**
+     * Tells how late the employee arrived, all the late arrivals put together.
+     * @return The number of minutes. For example, 25.
+     */
+    public long getLateMinutes() {
+        return this.lateMinutes;
+    }
+
+    /**
+     * Tells in how many shifts the employee stopped work before the shift 
+     * ended.
+     * @return The number of early departures. For example, 1.
+     */
+    public int getEarlyDepartures() {
+        return this.earlyDepartures;
+    }
+
+    /**
+     * Tells how early the employee left, all the early departures put 
+     * together.
+     * @return The number of minutes. For example, 30.
+     */
+    public long getEarlyMinutes() {
+        return this.earlyMinutes;
+    }
+
+    /**
+     * Tells how many shifts the employee didn't work at all. These don't 
+     * count as late arrivals or early departures.
+     * @return The number of missed shifts. For example, 0.
+     */
+    public int getMissedShifts() {
+        return this.missedShifts;
+    }
+
+    /**
+     * Tells how much time the employee worked outside of the schedule.
+     * @return The number of minutes. For example, 45 if the employee stayed 45 
+     * minutes past the end of a shift.
+     */
+    public long getUnscheduledMinutes() {
+        return this.unscheduledMinutes;
+    }
+
+    @Override
+    public String toString() {
+        return this.lateArrivals + " late (" + this.lateMinutes 
+                + " minutes), " + this.earlyDepartures + " early (" 
+                + this.earlyMinutes + " minutes), " + this.missedShifts 
+                + " missed, " + this.unscheduledMinutes 
+                + " unscheduled minutes";
+    }
+
+    ShiftVariance(Employee employee, int late, long lateMins, int early, 
+            long earlyMins, int missed, long unscheduled) {
+        this.employee = employee;
+        this.lateArrivals = late;
+        this.lateMinutes = lateMins;
+        this.earlyDepartures = early;
+        this.earlyMinutes = earlyMins;
+        this.missedShifts = missed;
+        this.unscheduledMinutes = unscheduled;
+    }
+
+}
@@ -20,12 +20,15 @@ package payroll;
 import currency.CurrencyAmount;
 import entities.Employee;
 import time.DateTimeRange;
+import time.PackedDateTimeRange;
+import time.TimeSource;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -49,6 +52,8 @@ public class TimeCard implements Serializable {
     
     private final ArrayList<DateTimeRange> timeBlocks = new ArrayList<>();
     
+    private transient ArrayList<TimeCardListener> listeners;
+    
     public Employee getEmployee() {
         return this.cardOwner;
     }
@@ -69,16 +74,92 @@ public class TimeCard implements Serializable {
         return minutes;
     }
     
+    /**
+     * Works out the pay for this card before taxes, without overtime, at the 
+     * rates of the employee as recorded on this card. The card keeps its own 
+     * copy of the employee, which doesn't pick up rate changes made after the 
+     * card was written. To pay at the rates in the current employee record, 
+     * use {@link #getPreTaxTotal(Employee)} instead.
+     * @return The pay. For example, $140.00 for four hours at $35.00 an hour.
+     */
     public CurrencyAmount getPreTaxTotal() {
-        long minutes = this.getMinutesSoFar();
-        double hours = (double) minutes / 60;
-        return this.cardOwner.getHourlyRate().times(hours);
+        return this.getPreTaxTotal(this.cardOwner);
+    }
+    
+    /**
+     * Works out the pay for this card before taxes, without overtime, at the 
+     * rates of a given record of the card's employee. Each time block is paid 
+     * at the hourly rate in effect during that block, so a raise partway 
+     * through the period only applies to the time worked after it. See {@link 
+     * Employee#getPayFor(java.util.Collection)}.
+     * @param rates The employee record to take the rates from. For example, 
+     * John Lopez's record as just read from the store.
+     * @return The pay. For example, $140.00 for four hours at $35.00 an hour.
+     * @throws IllegalArgumentException If <code>rates</code> has a different 
+     * taxpayer identification number than the card's employee.
+     */
+    public CurrencyAmount getPreTaxTotal(Employee rates) {
+        this.checkSameEmployee(rates);
+        return rates.getPayFor(this.timeBlocks);
+    }
+    
+    /**
+     * Works out the pay for this card before taxes, with overtime, at the 
+     * rates of the employee as recorded on this card. See {@link 
+     * #getPreTaxTotal(Employee, OvertimeRules)}.
+     * @param rules The overtime rules to apply. For example, {@link 
+     * OvertimeRules#CALIFORNIA}.
+     * @return The pay at the employee's hourly rates in effect during the 
+     * time worked, with overtime and double time at the multipliers in 
+     * <code>rules</code>.
+     */
+    public CurrencyAmount getPreTaxTotal(OvertimeRules rules) {
+        return this.getPreTaxTotal(this.cardOwner, rules);
+    }
+    
+    /**
+     * Works out the pay for this card before taxes, with overtime, at the 
+     * rates of a given record of the card's employee. See {@link 
+     * OvertimeCalculator#calculatePay(TimeCard, Employee, OvertimeRules)}.
+     * @param rates The employee record to take the rates from. For example, 
+     * John Lopez's record as just read from the store.
+     * @param rules The overtime rules to apply. For example, {@link 
+     * OvertimeRules#CALIFORNIA}.
+     * @return The pay at the hourly rates in effect during the time worked, 
+     * with overtime and double time at the multipliers in 
+     * <code>rules</code>.
+     * @throws IllegalArgumentException If <code>rates</code> has a different 
+     * taxpayer identification number than the card's employee.
+     */
+    public CurrencyAmount getPreTaxTotal(Employee rates, OvertimeRules rules) {
+        this.checkSameEmployee(rates);
+        return OvertimeCalculator.calculatePay(this, rates, rules);
+    }
+    
+    private void checkSameEmployee(Employee rates) {
+        if (!rates.getTIN().equals(this.cardOwner.getTIN())) {
+            String excMsg = "Rates for " + rates.getFullName() 
+                    + " can't be applied to card of " 
+                    + this.cardOwner.getFullName();
+            throw new IllegalArgumentException(excMsg);
+        }
     }
     
     public boolean isCurrent() {
-        LocalDateTime rightNow = LocalDateTime.now();
-        return (this.cardRange.getStart().isBefore(rightNow) 
-                && this.cardRange.getEnd().isAfter(rightNow));
+        return this.isCurrent(TimeSource.now());
+    }
+    
+    /**
+     * Tells whether this card's pay period includes a given moment. For a scan 
+     * of many cards, it's quicker to get the time once and pass it to this 
+     * function for each card than to call {@link #isCurrent()} for each card.
+     * @param asOf The moment. For example, October 14, 2026 at 1:30 p.m.
+     * @return True if the period started before <code>asOf</code> and ends 
+     * after <code>asOf</code>, false otherwise.
+     */
+    public boolean isCurrent(LocalDateTime asOf) {
+        return (this.cardRange.getStart().isBefore(asOf) 
+                && this.cardRange.getEnd().isAfter(asOf));
     }
     
     public boolean isActive() {
@@ -108,19 +189,47 @@ public class TimeCard implements Serializable {
     }
     
     public void punchIn() {
+        this.punchIn(TimeSource.now());
+    }
+    
+    /**
+     * Punches in at a given time rather than now. This is for restoring a 
+     * card that was punched in when it was copied elsewhere, as well as for 
+     * punches recorded by a time clock and entered later. If the card is 
+     * already punched in, this does nothing.
+     * @param time When the employee punched in. For example, 8:00 a.m. on 
+     * October 12, 2026.
+     */
+    public void punchIn(LocalDateTime time) {
         if (!this.isPunchedIn()) {
             this.hasOngoingTimeBlock = true;
-            this.lastPunchIn = LocalDateTime.now();
+            this.lastPunchIn = time;
+            this.firePunchedIn();
         }
     }
     
     public void punchOut() {
+        this.punchOut(TimeSource.now());
+    }
+    
+    /**
+     * Punches out at a given time rather than now, adding a time block from 
+     * the last punch in to that time. If the card is not punched in, this does 
+     * nothing.
+     * @param time When the employee punched out. For example, 12:00 p.m. on 
+     * October 12, 2026.
+     * @throws IllegalArgumentException If <code>time</code> is before the 
+     * last punch in, or the resulting time block is not within the card's pay 
+     * period. The card is then left punched in, as it was.
+     * @throws IllegalStateException If the card is inactive. The card is then 
+     * left punched in, as it was.
+     */
+    public void punchOut(LocalDateTime time) {
         if (this.isPunchedIn()) {
-            this.hasOngoingTimeBlock = false;
-            LocalDateTime punchOutTime = LocalDateTime.now();
-            DateTimeRange block = new DateTimeRange(this.lastPunchIn, 
-                    punchOutTime);
+            DateTimeRange block = new DateTimeRange(this.lastPunchIn, time);
             this.addTimeBlock(block);
+            this.hasOngoingTimeBlock = false;
+            this.firePunchedOut();
         }
     }
     
@@ -128,16 +237,138 @@ public class TimeCard implements Serializable {
         return this.hasOngoingTimeBlock;
     }
     
+    /**
+     * Tells when the employee last punched in on this card.
+     * @return The time of the last punch in. For example, 8:00 a.m. on 
+     * October 12, 2026. Null if the employee has never punched in on this 
+     * card.
+     */
+    public LocalDateTime getLastPunchIn() {
+        return this.lastPunchIn;
+    }
+    
     public ArrayList<DateTimeRange> getTimeBlocks() {
         return this.timeBlocks;
     }
     
+    /**
+     * Merges any of this card's time blocks that overlap or touch, as happens 
+     * when the same punches are recorded by two terminals. See {@link 
+     * DateTimeRange#coalesce(java.util.Collection)}.
+     * @return How many blocks were merged away. For example, 2 if the card had 
+     * six blocks and has four afterwards.
+     */
+    public int coalesceTimeBlocks() {
+        int before = this.timeBlocks.size();
+        List<DateTimeRange> coalesced 
+                = DateTimeRange.coalesce(this.timeBlocks);
+        this.timeBlocks.clear();
+        this.timeBlocks.addAll(coalesced);
+        return before - coalesced.size();
+    }
+
+    /**
+     * Rounds this card's time blocks, the start of each block as a punch in 
+     * and the end as a punch out. A block left with no time by the rounding 
+     * is removed, and a block rounded past the start or end of the card's pay 
+     * period is cut off there.
+     * @param rules The rounding rules. For example, {@link 
+     * RoundingRules#NEAREST_QUARTER_HOUR}.
+     * @return How many blocks were changed or removed. For example, 3.
+     */
+    public int roundTimeBlocks(RoundingRules rules) {
+        int count = this.timeBlocks.size();
+        long[] packed = new long[count];
+        for (int i = 0; i < count; i++) {
+            packed[i] = PackedDateTimeRange.pack(this.timeBlocks.get(i));
+        }
+        rules.roundAll(packed);
+        LocalDateTime periodStart = this.cardRange.getStart();
+        LocalDateTime periodEnd = this.cardRange.getEnd();
+        int changed = 0;
+        ArrayList<DateTimeRange> rounded = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime start = PackedDateTimeRange.getStart(packed[i]);
+            LocalDateTime end = PackedDateTimeRange.getEnd(packed[i]);
+            if (start.isBefore(periodStart)) {
+                start = periodStart;
+            }
+            if (end.isAfter(periodEnd)) {
+                end = periodEnd;
+            }
+            DateTimeRange original = this.timeBlocks.get(i);
+            if (start.isBefore(end)) {
+                DateTimeRange block = new DateTimeRange(start, end);
+                if (!block.equals(original)) {
+                    changed++;
+                }
+                rounded.add(block);
+            } else {
+                changed++;
+            }
+        }
+        this.timeBlocks.clear();
+        this.timeBlocks.addAll(rounded);
+        Collections.sort(this.timeBlocks);
+        return changed;
+    }
+    
+    /**
+     * Adds a listener to be notified of changes to this card. The listener is 
+     * not serialized with the card.
+     * @param listener The listener to add. Should not be null.
+     */
+    public void addTimeCardListener(TimeCardListener listener) {
+        if (this.listeners == null) {
+            this.listeners = new ArrayList<>();
+        }
+        this.listeners.add(listener);
+    }
+    
+    /**
+     * Removes a listener that was added with {@link 
+     * #addTimeCardListener(TimeCardListener)}. Removing a listener that was 
+     * never added does nothing.
+     * @param listener The listener to remove.
+     */
+    public void removeTimeCardListener(TimeCardListener listener) {
+        if (this.listeners != null) {
+            this.listeners.remove(listener);
+        }
+    }
+    
+    private void fireStatusChanged() {
+        if (this.listeners != null) {
+            for (TimeCardListener listener : this.listeners) {
+                listener.statusChanged(this);
+            }
+        }
+    }
+    
+    private void firePunchedIn() {
+        if (this.listeners != null) {
+            for (TimeCardListener listener : this.listeners) {
+                listener.punchedIn(this);
+            }
+        }
+    }
+    
+    private void firePunchedOut() {
+        if (this.listeners != null) {
+            for (TimeCardListener listener : this.listeners) {
+                listener.punchedOut(this);
+            }
+        }
+    }
+    
     public void markActive() {
         this.activeFlag = true;
+        this.fireStatusChanged();
     }
     
     public void markInactive() {
         this.activeFlag = false;
+        this.fireStatusChanged();
     }
     
     public void markVerified() {
@@ -147,6 +378,7 @@ public class TimeCard implements Serializable {
             throw new IllegalStateException(excMsg);
         }
         this.verifiedFlag = true;
+        this.fireStatusChanged();
     }
     
     public void markPaid() {
@@ -156,6 +388,7 @@ public class TimeCard implements Serializable {
         }
         this.paidFlag = true;
         this.activeFlag = false;
+        this.fireStatusChanged();
     }
 
     // Auto-generated by NetBeans 11.2
@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package payroll;
+
+import java.util.EventListener;
+
+/**
+ * Gets notified of changes to a time card. This is how indexes and other 
+ * structures kept alongside the time cards can be kept up to date without the 
+ * time card having to know about them. Listeners are not serialized with the 
+ * card, so they have to be added again each time a card is read back.
+ * @author Alonso del Arte
+ */
+public interface TimeCardListener extends EventListener {
+    
+    /**
+     * Called after the card's active, verified or paid status has been 
+     * changed by {@link TimeCard#markActive()}, {@link 
+     * TimeCard#markInactive()}, {@link TimeCard#markVerified()} or {@link 
+     * TimeCard#markPaid()}.
+     * @param card The card whose status changed.
+     */
+    void statusChanged(TimeCard card);
+    
+    /**
+     * Called after the employee has punched in on the card with {@link 
+     * TimeCard#punchIn()} or {@link TimeCard#punchIn(java.time.LocalDateTime)}. 
+     * Not called if the card was already punched in. By default this does 
+     * nothing.
+     * @param card The card that was punched in. The time of the punch is given 
+     * by {@link TimeCard#getLastPunchIn()}.
+     */
+    default void punchedIn(TimeCard card) {
+        // Nothing to do by default
+    }
+    
+    /**
+     * Called after the employee has punched out on the card with {@link 
+     * TimeCard#punchOut()} or {@link 
+     * TimeCard#punchOut(java.time.LocalDateTime)}. Not called if the card was 
+     * not punched in. By default this does nothing.
+     * @param card The card that was punched out.
+     */
+    default void punchedOut(TimeCard card) {
+        // Nothing to do by default
+    }
+    
+}
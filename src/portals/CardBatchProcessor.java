@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import payroll.TimeCard;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Verifies or pays all the time cards of a pay period at once. The cards are 
+ * found through the store's {@link PeriodIndex}, marked and serialized in 
+ * parallel, and then written back to the store in a single batch with {@link 
+ * RecordStore#writeAll(Map)}, so that a store that forces each write to the 
+ * disk, such as {@link LogStructuredRecordStore}, only does so once for the 
+ * whole period rather than once per card. The {@link CardStatusIndex} is 
+ * then brought up to date, also in a single batch.
+ * <p>A card kept as a stream of events by {@link CardEventJournal} gets a new 
+ * snapshot taking the place of its events, so that replaying them doesn't 
+ * undo the marking. The whole batch is processed while synchronized on the 
+ * store, so a punch can't slip in between reading a card and writing it 
+ * back.</p>
+ * <p>A card that can't be marked, such as a card whose period is not over 
+ * yet or an unverified card that is to be paid, is left as it is in the 
+ * store and reported in the {@link BatchResult}.</p>
+ * @author Alonso del Arte
+ */
+public class CardBatchProcessor {
+
+    /**
+     * The outcome of verifying or paying a batch of cards.
+     */
+    public static class BatchResult {
+
+        private final int processedCount;
+
+        private final int skippedCount;
+
+        private final Map<TimeCard, String> failures;
+
+        /**
+         * Tells how many cards were marked and written back to the store.
+         * @return The number of cards marked. For example, 12.
+         */
+        public int getProcessedCount() {
+            return this.processedCount;
+        }
+
+        /**
+         * Tells how many cards were left alone because they had already been 
+         * verified or paid, as the case may be.
+         * @return The number of cards skipped. For example, 0.
+         */
+        public int getSkippedCount() {
+            return this.skippedCount;
+        }
+
+        /**
+         * Gives the cards that could not be marked, and why.
+         * @return The cards, in the order of the period index, each with the 
+         * reason it could not be marked. For example, "Card can't be verified 
+         * before 2026-10-18T23:59". It will be an empty map if all the cards 
+         * were marked or skipped.
+         */
+        public Map<TimeCard, String> getFailures() {
+            return this.failures;
+        }
+
+        @Override
+        public String toString() {
+            return this.processedCount + " processed, " + this.skippedCount 
+                    + " skipped, " + this.failures.size() + " failed";
+        }
+
+        BatchResult(int processed, int skipped, 
+                Map<TimeCard, String> failed) {
+            this.processedCount = processed;
+            this.skippedCount = skipped;
+            this.failures = Collections.unmodifiableMap(failed);
+        }
+
+    }
+
+    /**
+     * What happened to one card of a batch.
+     */
+    private static class Outcome {
+
+        private final TimeCard card;
+
+        private final byte[] encoded;
+
+        private final String failure;
+
+        Outcome(TimeCard card, byte[] encoded, String failure) {
+            this.card = card;
+            this.encoded = encoded;
+            this.failure = failure;
+        }
+
+    }
+
+    private final RecordStore store;
+
+    private static Outcome mark(TimeCard card, Consumer<TimeCard> marker) {
+        try {
+            marker.accept(card);
+        } catch (IllegalStateException ise) {
+            return new Outcome(card, null, ise.getMessage());
+        }
+        try {
+            return new Outcome(card, RecordCodec.encode(card), null);
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+    }
+
+    private BatchResult process(LocalDateTime periodStart, 
+            Predicate<? super TimeCard> filter, 
+            Predicate<TimeCard> alreadyDone, Consumer<TimeCard> marker) 
+            throws ClassNotFoundException, IOException {
+        synchronized (this.store) {
+            List<TimeCard> pending = new ArrayList<>();
+            int skipped = 0;
+            for (TimeCard card : TimeCardsProcessor.getCards(this.store, 
+                    periodStart)) {
+                if (filter.test(card)) {
+                    if (alreadyDone.test(card)) {
+                        skipped++;
+                    } else {
+                        pending.add(card);
+                    }
+                }
+            }
+            List<Outcome> outcomes;
+            try {
+                outcomes = pending.parallelStream()
+                        .map((card) -> mark(card, marker))
+                        .collect(Collectors.toList());
+            } catch (UncheckedIOException uioe) {
+                throw uioe.getCause();
+            }
+            Map<String, byte[]> records = new HashMap<>();
+            List<TimeCard> marked = new ArrayList<>();
+            Map<TimeCard, String> failures = new LinkedHashMap<>();
+            for (Outcome outcome : outcomes) {
+                if (outcome.failure == null) {
+                    records.put(RecordKeys.cardKey(outcome.card), 
+                            outcome.encoded);
+                    marked.add(outcome.card);
+                } else {
+                    failures.put(outcome.card, outcome.failure);
+                }
+            }
+            this.store.writeAll(records);
+            for (TimeCard card : marked) {
+                CardEventJournal.supersede(this.store, card, false);
+            }
+            new CardStatusIndex(this.store).updateAll(marked);
+            return new BatchResult(marked.size(), skipped, failures);
+        }
+    }
+
+    /**
+     * Verifies the cards of a pay period.
+     * @param periodStart The start of the pay period. For example, October 5, 
+     * 2026 at 12:00 a.m.
+     * @param filter Which of the period's cards to verify. For example, 
+     * <code>TimeCard::isActive</code>.
+     * @return How many cards were verified, how many had already been 
+     * verified, and which could not be verified and why, as for example 
+     * because the period is not over yet.
+     * @throws ClassNotFoundException If there is a deserialization problem 
+     * with the cards in the store.
+     * @throws IOException If there is a problem reading or writing the store.
+     */
+    public BatchResult verifyAll(LocalDateTime periodStart, 
+            Predicate<? super TimeCard> filter) 
+            throws ClassNotFoundException, IOException {
+        return this.process(periodStart, filter, TimeCard::hasBeenVerified, 
+                TimeCard::markVerified);
+    }
+
+    /**
+     * Marks the cards of a pay period paid.
+     * @param periodStart The start of the pay period. For example, October 5, 
+     * 2026 at 12:00 a.m.
+     * @param filter Which of the period's cards to mark paid. For example, 
+     * <code>(card) -&gt; true</code> for all of them.
+     * @return How many cards were marked paid, how many had already been 
+     * paid, and which could not be marked paid and why, as for example 
+     * because they have not been verified.
+     * @throws ClassNotFoundException If there is a deserialization problem 
+     * with the cards in the store.
+     * @throws IOException If there is a problem reading or writing the store.
+     */
+    public BatchResult payAll(LocalDateTime periodStart, 
+            Predicate<? super TimeCard> filter) 
+            throws ClassNotFoundException, IOException {
+        return this.process(periodStart, filter, TimeCard::hasBeenPaid, 
+                TimeCard::markPaid);
+    }
+
+    /**
+     * Constructor.
+     * @param recordStore The store to read the cards from and write them back 
+     * to. For example, a {@link LogStructuredRecordStore}.
+     */
+    public CardBatchProcessor(RecordStore recordStore) {
+        this.store = recordStore;
+    }
+
+}
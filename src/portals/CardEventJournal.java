@@ -0,0 +1,636 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import entities.Employee;
+import payroll.TimeCard;
+import time.DateTimeRange;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps time cards in a {@link RecordStore} as streams of events, so that a 
+ * punch is a single small write rather than a rewrite of the whole card. Each 
+ * card has a snapshot, under the key given by {@link 
+ * RecordKeys#eventStreamKey(Employee, LocalDateTime)}, and the events since 
+ * that snapshot, each under that key followed by a period and a sequence 
+ * number. The last sequence number used is kept in a small record of its 
+ * own, under the key given by {@link RecordKeys#eventSequenceKey(Employee, 
+ * LocalDateTime)}, so a punch reads and writes just that record and the 
+ * event, without having to list the keys in the store. A card is put back 
+ * together by reading the snapshot and replaying the events after it, in 
+ * order.
+ * <p>Every so many events, as set by the snapshot interval, a new snapshot is 
+ * written and the events it covers are deleted, so the replay is never long. 
+ * The snapshot records the sequence number of the last event it covers, so 
+ * if the program stops after writing a snapshot but before deleting the 
+ * events, those events are not applied twice. At each snapshot, the card is 
+ * also written whole under its usual key.</p>
+ * <p>The functions of {@link TimeCardsProcessor}, {@link PeriodIndex} and 
+ * {@link CardStatusIndex} that retrieve cards replay the events of any card 
+ * that has a stream, so they see every punch as soon as it is recorded. When 
+ * a card is written whole, whether with {@link 
+ * TimeCardsProcessor#putCard(RecordStore, TimeCard)} or in a batch by {@link 
+ * CardBatchProcessor}, a new snapshot is written for it and its events are 
+ * deleted, so the whole card takes the place of the events rather than being 
+ * undone by them.</p>
+ * <p>A card that has no snapshot yet, such as a card written before this 
+ * journal was used, is read from its usual key and taken as the starting 
+ * point for its events.</p>
+ * <p>Nothing about the streams is kept in the journal itself. The last 
+ * sequence number of a card is read from the store each time, and updates 
+ * synchronize on the store, so any number of journals, and the functions of 
+ * {@link TimeCardsProcessor}, may be used on the same store at once.</p>
+ * @author Alonso del Arte
+ */
+public class CardEventJournal {
+
+    /**
+     * How many events are appended to a card before a new snapshot is taken, 
+     * if not specified otherwise.
+     */
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 32;
+
+    /**
+     * The kinds of things that can happen to a time card.
+     */
+    public enum EventType {
+
+        /**
+         * The employee punched in. See {@link TimeCard#punchIn(LocalDateTime)}.
+         */
+        PUNCH_IN,
+
+        /**
+         * The employee punched out. See {@link 
+         * TimeCard#punchOut(LocalDateTime)}.
+         */
+        PUNCH_OUT,
+
+        /**
+         * A time block was added by hand, as for example to make up for a 
+         * missed punch. See {@link TimeCard#addTimeBlock(DateTimeRange)}.
+         */
+        ADJUST,
+
+        /**
+         * The card was marked active. See {@link TimeCard#markActive()}.
+         */
+        ACTIVATE,
+
+        /**
+         * The card was marked inactive. See {@link TimeCard#markInactive()}.
+         */
+        DEACTIVATE,
+
+        /**
+         * The card was verified. See {@link TimeCard#markVerified()}.
+         */
+        VERIFY,
+
+        /**
+         * The card was paid. See {@link TimeCard#markPaid()}.
+         */
+        PAY
+
+    }
+
+    private static final EventType[] EVENT_TYPES = EventType.values();
+
+    private static final int TIME_BYTES = Long.BYTES + Integer.BYTES;
+
+    private final RecordStore store;
+
+    private final int snapshotInterval;
+
+    private static String eventKey(String streamKey, long sequence) {
+        return streamKey + "." + String.format("%019d", sequence);
+    }
+
+    static String streamKey(TimeCard card) {
+        return RecordKeys.eventStreamKey(card.getEmployee(), 
+                card.getStartTime());
+    }
+
+    private static String sequenceKey(TimeCard card) {
+        return RecordKeys.eventSequenceKey(card.getEmployee(), 
+                card.getStartTime());
+    }
+
+    private static byte[] encodeSequence(long sequence) {
+        return ByteBuffer.allocate(Long.BYTES).putLong(sequence).array();
+    }
+
+    private static long decodeSequence(byte[] data) {
+        return ByteBuffer.wrap(data).getLong();
+    }
+
+    private static void putTime(ByteBuffer buffer, LocalDateTime time) {
+        buffer.putLong(time.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(time.getNano());
+    }
+
+    private static LocalDateTime getTime(ByteBuffer buffer) {
+        long seconds = buffer.getLong();
+        int nanos = buffer.getInt();
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    static byte[] encodeEvent(EventType type, LocalDateTime... times) {
+        ByteBuffer buffer = ByteBuffer.allocate(1 + times.length * TIME_BYTES);
+        buffer.put((byte) type.ordinal());
+        for (LocalDateTime time : times) {
+            putTime(buffer, time);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Applies an encoded event to a card.
+     * @throws IOException If the event is not one of the known types or is 
+     * cut short.
+     */
+    static void applyEvent(TimeCard card, byte[] event) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(event);
+        int ordinal = event.length == 0 ? -1 : buffer.get();
+        if (ordinal < 0 || ordinal >= EVENT_TYPES.length) {
+            throw new IOException("Unrecognized time card event " + ordinal);
+        }
+        try {
+            switch (EVENT_TYPES[ordinal]) {
+                case PUNCH_IN:
+                    card.punchIn(getTime(buffer));
+                    break;
+                case PUNCH_OUT:
+                    card.punchOut(getTime(buffer));
+                    break;
+                case ADJUST:
+                    LocalDateTime start = getTime(buffer);
+                    card.addTimeBlock(new DateTimeRange(start, 
+                            getTime(buffer)));
+                    break;
+                case ACTIVATE:
+                    card.markActive();
+                    break;
+                case DEACTIVATE:
+                    card.markInactive();
+                    break;
+                case VERIFY:
+                    card.markVerified();
+                    break;
+                case PAY:
+                    card.markPaid();
+                    break;
+                default:
+                    throw new AssertionError("Unhandled " 
+                            + EVENT_TYPES[ordinal]);
+            }
+        } catch (BufferUnderflowException bue) {
+            String excMsg = "Time card event " + EVENT_TYPES[ordinal] 
+                    + " is cut short";
+            throw new IOException(excMsg, bue);
+        }
+    }
+
+    private static byte[] encodeSnapshot(long sequence, TimeCard card) 
+            throws IOException {
+        byte[] cardBytes = RecordCodec.encode(card);
+        return ByteBuffer.allocate(Long.BYTES + cardBytes.length)
+                .putLong(sequence).put(cardBytes).array();
+    }
+
+    private static long snapshotSequence(byte[] snapshot) {
+        return ByteBuffer.wrap(snapshot).getLong();
+    }
+
+    private static TimeCard snapshotCard(byte[] snapshot) 
+            throws ClassNotFoundException, IOException {
+        byte[] cardBytes = new byte[snapshot.length - Long.BYTES];
+        System.arraycopy(snapshot, Long.BYTES, cardBytes, 0, cardBytes.length);
+        return RecordCodec.decode(cardBytes, TimeCard.class);
+    }
+
+    private static long sequenceOf(String eventKey) {
+        return Long.parseLong(eventKey.substring(eventKey.lastIndexOf('.') 
+                + 1));
+    }
+
+    /**
+     * Writes a new snapshot of a card covering all of its events so far, and 
+     * deletes those events. The events are found from the sequence numbers 
+     * in the old snapshot and the card's sequence record, so the keys in the 
+     * store need not be listed. If <code>always</code> is false and the card 
+     * has no stream, nothing is written. Must be called while synchronized on 
+     * the store.
+     */
+    static void supersede(RecordStore store, TimeCard card, boolean always) 
+            throws IOException {
+        String streamKey = streamKey(card);
+        String sequenceKey = sequenceKey(card);
+        byte[] counter = store.read(sequenceKey);
+        byte[] oldSnapshot = store.read(streamKey);
+        if (counter == null && oldSnapshot == null && !always) {
+            return;
+        }
+        long covered = (oldSnapshot == null) ? 0L 
+                : snapshotSequence(oldSnapshot);
+        long sequence = (counter == null) ? covered 
+                : decodeSequence(counter);
+        Map<String, byte[]> records = new LinkedHashMap<>();
+        records.put(sequenceKey, encodeSequence(sequence));
+        records.put(streamKey, encodeSnapshot(sequence, card));
+        store.writeAll(records);
+        for (long s = covered + 1; s <= sequence; s++) {
+            store.delete(eventKey(streamKey, s));
+        }
+    }
+
+    /**
+     * Deletes a card's snapshot, events and sequence record, as when the card 
+     * itself is removed from the store.
+     */
+    static void deleteStream(RecordStore store, TimeCard card) 
+            throws IOException {
+        synchronized (store) {
+            for (String key : store.keys(streamKey(card))) {
+                store.delete(key);
+            }
+            store.delete(sequenceKey(card));
+        }
+    }
+
+    /**
+     * Puts a card back together from its snapshot, or if it has none, from 
+     * the card under its usual key, and the events after that.
+     * @param lastSequence The last sequence number used by the card, from 
+     * its sequence record.
+     * @param stored The card under its usual key, if already read, or null.
+     */
+    private static TimeCard replay(RecordStore store, Employee employee, 
+            LocalDateTime periodStart, long lastSequence, TimeCard stored) 
+            throws ClassNotFoundException, IOException {
+        String streamKey = RecordKeys.eventStreamKey(employee, periodStart);
+        TimeCard card = stored;
+        long sequence = 0L;
+        byte[] snapshot = store.read(streamKey);
+        if (snapshot != null) {
+            card = snapshotCard(snapshot);
+            sequence = snapshotSequence(snapshot);
+        }
+        if (card == null) {
+            card = TimeCardsProcessor.readCard(store, 
+                    RecordKeys.cardKey(employee, periodStart));
+        }
+        for (long s = sequence + 1; s <= lastSequence; s++) {
+            byte[] event = store.read(eventKey(streamKey, s));
+            if (event != null) {
+                if (card == null) {
+                    String excMsg = "Events found for " + streamKey 
+                            + " but no snapshot or card";
+                    throw new IOException(excMsg);
+                }
+                applyEvent(card, event);
+            }
+        }
+        return card;
+    }
+
+    /**
+     * Reads the current state of an employee's card for a period, replaying 
+     * its events if it has a stream.
+     * @return The card, or null if there is no such card.
+     */
+    static TimeCard readCurrent(RecordStore store, Employee employee, 
+            LocalDateTime periodStart) 
+            throws ClassNotFoundException, IOException {
+        synchronized (store) {
+            byte[] counter = store.read(RecordKeys.eventSequenceKey(employee, 
+                    periodStart));
+            if (counter == null) {
+                return TimeCardsProcessor.readCard(store, 
+                        RecordKeys.cardKey(employee, periodStart));
+            }
+            return replay(store, employee, periodStart, 
+                    decodeSequence(counter), null);
+        }
+    }
+
+    /**
+     * Brings cards read from their usual keys up to date by replaying the 
+     * events of those that have streams. The store is asked just once for 
+     * each pay period of the cards which of that period's cards have 
+     * streams, so this is meant for reading many cards at once. Cards without 
+     * streams are left as they are.
+     * @param cards The cards, which are replaced in the list as needed.
+     */
+    static void bringUpToDate(RecordStore store, List<TimeCard> cards) 
+            throws ClassNotFoundException, IOException {
+        if (cards.isEmpty()) {
+            return;
+        }
+        synchronized (store) {
+            Set<LocalDateTime> periodStarts = new HashSet<>();
+            Set<String> sequenceKeys = new HashSet<>();
+            for (TimeCard card : cards) {
+                if (periodStarts.add(card.getStartTime())) {
+                    sequenceKeys.addAll(store.keys(RecordKeys
+                            .eventSequencePrefix(card.getStartTime())));
+                }
+            }
+            if (sequenceKeys.isEmpty()) {
+                return;
+            }
+            for (int i = 0; i < cards.size(); i++) {
+                TimeCard card = cards.get(i);
+                String sequenceKey = sequenceKey(card);
+                if (sequenceKeys.contains(sequenceKey)) {
+                    byte[] counter = store.read(sequenceKey);
+                    if (counter != null) {
+                        cards.set(i, replay(store, card.getEmployee(), 
+                                card.getStartTime(), 
+                                decodeSequence(counter), card));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Appends an event to a card's stream, taking a snapshot if the snapshot 
+     * interval has been reached. The event must already have been applied to 
+     * <code>card</code>. The sequence record is written in the same batch as 
+     * the event, and ahead of it, so that a sequence number is never used 
+     * twice. Must be called while synchronized on the store.
+     */
+    private void append(TimeCard card, byte[] event) throws IOException {
+        String streamKey = streamKey(card);
+        String sequenceKey = sequenceKey(card);
+        byte[] counter = this.store.read(sequenceKey);
+        long sequence = 1L;
+        if (counter != null) {
+            sequence += decodeSequence(counter);
+        } else {
+            byte[] snapshot = this.store.read(streamKey);
+            if (snapshot != null) {
+                sequence += snapshotSequence(snapshot);
+            }
+        }
+        Map<String, byte[]> records = new LinkedHashMap<>();
+        records.put(sequenceKey, encodeSequence(sequence));
+        records.put(eventKey(streamKey, sequence), event);
+        this.store.writeAll(records);
+        if (sequence % this.snapshotInterval == 0) {
+            this.snapshot(card);
+        }
+    }
+
+    /**
+     * Appends a status event to a card's stream and brings the card's flags 
+     * up to date in the store's {@link CardStatusIndex}. Must be called while 
+     * synchronized on the store.
+     */
+    private void appendStatus(TimeCard card, EventType type) 
+            throws IOException {
+        this.append(card, encodeEvent(type));
+        new CardStatusIndex(this.store).update(card);
+    }
+
+    /**
+     * Starts the stream of events of a new card by writing its first snapshot, 
+     * and writes the card under its usual key. If the card already has a 
+     * stream, it is replaced.
+     * @param card The card. For example, John Lopez's card for the week of 
+     * October 12, 2026.
+     * @throws IOException If there is a problem writing to the store.
+     */
+    public void create(TimeCard card) throws IOException {
+        synchronized (this.store) {
+            supersede(this.store, card, true);
+            TimeCardsProcessor.writeCard(this.store, card);
+        }
+    }
+
+    /**
+     * Writes a new snapshot of a card covering all the events appended so 
+     * far, deletes those events, and writes the card under its usual key. 
+     * This happens on its own every so many events, but may also be done, for 
+     * example, before a card is archived.
+     * @param card The card, with all of its events applied. For example, John 
+     * Lopez's card for the week of October 12, 2026.
+     * @throws IOException If there is a problem reading or writing the store.
+     */
+    public void snapshot(TimeCard card) throws IOException {
+        synchronized (this.store) {
+            supersede(this.store, card, true);
+            TimeCardsProcessor.writeCard(this.store, card);
+        }
+    }
+
+    /**
+     * Punches a card in and records the punch. If the card is already punched 
+     * in, nothing is recorded.
+     * @param card The card. For example, John Lopez's card for the week of 
+     * October 12, 2026.
+     * @param time When the employee punched in. For example, 8:00 a.m. on 
+     * October 12, 2026.
+     * @throws IOException If there is a problem writing to the store.
+     */
+    public void punchIn(TimeCard card, LocalDateTime time) 
+            throws IOException {
+        synchronized (this.store) {
+            if (!card.isPunchedIn()) {
+                card.punchIn(time);
+                this.append(card, encodeEvent(EventType.PUNCH_IN, time));
+            }
+        }
+    }
+
+    /**
+     * Punches a card out and records the punch. If the card is not punched 
+     * in, nothing is recorded.
+     * @param card The card. For example, John Lopez's card for the week of 
+     * October 12, 2026.
+     * @param time When the employee punched out. For example, 12:00 p.m. on 
+     * October 12, 2026.
+     * @throws IllegalArgumentException If the card rejects the punch, in 
+     * which case nothing is recorded. See {@link 
+     * TimeCard#punchOut(LocalDateTime)}.
+     * @throws IOException If there is a problem writing to the store.
+     */
+    public void punchOut(TimeCard card, LocalDateTime time) 
+            throws IOException {
+        synchronized (this.store) {
+            if (card.isPunchedIn()) {
+                card.punchOut(time);
+                this.append(card, encodeEvent(EventType.PUNCH_OUT, time));
+            }
+        }
+    }
+
+    /**
+     * Adds a time block to a card by hand and records the adjustment.
+     * @param card The card. For example, John Lopez's card for the week of 
+     * October 12, 2026.
+     * @param block The time block. For example, 1:00 p.m. to 5:00 p.m. on 
+     * October 12, 2026.
+     * @throws IllegalArgumentException If the block is not within the card's 
+     * pay period, in which case nothing is recorded.
+     * @throws IOException If there is a problem writing to the store.
+     */
+    public void adjust(TimeCard card, DateTimeRange block) 
+            throws IOException {
+        synchronized (this.store) {
+            card.addTimeBlock(block);
+            this.append(card, encodeEvent(EventType.ADJUST, block.getStart(), 
+                    block.getEnd()));
+        }
+    }
+
+    public void markActive(TimeCard card) throws IOException {
+        synchronized (this.store) {
+            card.markActive();
+            this.appendStatus(card, EventType.ACTIVATE);
+        }
+    }
+
+    public void markInactive(TimeCard card) throws IOException {
+        synchronized (this.store) {
+            card.markInactive();
+            this.appendStatus(card, EventType.DEACTIVATE);
+        }
+    }
+
+    /**
+     * Marks a card verified and records the verification.
+     * @param card The card. For example, John Lopez's card for the week of 
+     * October 5, 2026.
+     * @throws IllegalStateException If the card's pay period is not over yet, 
+     * in which case nothing is recorded.
+     * @throws IOException If there is a problem writing to the store.
+     */
+    public void markVerified(TimeCard card) throws IOException {
+        synchronized (this.store) {
+            card.markVerified();
+            this.appendStatus(card, EventType.VERIFY);
+        }
+    }
+
+    /**
+     * Marks a card paid and records the payment.
+     * @param card The card. For example, John Lopez's card for the week of 
+     * October 5, 2026.
+     * @throws IllegalStateException If the card has not been verified, in 
+     * which case nothing is recorded.
+     * @throws IOException If there is a problem writing to the store.
+     */
+    public void markPaid(TimeCard card) throws IOException {
+        synchronized (this.store) {
+            card.markPaid();
+            this.appendStatus(card, EventType.PAY);
+        }
+    }
+
+    /**
+     * Puts an employee's time card back together from its latest snapshot and 
+     * the events since.
+     * @param employee The employee. For example, John Lopez, SSN 750-10-1729.
+     * @param periodStart The start of the pay period. For example, October 12, 
+     * 2026 at 12:00 a.m.
+     * @return The card, or null if the store has neither a snapshot nor a 
+     * card for that employee and period.
+     * @throws ClassNotFoundException If there is a deserialization problem.
+     * @throws IOException If there is a problem reading the store, or one of 
+     * the events can't be read.
+     */
+    public TimeCard getCard(Employee employee, LocalDateTime periodStart) 
+            throws ClassNotFoundException, IOException {
+        return readCurrent(this.store, employee, periodStart);
+    }
+
+    /**
+     * Tells how many events have been appended to a card since its latest 
+     * snapshot. These are the events that have to be replayed to put the card 
+     * back together.
+     * @param employee The employee. For example, John Lopez, SSN 750-10-1729.
+     * @param periodStart The start of the pay period. For example, October 12, 
+     * 2026 at 12:00 a.m.
+     * @return The number of events. For example, 3.
+     * @throws IOException If there is a problem reading the store.
+     */
+    public int getPendingEventCount(Employee employee, 
+            LocalDateTime periodStart) throws IOException {
+        String streamKey = RecordKeys.eventStreamKey(employee, periodStart);
+        synchronized (this.store) {
+            byte[] snapshot = this.store.read(streamKey);
+            long sequence = (snapshot == null) ? 0L 
+                    : snapshotSequence(snapshot);
+            int count = 0;
+            for (String key : this.store.keys(streamKey + ".")) {
+                if (sequenceOf(key) > sequence) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Gives how many events are appended to a card between snapshots.
+     * @return The snapshot interval. For example, 32.
+     */
+    public int getSnapshotInterval() {
+        return this.snapshotInterval;
+    }
+
+    /**
+     * Constructor with the default snapshot interval, {@value 
+     * #DEFAULT_SNAPSHOT_INTERVAL}.
+     * @param recordStore The store to keep the snapshots and events in.
+     */
+    public CardEventJournal(RecordStore recordStore) {
+        this(recordStore, DEFAULT_SNAPSHOT_INTERVAL);
+    }
+
+    /**
+     * Constructor.
+     * @param recordStore The store to keep the snapshots and events in.
+     * @param interval How many events to append to a card before taking a new 
+     * snapshot. For example, 32.
+     * @throws IllegalArgumentException If <code>interval</code> is less than 
+     * 1.
+     */
+    public CardEventJournal(RecordStore recordStore, int interval) {
+        if (interval < 1) {
+            String excMsg = "Snapshot interval " + interval 
+                    + " should be at least 1";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.store = recordStore;
+        this.snapshotInterval = interval;
+    }
+
+}
@@ -0,0 +1,489 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import payroll.TimeCard;
+import payroll.TimeCardListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Indexes the time cards in a {@link RecordStore} by their status flags, so 
+ * that, for example, the cards awaiting verification can be found by scanning 
+ * a few bitmaps rather than deserializing every card in the store.
+ * <p>Each card is given an ordinal number the first time it is indexed. The 
+ * ordinals are grouped into segments of {@value #SEGMENT_SIZE} cards, and for 
+ * each segment the store holds one record with one bitmap per {@link Flag}. 
+ * Updating a card's status rewrites only the small bitmap record of its 
+ * segment. Each ordinal is mapped to its card key by a small record of its 
+ * own, and each card key to its ordinal by another, so that adding a card to 
+ * the index writes only a few small records no matter how many cards are 
+ * already indexed.</p>
+ * <p>The record for a new ordinal is written before the count of ordinals is 
+ * updated, and the next ordinal is taken to be the first one past the count 
+ * that has no such record. So if the program stops partway through adding a 
+ * card, the next card added does not reuse an ordinal that may already be 
+ * taken.</p>
+ * <p>The index is updated whenever a card is put back in the store by {@link 
+ * TimeCardsProcessor#putCard(RecordStore, TimeCard)}. An index can also be 
+ * added to a card as a {@link TimeCardListener}, in which case it is updated 
+ * as soon as the card is marked. Either way the index may run ahead of the 
+ * cards in the store, so the functions that retrieve cards check the flags of 
+ * each card retrieved.</p>
+ * <p>Instances keep no state other than the store, so any number of them may 
+ * be used on the same store. Updates synchronize on the store.</p>
+ * @author Alonso del Arte
+ */
+public class CardStatusIndex implements TimeCardListener {
+    
+    /**
+     * The status flags kept in the index.
+     */
+    public enum Flag {
+    
+        /**
+         * Whether the card is in the store at all. Archived cards are not.
+         */
+        PRESENT,
+    
+        /**
+         * Whether the card is active, as given by {@link TimeCard#isActive()}.
+         */
+        ACTIVE,
+    
+        /**
+         * Whether the card has been verified, as given by {@link 
+         * TimeCard#hasBeenVerified()}.
+         */
+        VERIFIED,
+    
+        /**
+         * Whether the card has been paid, as given by {@link 
+         * TimeCard#hasBeenPaid()}.
+         */
+        PAID
+    
+    }
+    
+    /**
+     * How many cards are in each segment of the index.
+     */
+    public static final int SEGMENT_SIZE = 4096;
+    
+    private static final int FLAG_COUNT = Flag.values().length;
+    
+    private static final int WORDS_PER_BITMAP = SEGMENT_SIZE / Long.SIZE;
+    
+    static final String PREFIX = "PersProgidxstatus";
+    
+    private static final String COUNT_KEY = PREFIX + "count";
+    
+    private static final String ORDINAL_PREFIX = PREFIX + "ord.";
+    
+    private static final String KEYS_PREFIX = PREFIX + "key.";
+    
+    private static final String BITS_PREFIX = PREFIX + "bits";
+    
+    private final RecordStore store;
+    
+    private static String segmentSuffix(int segment) {
+        return String.format("%06d", segment);
+    }
+    
+    private BitSet[] readBitmaps(int segment) throws IOException {
+        BitSet[] bitmaps = new BitSet[FLAG_COUNT];
+        byte[] bytes = this.store.read(BITS_PREFIX + segmentSuffix(segment));
+        ByteBuffer buffer = (bytes == null) ? null : ByteBuffer.wrap(bytes);
+        for (int i = 0; i < FLAG_COUNT; i++) {
+            if (buffer == null) {
+                bitmaps[i] = new BitSet(SEGMENT_SIZE);
+            } else {
+                long[] words = new long[WORDS_PER_BITMAP];
+                buffer.asLongBuffer().get(words);
+                buffer.position(buffer.position() + WORDS_PER_BITMAP
+                        * Long.BYTES);
+                bitmaps[i] = BitSet.valueOf(words);
+            }
+        }
+        return bitmaps;
+    }
+    
+    private static byte[] encodeBitmaps(BitSet[] bitmaps) {
+        ByteBuffer buffer = ByteBuffer.allocate(FLAG_COUNT * WORDS_PER_BITMAP
+                * Long.BYTES);
+        for (BitSet bitmap : bitmaps) {
+            long[] words = bitmap.toLongArray();
+            int start = buffer.position();
+            buffer.asLongBuffer().put(words);
+            buffer.position(start + WORDS_PER_BITMAP * Long.BYTES);
+        }
+        return buffer.array();
+    }
+    
+    private void writeBitmaps(int segment, BitSet[] bitmaps)
+            throws IOException {
+        this.store.write(BITS_PREFIX + segmentSuffix(segment),
+                encodeBitmaps(bitmaps));
+    }
+    
+    /**
+     * Sets a card's bits to its current status.
+     * @return True if any of the bits changed, false otherwise.
+     */
+    private static boolean setFlags(BitSet[] bitmaps, int bit, 
+            TimeCard card) {
+        boolean[] values = {true, card.isActive(), card.hasBeenVerified(),
+            card.hasBeenPaid()};
+        boolean changed = false;
+        for (int i = 0; i < FLAG_COUNT; i++) {
+            if (bitmaps[i].get(bit) != values[i]) {
+                bitmaps[i].set(bit, values[i]);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+    
+    static String keyRecordKey(int ordinal) {
+        return KEYS_PREFIX + String.format("%010d", ordinal);
+    }
+    
+    private String readCardKey(int ordinal) throws IOException {
+        byte[] bytes = this.store.read(keyRecordKey(ordinal));
+        return (bytes == null) ? null 
+                : new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    private int readInt(String key) throws IOException {
+        byte[] bytes = this.store.read(key);
+        return (bytes == null) ? -1 : ByteBuffer.wrap(bytes).getInt();
+    }
+    
+    private void writeInt(String key, int value) throws IOException {
+        this.store.write(key, ByteBuffer.allocate(Integer.BYTES).putInt(value)
+                .array());
+    }
+    
+    /**
+     * Gives the ordinal of a card, assigning it the next available ordinal if 
+     * it doesn't have one yet. Ordinals past the count that already have a 
+     * key record were taken by an addition that didn't finish, and are 
+     * skipped. Must be called while synchronized on the store.
+     */
+    private int ordinalFor(String cardKey) throws IOException {
+        int ordinal = this.readInt(ORDINAL_PREFIX + cardKey);
+        if (ordinal < 0) {
+            ordinal = Math.max(this.readInt(COUNT_KEY), 0);
+            while (this.store.contains(keyRecordKey(ordinal))) {
+                ordinal++;
+            }
+            this.store.write(keyRecordKey(ordinal), 
+                    cardKey.getBytes(StandardCharsets.UTF_8));
+            this.writeInt(ORDINAL_PREFIX + cardKey, ordinal);
+            this.writeInt(COUNT_KEY, ordinal + 1);
+        }
+        return ordinal;
+    }
+    
+    /**
+     * Updates the index with the current status of a card. If the card is not 
+     * in the index yet, it is added.
+     * @param card The card. For example, John Lopez's card for the week of 
+     * October 12, 2026, which has just been verified.
+     * @throws IOException If there is a problem reading or writing the store.
+     */
+    public void update(TimeCard card) throws IOException {
+        String cardKey = RecordKeys.cardKey(card);
+        synchronized (this.store) {
+            int ordinal = this.ordinalFor(cardKey);
+            int segment = ordinal / SEGMENT_SIZE;
+            int bit = ordinal % SEGMENT_SIZE;
+            BitSet[] bitmaps = this.readBitmaps(segment);
+            if (setFlags(bitmaps, bit, card)) {
+                this.writeBitmaps(segment, bitmaps);
+            }
+        }
+    }
+    
+    /**
+     * Updates the index with the current status of several cards. Each 
+     * segment's bitmaps are read once, and the changed ones are written back 
+     * together with {@link RecordStore#writeAll(Map)}. Cards not in the index 
+     * yet are added.
+     * @param cards The cards. For example, all the cards for the week of 
+     * October 12, 2026, which have just been verified.
+     * @throws IOException If there is a problem reading or writing the store.
+     */
+    public void updateAll(Collection<TimeCard> cards) throws IOException {
+        synchronized (this.store) {
+            Map<Integer, BitSet[]> segments = new HashMap<>();
+            Set<Integer> changedSegments = new HashSet<>();
+            for (TimeCard card : cards) {
+                int ordinal = this.ordinalFor(RecordKeys.cardKey(card));
+                int segment = ordinal / SEGMENT_SIZE;
+                BitSet[] bitmaps = segments.get(segment);
+                if (bitmaps == null) {
+                    bitmaps = this.readBitmaps(segment);
+                    segments.put(segment, bitmaps);
+                }
+                if (setFlags(bitmaps, ordinal % SEGMENT_SIZE, card)) {
+                    changedSegments.add(segment);
+                }
+            }
+            Map<String, byte[]> records = new HashMap<>();
+            for (int segment : changedSegments) {
+                records.put(BITS_PREFIX + segmentSuffix(segment), 
+                        encodeBitmaps(segments.get(segment)));
+            }
+            this.store.writeAll(records);
+        }
+    }
+    
+    /**
+     * Removes a card from the index. This should be done when the card itself 
+     * is removed from the store, as for example when it is archived. Removing 
+     * a card that isn't in the index does nothing.
+     * @param card The card to remove.
+     * @throws IOException If there is a problem reading or writing the store.
+     */
+    public void remove(TimeCard card) throws IOException {
+        this.remove(RecordKeys.cardKey(card));
+    }
+    
+    void remove(String cardKey) throws IOException {
+        synchronized (this.store) {
+            int ordinal = this.readInt(ORDINAL_PREFIX + cardKey);
+            if (ordinal < 0) {
+                return;
+            }
+            int segment = ordinal / SEGMENT_SIZE;
+            BitSet[] bitmaps = this.readBitmaps(segment);
+            for (BitSet bitmap : bitmaps) {
+                bitmap.clear(ordinal % SEGMENT_SIZE);
+            }
+            this.writeBitmaps(segment, bitmaps);
+            this.store.delete(ORDINAL_PREFIX + cardKey);
+        }
+    }
+    
+    /**
+     * Updates the index when a card it has been added to as a listener is 
+     * marked.
+     * @param card The card that was marked.
+     * @throws UncheckedIOException If there is a problem reading or writing 
+     * the store.
+     */
+    @Override
+    public void statusChanged(TimeCard card) {
+        try {
+            this.update(card);
+        } catch (IOException ioe) {
+            throw new UncheckedIOException(ioe);
+        }
+    }
+    
+    /**
+     * Selects, segment by segment, the cards whose bitmaps satisfy a 
+     * condition, and gives their keys.
+     */
+    private List<String> select(SegmentQuery query) throws IOException {
+        List<String> result = new ArrayList<>();
+        int count = this.readInt(COUNT_KEY);
+        int segmentCount = (count + SEGMENT_SIZE - 1) / SEGMENT_SIZE;
+        for (int segment = 0; segment < segmentCount; segment++) {
+            BitSet[] bitmaps = this.readBitmaps(segment);
+            BitSet selection = query.apply(bitmaps);
+            selection.and(bitmaps[Flag.PRESENT.ordinal()]);
+            int base = segment * SEGMENT_SIZE;
+            for (int bit = selection.nextSetBit(0); bit >= 0;
+                    bit = selection.nextSetBit(bit + 1)) {
+                String cardKey = this.readCardKey(base + bit);
+                if (cardKey != null) {
+                    result.add(cardKey);
+                }
+            }
+        }
+        return result;
+    }
+    
+    @FunctionalInterface
+    private interface SegmentQuery {
+    
+        BitSet apply(BitSet[] bitmaps);
+    
+    }
+    
+    private static BitSet copyOf(BitSet[] bitmaps, Flag flag) {
+        return (BitSet) bitmaps[flag.ordinal()].clone();
+    }
+    
+    /**
+     * Gives the keys of the cards in the store with a given flag set or clear.
+     * @param flag The flag. For example, {@link Flag#VERIFIED}.
+     * @param value Whether the flag should be set or clear. For example, false.
+     * @return The keys of the matching cards, in the order they were first 
+     * indexed. It will be an empty list if no card matches.
+     * @throws IOException If there is a problem reading the store.
+     */
+    public List<String> getCardKeys(Flag flag, boolean value)
+            throws IOException {
+        return this.select((bitmaps) -> {
+            BitSet selection = copyOf(bitmaps, flag);
+            if (!value) {
+                selection.flip(0, SEGMENT_SIZE);
+            }
+            return selection;
+        });
+    }
+    
+    /**
+     * Gives the keys of the cards that have not been verified yet. Some of 
+     * these may be for the current pay period and thus not ready for 
+     * verification.
+     * @return The keys of the cards awaiting verification. It will be an empty 
+     * list if there are none.
+     * @throws IOException If there is a problem reading the store.
+     */
+    public List<String> getKeysAwaitingVerification() throws IOException {
+        return this.getCardKeys(Flag.VERIFIED, false);
+    }
+    
+    /**
+     * Gives the keys of the cards that have been verified but not paid yet.
+     * @return The keys of the cards awaiting payment. It will be an empty list 
+     * if there are none.
+     * @throws IOException If there is a problem reading the store.
+     */
+    public List<String> getKeysAwaitingPayment() throws IOException {
+        return this.select((bitmaps) -> {
+            BitSet selection = copyOf(bitmaps, Flag.VERIFIED);
+            selection.andNot(bitmaps[Flag.PAID.ordinal()]);
+            return selection;
+        });
+    }
+    
+    private ArrayList<TimeCard> readCards(List<String> keys,
+            Predicate<TimeCard> check)
+            throws ClassNotFoundException, IOException {
+        ArrayList<TimeCard> cards = new ArrayList<>();
+        for (String key : keys) {
+            byte[] bytes = this.store.read(key);
+            if (bytes != null) {
+                cards.add(RecordCodec.decode(bytes, TimeCard.class));
+            }
+        }
+        CardEventJournal.bringUpToDate(this.store, cards);
+        ArrayList<TimeCard> list = new ArrayList<>();
+        for (TimeCard card : cards) {
+            if (check.test(card)) {
+                list.add(card);
+            }
+        }
+        return list;
+    }
+    
+    /**
+     * Retrieves the cards that have not been verified yet. Only the cards the 
+     * index points to are read, and each one is checked in case the index ran 
+     * ahead of the store.
+     * @return The cards awaiting verification. It will be an empty list if 
+     * there are none.
+     * @throws ClassNotFoundException If there is a deserialization problem.
+     * @throws IOException If there is a problem reading the store.
+     */
+    public ArrayList<TimeCard> getCardsAwaitingVerification()
+            throws ClassNotFoundException, IOException {
+        return this.readCards(this.getKeysAwaitingVerification(),
+                (card) -> !card.hasBeenVerified());
+    }
+    
+    /**
+     * Retrieves the cards that have been verified but not paid yet. Only the 
+     * cards the index points to are read, and each one is checked in case the 
+     * index ran ahead of the store.
+     * @return The cards awaiting payment. It will be an empty list if there 
+     * are none.
+     * @throws ClassNotFoundException If there is a deserialization problem.
+     * @throws IOException If there is a problem reading the store.
+     */
+    public ArrayList<TimeCard> getCardsAwaitingPayment()
+            throws ClassNotFoundException, IOException {
+        return this.readCards(this.getKeysAwaitingPayment(),
+                (card) -> card.hasBeenVerified() && !card.hasBeenPaid());
+    }
+    
+    /**
+     * Retrieves the cards that have been paid. Only the cards the index points 
+     * to are read, and each one is checked in case the index ran ahead of the 
+     * store.
+     * @return The paid cards. It will be an empty list if there are none.
+     * @throws ClassNotFoundException If there is a deserialization problem.
+     * @throws IOException If there is a problem reading the store.
+     */
+    public ArrayList<TimeCard> getPaidCards()
+            throws ClassNotFoundException, IOException {
+        return this.readCards(this.getCardKeys(Flag.PAID, true),
+                TimeCard::hasBeenPaid);
+    }
+    
+    /**
+     * Counts the cards in the store with a given flag set or clear. Only the 
+     * bitmaps are read.
+     * @param flag The flag. For example, {@link Flag#PAID}.
+     * @param value Whether the flag should be set or clear. For example, false.
+     * @return How many cards match. For example, 14.
+     * @throws IOException If there is a problem reading the store.
+     */
+    public int count(Flag flag, boolean value) throws IOException {
+        int total = 0;
+        int count = this.readInt(COUNT_KEY);
+        int segmentCount = (count + SEGMENT_SIZE - 1) / SEGMENT_SIZE;
+        for (int segment = 0; segment < segmentCount; segment++) {
+            BitSet[] bitmaps = this.readBitmaps(segment);
+            BitSet selection = copyOf(bitmaps, flag);
+            if (!value) {
+                selection.flip(0, SEGMENT_SIZE);
+            }
+            selection.and(bitmaps[Flag.PRESENT.ordinal()]);
+            total += selection.cardinality();
+        }
+        return total;
+    }
+    
+    /**
+     * Constructor.
+     * @param recordStore The store whose time cards are to be indexed, and in 
+     * which the index is to be kept.
+     */
+    public CardStatusIndex(RecordStore recordStore) {
+        this.store = recordStore;
+    }
+    
+}
@@ -18,25 +18,32 @@
 package portals;
 
 import entities.Employee;
+import payroll.ClockedInRoster;
+import payroll.PayCalendar;
 import payroll.TimeCard;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.LocalDateTime;
 import time.DateTimeRange;
+import time.TimeSource;
 
 /**
- * Fetches the current time card for a given employee from the employee records 
- * data directory. If the employee doesn't have a current time card, a new, 
- * blank time card is created. Pay periods are assumed to last one week each, 
- * starting on a Monday at 12:00 a.m. and ending on a Sunday at 11:59 p.m.
+ * Fetches the current time card for a given employee from a {@link 
+ * RecordStore}, by default the employee records data directory. If the 
+ * employee doesn't have a current time card, a new, blank time card is 
+ * created. Pay periods are given by a {@link PayCalendar}, by default one 
+ * week each, starting on a Monday at 12:00 a.m. and ending on a Sunday at 
+ * 11:59 p.m.
+ * <p>The card is kept through a {@link CardEventJournal}, so punching in or 
+ * out with {@link #punchIn()} or {@link #punchOut()} writes only the punch, 
+ * not the whole card.</p>
+ * <p>A card fetched from the default store is also tracked by the roster 
+ * given by {@link DataDirectoryInitializer#getRoster()}. A card fetched from 
+ * another store is tracked by whatever roster is passed to {@link 
+ * #CurrentTimeCardFetcher(Employee, RecordStore, PayCalendar, 
+ * ClockedInRoster)}, if any.</p>
  * @author Alonso del Arte
  */
 public class CurrentTimeCardFetcher {
@@ -44,79 +51,39 @@ public class CurrentTimeCardFetcher {
     private final Employee cardOwner;
     private TimeCard fetchedCard;
 
-    private File cardFile;
+    private final RecordStore store;
 
-    private void findCard() throws ClassNotFoundException, IOException {
-        if (!DataDirectoryInitializer.hasBeenSet()) {
-            DataDirectoryInitializer.setDir();
-        }
-        File dir = DataDirectoryInitializer.getDir();
-        TimeCardFilter filter = new TimeCardFilter();
-        File[] matches = dir.listFiles(filter);
-        boolean cardNotYetFound = true;
-        TimeCard currCard;
-        File currFile;
-        int counter = 0;
-        while (cardNotYetFound && counter < matches.length) {
-            currFile = matches[counter];
-            FileInputStream fileStream = new FileInputStream(currFile);
-            ObjectInputStream objStream = new ObjectInputStream(fileStream);
-            currCard = (TimeCard) objStream.readObject();
-            if (currCard.getEmployee().equals(this.cardOwner) && currCard.isCurrent()) {
-                this.fetchedCard = currCard;
-                this.cardFile = currFile;
-                cardNotYetFound = false;
-            }
-            counter++;
-        }
-    }
+    private final PayCalendar calendar;
 
-    private static LocalDate findNearMonday() {
-        LocalDate today = LocalDate.now();
-        DayOfWeek adjustToMonday = today.getDayOfWeek();
-        return today.minusDays(adjustToMonday.ordinal());
-    }
+    private final CardEventJournal journal;
 
-    private void writeCard() throws IOException {
-        FileOutputStream fileStream = new FileOutputStream(this.cardFile);
-        try (ObjectOutputStream objStream
-                = new ObjectOutputStream(fileStream)) {
-            objStream.writeObject(this.fetchedCard);
-        }
+    private final ClockedInRoster roster;
+
+    /**
+     * Looks up the employee's card for a period. The card key includes the 
+     * period start, so whatever card is found is the card for that period, 
+     * even in the first or last minute of the period.
+     */
+    private void findCard(DateTimeRange period) 
+            throws ClassNotFoundException, IOException {
+        this.fetchedCard = this.journal.getCard(this.cardOwner, 
+                period.getStart());
     }
 
-    private void addNewCard()
-            throws IOException {
-        if (!DataDirectoryInitializer.hasBeenSet()) {
-            DataDirectoryInitializer.setDir();
-        }
-        String pathStr = DataDirectoryInitializer.getDir().getPath()
-                + File.separatorChar + "PersProgcard"
-                + this.fetchedCard.hashCode() + ".dat";
-        File file = new File(pathStr);
-        FileOutputStream fileStream = new FileOutputStream(file);
-        try (ObjectOutputStream objStream
-                = new ObjectOutputStream(fileStream)) {
-            objStream.writeObject(this.fetchedCard);
-        }
-        this.cardFile = file;
+    private void writeCard() throws IOException {
+        TimeCardsProcessor.putCard(this.store, this.fetchedCard);
     }
 
-    private void writeNewCard() throws IOException {
-        LocalDate monday = findNearMonday();
-        LocalDateTime start = LocalDateTime.of(monday, LocalTime.MIDNIGHT);
-        LocalDateTime end = start.plusDays(7).minusMinutes(1);
-        DateTimeRange period = new DateTimeRange(start, end);
+    private void writeNewCard(DateTimeRange period) throws IOException {
         this.fetchedCard = new TimeCard(this.cardOwner, period);
-        this.addNewCard();
+        this.journal.create(this.fetchedCard);
     }
 
     // TODO: Figure out more elegant demo algorithm
     public static TimeCard writeNewDemoCard(TimeCard card) throws IOException {
-        LocalDate monday = findNearMonday();
-        LocalDateTime start = LocalDateTime.of(monday, LocalTime.MIDNIGHT);
-        LocalDateTime end = start.plusDays(7).minusMinutes(1);
-        DateTimeRange period = new DateTimeRange(start, end);
+        LocalDateTime now = TimeSource.now();
+        DateTimeRange period = PayCalendar.getDefault().getPeriod(now);
+        LocalDate monday = period.getStart().toLocalDate();
         TimeCard demoCard = new TimeCard(card.getEmployee(), period);
         LocalTime workDayBegin = LocalTime.of(8, 0);
         LocalTime lunchBegin = LocalTime.of(12, 0);
@@ -124,14 +91,14 @@ public class CurrentTimeCardFetcher {
         LocalTime workDayEnd = LocalTime.of(17, 0);
         DateTimeRange block;
         for (LocalDate day = monday;
-                LocalDateTime.of(day, lunchBegin).isBefore(LocalDateTime.now());
+                LocalDateTime.of(day, lunchBegin).isBefore(now);
                 day = day.plusDays(1)) {
             block = new DateTimeRange(LocalDateTime.of(day, workDayBegin),
                     LocalDateTime.of(day, lunchBegin));
             demoCard.addTimeBlock(block);
         }
         for (LocalDate day = monday;
-                LocalDateTime.of(day, workDayEnd).isBefore(LocalDateTime.now());
+                LocalDateTime.of(day, workDayEnd).isBefore(now);
                 day = day.plusDays(1)) {
             block = new DateTimeRange(LocalDateTime.of(day, lunchEnd),
                     LocalDateTime.of(day, workDayEnd));
@@ -140,10 +107,42 @@ public class CurrentTimeCardFetcher {
         return demoCard;
     }
 
+    /**
+     * Gives the roster of who is clocked in that tracks the fetched card.
+     * @return The roster. For example, a roster with John Lopez clocked in 
+     * since 8:00 a.m. on October 12, 2026. It will be null if this fetcher 
+     * was given no roster.
+     */
+    public ClockedInRoster getRoster() {
+        return this.roster;
+    }
+
     public TimeCard retrieveCard() {
         return this.fetchedCard;
     }
 
+    /**
+     * Punches the fetched card in as of now, according to {@link TimeSource}, 
+     * and records the punch in the store. If the card is already punched in, 
+     * nothing happens.
+     * @throws IOException If there is a problem writing to the store.
+     */
+    public void punchIn() throws IOException {
+        this.journal.punchIn(this.fetchedCard, TimeSource.now());
+    }
+
+    /**
+     * Punches the fetched card out as of now, according to {@link 
+     * TimeSource}, and records the punch in the store. If the card is not 
+     * punched in, nothing happens.
+     * @throws IllegalArgumentException If the card rejects the punch, as for 
+     * example if the pay period has ended. Nothing is recorded then.
+     * @throws IOException If there is a problem writing to the store.
+     */
+    public void punchOut() throws IOException {
+        this.journal.punchOut(this.fetchedCard, TimeSource.now());
+    }
+
     public void putCardBack() {
         // TODO: Write tests for appropriate state of paramater-less put-back
     }
@@ -159,11 +158,82 @@ public class CurrentTimeCardFetcher {
 
     public CurrentTimeCardFetcher(Employee employee)
             throws ClassNotFoundException, IOException {
+        this(employee, DataDirectoryInitializer.getDefaultStore(), 
+                DataDirectoryInitializer.getPayCalendar(), 
+                DataDirectoryInitializer.getRoster());
+    }
+
+    /**
+     * Constructor. Fetches the employee's current time card from the given 
+     * store, writing a new, blank card to the store if there isn't one.
+     * @param employee The employee whose card is wanted. For example, John 
+     * Lopez, SSN 750-10-1729.
+     * @param recordStore The store to fetch from and put back to. For example, 
+     * an {@link InMemoryRecordStore}.
+     * @throws ClassNotFoundException If there is a deserialization problem 
+     * with the cards in the store.
+     * @throws IOException If there is a problem reading or writing the store.
+     */
+    public CurrentTimeCardFetcher(Employee employee, RecordStore recordStore)
+            throws ClassNotFoundException, IOException {
+        this(employee, recordStore, PayCalendar.getDefault());
+    }
+
+    /**
+     * Constructor. Fetches the employee's time card for the current period in 
+     * the given pay calendar from the given store, writing a new, blank card 
+     * to the store if there isn't one.
+     * @param employee The employee whose card is wanted. For example, John 
+     * Lopez, SSN 750-10-1729.
+     * @param recordStore The store to fetch from and put back to. For example, 
+     * an {@link InMemoryRecordStore}.
+     * @param payCalendar The pay calendar to find the current period in. For 
+     * example, a biweekly calendar.
+     * @throws ClassNotFoundException If there is a deserialization problem 
+     * with the cards in the store.
+     * @throws IOException If there is a problem reading or writing the store.
+     */
+    public CurrentTimeCardFetcher(Employee employee, RecordStore recordStore, 
+            PayCalendar payCalendar) 
+            throws ClassNotFoundException, IOException {
+        this(employee, recordStore, payCalendar, null);
+    }
+
+    /**
+     * Constructor. Fetches the employee's time card for the current period in 
+     * the given pay calendar from the given store, writing a new, blank card 
+     * to the store if there isn't one, and has the given roster track the 
+     * card.
+     * @param employee The employee whose card is wanted. For example, John 
+     * Lopez, SSN 750-10-1729.
+     * @param recordStore The store to fetch from and put back to. For example, 
+     * an {@link InMemoryRecordStore}.
+     * @param payCalendar The pay calendar to find the current period in. For 
+     * example, a biweekly calendar.
+     * @param clockedInRoster The roster to keep up to date with the card's 
+     * punches. For example, a roster from {@link 
+     * TimeCardsProcessor#getClockedInRoster(RecordStore, LocalDateTime)} for 
+     * the same store and period. May be null if no roster is needed.
+     * @throws ClassNotFoundException If there is a deserialization problem 
+     * with the cards in the store.
+     * @throws IOException If there is a problem reading or writing the store.
+     */
+    public CurrentTimeCardFetcher(Employee employee, RecordStore recordStore, 
+            PayCalendar payCalendar, ClockedInRoster clockedInRoster) 
+            throws ClassNotFoundException, IOException {
+        this.store = recordStore;
+        this.calendar = payCalendar;
+        this.roster = clockedInRoster;
+        this.journal = new CardEventJournal(recordStore);
         this.cardOwner = employee;
-        this.fetchedCard = null;
-        this.findCard();
+        DateTimeRange period = this.calendar.getPeriod(TimeSource.now());
+        this.findCard(period);
         if (this.fetchedCard == null) {
-            this.writeNewCard();
+            this.writeNewCard(period);
+        }
+        this.fetchedCard.addTimeCardListener(new CardStatusIndex(this.store));
+        if (this.roster != null) {
+            this.roster.track(this.fetchedCard);
         }
     }
 
@@ -17,8 +17,18 @@
  */
 package portals;
 
+import entities.Employee;
+import payroll.ClockedInRoster;
+import payroll.PayCalendar;
+import time.TimeSource;
+
 import java.io.File;
 import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
 
 /**
  * Initializes a directory to store employee records and time cards in.
@@ -39,10 +49,38 @@ public class DataDirectoryInitializer {
         DEFAULT_DATA_DIR.mkdir();
     }
     
+    /**
+     * The name of the write-ahead log for the time cards kept in memory when 
+     * the hot tier is enabled.
+     */
+    public static final String HOT_TIER_LOG_NAME = "PersProgHot.log";
+    
     private static File dataDir = DEFAULT_DATA_DIR;
     
+    private static List<File> partitionDirs = Collections.emptyList();
+    
     private static boolean setFlag = false;
     
+    private static SnapshotRecordStore sharedStore = null;
+    
+    private static List<File> sharedStoreDirs = null;
+    
+    private static File replicationLogFile = null;
+    
+    private static boolean hotTierFlag = false;
+    
+    private static boolean sharedStoreHotTierFlag = false;
+    
+    private static File sharedStoreLogFile = null;
+    
+    private static PayCalendar payCalendar = PayCalendar.getDefault();
+    
+    private static PayCalendar sharedStoreCalendar = null;
+    
+    private static ClockedInRoster sharedRoster = null;
+    
+    private static LocalDateTime sharedRosterPeriodStart = null;
+    
     /**
      * Gets the directory where the employee records and time cards are kept. 
      * This should be the default temporary folder if it has not been 
@@ -85,9 +123,59 @@ public class DataDirectoryInitializer {
             dir.createNewFile();
         }
         dataDir = dir;
+        partitionDirs = Collections.emptyList();
         setFlag = true;
     }
     
+    /**
+     * Sets several directories for employee records and time cards to be 
+     * spread across, for example on different disks. Each employee's record 
+     * and time cards are kept together in one of the directories, chosen by 
+     * {@link PartitionedRecordStore}. The first directory also becomes the 
+     * directory given by {@link #getDir()}.
+     * <p>The directories must always be given in the same order, and no 
+     * directory should be added or removed once records have been written, 
+     * as that would change which directory most records are looked for 
+     * in.</p>
+     * @param dirs The directories to use, in order. Each must be a directory, 
+     * not a file. If just one directory is given, this is the same as {@link 
+     * #setDir(File)}.
+     * @throws IllegalArgumentException If <code>dirs</code> is empty or any 
+     * of the directories is a file rather than a directory.
+     * @throws IOException If a folder did not already exist and there was a 
+     * problem trying to create it.
+     */
+    public static void setDirs(List<File> dirs) throws IOException {
+        if (dirs.isEmpty()) {
+            String excMsg = "Need at least one directory";
+            throw new IllegalArgumentException(excMsg);
+        }
+        for (File dir : dirs) {
+            if (!dir.isDirectory()) {
+                String excMsg = dir.getPath() + " is not a directory";
+                throw new IllegalArgumentException(excMsg);
+            }
+        }
+        setDir(dirs.get(0));
+        if (dirs.size() > 1) {
+            partitionDirs = Collections.unmodifiableList(new ArrayList<>(dirs));
+        }
+    }
+    
+    /**
+     * Gets all the directories where the employee records and time cards are 
+     * kept.
+     * @return The directories set with {@link #setDirs(List)}, in order, or a 
+     * list of just the directory given by {@link #getDir()} if several 
+     * directories have not been set.
+     */
+    public static List<File> getDirs() {
+        if (partitionDirs.isEmpty()) {
+            return Collections.singletonList(dataDir);
+        }
+        return partitionDirs;
+    }
+    
     /**
      * Tells whether a directory for storing employee records and time cards has 
      * been set. Use <code>setDir()</code> to set the directory.
@@ -97,4 +185,167 @@ public class DataDirectoryInitializer {
         return setFlag;
     }
     
+    /**
+     * Sets a file to log all changes to the records to, for a {@link 
+     * LogFollower} to apply to a standby data directory. Takes effect the 
+     * next time {@link #getDefaultStore()} is called.
+     * @param logFile The log file, for example PersProg.replog in the data 
+     * directory, or null to stop logging changes.
+     */
+    public static synchronized void setReplicationLog(File logFile) {
+        replicationLogFile = logFile;
+    }
+    
+    /**
+     * Gets the file changes to the records are logged to.
+     * @return The log file, or null if changes are not being logged.
+     */
+    public static synchronized File getReplicationLog() {
+        return replicationLogFile;
+    }
+    
+    /**
+     * Sets whether the time cards for the current pay period are to be kept 
+     * in memory, with a write-ahead log named {@value #HOT_TIER_LOG_NAME} in 
+     * the data directory, by a {@link TieredRecordStore}. Takes effect the 
+     * next time {@link #getDefaultStore()} is called.
+     * @param enabled True to keep the current cards in memory, false to keep 
+     * all records on disk only.
+     */
+    public static synchronized void setHotTierEnabled(boolean enabled) {
+        hotTierFlag = enabled;
+    }
+    
+    /**
+     * Tells whether the time cards for the current pay period are kept in 
+     * memory. See {@link #setHotTierEnabled(boolean)}.
+     * @return True if the current cards are kept in memory, false otherwise.
+     */
+    public static synchronized boolean isHotTierEnabled() {
+        return hotTierFlag;
+    }
+    
+    /**
+     * Sets the pay calendar to find the current pay period in, for the hot 
+     * tier and for fetching current time cards from the default store. Takes 
+     * effect the next time {@link #getDefaultStore()} is called.
+     * @param calendar The pay calendar. For example, a biweekly calendar.
+     */
+    public static synchronized void setPayCalendar(PayCalendar calendar) {
+        payCalendar = calendar;
+    }
+    
+    /**
+     * Gets the pay calendar set with {@link #setPayCalendar(PayCalendar)}.
+     * @return The pay calendar. If it has not been set, {@link 
+     * PayCalendar#getDefault()}.
+     */
+    public static synchronized PayCalendar getPayCalendar() {
+        return payCalendar;
+    }
+    
+    /**
+     * Gives a record store that keeps one file per record in the data 
+     * directory, the way this program always has, or, if several directories 
+     * have been set with {@link #setDirs(List)}, a {@link 
+     * PartitionedRecordStore} over those directories. If a replication log has 
+     * been set with {@link #setReplicationLog(File)}, the store is also 
+     * wrapped in a {@link ReplicatingRecordStore}. If the hot tier has been 
+     * enabled with {@link #setHotTierEnabled(boolean)}, the current time cards 
+     * are kept in memory by a {@link TieredRecordStore}. If the directory has 
+     * not been set, it is set to the default temporary folder first. If the 
+     * directory was written by an earlier version of this program, its records 
+     * are first converted to the current key scheme by {@link 
+     * RecordKeyMigrator}. The same store is given every time until the 
+     * directory or any of these settings is changed, so that {@link 
+     * #openSnapshot()} sees all the writes made through it; when they are 
+     * changed, the previous store is closed.
+     * @return A {@link SnapshotRecordStore} wrapping a {@link 
+     * FilePerRecordStore} for the data directory, or wrapping a {@link 
+     * PartitionedRecordStore} for the data directories.
+     * @throws IOException If there was a problem setting the directory or 
+     * converting its records.
+     */
+    public static synchronized RecordStore getDefaultStore() 
+            throws IOException {
+        if (!hasBeenSet()) {
+            setDir();
+        }
+        List<File> dirs = getDirs();
+        if (sharedStore == null || !dirs.equals(sharedStoreDirs) 
+                || !Objects.equals(replicationLogFile, sharedStoreLogFile) 
+                || hotTierFlag != sharedStoreHotTierFlag 
+                || payCalendar != sharedStoreCalendar) {
+            if (sharedStore != null) {
+                sharedStore.close();
+            }
+            sharedRoster = null;
+            RecordStore store;
+            if (dirs.size() > 1) {
+                store = PartitionedRecordStore.ofDirectories(dirs);
+            } else {
+                store = new FilePerRecordStore(dataDir);
+            }
+            RecordKeyMigrator.migrateIfNeeded(store);
+            if (hotTierFlag) {
+                store = new TieredRecordStore(new File(dirs.get(0), 
+                        HOT_TIER_LOG_NAME), store, payCalendar);
+            }
+            if (replicationLogFile != null) {
+                store = new ReplicatingRecordStore(store, 
+                        new ReplicationLog(replicationLogFile));
+            }
+            sharedStore = new SnapshotRecordStore(store);
+            sharedStoreDirs = dirs;
+            sharedStoreLogFile = replicationLogFile;
+            sharedStoreHotTierFlag = hotTierFlag;
+            sharedStoreCalendar = payCalendar;
+        }
+        return sharedStore;
+    }
+    
+    /**
+     * Gives the roster of who is clocked in for the store given by {@link 
+     * #getDefaultStore()}. The roster starts with the employees whose cards 
+     * for the current period in the pay calendar are punched in, and is then 
+     * kept up to date by the cards fetched with {@link 
+     * CurrentTimeCardFetcher#CurrentTimeCardFetcher(Employee)}. When a new 
+     * pay period starts, or the default store is replaced, a new roster is 
+     * started from the store's cards for the current period.
+     * @return The roster. For example, a roster with John Lopez clocked in 
+     * since 8:00 a.m. on October 12, 2026.
+     * @throws ClassNotFoundException If there is a deserialization problem 
+     * with the cards in the store.
+     * @throws IOException If there was a problem setting the directory or 
+     * reading the cards.
+     */
+    public static synchronized ClockedInRoster getRoster() 
+            throws ClassNotFoundException, IOException {
+        RecordStore store = getDefaultStore();
+        LocalDateTime periodStart 
+                = payCalendar.getPeriodStart(TimeSource.now());
+        if (sharedRoster == null 
+                || !periodStart.equals(sharedRosterPeriodStart)) {
+            sharedRoster = TimeCardsProcessor.getClockedInRoster(store, 
+                    periodStart);
+            sharedRosterPeriodStart = periodStart;
+        }
+        return sharedRoster;
+    }
+    
+    /**
+     * Opens a snapshot of the store given by {@link #getDefaultStore()}, for 
+     * reports that need to see all the records as of the same moment without 
+     * holding up punches. The snapshot should be closed when the report is 
+     * done, preferably with a try-with-resources statement.
+     * @return A read-only snapshot of the data directory as of now.
+     * @throws IOException If there was a problem setting the directory or 
+     * converting its records.
+     */
+    public static synchronized RecordStore openSnapshot() 
+            throws IOException {
+        getDefaultStore();
+        return sharedStore.openSnapshot();
+    }
+    
 }
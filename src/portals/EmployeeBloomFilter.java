@@ -0,0 +1,282 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import entities.Employee;
+import entities.idnumbers.TaxpayerIdentificationNumber;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+/**
+ * A Bloom filter over the taxpayer identification numbers (TINs) of the 
+ * employees in a {@link RecordStore}. If the filter says a TIN is not in the 
+ * store, it definitely isn't, and there is no need to touch the store to make 
+ * sure. If the filter says a TIN might be in the store, it might or might not 
+ * be, and the store has to be checked.
+ * <p>The filter is kept in the store itself under the key {@value 
+ * #FILTER_KEY}, along with how many employee records it was built from. When 
+ * the filter is opened with {@link #open(RecordStore)}, that count is checked 
+ * against the number of employee records in the store, and if they don't 
+ * match, as will happen if records were added without going through the 
+ * filter, the filter is rebuilt from the store.</p>
+ * <p>The filter does not hold on to the TINs, only to bits derived from them, 
+ * so it reveals very little about the TINs.</p>
+ * @author Alonso del Arte
+ */
+public class EmployeeBloomFilter {
+    
+    static final String FILTER_KEY = "PersProgbloomtin";
+    
+    /**
+     * The false positive rate the filter is sized for, 1%.
+     */
+    public static final double TARGET_FALSE_POSITIVE_RATE = 0.01;
+    
+    /**
+     * The fewest insertions the filter is sized for. With this default, a new 
+     * filter takes up about 1.2 kilobytes.
+     */
+    static final int MINIMUM_CAPACITY = 1024;
+    
+    private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+    
+    private static final long FNV_PRIME = 0x100000001B3L;
+    
+    private final long[] words;
+    
+    private final long bitCount;
+    
+    private final int hashCount;
+    
+    private final int capacity;
+    
+    private int insertionCount;
+    
+    /**
+     * Hashes a TIN to 64 bits using FNV-1a over the name of the TIN's class 
+     * and the TIN's text. The class name is included so that, for example, the 
+     * Social Security Number 078-05-1120 and the employer identification 
+     * number 07-8051120 are hashed differently.
+     */
+    static long hash64(TaxpayerIdentificationNumber tin) {
+        String s = tin.getClass().getSimpleName() + ':' + tin.toString();
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < s.length(); i++) {
+            hash ^= s.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+    
+    /**
+     * Mixes the bits of a 64-bit hash, as in the SplitMix64 generator, to get 
+     * a second hash for double hashing.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+    
+    private long bitIndex(long h1, long h2, int i) {
+        return Math.floorMod(h1 + i * h2, this.bitCount);
+    }
+    
+    /**
+     * Adds a TIN to the filter.
+     * @param tin The TIN to add. For example, the Social Security Number 
+     * 750-10-1729.
+     */
+    public void add(TaxpayerIdentificationNumber tin) {
+        long h1 = hash64(tin);
+        long h2 = mix(h1) | 1L;
+        for (int i = 0; i < this.hashCount; i++) {
+            long index = this.bitIndex(h1, h2, i);
+            this.words[(int) (index >>> 6)] |= 1L << index;
+        }
+        this.insertionCount++;
+    }
+    
+    /**
+     * Tells whether a TIN might be in the filter.
+     * @param tin The TIN to check. For example, the Social Security Number 
+     * 750-10-1729.
+     * @return False if <code>tin</code> has definitely not been added to the 
+     * filter, true if it might have been.
+     */
+    public boolean mightContain(TaxpayerIdentificationNumber tin) {
+        long h1 = hash64(tin);
+        long h2 = mix(h1) | 1L;
+        for (int i = 0; i < this.hashCount; i++) {
+            long index = this.bitIndex(h1, h2, i);
+            if ((this.words[(int) (index >>> 6)] & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Tells how many TINs have been added to the filter.
+     * @return The number of insertions. For example, 14.
+     */
+    public int getInsertionCount() {
+        return this.insertionCount;
+    }
+    
+    /**
+     * Tells whether more TINs have been added than the filter was sized for, 
+     * in which case the false positive rate will be worse than {@link 
+     * #TARGET_FALSE_POSITIVE_RATE}, and the filter should be rebuilt.
+     * @return True if the filter is over capacity, false otherwise.
+     */
+    public boolean isOverCapacity() {
+        return this.insertionCount > this.capacity;
+    }
+    
+    /**
+     * Writes this filter to a store.
+     * @param store The store to write to.
+     * @throws IOException If there is a problem writing to the store.
+     */
+    public void save(RecordStore store) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES * 3
+                + this.words.length * Long.BYTES);
+        buffer.putInt(this.capacity);
+        buffer.putInt(this.hashCount);
+        buffer.putInt(this.insertionCount);
+        buffer.asLongBuffer().put(this.words);
+        store.write(FILTER_KEY, buffer.array());
+    }
+    
+    private static EmployeeBloomFilter load(RecordStore store)
+            throws IOException {
+        byte[] bytes = store.read(FILTER_KEY);
+        if (bytes == null || bytes.length < Integer.BYTES * 3) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int capacity = buffer.getInt();
+        if (capacity < MINIMUM_CAPACITY 
+                || capacity > bytes.length * Byte.SIZE) {
+            return null;
+        }
+        EmployeeBloomFilter filter = new EmployeeBloomFilter(capacity);
+        if (filter.hashCount != buffer.getInt()
+                || buffer.remaining() != Integer.BYTES
+                + filter.words.length * Long.BYTES) {
+            return null;
+        }
+        filter.insertionCount = buffer.getInt();
+        buffer.asLongBuffer().get(filter.words);
+        return filter;
+    }
+    
+    /**
+     * Builds a new filter from the employee records in a store and writes it 
+     * to the store.
+     * @param store The store to read the employee records from and write the 
+     * filter to.
+     * @return The new filter, sized for at least twice the number of employee 
+     * records in the store.
+     * @throws ClassNotFoundException If there is a deserialization problem 
+     * with the employee records.
+     * @throws IOException If there is a problem reading or writing the store.
+     */
+    public static EmployeeBloomFilter rebuild(RecordStore store) 
+            throws ClassNotFoundException, IOException {
+        return rebuild(store, 0);
+    }
+    
+    /**
+     * Builds a new filter from the employee records in a store, with room for 
+     * a given number of additional records, and writes it to the store.
+     * @param store The store to read the employee records from and write the 
+     * filter to.
+     * @param additional How many more records the filter should have room 
+     * for. For example, the number of records about to be imported.
+     * @return The new filter, sized for at least twice the number of employee 
+     * records in the store plus <code>additional</code>.
+     * @throws ClassNotFoundException If there is a deserialization problem 
+     * with the employee records.
+     * @throws IOException If there is a problem reading or writing the store.
+     */
+    public static EmployeeBloomFilter rebuild(RecordStore store, 
+            int additional) throws ClassNotFoundException, IOException {
+        ArrayList<Employee> employees 
+                = EmployeeRecordsProcessor.getRecords(store);
+        EmployeeBloomFilter filter = new EmployeeBloomFilter(2 
+                * employees.size() + additional);
+        for (Employee employee : employees) {
+            filter.add(employee.getTIN());
+        }
+        filter.save(store);
+        return filter;
+    }
+    
+    /**
+     * Tells how many TINs the filter was sized for.
+     * @return The capacity. For example, 1024.
+     */
+    public int getCapacity() {
+        return this.capacity;
+    }
+    
+    /**
+     * Opens the filter kept in a store. This is meant to be done once when the 
+     * program starts. If the filter has not been written yet, or it is out of 
+     * date or over capacity, it is rebuilt from the employee records.
+     * @param store The store.
+     * @return The filter.
+     * @throws ClassNotFoundException If the filter had to be rebuilt and there 
+     * was a deserialization problem with the employee records.
+     * @throws IOException If there is a problem reading or writing the store.
+     */
+    public static EmployeeBloomFilter open(RecordStore store)
+            throws ClassNotFoundException, IOException {
+        EmployeeBloomFilter filter = load(store);
+        int recordCount = store.keys(RecordKeys.EMPLOYEE_PREFIX).size();
+        if (filter == null || filter.insertionCount != recordCount
+                || filter.isOverCapacity()) {
+            filter = rebuild(store);
+        }
+        return filter;
+    }
+    
+    /**
+     * Constructor for an empty filter.
+     * @param expectedInsertions How many TINs the filter is expected to hold. 
+     * If this is less than {@value #MINIMUM_CAPACITY}, the filter will be sized 
+     * for {@value #MINIMUM_CAPACITY} anyway.
+     */
+    public EmployeeBloomFilter(int expectedInsertions) {
+        this.capacity = Math.max(expectedInsertions, MINIMUM_CAPACITY);
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-this.capacity
+                * Math.log(TARGET_FALSE_POSITIVE_RATE) / (ln2 * ln2));
+        int wordCount = (int) ((bits + Long.SIZE - 1) / Long.SIZE);
+        this.words = new long[wordCount];
+        this.bitCount = (long) wordCount * Long.SIZE;
+        this.hashCount = Math.max(1, (int) Math.round((double) this.bitCount
+                / this.capacity * ln2));
+        this.insertionCount = 0;
+    }
+    
+}
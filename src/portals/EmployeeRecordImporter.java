@@ -0,0 +1,187 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import entities.Employee;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Adds employee records to a {@link RecordStore} in bulk, checking for 
+ * employees who already have records. An {@link EmployeeBloomFilter} is 
+ * consulted first, so that for the great majority of new employees the check 
+ * doesn't touch the store at all. Only when the filter says the employee might 
+ * already have a record is the store checked.
+ * @author Alonso del Arte
+ */
+public class EmployeeRecordImporter {
+    
+    /**
+     * What to do with an employee who already has a record in the store.
+     */
+    public enum DuplicatePolicy {
+    
+        /**
+         * Leave the existing record alone and skip the new one.
+         */
+        REJECT,
+    
+        /**
+         * Replace the existing record with the new one, but still report it 
+         * as a duplicate.
+         */
+        FLAG
+    
+    }
+    
+    /**
+     * The outcome of a bulk import.
+     */
+    public static class ImportResult {
+    
+        private final int addedCount;
+    
+        private final List<Employee> duplicates;
+    
+        private final int storeCheckCount;
+    
+        /**
+         * Tells how many records were written to the store, including the 
+         * replaced duplicates if the policy was {@link DuplicatePolicy#FLAG}.
+         * @return The number of records written. For example, 12.
+         */
+        public int getAddedCount() {
+            return this.addedCount;
+        }
+    
+        /**
+         * Gives the employees in the import who already had records in the 
+         * store, or who appeared more than once in the import.
+         * @return The duplicates, in the order they were found. It will be an 
+         * empty list if there were no duplicates.
+         */
+        public List<Employee> getDuplicates() {
+            return this.duplicates;
+        }
+    
+        /**
+         * Tells how many times the Bloom filter reported a possible duplicate, 
+         * requiring the store to be checked. The difference between this and 
+         * the number of duplicates is the number of false positives.
+         * @return The number of store checks. For example, 2.
+         */
+        public int getStoreCheckCount() {
+            return this.storeCheckCount;
+        }
+    
+        ImportResult(int added, List<Employee> dupes, int checks) {
+            this.addedCount = added;
+            this.duplicates = Collections.unmodifiableList(dupes);
+            this.storeCheckCount = checks;
+        }
+    
+    }
+    
+    private final RecordStore store;
+    
+    private EmployeeBloomFilter filter;
+    
+    private int storeCheckCount = 0;
+    
+    /**
+     * Determines whether an employee already has a record in the store.
+     * @param employee The employee to check. For example, John Lopez, SSN 
+     * 750-10-1729.
+     * @return True if there is a record in the store with the same taxpayer 
+     * identification number (TIN), false otherwise.
+     * @throws ClassNotFoundException If there is a deserialization problem 
+     * with the existing record.
+     * @throws IOException If there is a problem reading the store.
+     */
+    public synchronized boolean isDuplicate(Employee employee)
+            throws ClassNotFoundException, IOException {
+        if (!this.filter.mightContain(employee.getTIN())) {
+            return false;
+        }
+        this.storeCheckCount++;
+        byte[] bytes = this.store.read(RecordKeys.employeeKey(employee));
+        if (bytes == null) {
+            return false;
+        }
+        Employee existing = RecordCodec.decode(bytes, Employee.class);
+        return existing.getTIN().equals(employee.getTIN());
+    }
+    
+    /**
+     * Adds employee records to the store. When done, the Bloom filter is 
+     * written back to the store.
+     * @param employees The employees to add.
+     * @param policy What to do with employees who already have records.
+     * @return A summary of what was added and what duplicates were found.
+     * @throws ClassNotFoundException If there is a deserialization problem 
+     * with an existing record.
+     * @throws IOException If there is a problem reading or writing the store.
+     */
+    public synchronized ImportResult importRecords(Collection<Employee>
+            employees, DuplicatePolicy policy)
+            throws ClassNotFoundException, IOException {
+        if (this.filter.getInsertionCount() + employees.size() 
+                > this.filter.getCapacity()) {
+            this.filter = EmployeeBloomFilter.rebuild(this.store, 
+                    employees.size());
+        }
+        int checksBefore = this.storeCheckCount;
+        int added = 0;
+        List<Employee> duplicates = new ArrayList<>();
+        for (Employee employee : employees) {
+            boolean duplicate = this.isDuplicate(employee);
+            if (duplicate) {
+                duplicates.add(employee);
+            }
+            if (!duplicate || policy == DuplicatePolicy.FLAG) {
+                EmployeeRecordsProcessor.addRecord(this.store, employee);
+                added++;
+            }
+            if (!duplicate) {
+                this.filter.add(employee.getTIN());
+            }
+        }
+        this.filter.save(this.store);
+        return new ImportResult(added, duplicates,
+                this.storeCheckCount - checksBefore);
+    }
+    
+    /**
+     * Constructor. Opens the store's Bloom filter, rebuilding it from the 
+     * store if necessary.
+     * @param recordStore The store to import into.
+     * @throws ClassNotFoundException If the filter had to be rebuilt and there 
+     * was a deserialization problem with the employee records.
+     * @throws IOException If there is a problem reading or writing the store.
+     */
+    public EmployeeRecordImporter(RecordStore recordStore)
+            throws ClassNotFoundException, IOException {
+        this.store = recordStore;
+        this.filter = EmployeeBloomFilter.open(recordStore);
+    }
+    
+}
@@ -19,20 +19,17 @@ package portals;
 
 import entities.Employee;
 import entities.idnumbers.SocialSecurityNumber;
+import entities.idnumbers.TaxpayerIdentificationNumber;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 
 /**
- * Creates and retrieves employee records. The records are written to the 
- * directory specified through {@link DataDirectoryInitializer} and read from 
- * there. If no directory has been set, the default temporary folder will be 
- * used.
+ * Creates and retrieves employee records. The records are written to a {@link 
+ * RecordStore} and read from there. The functions that don't take a store use 
+ * the files in the directory specified through {@link 
+ * DataDirectoryInitializer}. If no directory has been set, the default 
+ * temporary folder will be used.
  * @since Version 0.1.
  * @author Alonso del Arte
  */
@@ -40,35 +37,68 @@ public class EmployeeRecordsProcessor {
     
     public static void addRecord(Employee employee)
             throws IOException {
-        if (!DataDirectoryInitializer.hasBeenSet()) {
-            DataDirectoryInitializer.setDir();
-        }
-        String pathStr = DataDirectoryInitializer.getDir().getPath()
-                + File.separatorChar + "PersProgempl"
-                + employee.getTIN().hashCode()
-                + ".dat";
-        File file = new File(pathStr);
-        FileOutputStream fileStream = new FileOutputStream(file);
-        try (ObjectOutputStream objStream
-                = new ObjectOutputStream(fileStream)) {
-            objStream.writeObject(employee);
+        addRecord(DataDirectoryInitializer.getDefaultStore(), employee);
+    }
+    
+    /**
+     * Writes an employee record to a given store. If the store already has a 
+     * record for the same taxpayer identification number, that record is 
+     * replaced.
+     * @param store The store to write to. For example, an {@link 
+     * InMemoryRecordStore}.
+     * @param employee The employee. For example, John Lopez, SSN 750-10-1729.
+     * @throws IOException If there is a problem writing the record.
+     */
+    public static void addRecord(RecordStore store, Employee employee) 
+            throws IOException {
+        store.write(RecordKeys.employeeKey(employee), 
+                RecordCodec.encode(employee));
+    }
+
+    /**
+     * Retrieves the record of the employee with a given taxpayer 
+     * identification number (TIN) from a given store. The record is read 
+     * directly by its key, without scanning the store.
+     * @param store The store to read from. For example, an {@link 
+     * InMemoryRecordStore}.
+     * @param tin The TIN. For example, the Social Security Number 
+     * 750-10-1729.
+     * @return The employee, or null if the store has no record for that TIN.
+     * @throws ClassNotFoundException If there was a deserialization problem 
+     * with the employee record.
+     * @throws IOException If there was some problem reading the record.
+     */
+    public static Employee getRecord(RecordStore store, 
+            TaxpayerIdentificationNumber tin) 
+            throws ClassNotFoundException, IOException {
+        byte[] bytes = store.read(RecordKeys.employeeKey(tin));
+        if (bytes == null) {
+            return null;
         }
+        return RecordCodec.decode(bytes, Employee.class);
     }
 
     public static ArrayList<Employee> getRecords() 
             throws ClassNotFoundException, IOException {
-        if (!DataDirectoryInitializer.hasBeenSet()) {
-            DataDirectoryInitializer.setDir();
-        }
-        File dir = DataDirectoryInitializer.getDir();
-        EmployeeRecordFilter filter = new EmployeeRecordFilter();
-        File[] matches = dir.listFiles(filter);
+        return getRecords(DataDirectoryInitializer.getDefaultStore());
+    }
+    
+    /**
+     * Retrieves all employee records from a given store.
+     * @param store The store to read from. For example, an {@link 
+     * InMemoryRecordStore}.
+     * @return A list of employees. It'll be an empty list if the store has no 
+     * employee records.
+     * @throws ClassNotFoundException If there was a deserialization problem 
+     * with the employee records.
+     * @throws IOException If there was some problem reading the records.
+     */
+    public static ArrayList<Employee> getRecords(RecordStore store) 
+            throws ClassNotFoundException, IOException {
         ArrayList<Employee> list = new ArrayList<>();
-        for (File file : matches) {
-            FileInputStream fileStream = new FileInputStream(file);
-            ObjectInputStream objStream = new ObjectInputStream(fileStream);
-            Employee employee = (Employee) objStream.readObject();
-            list.add(employee);
+        for (byte[] bytes 
+                : store.readAll(RecordKeys.EMPLOYEE_PREFIX).values()) {
+            list.add(RecordCodec.decode(bytes, Employee.class));
         }
         return list;
     }
@@ -89,7 +119,24 @@ public class EmployeeRecordsProcessor {
      */
     public static ArrayList<Employee> getRecords(int last4) 
             throws ClassNotFoundException, IOException {
-        ArrayList<Employee> list = getRecords();
+        return getRecords(DataDirectoryInitializer.getDefaultStore(), last4);
+    }
+    
+    /**
+     * Retrieves records from a given store for employees whose Social Security 
+     * Numbers (SSNs) match in their last four digits.
+     * @param store The store to read from. For example, an {@link 
+     * InMemoryRecordStore}.
+     * @param last4 The last four digits to match. For example, 1729.
+     * @return A list of employees with matching last four for their SSNs. It'll 
+     * be an empty list if there were no matches.
+     * @throws ClassNotFoundException If there was a deserialization problem 
+     * with the employee records.
+     * @throws IOException If there was some problem reading the records.
+     */
+    public static ArrayList<Employee> getRecords(RecordStore store, int last4) 
+            throws ClassNotFoundException, IOException {
+        ArrayList<Employee> list = getRecords(store);
         for (int i = list.size() - 1; i > -1; i--) {
             if (!((SocialSecurityNumber) list.get(i).getTIN()).matchesLastFour(last4)) {
                 list.remove(i);
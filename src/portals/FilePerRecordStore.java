@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Writes each record to its own file in a given directory. The file name is 
+ * the record key followed by ".dat", so for example the record with key 
+ * "PersProgemplSSNded3a56d" is in the file PersProgemplSSNded3a56d.dat. This 
+ * is the same layout the original version of this program used, so existing 
+ * data directories can be read without conversion, though the keys 
+ * themselves have changed since; see {@link RecordKeyMigrator}.
+ * @author Alonso del Arte
+ */
+public class FilePerRecordStore implements RecordStore {
+    
+    static final String FILE_EXTENSION = ".dat";
+    
+    private static final String TEMP_EXTENSION = ".tmp";
+    
+    private final File directory;
+    
+    /**
+     * Gives the directory this store keeps its files in.
+     * @return The directory. For example, C:\Temp\PersProg on a Windows 
+     * system.
+     */
+    public File getDir() {
+        return this.directory;
+    }
+    
+    File fileFor(String key) {
+        InMemoryRecordStore.checkKey(key);
+        return new File(this.directory, key + FILE_EXTENSION);
+    }
+    
+    /**
+     * {@inheritDoc} The record is first written to a temporary file which is 
+     * then moved into place, so that readers never see a half-written record. 
+     * Each write gets a temporary file of its own, so that two threads 
+     * writing the same record at once don't write over each other's 
+     * temporary file; whichever moves its file into place last wins.
+     */
+    @Override
+    public void write(String key, byte[] data) throws IOException {
+        File file = this.fileFor(key);
+        Path tempPath = Files.createTempFile(this.directory.toPath(), key, 
+                TEMP_EXTENSION);
+        try {
+            Files.write(tempPath, data);
+            Files.move(tempPath, file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempPath);
+            throw e;
+        }
+    }
+    
+    @Override
+    public byte[] read(String key) throws IOException {
+        try {
+            return Files.readAllBytes(this.fileFor(key).toPath());
+        } catch (NoSuchFileException nsfe) {
+            return null;
+        }
+    }
+    
+    /**
+     * {@inheritDoc} The record file is opened once, so if the record is 
+     * replaced during the transfer, the old record is transferred whole.
+     */
+    @Override
+    public long transferTo(String key, WritableByteChannel target) 
+            throws IOException {
+        try (FileChannel source = FileChannel.open(this.fileFor(key)
+                .toPath(), StandardOpenOption.READ)) {
+            long length = source.size();
+            RecordExporter.transferRegion(source, 0L, length, target);
+            return length;
+        } catch (NoSuchFileException nsfe) {
+            return -1L;
+        }
+    }
+    
+    @Override
+    public boolean contains(String key) {
+        return this.fileFor(key).isFile();
+    }
+    
+    @Override
+    public boolean delete(String key) throws IOException {
+        return Files.deleteIfExists(this.fileFor(key).toPath());
+    }
+    
+    @Override
+    public List<String> keys(String prefix) {
+        String[] names = this.directory.list((dir, name)
+                -> name.startsWith(prefix) && name.endsWith(FILE_EXTENSION));
+        List<String> list = new ArrayList<>();
+        if (names != null) {
+            int extLen = FILE_EXTENSION.length();
+            for (String name : names) {
+                list.add(name.substring(0, name.length() - extLen));
+            }
+            Collections.sort(list);
+        }
+        return list;
+    }
+    
+    @Override
+    public List<String> keys(String fromKey, String toKey) {
+        int extLen = FILE_EXTENSION.length();
+        String[] names = this.directory.list((dir, name) -> {
+            if (!name.endsWith(FILE_EXTENSION)) {
+                return false;
+            }
+            String key = name.substring(0, name.length() - extLen);
+            return key.compareTo(fromKey) >= 0 && key.compareTo(toKey) < 0;
+        });
+        List<String> list = new ArrayList<>();
+        if (names != null) {
+            for (String name : names) {
+                list.add(name.substring(0, name.length() - extLen));
+            }
+            Collections.sort(list);
+        }
+        return list;
+    }
+    
+    /**
+     * Constructor.
+     * @param dir The directory to keep the files in. If it doesn't exist yet, 
+     * it will be created.
+     * @throws IllegalArgumentException If <code>dir</code> is a file rather 
+     * than a directory.
+     * @throws IOException If the directory doesn't exist and can't be created.
+     */
+    public FilePerRecordStore(File dir) throws IOException {
+        if (dir.exists() && !dir.isDirectory()) {
+            String excMsg = dir.getPath() + " is not a directory";
+            throw new IllegalArgumentException(excMsg);
+        }
+        Files.createDirectories(dir.toPath());
+        this.directory = dir;
+    }
+    
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Keeps records in memory only. Nothing is written to disk, so everything is 
+ * lost when the program exits. This is meant for tests and load tests.
+ * @author Alonso del Arte
+ */
+public class InMemoryRecordStore implements RecordStore {
+    
+    private final ConcurrentSkipListMap<String, byte[]> records
+            = new ConcurrentSkipListMap<>();
+    
+    static void checkKey(String key) {
+        if (key == null || key.isEmpty()) {
+            String excMsg = "Record key must not be null or empty";
+            throw new IllegalArgumentException(excMsg);
+        }
+    }
+    
+    @Override
+    public void write(String key, byte[] data) {
+        checkKey(key);
+        this.records.put(key, data.clone());
+    }
+    
+    @Override
+    public byte[] read(String key) {
+        byte[] data = this.records.get(key);
+        return (data == null) ? null : data.clone();
+    }
+    
+    @Override
+    public boolean contains(String key) {
+        return this.records.containsKey(key);
+    }
+    
+    @Override
+    public boolean delete(String key) {
+        return this.records.remove(key) != null;
+    }
+    
+    @Override
+    public List<String> keys(String prefix) {
+        return new ArrayList<>(this.records.subMap(prefix, true,
+                prefix + Character.MAX_VALUE, false).keySet());
+    }
+    
+    @Override
+    public List<String> keys(String fromKey, String toKey) {
+        if (fromKey.compareTo(toKey) >= 0) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(this.records.subMap(fromKey, true, toKey, 
+                false).keySet());
+    }
+    
+}
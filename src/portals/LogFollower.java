@@ -0,0 +1,271 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tails a {@link ReplicationLog} and applies the changes in it to a standby 
+ * {@link RecordStore}, such as a {@link FilePerRecordStore} for a directory 
+ * on another disk. If the main store is lost, the standby can take its place 
+ * after the follower has applied whatever is left in the log, without having 
+ * to copy the whole data directory.
+ * <p>How far into the log the follower has gotten is kept in the standby 
+ * store itself, under the key {@value #POSITION_KEY}, so a follower that is 
+ * stopped and started again picks up where it left off. If the follower 
+ * stops after applying some changes but before saving its position, it 
+ * applies those changes again when started again, which does no harm since 
+ * they are applied in the same order. A record under that key in the log 
+ * itself, as when the main store was once a standby, is skipped.</p>
+ * <p>The follower can be polled with {@link #poll()}, or it can poll itself 
+ * on a background thread started with {@link #start(long)}. Either way, 
+ * {@link #getLagBytes()} and {@link #getLagMillis()} tell how far behind the 
+ * standby is.</p>
+ * @author Alonso del Arte
+ */
+public class LogFollower implements Closeable {
+
+    static final String POSITION_KEY = "PersProgreplpos";
+
+    /**
+     * How many changes to apply between saves of the position.
+     */
+    private static final int SAVE_INTERVAL = 1000;
+
+    private final FileChannel source;
+
+    private final RecordStore target;
+
+    private long position;
+
+    private long appliedPosition;
+
+    private long appliedSequence;
+
+    private long lastAppliedTimestamp = 0L;
+
+    private ScheduledExecutorService poller = null;
+
+    private volatile IOException lastError = null;
+
+    private void savePosition() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES * 3);
+        buffer.putLong(this.appliedSequence);
+        buffer.putLong(this.appliedPosition);
+        buffer.putLong(this.position);
+        this.target.write(POSITION_KEY, buffer.array());
+    }
+
+    /**
+     * Applies all the complete changes in the log that haven't been applied 
+     * yet, then saves the position.
+     * @return How many changes were applied. For example, 12. It will be 0 if 
+     * the standby was already caught up.
+     * @throws IOException If there is a problem reading the log or writing 
+     * the standby store, or if the last change applied is no longer in the 
+     * log where it was, as would happen if the log was deleted and a new one 
+     * started. In that case, the follower needs to be started over on an 
+     * empty directory.
+     */
+    public synchronized int poll() throws IOException {
+        if (this.appliedSequence > 0L) {
+            ReplicationLog.Entry last = ReplicationLog.readEntry(this.source, 
+                    this.appliedPosition);
+            if (last == null || last.sequence != this.appliedSequence 
+                    || last.nextPosition != this.position) {
+                throw new IOException("Replication log no longer has change " 
+                        + this.appliedSequence + " where it was applied from");
+            }
+        }
+        int count = 0;
+        ReplicationLog.Entry entry = ReplicationLog.readEntry(this.source, 
+                this.position);
+        while (entry != null) {
+            if (entry.sequence != this.appliedSequence + 1) {
+                throw new IOException("Replication log has change " 
+                        + entry.sequence + " where change " 
+                        + (this.appliedSequence + 1) + " was expected");
+            }
+            if (!entry.key.equals(POSITION_KEY)) {
+                if (entry.data == null) {
+                    this.target.delete(entry.key);
+                } else {
+                    this.target.write(entry.key, entry.data);
+                }
+            }
+            this.appliedSequence = entry.sequence;
+            this.appliedPosition = this.position;
+            this.lastAppliedTimestamp = entry.timestamp;
+            this.position = entry.nextPosition;
+            count++;
+            if (count % SAVE_INTERVAL == 0) {
+                this.savePosition();
+            }
+            entry = ReplicationLog.readEntry(this.source, this.position);
+        }
+        if (count % SAVE_INTERVAL != 0) {
+            this.savePosition();
+        }
+        return count;
+    }
+
+    /**
+     * Starts polling the log on a background thread.
+     * @param intervalMillis How long to wait between polls, in milliseconds. 
+     * For example, 200.
+     * @throws IllegalStateException If polling has already been started.
+     */
+    public synchronized void start(long intervalMillis) {
+        if (this.poller != null) {
+            throw new IllegalStateException("Already polling");
+        }
+        this.poller = Executors.newSingleThreadScheduledExecutor((runnable) 
+                -> {
+                    Thread thread = new Thread(runnable, "LogFollower");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.poller.scheduleWithFixedDelay(() -> {
+            try {
+                this.poll();
+                this.lastError = null;
+            } catch (IOException ioe) {
+                this.lastError = ioe;
+            }
+        }, 0L, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Gives the problem the background thread ran into on its latest poll, 
+     * if any. The background thread keeps trying regardless.
+     * @return The exception from the latest poll, or null if the latest poll 
+     * went fine or polling hasn't been started.
+     */
+    public IOException getLastError() {
+        return this.lastError;
+    }
+
+    /**
+     * Gives the sequence number of the latest change applied to the standby.
+     * @return The sequence number, or 0 if no changes have been applied yet. 
+     * For example, 1729.
+     */
+    public synchronized long getAppliedSequence() {
+        return this.appliedSequence;
+    }
+
+    /**
+     * Tells how much of the log is yet to be applied to the standby.
+     * @return The number of bytes in the log past the latest change applied. 
+     * For example, 0 if the standby is caught up.
+     * @throws IOException If there is a problem reading the size of the log.
+     */
+    public synchronized long getLagBytes() throws IOException {
+        return Math.max(this.source.size() - this.position, 0L);
+    }
+
+    /**
+     * Tells how long ago the oldest change not yet applied to the standby was 
+     * made. This is roughly how much time's worth of changes would be lost if 
+     * the standby took over right now without applying the rest of the log.
+     * @return The time in milliseconds, or 0 if the standby is caught up. For 
+     * example, 350.
+     * @throws IOException If there is a problem reading the log.
+     */
+    public synchronized long getLagMillis() throws IOException {
+        ReplicationLog.Entry next = ReplicationLog.readEntry(this.source, 
+                this.position);
+        if (next == null) {
+            return 0L;
+        }
+        return Math.max(System.currentTimeMillis() - next.timestamp, 0L);
+    }
+
+    /**
+     * Tells when the latest change applied to the standby was made on the 
+     * main store.
+     * @return The time in milliseconds since the epoch, or 0 if no changes 
+     * have been applied since this follower was opened.
+     */
+    public synchronized long getLastAppliedTimestamp() {
+        return this.lastAppliedTimestamp;
+    }
+
+    /**
+     * Stops polling, if it was started, and closes the log. The standby store 
+     * is not closed, so that it can take over from the main store.
+     * @throws IOException If there is a problem closing the log.
+     */
+    @Override
+    public void close() throws IOException {
+        ScheduledExecutorService service;
+        synchronized (this) {
+            service = this.poller;
+            this.poller = null;
+        }
+        if (service != null) {
+            service.shutdown();
+            try {
+                service.awaitTermination(1L, TimeUnit.MINUTES);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            this.source.close();
+        }
+    }
+
+    /**
+     * Constructor. Opens the log for reading and reads the position saved in 
+     * the standby store, if any.
+     * @param logFile The log written by the main store's {@link 
+     * ReplicatingRecordStore}. For example, PersProg.replog in the main data 
+     * directory.
+     * @param standby The store to apply the changes to. For example, a {@link 
+     * FilePerRecordStore} for the standby data directory. It should be empty 
+     * the first time a follower is opened on it.
+     * @throws IOException If there is a problem opening the log or reading 
+     * the standby store.
+     */
+    public LogFollower(File logFile, RecordStore standby) throws IOException {
+        this.target = standby;
+        byte[] saved = standby.read(POSITION_KEY);
+        if (saved != null && saved.length == Long.BYTES * 3) {
+            ByteBuffer buffer = ByteBuffer.wrap(saved);
+            this.appliedSequence = buffer.getLong();
+            this.appliedPosition = buffer.getLong();
+            this.position = buffer.getLong();
+        } else {
+            this.appliedSequence = 0L;
+            this.appliedPosition = 0L;
+            this.position = 0L;
+        }
+        this.source = FileChannel.open(logFile.toPath(), 
+                StandardOpenOption.READ);
+    }
+
+}
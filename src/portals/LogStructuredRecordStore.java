@@ -0,0 +1,386 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * Appends all records to a single log file. Overwriting a record appends the 
+ * new version and leaves the old version behind as garbage, and deleting a 
+ * record appends a "tombstone." An index in memory gives the position of the 
+ * latest version of each record, so a read is a single positioned read from 
+ * the log. The index is rebuilt by scanning the log when the store is opened.
+ * <p>Each entry in the log consists of the key length, the key in UTF-8, the 
+ * data length (&minus;1 for a tombstone), the data, and a CRC-32 checksum of 
+ * all that. If the program crashes partway through writing an entry, the 
+ * checksum won't match, and the incomplete entry is cut off the next time the 
+ * log is opened.</p>
+ * <p>Use {@link #compact()} from time to time to get rid of the garbage.</p>
+ * @author Alonso del Arte
+ */
+public class LogStructuredRecordStore implements RecordStore {
+    
+    private static final int TOMBSTONE_LENGTH = -1;
+    
+    private final File logFile;
+    
+    private FileChannel channel;
+    
+    private long logLength;
+    
+    /**
+     * Maps each key to the offset and length of the data of its latest 
+     * version in the log. Compaction builds a whole new index and swaps it in, 
+     * so functions that don't take the lock see either the old index or the 
+     * new one, never one partway through being filled in.
+     */
+    private volatile ConcurrentSkipListMap<String, long[]> index
+            = new ConcurrentSkipListMap<>();
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    
+    private static ByteBuffer encodeEntry(String key, byte[] data) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int dataLen = (data == null) ? 0 : data.length;
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES
+                + keyBytes.length + Integer.BYTES + dataLen + Integer.BYTES);
+        buffer.putInt(keyBytes.length);
+        buffer.put(keyBytes);
+        buffer.putInt((data == null) ? TOMBSTONE_LENGTH : dataLen);
+        if (data != null) {
+            buffer.put(data);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+        return buffer;
+    }
+    
+    private void readFully(ByteBuffer buffer, long position)
+            throws IOException {
+        while (buffer.hasRemaining()) {
+            int count = this.channel.read(buffer, position);
+            if (count < 0) {
+                throw new IOException("Unexpected end of log "
+                        + this.logFile.getName());
+            }
+            position += count;
+        }
+        buffer.flip();
+    }
+    
+    /**
+     * Scans the log to rebuild the index, cutting off any incomplete or 
+     * corrupted entry at the end.
+     */
+    private void recover() throws IOException {
+        long fileLength = this.channel.size();
+        long position = 0L;
+        ByteBuffer intBuffer = ByteBuffer.allocate(Integer.BYTES);
+        boolean intact = true;
+        while (intact && position + Integer.BYTES <= fileLength) {
+            intBuffer.clear();
+            this.readFully(intBuffer, position);
+            int keyLen = intBuffer.getInt();
+            if (keyLen <= 0 || position + Integer.BYTES * 3 + keyLen
+                    > fileLength) {
+                intact = false;
+                continue;
+            }
+            ByteBuffer headBuffer = ByteBuffer.allocate(keyLen
+                    + Integer.BYTES);
+            this.readFully(headBuffer, position + Integer.BYTES);
+            byte[] keyBytes = new byte[keyLen];
+            headBuffer.get(keyBytes);
+            int dataLen = headBuffer.getInt();
+            int storedLen = Math.max(dataLen, 0);
+            long entryLength = Integer.BYTES * 3L + keyLen + storedLen;
+            if (dataLen < TOMBSTONE_LENGTH
+                    || position + entryLength > fileLength) {
+                intact = false;
+                continue;
+            }
+            ByteBuffer entryBuffer = ByteBuffer.allocate((int) entryLength);
+            this.readFully(entryBuffer, position);
+            CRC32 crc = new CRC32();
+            crc.update(entryBuffer.array(), 0, entryBuffer.limit()
+                    - Integer.BYTES);
+            entryBuffer.position(entryBuffer.limit() - Integer.BYTES);
+            if (entryBuffer.getInt() != (int) crc.getValue()) {
+                intact = false;
+                continue;
+            }
+            String key = new String(keyBytes, StandardCharsets.UTF_8);
+            if (dataLen == TOMBSTONE_LENGTH) {
+                this.index.remove(key);
+            } else {
+                long dataOffset = position + Integer.BYTES * 2L + keyLen;
+                this.index.put(key, new long[]{dataOffset, dataLen});
+            }
+            position += entryLength;
+        }
+        if (position < fileLength) {
+            this.channel.truncate(position);
+            this.channel.force(true);
+        }
+        this.logLength = position;
+    }
+    
+    private void append(String key, byte[] data) throws IOException {
+        ByteBuffer buffer = encodeEntry(key, data);
+        long position = this.logLength;
+        while (buffer.hasRemaining()) {
+            position += this.channel.write(buffer, position);
+        }
+        if (data == null) {
+            this.index.remove(key);
+        } else {
+            int keyLen = buffer.limit() - data.length - Integer.BYTES * 3;
+            long dataOffset = this.logLength + Integer.BYTES * 2L + keyLen;
+            this.index.put(key, new long[]{dataOffset, data.length});
+        }
+        this.logLength = position;
+    }
+    
+    @Override
+    public void write(String key, byte[] data) throws IOException {
+        InMemoryRecordStore.checkKey(key);
+        this.lock.writeLock().lock();
+        try {
+            this.append(key, data.clone());
+            this.channel.force(false);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * {@inheritDoc} All the records are appended to the log, and then the log 
+     * is forced to the disk once for the whole batch.
+     */
+    @Override
+    public void writeAll(Map<String, byte[]> records) throws IOException {
+        for (String key : records.keySet()) {
+            InMemoryRecordStore.checkKey(key);
+        }
+        this.lock.writeLock().lock();
+        try {
+            for (Map.Entry<String, byte[]> entry : records.entrySet()) {
+                this.append(entry.getKey(), entry.getValue().clone());
+            }
+            this.channel.force(false);
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public byte[] read(String key) throws IOException {
+        this.lock.readLock().lock();
+        try {
+            long[] location = this.index.get(key);
+            if (location == null) {
+                return null;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) location[1]);
+            this.readFully(buffer, location[0]);
+            return buffer.array();
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+    
+    /**
+     * {@inheritDoc} The record is transferred straight from the log file.
+     */
+    @Override
+    public long transferTo(String key, WritableByteChannel target) 
+            throws IOException {
+        this.lock.readLock().lock();
+        try {
+            long[] location = this.index.get(key);
+            if (location == null) {
+                return -1L;
+            }
+            RecordExporter.transferRegion(this.channel, location[0], 
+                    location[1], target);
+            return location[1];
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+    
+    @Override
+    public boolean contains(String key) {
+        return this.index.containsKey(key);
+    }
+    
+    @Override
+    public boolean delete(String key) throws IOException {
+        this.lock.writeLock().lock();
+        try {
+            if (!this.index.containsKey(key)) {
+                return false;
+            }
+            this.append(key, null);
+            this.channel.force(false);
+            return true;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public List<String> keys(String prefix) {
+        return new ArrayList<>(this.index.subMap(prefix, true,
+                prefix + Character.MAX_VALUE, false).keySet());
+    }
+    
+    @Override
+    public List<String> keys(String fromKey, String toKey) {
+        if (fromKey.compareTo(toKey) >= 0) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(this.index.subMap(fromKey, true, toKey, 
+                false).keySet());
+    }
+    
+    /**
+     * Gives the current length of the log, including garbage.
+     * @return The length in bytes. For example, 65536.
+     */
+    public long getLogLength() {
+        return this.logLength;
+    }
+    
+    /**
+     * Gives the total length of the latest versions of all the records. The 
+     * difference between this and {@link #getLogLength()} is roughly how much 
+     * {@link #compact()} would reclaim.
+     * @return The length in bytes. For example, 40960.
+     */
+    public long getLiveDataLength() {
+        long total = 0L;
+        for (long[] location : this.index.values()) {
+            total += location[1];
+        }
+        return total;
+    }
+    
+    /**
+     * Rewrites the log with only the latest version of each record. The new 
+     * log is written to a temporary file which then replaces the old log, so 
+     * if something goes wrong the old log is still intact and the store can 
+     * go on using it. Reads and writes wait until compaction is done.
+     * @throws IOException If there is a problem writing the new log or 
+     * putting it in place of the old one.
+     */
+    public void compact() throws IOException {
+        this.lock.writeLock().lock();
+        try {
+            File tempFile = new File(this.logFile.getPath() + ".compact");
+            ConcurrentSkipListMap<String, long[]> newIndex 
+                    = new ConcurrentSkipListMap<>();
+            boolean closed = false;
+            boolean moved = false;
+            try {
+                try (FileChannel out = FileChannel.open(tempFile.toPath(),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+                    long position = 0L;
+                    for (Map.Entry<String, long[]> entry 
+                            : this.index.entrySet()) {
+                        long[] location = entry.getValue();
+                        ByteBuffer dataBuffer
+                                = ByteBuffer.allocate((int) location[1]);
+                        this.readFully(dataBuffer, location[0]);
+                        ByteBuffer buffer = encodeEntry(entry.getKey(),
+                                dataBuffer.array());
+                        int keyLen = buffer.limit() - (int) location[1]
+                                - Integer.BYTES * 3;
+                        newIndex.put(entry.getKey(), new long[]{position
+                                + Integer.BYTES * 2L + keyLen, location[1]});
+                        while (buffer.hasRemaining()) {
+                            position += out.write(buffer, position);
+                        }
+                    }
+                    out.force(true);
+                }
+                closed = true;
+                this.channel.close();
+                Files.move(tempFile.toPath(), this.logFile.toPath(),
+                        StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+                moved = true;
+            } finally {
+                if (closed) {
+                    this.channel = FileChannel.open(this.logFile.toPath(),
+                            StandardOpenOption.READ, StandardOpenOption.WRITE);
+                }
+                if (!moved) {
+                    Files.deleteIfExists(tempFile.toPath());
+                }
+            }
+            this.index = newIndex;
+            this.logLength = this.channel.size();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        this.lock.writeLock().lock();
+        try {
+            this.channel.close();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+    
+    /**
+     * Constructor. Opens the log, creating it if it doesn't exist yet, and 
+     * rebuilds the index.
+     * @param file The log file. For example, PersProg.log in the data 
+     * directory.
+     * @throws IOException If the log can't be opened or read.
+     */
+    public LogStructuredRecordStore(File file) throws IOException {
+        this.logFile = file;
+        this.channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.recover();
+    }
+    
+}
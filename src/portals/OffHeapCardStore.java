@@ -0,0 +1,547 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import entities.Employee;
+import entities.idnumbers.TaxpayerIdentificationNumber;
+import payroll.TimeCard;
+import time.DateTimeRange;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Keeps time cards outside the Java heap, in a direct byte buffer or in a 
+ * memory-mapped file, so that holding a year's worth of cards for thousands 
+ * of employees does not mean holding millions of <code>TimeCard</code>, 
+ * <code>DateTimeRange</code> and <code>LocalDateTime</code> objects for the 
+ * garbage collector to trace. The cards are read and changed through {@link 
+ * TimeCardView} flyweights, which hold nothing but a card number, so they can 
+ * be created and thrown away freely.
+ * <p>Each card takes up a slot of 40 bytes of header followed by room for a 
+ * number of time blocks at 16 bytes each. Times are kept to the second, as 
+ * seconds since 1970 counted as if local time were UTC. If a card runs out of 
+ * room for time blocks, it is moved to a new slot with twice the room, and 
+ * the old slot is wasted; see {@link #getWastedBytes()}. If the buffer runs 
+ * out of room, it is replaced by one twice as large.</p>
+ * <p>The only objects on the heap are the employees, one per card owner, a 
+ * table of card offsets and a primitive hash table for looking up cards by 
+ * owner and pay period. This store is a working copy, not a replacement for a 
+ * {@link RecordStore}: use {@link #loadFrom(RecordStore)} to fill it and 
+ * {@link #saveTo(RecordStore)} to write it back. Even when it's backed by a 
+ * file, the file is not meant to be reopened later.</p>
+ * <p>All access goes through synchronized methods of the store, so a store and 
+ * its views may be used by multiple threads.</p>
+ * @author Alonso del Arte
+ */
+public class OffHeapCardStore implements Closeable {
+
+    static final int HEADER_SIZE = 40;
+
+    static final int BLOCK_SIZE = 2 * Long.BYTES;
+
+    /**
+     * How many time blocks a new card has room for. Two blocks a day, seven 
+     * days a week, plus a couple to spare.
+     */
+    static final int INITIAL_BLOCK_CAPACITY = 16;
+
+    private static final int OWNER_OFFSET = 0;
+
+    private static final int FLAGS_OFFSET = 4;
+
+    private static final int PERIOD_START_OFFSET = 8;
+
+    private static final int PERIOD_END_OFFSET = 16;
+
+    private static final int LAST_PUNCH_IN_OFFSET = 24;
+
+    private static final int BLOCK_COUNT_OFFSET = 32;
+
+    private static final int BLOCK_CAPACITY_OFFSET = 36;
+
+    static final int ACTIVE_FLAG = 1;
+
+    static final int VERIFIED_FLAG = 2;
+
+    static final int PAID_FLAG = 4;
+
+    static final int PUNCHED_IN_FLAG = 8;
+
+    private static final long NO_KEY = -1L;
+
+    private ByteBuffer memory;
+
+    private final FileChannel channel;
+
+    private int used = 0;
+
+    private long wasted = 0L;
+
+    private int[] cardOffsets = new int[1024];
+
+    private int cardCount = 0;
+
+    private long[] lookupKeys;
+
+    private int[] lookupCards;
+
+    private final ArrayList<Employee> owners = new ArrayList<>();
+
+    private final HashMap<TaxpayerIdentificationNumber, Integer> ownerNumbers 
+            = new HashMap<>();
+
+    static long toSeconds(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    static LocalDateTime toLocalDateTime(long seconds) {
+        return LocalDateTime.ofEpochSecond(seconds, 0, ZoneOffset.UTC);
+    }
+
+    private static long lookupKey(int owner, long periodStartSeconds) {
+        return ((long) owner << 32) | ((periodStartSeconds / 60) & 0xFFFFFFFFL);
+    }
+
+    private int lookupSlot(long key) {
+        int mask = this.lookupKeys.length - 1;
+        int slot = (int) (key ^ (key >>> 29)) * 0x9E3779B1 & mask;
+        while (this.lookupKeys[slot] != NO_KEY 
+                && this.lookupKeys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void growLookup() {
+        long[] oldKeys = this.lookupKeys;
+        int[] oldCards = this.lookupCards;
+        this.lookupKeys = new long[oldKeys.length * 2];
+        Arrays.fill(this.lookupKeys, NO_KEY);
+        this.lookupCards = new int[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != NO_KEY) {
+                int slot = this.lookupSlot(oldKeys[i]);
+                this.lookupKeys[slot] = oldKeys[i];
+                this.lookupCards[slot] = oldCards[i];
+            }
+        }
+    }
+
+    private void ensureRoom(int bytes) throws IOException {
+        long needed = (long) this.used + bytes;
+        if (needed <= this.memory.capacity()) {
+            return;
+        }
+        long newCapacity = Math.max(needed, 2L * this.memory.capacity());
+        if (newCapacity > Integer.MAX_VALUE) {
+            if (needed > Integer.MAX_VALUE) {
+                String excMsg = "Off-heap card store can't grow past 2 GB";
+                throw new IllegalStateException(excMsg);
+            }
+            newCapacity = Integer.MAX_VALUE;
+        }
+        ByteBuffer replacement;
+        if (this.channel == null) {
+            replacement = ByteBuffer.allocateDirect((int) newCapacity);
+            ByteBuffer source = this.memory.duplicate();
+            source.position(0).limit(this.used);
+            replacement.put(source);
+            replacement.clear();
+        } else {
+            replacement = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, 
+                    newCapacity);
+        }
+        this.memory = replacement;
+    }
+
+    private int allocateSlot(int blockCapacity) throws IOException {
+        int size = HEADER_SIZE + blockCapacity * BLOCK_SIZE;
+        this.ensureRoom(size);
+        int offset = this.used;
+        this.used += size;
+        this.memory.putInt(offset + BLOCK_CAPACITY_OFFSET, blockCapacity);
+        return offset;
+    }
+
+    private int ownerNumber(Employee employee) {
+        Integer number = this.ownerNumbers.get(employee.getTIN());
+        if (number == null) {
+            number = this.owners.size();
+            this.owners.add(employee);
+            this.ownerNumbers.put(employee.getTIN(), number);
+        }
+        return number;
+    }
+
+    private int offsetOf(int cardNumber) {
+        if (cardNumber < 0 || cardNumber >= this.cardCount) {
+            String excMsg = "Card number " + cardNumber 
+                    + " is not in this store of " + this.cardCount + " cards";
+            throw new IndexOutOfBoundsException(excMsg);
+        }
+        return this.cardOffsets[cardNumber];
+    }
+
+    /**
+     * Copies a time card into this store. If the store already has a card for 
+     * the same employee and pay period, that card is overwritten.
+     * @param card The card to copy. For example, John Lopez's card for the 
+     * week of October 12, 2026. Listeners on the card are not copied.
+     * @return A view of the copy.
+     * @throws IOException If the store is backed by a file and there is a 
+     * problem enlarging the file.
+     */
+    public synchronized TimeCardView put(TimeCard card) throws IOException {
+        int owner = this.ownerNumber(card.getEmployee());
+        long periodStart = toSeconds(card.getStartTime());
+        long key = lookupKey(owner, periodStart);
+        int slot = this.lookupSlot(key);
+        ArrayList<DateTimeRange> blocks = card.getTimeBlocks();
+        int cardNumber;
+        int offset;
+        if (this.lookupKeys[slot] == key) {
+            cardNumber = this.lookupCards[slot];
+            offset = this.cardOffsets[cardNumber];
+            int capacity = this.memory.getInt(offset + BLOCK_CAPACITY_OFFSET);
+            if (capacity < blocks.size()) {
+                this.wasted += HEADER_SIZE + capacity * BLOCK_SIZE;
+                offset = this.allocateSlot(Math.max(2 * capacity, 
+                        blocks.size()));
+                this.cardOffsets[cardNumber] = offset;
+            }
+        } else {
+            offset = this.allocateSlot(Math.max(INITIAL_BLOCK_CAPACITY, 
+                    blocks.size()));
+            if (this.cardCount == this.cardOffsets.length) {
+                this.cardOffsets = Arrays.copyOf(this.cardOffsets, 
+                        2 * this.cardCount);
+            }
+            cardNumber = this.cardCount++;
+            this.cardOffsets[cardNumber] = offset;
+            this.lookupKeys[slot] = key;
+            this.lookupCards[slot] = cardNumber;
+            if (2 * this.cardCount > this.lookupKeys.length) {
+                this.growLookup();
+            }
+        }
+        int flags = (card.isActive() ? ACTIVE_FLAG : 0) 
+                | (card.hasBeenVerified() ? VERIFIED_FLAG : 0) 
+                | (card.hasBeenPaid() ? PAID_FLAG : 0) 
+                | (card.isPunchedIn() ? PUNCHED_IN_FLAG : 0);
+        this.memory.putInt(offset + OWNER_OFFSET, owner);
+        this.memory.putInt(offset + FLAGS_OFFSET, flags);
+        this.memory.putLong(offset + PERIOD_START_OFFSET, periodStart);
+        this.memory.putLong(offset + PERIOD_END_OFFSET, 
+                toSeconds(card.getEndTime()));
+        this.memory.putLong(offset + LAST_PUNCH_IN_OFFSET, 
+                card.getLastPunchIn() == null ? 0L 
+                        : toSeconds(card.getLastPunchIn()));
+        this.memory.putInt(offset + BLOCK_COUNT_OFFSET, blocks.size());
+        int position = offset + HEADER_SIZE;
+        for (DateTimeRange block : blocks) {
+            this.memory.putLong(position, toSeconds(block.getStart()));
+            this.memory.putLong(position + Long.BYTES, 
+                    toSeconds(block.getEnd()));
+            position += BLOCK_SIZE;
+        }
+        return new TimeCardView(this, cardNumber);
+    }
+
+    /**
+     * Finds the card for a given employee and pay period.
+     * @param employee The employee. For example, John Lopez, SSN 750-10-1729.
+     * @param periodStart The start of the pay period. For example, October 12, 
+     * 2026 at 12:00 a.m.
+     * @return A view of the card, or null if this store doesn't have a card 
+     * for that employee and period.
+     */
+    public synchronized TimeCardView find(Employee employee, 
+            LocalDateTime periodStart) {
+        Integer owner = this.ownerNumbers.get(employee.getTIN());
+        if (owner == null) {
+            return null;
+        }
+        long key = lookupKey(owner, toSeconds(periodStart));
+        int slot = this.lookupSlot(key);
+        if (this.lookupKeys[slot] != key) {
+            return null;
+        }
+        return new TimeCardView(this, this.lookupCards[slot]);
+    }
+
+    /**
+     * Gives a view of a card by its number. Cards are numbered from 0 in the 
+     * order they were first put in the store.
+     * @param cardNumber The number of the card. For example, 0.
+     * @return A view of the card.
+     * @throws IndexOutOfBoundsException If <code>cardNumber</code> is 
+     * negative, or not less than {@link #getCardCount()}.
+     */
+    public synchronized TimeCardView view(int cardNumber) {
+        this.offsetOf(cardNumber);
+        return new TimeCardView(this, cardNumber);
+    }
+
+    /**
+     * Tells how many cards are in this store.
+     * @return The number of cards. For example, 1560000 for a year of weekly 
+     * cards for 30,000 employees.
+     */
+    public synchronized int getCardCount() {
+        return this.cardCount;
+    }
+
+    /**
+     * Tells how many bytes of the buffer have been used, including wasted 
+     * slots.
+     * @return The number of bytes used. For example, 296.
+     */
+    public synchronized int getBytesUsed() {
+        return this.used;
+    }
+
+    /**
+     * Tells how many bytes are taken up by slots that were abandoned when 
+     * cards outgrew them.
+     * @return The number of wasted bytes. For example, 0.
+     */
+    public synchronized long getWastedBytes() {
+        return this.wasted;
+    }
+
+    /**
+     * Copies all the current time cards in a record store into this store.
+     * @param store The record store. For example, a {@link 
+     * FilePerRecordStore} for the data directory.
+     * @return How many cards were copied. For example, 14.
+     * @throws ClassNotFoundException If there is a deserialization problem.
+     * @throws IOException If there is a problem reading the record store or 
+     * enlarging the file backing this store.
+     */
+    public int loadFrom(RecordStore store) 
+            throws ClassNotFoundException, IOException {
+        int count = 0;
+        for (TimeCard card : TimeCardsProcessor.getCards(store)) {
+            this.put(card);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Writes all the cards in this store to a record store, by way of {@link 
+     * TimeCardsProcessor#putCard(RecordStore, TimeCard)}.
+     * @param store The record store. For example, a {@link 
+     * FilePerRecordStore} for the data directory.
+     * @throws IOException If there is a problem writing to the record store.
+     */
+    public void saveTo(RecordStore store) throws IOException {
+        int count = this.getCardCount();
+        for (int i = 0; i < count; i++) {
+            TimeCardsProcessor.putCard(store, this.view(i).toTimeCard());
+        }
+    }
+
+    synchronized Employee getOwner(int cardNumber) {
+        int offset = this.offsetOf(cardNumber);
+        return this.owners.get(this.memory.getInt(offset + OWNER_OFFSET));
+    }
+
+    synchronized int getFlags(int cardNumber) {
+        return this.memory.getInt(this.offsetOf(cardNumber) + FLAGS_OFFSET);
+    }
+
+    /**
+     * Sets some of a card's flags and clears others in one step, so that 
+     * changes to different flags of the same card from different threads 
+     * don't undo each other.
+     * @return The card's flags afterwards.
+     */
+    synchronized int updateFlags(int cardNumber, int setMask, int clearMask) {
+        int offset = this.offsetOf(cardNumber) + FLAGS_OFFSET;
+        int flags = (this.memory.getInt(offset) | setMask) & ~clearMask;
+        this.memory.putInt(offset, flags);
+        return flags;
+    }
+
+    synchronized long getPeriodStart(int cardNumber) {
+        return this.memory.getLong(this.offsetOf(cardNumber) 
+                + PERIOD_START_OFFSET);
+    }
+
+    synchronized long getPeriodEnd(int cardNumber) {
+        return this.memory.getLong(this.offsetOf(cardNumber) 
+                + PERIOD_END_OFFSET);
+    }
+
+    synchronized long getLastPunchIn(int cardNumber) {
+        return this.memory.getLong(this.offsetOf(cardNumber) 
+                + LAST_PUNCH_IN_OFFSET);
+    }
+
+    synchronized void setLastPunchIn(int cardNumber, long seconds) {
+        this.memory.putLong(this.offsetOf(cardNumber) + LAST_PUNCH_IN_OFFSET, 
+                seconds);
+    }
+
+    synchronized int getBlockCount(int cardNumber) {
+        return this.memory.getInt(this.offsetOf(cardNumber) 
+                + BLOCK_COUNT_OFFSET);
+    }
+
+    synchronized long getBlockStart(int cardNumber, int blockIndex) {
+        return this.memory.getLong(this.blockPosition(cardNumber, blockIndex));
+    }
+
+    synchronized long getBlockEnd(int cardNumber, int blockIndex) {
+        return this.memory.getLong(this.blockPosition(cardNumber, blockIndex) 
+                + Long.BYTES);
+    }
+
+    private int blockPosition(int cardNumber, int blockIndex) {
+        int offset = this.offsetOf(cardNumber);
+        int count = this.memory.getInt(offset + BLOCK_COUNT_OFFSET);
+        if (blockIndex < 0 || blockIndex >= count) {
+            String excMsg = "Block " + blockIndex + " is not on card with " 
+                    + count + " blocks";
+            throw new IndexOutOfBoundsException(excMsg);
+        }
+        return offset + HEADER_SIZE + blockIndex * BLOCK_SIZE;
+    }
+
+    synchronized long sumBlockSeconds(int cardNumber) {
+        int offset = this.offsetOf(cardNumber);
+        int count = this.memory.getInt(offset + BLOCK_COUNT_OFFSET);
+        long total = 0L;
+        int position = offset + HEADER_SIZE;
+        for (int i = 0; i < count; i++) {
+            total += this.memory.getLong(position + Long.BYTES) 
+                    - this.memory.getLong(position);
+            position += BLOCK_SIZE;
+        }
+        return total;
+    }
+
+    /**
+     * Inserts a time block into a card, keeping the blocks in order by start 
+     * and then end, the same order {@link DateTimeRange#compareTo} gives. The 
+     * card is moved to a bigger slot if necessary.
+     */
+    synchronized void insertBlock(int cardNumber, long start, long end) 
+            throws IOException {
+        int offset = this.offsetOf(cardNumber);
+        int count = this.memory.getInt(offset + BLOCK_COUNT_OFFSET);
+        int capacity = this.memory.getInt(offset + BLOCK_CAPACITY_OFFSET);
+        if (count == capacity) {
+            int newOffset = this.allocateSlot(2 * capacity);
+            for (int i = 0; i < HEADER_SIZE + count * BLOCK_SIZE; 
+                    i += Long.BYTES) {
+                this.memory.putLong(newOffset + i, 
+                        this.memory.getLong(offset + i));
+            }
+            this.memory.putInt(newOffset + BLOCK_CAPACITY_OFFSET, 
+                    2 * capacity);
+            this.wasted += HEADER_SIZE + capacity * BLOCK_SIZE;
+            this.cardOffsets[cardNumber] = newOffset;
+            offset = newOffset;
+        }
+        int index = count;
+        int blocksStart = offset + HEADER_SIZE;
+        while (index > 0) {
+            int previous = blocksStart + (index - 1) * BLOCK_SIZE;
+            long previousStart = this.memory.getLong(previous);
+            long previousEnd = this.memory.getLong(previous + Long.BYTES);
+            if (previousStart < start 
+                    || (previousStart == start && previousEnd <= end)) {
+                break;
+            }
+            this.memory.putLong(previous + BLOCK_SIZE, previousStart);
+            this.memory.putLong(previous + BLOCK_SIZE + Long.BYTES, 
+                    previousEnd);
+            index--;
+        }
+        int position = blocksStart + index * BLOCK_SIZE;
+        this.memory.putLong(position, start);
+        this.memory.putLong(position + Long.BYTES, end);
+        this.memory.putInt(offset + BLOCK_COUNT_OFFSET, count + 1);
+    }
+
+    /**
+     * Forces any changes to a file-backed store out to the file, and releases 
+     * the file. The store should not be used afterwards. For a store backed by 
+     * a direct buffer, this does nothing; the memory is released when the 
+     * store is garbage collected.
+     * @throws IOException If there is a problem writing to the file.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (this.channel != null) {
+            ((MappedByteBuffer) this.memory).force();
+            this.channel.close();
+        }
+    }
+
+    private OffHeapCardStore(ByteBuffer buffer, FileChannel fileChannel) {
+        this.memory = buffer;
+        this.channel = fileChannel;
+        this.lookupKeys = new long[2048];
+        Arrays.fill(this.lookupKeys, NO_KEY);
+        this.lookupCards = new int[2048];
+    }
+
+    /**
+     * Constructor for a store in a direct buffer, outside the heap but not 
+     * backed by a file.
+     * @param initialCapacity How many bytes to allocate to begin with. For 
+     * example, 300 times the expected number of cards.
+     * @throws IllegalArgumentException If <code>initialCapacity</code> is 
+     * negative.
+     */
+    public OffHeapCardStore(int initialCapacity) {
+        this(ByteBuffer.allocateDirect(initialCapacity), null);
+    }
+
+    /**
+     * Constructor for a store in a memory-mapped file. Whatever was in the 
+     * file before is ignored and overwritten.
+     * @param file The file to map. For example, PersProgcards.map in the 
+     * temporary folder. If it doesn't exist yet, it will be created.
+     * @param initialCapacity How many bytes to map to begin with. For example, 
+     * 300 times the expected number of cards.
+     * @throws IOException If there is a problem opening or mapping the file.
+     */
+    public OffHeapCardStore(File file, int initialCapacity) 
+            throws IOException {
+        this(null, FileChannel.open(file.toPath(), StandardOpenOption.CREATE, 
+                StandardOpenOption.READ, StandardOpenOption.WRITE));
+        this.memory = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, 
+                initialCapacity);
+    }
+
+}
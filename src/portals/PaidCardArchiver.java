@@ -0,0 +1,389 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import entities.Employee;
+import payroll.TimeCard;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Moves paid time cards out of the current cards and into compressed archive 
+ * records, kept by pay period. Since a paid card can no longer be changed, 
+ * there is no reason for it to be deserialized by every scan of the current 
+ * cards. The archives are kept under keys with the prefix "PersProgarch" (see 
+ * {@link RecordKeys#archiveKey(LocalDateTime, int)}) and so are not picked up 
+ * by scans of the time cards.
+ * <p>The paid cards are found through the {@link CardStatusIndex}, so the 
+ * unpaid cards are never read. Each time more cards for a period are 
+ * archived, they are written as a new segment of that period's archive, so 
+ * the cards archived before are neither read back nor written again.</p>
+ * <p>Each card is compressed separately, so that a single card can be pulled 
+ * out of an archive segment without inflating the others. After the 
+ * compressed cards comes a footer index giving the offset, compressed length 
+ * and record key of each card, and after that a fixed-size trailer giving the 
+ * offset of the footer and a "magic number" to recognize the format. Since 
+ * card keys are one-to-one with employees and pay periods (see {@link 
+ * RecordKeys}), the footer alone tells whose cards are in the segment.</p>
+ * @author Alonso del Arte
+ */
+public class PaidCardArchiver {
+    
+    /**
+     * Identifies a record as a time card archive written by this class. The 
+     * number spells "PCA" for "paid card archive" followed by a format version 
+     * number.
+     */
+    static final int ARCHIVE_MAGIC_NUMBER = 0x50434102;
+    
+    /**
+     * How many bytes the trailer takes up: the footer offset as a 
+     * <code>long</code> and the magic number as an <code>int</code>.
+     */
+    private static final int TRAILER_LENGTH = Long.BYTES + Integer.BYTES;
+    
+    private static byte[] compress(TimeCard card) throws IOException {
+        ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+        try (ObjectOutputStream objStream = new ObjectOutputStream(new 
+                DeflaterOutputStream(byteStream))) {
+            objStream.writeObject(card);
+        }
+        return byteStream.toByteArray();
+    }
+    
+    private static TimeCard decompress(byte[] bytes, int offset, int length) 
+            throws ClassNotFoundException, IOException {
+        try (ObjectInputStream objStream = new ObjectInputStream(new 
+                InflaterInputStream(new ByteArrayInputStream(bytes, offset, 
+                        length)))) {
+            return (TimeCard) objStream.readObject();
+        }
+    }
+    
+    /**
+     * Packs the given cards into an archive segment.
+     * @param cards The cards to pack. Should all be for the same pay period.
+     * @return The segment, ready to be written to a {@link RecordStore}.
+     * @throws IOException If there is a problem serializing the cards.
+     */
+    static byte[] packArchive(List<TimeCard> cards) throws IOException {
+        int count = cards.size();
+        long[] offsets = new long[count];
+        int[] lengths = new int[count];
+        ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+        DataOutputStream dataStream = new DataOutputStream(byteStream);
+        for (int i = 0; i < count; i++) {
+            byte[] bytes = compress(cards.get(i));
+            offsets[i] = dataStream.size();
+            lengths[i] = bytes.length;
+            dataStream.write(bytes);
+        }
+        long footerOffset = dataStream.size();
+        dataStream.writeInt(count);
+        for (int i = 0; i < count; i++) {
+            byte[] key = RecordKeys.cardKey(cards.get(i))
+                    .getBytes(StandardCharsets.UTF_8);
+            dataStream.writeLong(offsets[i]);
+            dataStream.writeInt(lengths[i]);
+            dataStream.writeInt(key.length);
+            dataStream.write(key);
+        }
+        dataStream.writeLong(footerOffset);
+        dataStream.writeInt(ARCHIVE_MAGIC_NUMBER);
+        dataStream.flush();
+        return byteStream.toByteArray();
+    }
+    
+    /**
+     * Checks the trailer of an archive segment and gives a buffer over the 
+     * segment positioned at the start of the footer.
+     */
+    private static ByteBuffer footer(byte[] archive) throws IOException {
+        if (archive.length < TRAILER_LENGTH + Integer.BYTES) {
+            String excMsg = "Record is too short to be a time card archive";
+            throw new StreamCorruptedException(excMsg);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(archive);
+        buffer.position(archive.length - TRAILER_LENGTH);
+        long footerOffset = buffer.getLong();
+        if (buffer.getInt() != ARCHIVE_MAGIC_NUMBER) {
+            String excMsg = "Record is not a time card archive";
+            throw new StreamCorruptedException(excMsg);
+        }
+        buffer.position((int) footerOffset);
+        return buffer;
+    }
+    
+    private static String getKey(ByteBuffer buffer) {
+        byte[] key = new byte[buffer.getInt()];
+        buffer.get(key);
+        return new String(key, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Gives the keys of the cards in an archive segment, as they were when the 
+     * cards were current, without inflating any of the cards.
+     * @param archive The segment, as read from a {@link RecordStore}.
+     * @return The card keys, in the order the cards were packed. For example, 
+     * "PersProgcardSSNded3a56d-202610120000".
+     * @throws IOException If the segment is not valid.
+     */
+    static ArrayList<String> archivedCardKeys(byte[] archive) 
+            throws IOException {
+        ByteBuffer buffer = footer(archive);
+        int count = buffer.getInt();
+        ArrayList<String> keys = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            buffer.position(buffer.position() + Long.BYTES + Integer.BYTES);
+            keys.add(getKey(buffer));
+        }
+        return keys;
+    }
+    
+    /**
+     * Unpacks cards from an archive segment. Only the cards of the given 
+     * employee are inflated, the others are skipped over.
+     * @param archive The segment, as read from a {@link RecordStore}.
+     * @param employeeKey The record key of the employee whose cards are 
+     * wanted (see {@link RecordKeys#employeeKey(Employee)}), or null for all 
+     * cards in the segment.
+     * @return A list of cards, possibly empty.
+     * @throws ClassNotFoundException If there is a deserialization problem.
+     * @throws IOException If the segment is not valid.
+     */
+    static ArrayList<TimeCard> unpackArchive(byte[] archive, 
+            String employeeKey) throws ClassNotFoundException, IOException {
+        ByteBuffer buffer = footer(archive);
+        int count = buffer.getInt();
+        ArrayList<TimeCard> list = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int offset = (int) buffer.getLong();
+            int length = buffer.getInt();
+            String cardKey = getKey(buffer);
+            if (employeeKey == null || employeeKey.equals(RecordKeys
+                    .employeeKeyForCard(cardKey))) {
+                list.add(decompress(archive, offset, length));
+            }
+        }
+        return list;
+    }
+    
+    /**
+     * Moves all paid time cards in the data directory into the archives for 
+     * their pay periods.
+     * @return How many cards were archived. For example, 14.
+     * @throws ClassNotFoundException If there is a problem deserializing the 
+     * time card files.
+     * @throws IOException If there is a problem reading or writing the files.
+     */
+    public static int archivePaidCards() 
+            throws ClassNotFoundException, IOException {
+        return archivePaidCards(DataDirectoryInitializer.getDefaultStore());
+    }
+    
+    /**
+     * Moves all paid time cards in a given store into the archives for their 
+     * pay periods. The paid cards are found through the {@link 
+     * CardStatusIndex}. For each period, the cards not already archived are 
+     * written as a new archive segment; the existing segments are read only 
+     * for their footers, to skip cards archived by an earlier run that was 
+     * cut short. Each card is deleted from the current cards, along with its 
+     * stream of events, if it has one, and its {@link PeriodIndex} and {@link 
+     * CardStatusIndex} entries, only after the segment holding it has been 
+     * written.
+     * @param store The store. For example, an {@link InMemoryRecordStore}.
+     * @return How many cards were archived. For example, 14.
+     * @throws ClassNotFoundException If there is a problem deserializing the 
+     * time cards.
+     * @throws IOException If there is a problem reading or writing the store.
+     */
+    public static int archivePaidCards(RecordStore store) 
+            throws ClassNotFoundException, IOException {
+        CardStatusIndex statusIndex = new CardStatusIndex(store);
+        TreeMap<LocalDateTime, ArrayList<TimeCard>> cardsByPeriod 
+                = new TreeMap<>();
+        for (TimeCard card : statusIndex.getPaidCards()) {
+            cardsByPeriod.computeIfAbsent(card.getStartTime(), 
+                    (k) -> new ArrayList<>()).add(card);
+        }
+        PeriodIndex periodIndex = new PeriodIndex(store);
+        int archivedCount = 0;
+        for (Map.Entry<LocalDateTime, ArrayList<TimeCard>> entry 
+                : cardsByPeriod.entrySet()) {
+            LocalDateTime periodStart = entry.getKey();
+            List<String> segmentKeys 
+                    = store.keys(RecordKeys.archiveKey(periodStart));
+            Set<String> alreadyArchived = new HashSet<>();
+            for (String segmentKey : segmentKeys) {
+                byte[] segment = store.read(segmentKey);
+                if (segment != null) {
+                    alreadyArchived.addAll(archivedCardKeys(segment));
+                }
+            }
+            ArrayList<TimeCard> cards = new ArrayList<>();
+            for (TimeCard card : entry.getValue()) {
+                if (!alreadyArchived.contains(RecordKeys.cardKey(card))) {
+                    cards.add(card);
+                }
+            }
+            if (!cards.isEmpty()) {
+                store.write(RecordKeys.archiveKey(periodStart, 
+                        segmentKeys.size()), packArchive(cards));
+            }
+            for (TimeCard card : entry.getValue()) {
+                store.delete(RecordKeys.cardKey(card));
+                CardEventJournal.deleteStream(store, card);
+                periodIndex.remove(card);
+                statusIndex.remove(card);
+                archivedCount++;
+            }
+        }
+        return archivedCount;
+    }
+    
+    /**
+     * Retrieves all the archived time cards from the data directory.
+     * @return A list of the archived time cards, ordered by pay period. It 
+     * will be an empty list if nothing has been archived yet.
+     * @throws ClassNotFoundException If there is a deserialization problem.
+     * @throws IOException If there is a problem reading the archive files.
+     */
+    public static ArrayList<TimeCard> getArchivedCards() 
+            throws ClassNotFoundException, IOException {
+        return getArchivedCards(DataDirectoryInitializer.getDefaultStore());
+    }
+    
+    /**
+     * Retrieves all the archived time cards from a given store.
+     * @param store The store. For example, an {@link InMemoryRecordStore}.
+     * @return A list of the archived time cards, ordered by pay period. It 
+     * will be an empty list if nothing has been archived yet.
+     * @throws ClassNotFoundException If there is a deserialization problem.
+     * @throws IOException If there is a problem reading the archives.
+     */
+    public static ArrayList<TimeCard> getArchivedCards(RecordStore store) 
+            throws ClassNotFoundException, IOException {
+        ArrayList<TimeCard> list = new ArrayList<>();
+        for (String key : store.keys(RecordKeys.ARCHIVE_PREFIX)) {
+            byte[] archive = store.read(key);
+            if (archive != null) {
+                list.addAll(unpackArchive(archive, null));
+            }
+        }
+        return list;
+    }
+    
+    /**
+     * Retrieves the archived time cards for a given pay period from the data 
+     * directory. Only the archive for that period is read.
+     * @param periodStart The start of the pay period. For example, October 12, 
+     * 2026 at 12:00 a.m.
+     * @return A list of the archived time cards for that period. It will be an 
+     * empty list if no cards for that period have been archived.
+     * @throws ClassNotFoundException If there is a deserialization problem.
+     * @throws IOException If there is a problem reading the archive file.
+     */
+    public static ArrayList<TimeCard> getArchivedCards(LocalDateTime 
+            periodStart) throws ClassNotFoundException, IOException {
+        return getArchivedCards(DataDirectoryInitializer.getDefaultStore(), 
+                periodStart);
+    }
+    
+    /**
+     * Retrieves the archived time cards for a given pay period from a given 
+     * store. Only the archive segments for that period are read.
+     * @param store The store. For example, an {@link InMemoryRecordStore}.
+     * @param periodStart The start of the pay period. For example, October 12, 
+     * 2026 at 12:00 a.m.
+     * @return A list of the archived time cards for that period. It will be an 
+     * empty list if no cards for that period have been archived.
+     * @throws ClassNotFoundException If there is a deserialization problem.
+     * @throws IOException If there is a problem reading the archive.
+     */
+    public static ArrayList<TimeCard> getArchivedCards(RecordStore store, 
+            LocalDateTime periodStart) 
+            throws ClassNotFoundException, IOException {
+        ArrayList<TimeCard> list = new ArrayList<>();
+        for (String key : store.keys(RecordKeys.archiveKey(periodStart))) {
+            byte[] archive = store.read(key);
+            if (archive != null) {
+                list.addAll(unpackArchive(archive, null));
+            }
+        }
+        return list;
+    }
+    
+    /**
+     * Retrieves the archived time cards for a given employee from the data 
+     * directory.
+     * @param employee The employee whose cards are wanted.
+     * @return A list of the employee's archived time cards, ordered by pay 
+     * period. It will be an empty list if none of the employee's cards have 
+     * been archived.
+     * @throws ClassNotFoundException If there is a deserialization problem.
+     * @throws IOException If there is a problem reading the archive files.
+     */
+    public static ArrayList<TimeCard> getArchivedCards(Employee employee) 
+            throws ClassNotFoundException, IOException {
+        return getArchivedCards(DataDirectoryInitializer.getDefaultStore(), 
+                employee);
+    }
+    
+    /**
+     * Retrieves the archived time cards for a given employee from a given 
+     * store. The footer index of each archive is consulted so that only that 
+     * employee's cards are inflated.
+     * @param store The store. For example, an {@link InMemoryRecordStore}.
+     * @param employee The employee whose cards are wanted.
+     * @return A list of the employee's archived time cards, ordered by pay 
+     * period. It will be an empty list if none of the employee's cards have 
+     * been archived.
+     * @throws ClassNotFoundException If there is a deserialization problem.
+     * @throws IOException If there is a problem reading the archives.
+     */
+    public static ArrayList<TimeCard> getArchivedCards(RecordStore store, 
+            Employee employee) throws ClassNotFoundException, IOException {
+        String employeeKey = RecordKeys.employeeKey(employee);
+        ArrayList<TimeCard> list = new ArrayList<>();
+        for (String key : store.keys(RecordKeys.ARCHIVE_PREFIX)) {
+            byte[] archive = store.read(key);
+            if (archive != null) {
+                list.addAll(unpackArchive(archive, employeeKey));
+            }
+        }
+        return list;
+    }
+    
+}
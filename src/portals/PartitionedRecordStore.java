@@ -0,0 +1,308 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Spreads records over several other stores, called partitions, such as 
+ * {@link FilePerRecordStore} instances for directories on separate disks. 
+ * Each record lives in exactly one partition, chosen from its key, so reads, 
+ * writes and deletes go to that one partition. Listing keys and reading all 
+ * records with a given prefix are fanned out to all the partitions at once, 
+ * on a thread per partition, and the results are merged.
+ * <p>An employee's record, the employee's time cards and the {@link 
+ * PeriodIndex} entries for those cards are all placed by a hash of the 
+ * employee's taxpayer identification number (TIN), as it appears in the keys 
+ * given by {@link RecordKeys}, so they all end up in the same partition. Other 
+ * records, such as archives and the entries of the {@link CardStatusIndex}, 
+ * are placed by a hash of the whole key.</p>
+ * <p>The number of partitions can't be changed once records have been 
+ * written, since that would change which partition most keys belong to.</p>
+ * @author Alonso del Arte
+ */
+public class PartitionedRecordStore implements RecordStore {
+
+    private final List<RecordStore> partitions;
+
+    private final ExecutorService executor;
+
+    /**
+     * Gives the part of a key that determines its partition. For employee 
+     * records, time cards and period index entries, that's the employee's TIN 
+     * key. For anything else, it's the whole key.
+     * @param key The record key. For example, 
+     * "PersProgcardSSNded3a56d-202610120000".
+     * @return The routing part of the key. For example, "SSNded3a56d".
+     */
+    static String routingPart(String key) {
+        String rest = key;
+        if (rest.startsWith(RecordKeys.PERIOD_INDEX_PREFIX)) {
+            rest = rest.substring(rest.indexOf('.') + 1);
+        }
+        if (rest.startsWith(RecordKeys.EMPLOYEE_PREFIX)) {
+            return rest.substring(RecordKeys.EMPLOYEE_PREFIX.length());
+        }
+        if (rest.startsWith(RecordKeys.CARD_PREFIX)) {
+            int dashIndex = rest.lastIndexOf('-');
+            if (dashIndex > RecordKeys.CARD_PREFIX.length()) {
+                return rest.substring(RecordKeys.CARD_PREFIX.length(), 
+                        dashIndex);
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Tells which partition a key belongs to. The choice depends only on the 
+     * key and the number of partitions, so it's the same from one run of the 
+     * program to the next.
+     * @param key The record key. For example, "PersProgemplSSNded3a56d".
+     * @return The partition number, from 0 to one less than {@link 
+     * #getPartitionCount()}.
+     */
+    public int partitionFor(String key) {
+        InMemoryRecordStore.checkKey(key);
+        int hash = routingPart(key).hashCode() * 0x9E3779B1;
+        hash ^= hash >>> 16;
+        return Math.floorMod(hash, this.partitions.size());
+    }
+
+    /**
+     * Gives one of the partitions.
+     * @param index The partition number. For example, 0.
+     * @return The partition.
+     * @throws IndexOutOfBoundsException If <code>index</code> is negative or 
+     * not less than {@link #getPartitionCount()}.
+     */
+    public RecordStore getPartition(int index) {
+        return this.partitions.get(index);
+    }
+
+    public int getPartitionCount() {
+        return this.partitions.size();
+    }
+
+    private RecordStore partition(String key) {
+        return this.partitions.get(this.partitionFor(key));
+    }
+
+    /**
+     * Runs a task on every partition at once and gathers the results in 
+     * partition order.
+     */
+    private <T> List<T> fanOut(PartitionTask<T> task) throws IOException {
+        List<Future<T>> futures = new ArrayList<>(this.partitions.size());
+        for (RecordStore partition : this.partitions) {
+            futures.add(this.executor.submit(() -> task.run(partition)));
+        }
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for partitions", ie);
+        } catch (ExecutionException ee) {
+            Throwable cause = ee.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Partition task failed", cause);
+        }
+        return results;
+    }
+
+    @FunctionalInterface
+    private interface PartitionTask<T> {
+
+        T run(RecordStore partition) throws IOException;
+
+    }
+
+    private static List<String> merge(List<List<String>> lists) {
+        List<String> merged = new ArrayList<>();
+        for (List<String> list : lists) {
+            merged.addAll(list);
+        }
+        Collections.sort(merged);
+        return merged;
+    }
+
+    @Override
+    public void write(String key, byte[] data) throws IOException {
+        this.partition(key).write(key, data);
+    }
+
+    /**
+     * {@inheritDoc} The records are sorted by partition, and each partition 
+     * writes its share of the batch on its own thread.
+     */
+    @Override
+    public void writeAll(Map<String, byte[]> records) throws IOException {
+        Map<RecordStore, Map<String, byte[]>> batches 
+                = new IdentityHashMap<>();
+        for (Map.Entry<String, byte[]> entry : records.entrySet()) {
+            batches.computeIfAbsent(this.partition(entry.getKey()), 
+                    (partition) -> new HashMap<>())
+                    .put(entry.getKey(), entry.getValue());
+        }
+        this.fanOut((partition) -> {
+            Map<String, byte[]> batch = batches.get(partition);
+            if (batch != null) {
+                partition.writeAll(batch);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public byte[] read(String key) throws IOException {
+        return this.partition(key).read(key);
+    }
+
+    @Override
+    public boolean contains(String key) throws IOException {
+        return this.partition(key).contains(key);
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        return this.partition(key).delete(key);
+    }
+
+    @Override
+    public long transferTo(String key, WritableByteChannel target) 
+            throws IOException {
+        return this.partition(key).transferTo(key, target);
+    }
+
+    @Override
+    public List<String> keys(String prefix) throws IOException {
+        return merge(this.fanOut((partition) -> partition.keys(prefix)));
+    }
+
+    @Override
+    public List<String> keys(String fromKey, String toKey) 
+            throws IOException {
+        return merge(this.fanOut((partition) 
+                -> partition.keys(fromKey, toKey)));
+    }
+
+    /**
+     * {@inheritDoc} Each partition reads its own records on its own thread.
+     */
+    @Override
+    public SortedMap<String, byte[]> readAll(String prefix) 
+            throws IOException {
+        SortedMap<String, byte[]> records = new TreeMap<>();
+        for (SortedMap<String, byte[]> partial 
+                : this.fanOut((partition) -> partition.readAll(prefix))) {
+            records.putAll(partial);
+        }
+        return records;
+    }
+
+    /**
+     * Closes all the partitions and stops the threads used for fanning out.
+     * @throws IOException If there is a problem closing any of the 
+     * partitions. All the partitions are closed regardless.
+     */
+    @Override
+    public void close() throws IOException {
+        this.executor.shutdown();
+        IOException firstException = null;
+        for (RecordStore partition : this.partitions) {
+            try {
+                partition.close();
+            } catch (IOException ioe) {
+                if (firstException == null) {
+                    firstException = ioe;
+                }
+            }
+        }
+        if (firstException != null) {
+            throw firstException;
+        }
+    }
+
+    /**
+     * Makes a partitioned store with a {@link FilePerRecordStore} for each of 
+     * several directories.
+     * @param dirs The directories, in order. The order matters: a store 
+     * opened on the same directories in a different order would look for 
+     * records in the wrong places.
+     * @return A new partitioned store.
+     * @throws IllegalArgumentException If <code>dirs</code> is empty, or if 
+     * any of the directories is a file.
+     * @throws IOException If any of the directories doesn't exist and can't 
+     * be created.
+     */
+    public static PartitionedRecordStore ofDirectories(List<File> dirs) 
+            throws IOException {
+        List<RecordStore> stores = new ArrayList<>(dirs.size());
+        for (File dir : dirs) {
+            stores.add(new FilePerRecordStore(dir));
+        }
+        return new PartitionedRecordStore(stores);
+    }
+
+    /**
+     * Constructor.
+     * @param stores The partitions, in order. For example, a {@link 
+     * FilePerRecordStore} for each of several disks.
+     * @throws IllegalArgumentException If <code>stores</code> is empty.
+     */
+    public PartitionedRecordStore(List<? extends RecordStore> stores) {
+        if (stores.isEmpty()) {
+            String excMsg = "Need at least one partition";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.partitions = new ArrayList<>(stores);
+        this.executor = Executors.newFixedThreadPool(stores.size(), 
+                (runnable) -> {
+                    Thread thread = new Thread(runnable, 
+                            "PartitionedRecordStore fan-out");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+}
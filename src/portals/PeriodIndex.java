@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import payroll.TimeCard;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Indexes the time cards in a {@link RecordStore} by the start of their pay 
+ * period, so that the cards for a given period, or a given range of periods, 
+ * can be found without deserializing every card in the store.
+ * <p>The index is kept in the store itself, one empty record per card, under 
+ * keys given by {@link RecordKeys#periodIndexKey(TimeCard)}. Since those keys 
+ * begin with the period start formatted most significant field first, the 
+ * store's key order is the period order, and a range of periods is a range of 
+ * keys. Adding a card to the index is thus a single small write, no matter how 
+ * many cards are already indexed. Period starts are indexed to the minute.</p>
+ * @author Alonso del Arte
+ */
+public class PeriodIndex {
+    
+    private static final byte[] NO_DATA = {};
+    
+    private final RecordStore store;
+    
+    /**
+     * Adds a time card to the index. Adding a card that is already in the 
+     * index does nothing.
+     * @param card The card to add. For example, John Lopez's card for the week 
+     * of October 12, 2026.
+     * @throws IOException If there is a problem writing to the store.
+     */
+    public void add(TimeCard card) throws IOException {
+        String key = RecordKeys.periodIndexKey(card);
+        if (!this.store.contains(key)) {
+            this.store.write(key, NO_DATA);
+        }
+    }
+    
+    /**
+     * Removes a time card from the index. This should be done when the card 
+     * itself is removed from the store, as for example when it is archived.
+     * @param card The card to remove.
+     * @throws IOException If there is a problem writing to the store.
+     */
+    public void remove(TimeCard card) throws IOException {
+        this.store.delete(RecordKeys.periodIndexKey(card));
+    }
+    
+    /**
+     * Gives the keys of the time cards for pay periods starting in a given 
+     * range of times.
+     * @param from The earliest period start to include. For example, October 
+     * 12, 2026 at 12:00 a.m.
+     * @param to The period start to stop at, which is itself not included. For 
+     * example, October 26, 2026 at 12:00 a.m.
+     * @return The card keys, ordered by period start. It will be an empty list 
+     * if no indexed card starts in the range.
+     * @throws IOException If there is a problem reading the store.
+     */
+    public List<String> getCardKeys(LocalDateTime from, LocalDateTime to)
+            throws IOException {
+        List<String> indexKeys = this.store.keys(
+                RecordKeys.periodIndexPrefix(from),
+                RecordKeys.periodIndexPrefix(to));
+        List<String> cardKeys = new ArrayList<>(indexKeys.size());
+        for (String indexKey : indexKeys) {
+            cardKeys.add(indexKey.substring(indexKey.indexOf('.') + 1));
+        }
+        return cardKeys;
+    }
+    
+    /**
+     * Gives the keys of the time cards for the pay period starting at a given 
+     * time.
+     * @param periodStart The start of the pay period. For example, October 12, 
+     * 2026 at 12:00 a.m.
+     * @return The card keys. It will be an empty list if no indexed card is 
+     * for that period.
+     * @throws IOException If there is a problem reading the store.
+     */
+    public List<String> getCardKeys(LocalDateTime periodStart)
+            throws IOException {
+        return this.getCardKeys(periodStart, periodStart.plusMinutes(1));
+    }
+    
+    /**
+     * Retrieves the time cards for pay periods starting in a given range of 
+     * times. Only the cards in the range are read from the store. Any events 
+     * recorded for them by a {@link CardEventJournal} are replayed.
+     * @param from The earliest period start to include. For example, October 
+     * 12, 2026 at 12:00 a.m.
+     * @param to The period start to stop at, which is itself not included. For 
+     * example, October 26, 2026 at 12:00 a.m.
+     * @return The cards, ordered by period start. It will be an empty list if 
+     * no indexed card starts in the range.
+     * @throws ClassNotFoundException If there is a deserialization problem.
+     * @throws IOException If there is a problem reading the store.
+     */
+    public ArrayList<TimeCard> getCards(LocalDateTime from, LocalDateTime to)
+            throws ClassNotFoundException, IOException {
+        ArrayList<TimeCard> list = new ArrayList<>();
+        for (String cardKey : this.getCardKeys(from, to)) {
+            byte[] bytes = this.store.read(cardKey);
+            if (bytes != null) {
+                list.add(RecordCodec.decode(bytes, TimeCard.class));
+            }
+        }
+        CardEventJournal.bringUpToDate(this.store, list);
+        return list;
+    }
+    
+    /**
+     * Retrieves the time cards for the pay period starting at a given time.
+     * @param periodStart The start of the pay period. For example, October 12, 
+     * 2026 at 12:00 a.m.
+     * @return The cards. It will be an empty list if no indexed card is for 
+     * that period.
+     * @throws ClassNotFoundException If there is a deserialization problem.
+     * @throws IOException If there is a problem reading the store.
+     */
+    public ArrayList<TimeCard> getCards(LocalDateTime periodStart)
+            throws ClassNotFoundException, IOException {
+        return this.getCards(periodStart, periodStart.plusMinutes(1));
+    }
+    
+    /**
+     * Rebuilds the index from the time cards in the store. This is only 
+     * necessary for stores written by an earlier version of this program, 
+     * before the index was kept. Entries for cards that are no longer in the 
+     * store are removed.
+     * @return How many cards are in the index afterwards. For example, 14.
+     * @throws ClassNotFoundException If there is a deserialization problem.
+     * @throws IOException If there is a problem reading or writing the store.
+     */
+    public int rebuild() throws ClassNotFoundException, IOException {
+        for (String indexKey
+                : this.store.keys(RecordKeys.PERIOD_INDEX_PREFIX)) {
+            String cardKey = indexKey.substring(indexKey.indexOf('.') + 1);
+            if (!this.store.contains(cardKey)) {
+                this.store.delete(indexKey);
+            }
+        }
+        int count = 0;
+        for (TimeCard card : TimeCardsProcessor.getCards(this.store)) {
+            this.add(card);
+            count++;
+        }
+        return count;
+    }
+    
+    /**
+     * Constructor.
+     * @param recordStore The store whose time cards are to be indexed, and in 
+     * which the index is to be kept.
+     */
+    public PeriodIndex(RecordStore recordStore) {
+        this.store = recordStore;
+    }
+    
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+
+/**
+ * Converts records to and from arrays of bytes for a {@link RecordStore}, 
+ * using Java serialization, same as the original version of this program.
+ * @author Alonso del Arte
+ */
+final class RecordCodec {
+    
+    static byte[] encode(Serializable record) throws IOException {
+        ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+        try (ObjectOutputStream objStream
+                = new ObjectOutputStream(byteStream)) {
+            objStream.writeObject(record);
+        }
+        return byteStream.toByteArray();
+    }
+    
+    static <T> T decode(byte[] bytes, Class<T> type)
+            throws ClassNotFoundException, IOException {
+        try (ObjectInputStream objStream
+                = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return type.cast(objStream.readObject());
+        }
+    }
+    
+    private RecordCodec() {
+        // Prevent instantiation
+    }
+    
+}
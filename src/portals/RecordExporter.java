@@ -0,0 +1,343 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.IllegalBlockingModeException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Exports records from a {@link RecordStore} in bulk to a file or a socket, 
+ * for example to send a pay period's records to the payroll provider or to 
+ * back up the whole store. The records are written with {@link 
+ * RecordStore#transferTo(String, WritableByteChannel)}, so for stores that 
+ * keep records in files, the bytes go from the files to the target without 
+ * being copied through this program.
+ * <p>An export begins with the four bytes "PPEX" and a version number, as 
+ * four-byte integers. Then, for each record, come the length of the key as a 
+ * four-byte integer, the key in UTF-8, the length of the record as an 
+ * eight-byte integer, and the record itself. If a record was deleted after 
+ * the export started, its length is given as &minus;1 and there are no record 
+ * bytes. The export ends with a key length of &minus;1. All integers are 
+ * big-endian. Use {@link #importRecords(ReadableByteChannel, RecordStore)} to 
+ * read an export back into a store.</p>
+ * <p>The target channel must be in blocking mode. A non-blocking channel may 
+ * accept no bytes at all when its buffer is full, and this class has no 
+ * selector to wait on it with.</p>
+ * @author Alonso del Arte
+ */
+public final class RecordExporter {
+
+    static final int MAGIC = 0x50504558;
+
+    static final int VERSION = 1;
+
+    private static final int END_OF_EXPORT = -1;
+
+    private static final long MISSING_RECORD = -1L;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static void writeFully(ByteBuffer buffer, 
+            WritableByteChannel target) throws IOException {
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+    }
+
+    private static void readFully(ByteBuffer buffer, 
+            ReadableByteChannel source) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (source.read(buffer) < 0) {
+                throw new EOFException("Export ended unexpectedly");
+            }
+        }
+        buffer.flip();
+    }
+
+    /**
+     * Makes sure a channel to be written to is in blocking mode, so that 
+     * writing to it never returns without writing anything.
+     * @param target The channel. For example, a <code>SocketChannel</code> to 
+     * the payroll provider.
+     * @throws IllegalBlockingModeException If <code>target</code> is a 
+     * selectable channel in non-blocking mode.
+     */
+    static void checkBlocking(WritableByteChannel target) {
+        if (target instanceof SelectableChannel 
+                && !((SelectableChannel) target).isBlocking()) {
+            throw new IllegalBlockingModeException();
+        }
+    }
+
+    /**
+     * Writes a length prefix and then a region of a file to a channel using 
+     * {@link FileChannel#transferTo(long, long, WritableByteChannel)}, which 
+     * on most operating systems lets the kernel move the bytes without 
+     * copying them into this program's memory. Since the transfer may stop 
+     * short, it is repeated until the whole region has been written. If a 
+     * transfer moves no bytes before the end of the file, the rest of the 
+     * region is copied through a buffer instead.
+     * @param source The file to transfer from.
+     * @param position Where the region starts in the file.
+     * @param length How many bytes to transfer.
+     * @param target The channel to write to. It must be in blocking mode.
+     * @throws IllegalBlockingModeException If <code>target</code> is a 
+     * selectable channel in non-blocking mode.
+     * @throws IOException If there is a problem reading the file or writing 
+     * to the channel, or if the file ends before the region does.
+     */
+    static void transferRegion(FileChannel source, long position, 
+            long length, WritableByteChannel target) throws IOException {
+        checkBlocking(target);
+        ByteBuffer prefix = ByteBuffer.allocate(Long.BYTES);
+        prefix.putLong(length).flip();
+        writeFully(prefix, target);
+        long done = 0L;
+        while (done < length) {
+            long count = source.transferTo(position + done, length - done, 
+                    target);
+            if (count <= 0) {
+                copyRegion(source, position + done, length - done, target);
+                return;
+            }
+            done += count;
+        }
+    }
+
+    /**
+     * Writes a region of a file to a channel through a buffer, for when 
+     * {@link FileChannel#transferTo(long, long, WritableByteChannel)} makes 
+     * no progress.
+     */
+    private static void copyRegion(FileChannel source, long position, 
+            long length, WritableByteChannel target) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(length, 
+                BUFFER_SIZE));
+        long done = 0L;
+        while (done < length) {
+            buffer.clear();
+            if (length - done < buffer.capacity()) {
+                buffer.limit((int) (length - done));
+            }
+            int count = source.read(buffer, position + done);
+            if (count < 0) {
+                throw new EOFException("Record ended after " + done + " of " 
+                        + length + " bytes");
+            }
+            buffer.flip();
+            writeFully(buffer, target);
+            done += count;
+        }
+    }
+
+    /**
+     * Exports records with given keys.
+     * @param store The store to export from. For example, a {@link 
+     * FilePerRecordStore} for the data directory.
+     * @param keys The keys of the records to export. For example, the keys of 
+     * all the time cards for the week of October 12, 2026. Keys that have no 
+     * record are skipped.
+     * @param target The channel to write the export to. For example, a 
+     * <code>SocketChannel</code> to the payroll provider. It must be in 
+     * blocking mode, and it is not closed afterwards.
+     * @return How many records were exported. For example, 14.
+     * @throws IllegalBlockingModeException If <code>target</code> is a 
+     * selectable channel in non-blocking mode. Nothing is written then.
+     * @throws IOException If there is a problem reading the store or writing 
+     * to the channel.
+     */
+    public static int export(RecordStore store, Collection<String> keys, 
+            WritableByteChannel target) throws IOException {
+        checkBlocking(target);
+        ByteBuffer header = ByteBuffer.allocate(2 * Integer.BYTES);
+        header.putInt(MAGIC).putInt(VERSION).flip();
+        writeFully(header, target);
+        int count = 0;
+        for (String key : keys) {
+            if (!store.contains(key)) {
+                continue;
+            }
+            byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer keyBuffer = ByteBuffer.allocate(Integer.BYTES 
+                    + keyBytes.length);
+            keyBuffer.putInt(keyBytes.length).put(keyBytes).flip();
+            writeFully(keyBuffer, target);
+            if (store.transferTo(key, target) < 0) {
+                ByteBuffer missing = ByteBuffer.allocate(Long.BYTES);
+                missing.putLong(MISSING_RECORD).flip();
+                writeFully(missing, target);
+            } else {
+                count++;
+            }
+        }
+        ByteBuffer end = ByteBuffer.allocate(Integer.BYTES);
+        end.putInt(END_OF_EXPORT).flip();
+        writeFully(end, target);
+        return count;
+    }
+
+    /**
+     * Exports records with given keys to a file. If the file already exists, 
+     * it is overwritten.
+     * @param store The store to export from.
+     * @param keys The keys of the records to export.
+     * @param file The file to export to. For example, a file on a backup 
+     * volume.
+     * @return How many records were exported. For example, 14.
+     * @throws IOException If there is a problem reading the store or writing 
+     * the file.
+     */
+    public static int export(RecordStore store, Collection<String> keys, 
+            File file) throws IOException {
+        try (FileChannel target = FileChannel.open(file.toPath(), 
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, 
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            return export(store, keys, target);
+        }
+    }
+
+    /**
+     * Gives the keys of the records that make up a pay period: the current 
+     * time cards for the period, as found through the {@link PeriodIndex}, 
+     * the records of the employees those cards belong to, and the segments 
+     * of the archive of paid cards for the period, if there are any.
+     * @param store The store. For example, a {@link FilePerRecordStore} for 
+     * the data directory.
+     * @param periodStart The start of the pay period. For example, October 12, 
+     * 2026 at 12:00 a.m.
+     * @return The keys, in ascending order. It will be an empty list if the 
+     * store has nothing for that period.
+     * @throws IOException If there is a problem reading the store.
+     */
+    public static List<String> periodKeys(RecordStore store, 
+            LocalDateTime periodStart) throws IOException {
+        TreeSet<String> keys = new TreeSet<>();
+        for (String cardKey : new PeriodIndex(store).getCardKeys(periodStart)) {
+            keys.add(cardKey);
+            String employeeKey = RecordKeys.employeeKeyForCard(cardKey);
+            if (employeeKey != null) {
+                keys.add(employeeKey);
+            }
+        }
+        keys.addAll(store.keys(RecordKeys.archiveKey(periodStart)));
+        return new ArrayList<>(keys);
+    }
+
+    /**
+     * Exports the records that make up a pay period, as given by {@link 
+     * #periodKeys(RecordStore, LocalDateTime)}.
+     * @param store The store to export from.
+     * @param periodStart The start of the pay period. For example, October 12, 
+     * 2026 at 12:00 a.m.
+     * @param target The channel to write the export to. It is not closed 
+     * afterwards.
+     * @return How many records were exported. For example, 21.
+     * @throws IOException If there is a problem reading the store or writing 
+     * to the channel.
+     */
+    public static int exportPeriod(RecordStore store, 
+            LocalDateTime periodStart, WritableByteChannel target) 
+            throws IOException {
+        return export(store, periodKeys(store, periodStart), target);
+    }
+
+    /**
+     * Exports every record in a store, including the indexes, for example to 
+     * back it up.
+     * @param store The store to export from.
+     * @param target The channel to write the export to. It is not closed 
+     * afterwards.
+     * @return How many records were exported. For example, 140.
+     * @throws IOException If there is a problem reading the store or writing 
+     * to the channel.
+     */
+    public static int exportAll(RecordStore store, 
+            WritableByteChannel target) throws IOException {
+        return export(store, store.keys(""), target);
+    }
+
+    /**
+     * Reads an export into a store. Records in the store with the same keys 
+     * as records in the export are replaced.
+     * @param source The channel to read the export from. For example, a 
+     * <code>FileChannel</code> for a backup file. It is not closed afterwards.
+     * @param store The store to write the records to.
+     * @return How many records were read. For example, 140.
+     * @throws IOException If the export is not in the expected format, or if 
+     * there is a problem reading the channel or writing to the store.
+     */
+    public static int importRecords(ReadableByteChannel source, 
+            RecordStore store) throws IOException {
+        ByteBuffer intBuffer = ByteBuffer.allocate(Integer.BYTES);
+        ByteBuffer longBuffer = ByteBuffer.allocate(Long.BYTES);
+        ByteBuffer header = ByteBuffer.allocate(2 * Integer.BYTES);
+        readFully(header, source);
+        if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException("Not a record export, or unknown version");
+        }
+        int count = 0;
+        while (true) {
+            intBuffer.clear();
+            readFully(intBuffer, source);
+            int keyLength = intBuffer.getInt();
+            if (keyLength == END_OF_EXPORT) {
+                return count;
+            }
+            if (keyLength <= 0) {
+                throw new IOException("Export has bad key length " 
+                        + keyLength);
+            }
+            ByteBuffer keyBuffer = ByteBuffer.allocate(keyLength);
+            readFully(keyBuffer, source);
+            String key = new String(keyBuffer.array(), StandardCharsets.UTF_8);
+            longBuffer.clear();
+            readFully(longBuffer, source);
+            long length = longBuffer.getLong();
+            if (length == MISSING_RECORD) {
+                continue;
+            }
+            if (length < 0 || length > Integer.MAX_VALUE) {
+                throw new IOException("Export has bad length " + length 
+                        + " for record " + key);
+            }
+            ByteBuffer data = ByteBuffer.allocate((int) length);
+            readFully(data, source);
+            store.write(key, data.array());
+            count++;
+        }
+    }
+
+    private RecordExporter() {
+        // Prevent instantiation
+    }
+
+}
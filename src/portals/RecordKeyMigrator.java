@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import entities.Employee;
+import payroll.TimeCard;
+
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.nio.ByteBuffer;
+
+/**
+ * Converts the employee records and time cards in a {@link RecordStore} from 
+ * the keys used by earlier versions of this program, which were based on hash 
+ * codes and could collide, to the keys given by {@link RecordKeys}. The 
+ * {@link PeriodIndex} and {@link CardStatusIndex} entries of converted cards 
+ * are moved to the new keys as well.
+ * <p>Once a store has been converted, a small record under the key {@value 
+ * #SCHEME_KEY} marks it as such, so that {@link 
+ * #migrateIfNeeded(RecordStore)} can tell with a single read that there is 
+ * nothing to do.</p>
+ * @author Alonso del Arte
+ */
+public final class RecordKeyMigrator {
+
+    static final String SCHEME_KEY = "PersProgkeyscheme";
+
+    /**
+     * The version of the key scheme given by {@link RecordKeys}. The hash code 
+     * based scheme is considered to be version 1.
+     */
+    public static final int CURRENT_SCHEME = 2;
+
+    /**
+     * Tells which key scheme a store has been converted to.
+     * @param store The store. For example, a {@link FilePerRecordStore} for a 
+     * data directory written by an earlier version of this program.
+     * @return The scheme version. For example, 1 for a store that has not been 
+     * converted.
+     * @throws IOException If there is a problem reading the store.
+     */
+    public static int getScheme(RecordStore store) throws IOException {
+        byte[] bytes = store.read(SCHEME_KEY);
+        if (bytes == null || bytes.length != Integer.BYTES) {
+            return 1;
+        }
+        return ByteBuffer.wrap(bytes).getInt();
+    }
+
+    /**
+     * Converts a store to the current key scheme, unless it has already been 
+     * converted.
+     * @param store The store. For example, a {@link FilePerRecordStore} for a 
+     * data directory written by an earlier version of this program.
+     * @return How many records were moved to new keys. For example, 0 if the 
+     * store was already converted.
+     * @throws IOException If there is a problem reading or writing the store, 
+     * or if a record to be moved can't be deserialized.
+     */
+    public static int migrateIfNeeded(RecordStore store) throws IOException {
+        if (getScheme(store) >= CURRENT_SCHEME) {
+            return 0;
+        }
+        return migrate(store);
+    }
+
+    /**
+     * Converts a store to the current key scheme. Each record is written under 
+     * its new key before it's deleted from its old key, so if the conversion 
+     * is interrupted, it can be run again without losing anything. If two old 
+     * records turn out to be for the same employee or the same employee's pay 
+     * period, the one read last is kept.
+     * @param store The store. For example, a {@link FilePerRecordStore} for a 
+     * data directory written by an earlier version of this program.
+     * @return How many records were moved to new keys. For example, 14.
+     * @throws IOException If there is a problem reading or writing the store, 
+     * or if a record to be moved can't be deserialized.
+     */
+    public static int migrate(RecordStore store) throws IOException {
+        int movedCount = 0;
+        try {
+            for (String key : store.keys(RecordKeys.EMPLOYEE_PREFIX)) {
+                byte[] bytes = store.read(key);
+                if (bytes == null) {
+                    continue;
+                }
+                Employee employee = RecordCodec.decode(bytes, Employee.class);
+                String newKey = RecordKeys.employeeKey(employee);
+                if (!newKey.equals(key)) {
+                    store.write(newKey, bytes);
+                    store.delete(key);
+                    movedCount++;
+                }
+            }
+            PeriodIndex periodIndex = new PeriodIndex(store);
+            CardStatusIndex statusIndex = new CardStatusIndex(store);
+            for (String key : store.keys(RecordKeys.CARD_PREFIX)) {
+                byte[] bytes = store.read(key);
+                if (bytes == null) {
+                    continue;
+                }
+                TimeCard card = RecordCodec.decode(bytes, TimeCard.class);
+                String newKey = RecordKeys.cardKey(card);
+                if (!newKey.equals(key)) {
+                    store.write(newKey, bytes);
+                    periodIndex.add(card);
+                    statusIndex.update(card);
+                    store.delete(key);
+                    store.delete(RecordKeys.periodIndexKey(card.getStartTime(), 
+                            key));
+                    statusIndex.remove(key);
+                    movedCount++;
+                }
+            }
+        } catch (ClassNotFoundException cnfe) {
+            InvalidClassException ice = new InvalidClassException(
+                    "Record could not be deserialized for key conversion");
+            ice.initCause(cnfe);
+            throw ice;
+        }
+        store.write(SCHEME_KEY, ByteBuffer.allocate(Integer.BYTES)
+                .putInt(CURRENT_SCHEME).array());
+        return movedCount;
+    }
+
+    private RecordKeyMigrator() {
+        // Prevent instantiation
+    }
+
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import entities.Employee;
+import entities.idnumbers.TaxpayerIdentificationNumber;
+import payroll.TimeCard;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Gives the keys under which records are kept in a {@link RecordStore}. The 
+ * keys of employee records and time cards are built from the employee's 
+ * taxpayer identification number (TIN) by way of {@link 
+ * TaxpayerIdentificationNumber#toRecordKey()}, which is one-to-one, so no two 
+ * employees share a key, and no two cards for different employees or for 
+ * different pay periods share a key. A record can thus be read directly by key 
+ * without scanning the store.
+ * <p>Earlier versions of this program used the hash codes of TINs and time 
+ * cards instead, which could collide. Stores with keys in that scheme are 
+ * converted by {@link RecordKeyMigrator}.</p>
+ * @author Alonso del Arte
+ */
+public final class RecordKeys {
+    
+    /**
+     * The prefix of the keys of employee records.
+     */
+    public static final String EMPLOYEE_PREFIX = "PersProgempl";
+    
+    /**
+     * The prefix of the keys of time cards.
+     */
+    public static final String CARD_PREFIX = "PersProgcard";
+    
+    /**
+     * The prefix of the keys of the archives of paid time cards.
+     */
+    public static final String ARCHIVE_PREFIX = "PersProgarch";
+    
+    /**
+     * The prefix of the keys of the entries of the index of time cards by pay 
+     * period. See {@link PeriodIndex}.
+     */
+    public static final String PERIOD_INDEX_PREFIX = "PersProgidxperiod";
+    
+    /**
+     * The prefix of the keys of the snapshots and events of time cards kept 
+     * as streams of events. See {@link CardEventJournal}.
+     */
+    public static final String EVENT_PREFIX = "PersProgevt";
+    
+    /**
+     * The prefix of the keys of the records that hold the last sequence 
+     * number of each time card kept as a stream of events. See {@link 
+     * CardEventJournal}.
+     */
+    public static final String EVENT_SEQUENCE_PREFIX = "PersProgseq";
+    
+    static final DateTimeFormatter PERIOD_FORMATTER
+            = DateTimeFormatter.ofPattern("yyyyMMddHHmm");
+    
+    /**
+     * Gives the key for the record of the employee with a given taxpayer 
+     * identification number (TIN).
+     * @param tin The TIN. For example, the Social Security Number 750-10-1729.
+     * @return The key. For example, "PersProgemplSSNded3a56d".
+     */
+    public static String employeeKey(TaxpayerIdentificationNumber tin) {
+        return EMPLOYEE_PREFIX + tin.toRecordKey();
+    }
+    
+    /**
+     * Gives the key for an employee's record.
+     * @param employee The employee. For example, John Lopez, SSN 750-10-1729.
+     * @return The key. For example, "PersProgemplSSNded3a56d".
+     */
+    public static String employeeKey(Employee employee) {
+        return employeeKey(employee.getTIN());
+    }
+    
+    /**
+     * Gives the key for an employee's time card for the pay period starting at 
+     * a given time. The card doesn't need to exist yet.
+     * @param employee The employee. For example, John Lopez, SSN 750-10-1729.
+     * @param periodStart The start of the pay period. For example, October 12, 
+     * 2026 at 12:00 a.m. Only the time to the minute is used.
+     * @return The key, which consists of the card prefix, the employee's TIN 
+     * key, a hyphen and the period start. For example, 
+     * "PersProgcardSSNded3a56d-202610120000".
+     */
+    public static String cardKey(Employee employee, 
+            LocalDateTime periodStart) {
+        return CARD_PREFIX + employee.getTIN().toRecordKey() + "-" 
+                + periodStart.format(PERIOD_FORMATTER);
+    }
+    
+    /**
+     * Gives the key of the record of the employee a time card belongs to, 
+     * worked out from the card's key alone, without reading the card.
+     * @param cardKey The key of the card. For example, 
+     * "PersProgcardSSNded3a56d-202610120000".
+     * @return The key of the employee's record. For example, 
+     * "PersProgemplSSNded3a56d". Null if <code>cardKey</code> is not a card 
+     * key in the current scheme.
+     */
+    public static String employeeKeyForCard(String cardKey) {
+        int dashIndex = cardKey.lastIndexOf('-');
+        if (!cardKey.startsWith(CARD_PREFIX) 
+                || dashIndex <= CARD_PREFIX.length()) {
+            return null;
+        }
+        return EMPLOYEE_PREFIX + cardKey.substring(CARD_PREFIX.length(), 
+                dashIndex);
+    }
+    
+    /**
+     * Gives the key for a time card.
+     * @param card The time card. For example, John Lopez's card for the week 
+     * of October 12, 2026.
+     * @return The key. For example, "PersProgcardSSNded3a56d-202610120000".
+     */
+    public static String cardKey(TimeCard card) {
+        return cardKey(card.getEmployee(), card.getStartTime());
+    }
+    
+    /**
+     * Gives the key of the latest snapshot of a time card kept as a stream of 
+     * events. The keys of the card's events consist of this key, a period and 
+     * a sequence number.
+     * @param employee The employee. For example, John Lopez, SSN 750-10-1729.
+     * @param periodStart The start of the pay period. For example, October 12, 
+     * 2026 at 12:00 a.m.
+     * @return The key. For example, "PersProgevtSSNded3a56d-202610120000".
+     */
+    public static String eventStreamKey(Employee employee, 
+            LocalDateTime periodStart) {
+        return EVENT_PREFIX + employee.getTIN().toRecordKey() + "-" 
+                + periodStart.format(PERIOD_FORMATTER);
+    }
+    
+    /**
+     * Gives the start of the keys of the records holding the last sequence 
+     * numbers of the time cards for a pay period kept as streams of events. 
+     * Since the period comes before the employee in these keys, the streams 
+     * of one period can be listed without going through those of every other 
+     * period.
+     * @param periodStart The start of the pay period. For example, October 12, 
+     * 2026 at 12:00 a.m.
+     * @return The key prefix. For example, "PersProgseq202610120000".
+     */
+    public static String eventSequencePrefix(LocalDateTime periodStart) {
+        return EVENT_SEQUENCE_PREFIX + periodStart.format(PERIOD_FORMATTER);
+    }
+    
+    /**
+     * Gives the key of the record holding the last sequence number used by a 
+     * time card kept as a stream of events.
+     * @param employee The employee. For example, John Lopez, SSN 750-10-1729.
+     * @param periodStart The start of the pay period. For example, October 12, 
+     * 2026 at 12:00 a.m.
+     * @return The key, which consists of the event sequence prefix for the 
+     * period, a period, and the card's event stream key. For example, 
+     * "PersProgseq202610120000.PersProgevtSSNded3a56d-202610120000".
+     */
+    public static String eventSequenceKey(Employee employee, 
+            LocalDateTime periodStart) {
+        return eventSequencePrefix(periodStart) + "." 
+                + eventStreamKey(employee, periodStart);
+    }
+    
+    /**
+     * Gives the key for the archive of paid time cards for a pay period.
+     * @param periodStart The start of the pay period. For example, October 12, 
+     * 2026 at 12:00 a.m.
+     * @return The key. For example, "PersProgarch202610120000".
+     */
+    public static String archiveKey(LocalDateTime periodStart) {
+        return ARCHIVE_PREFIX + periodStart.format(PERIOD_FORMATTER);
+    }
+    
+    /**
+     * Gives the key for a later segment of the archive of paid time cards for 
+     * a pay period. Each time more cards for a period are archived, they are 
+     * added as a new segment rather than by rewriting the archive. Since the 
+     * segment number is zero-padded, the keys of a period's segments sort in 
+     * the order the segments were written, right after the key given by 
+     * {@link #archiveKey(LocalDateTime)}, which is the first segment.
+     * @param periodStart The start of the pay period. For example, October 12, 
+     * 2026 at 12:00 a.m.
+     * @param segment The segment number. For example, 1.
+     * @return The key. For example, "PersProgarch202610120000.000001". If 
+     * <code>segment</code> is 0, the same as {@link 
+     * #archiveKey(LocalDateTime)}.
+     */
+    public static String archiveKey(LocalDateTime periodStart, int segment) {
+        if (segment == 0) {
+            return archiveKey(periodStart);
+        }
+        return archiveKey(periodStart) + String.format(".%06d", segment);
+    }
+    
+    /**
+     * Gives the start of the range of keys of the entries of the index of 
+     * time cards by pay period for periods starting at or after the given 
+     * time. Since the period start is formatted with the most significant 
+     * field first, the order of these keys is the order of the periods.
+     * @param periodStart The start of the pay period. For example, October 12, 
+     * 2026 at 12:00 a.m.
+     * @return The key prefix. For example, "PersProgidxperiod202610120000".
+     */
+    public static String periodIndexPrefix(LocalDateTime periodStart) {
+        return PERIOD_INDEX_PREFIX + periodStart.format(PERIOD_FORMATTER);
+    }
+    
+    /**
+     * Gives the key of the entry of the index of time cards by pay period for 
+     * a given card.
+     * @param card The time card. For example, John Lopez's card for the week 
+     * of October 12, 2026.
+     * @return The key, which consists of the period index prefix for the 
+     * card's start time, a period, and the card's own key. For example, 
+     * "PersProgidxperiod202610120000.PersProgcardSSNded3a56d-202610120000".
+     */
+    public static String periodIndexKey(TimeCard card) {
+        return periodIndexKey(card.getStartTime(), cardKey(card));
+    }
+    
+    static String periodIndexKey(LocalDateTime periodStart, String cardKey) {
+        return periodIndexPrefix(periodStart) + "." + cardKey;
+    }
+    
+    private RecordKeys() {
+        // Prevent instantiation
+    }
+    
+}
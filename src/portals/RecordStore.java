@@ -0,0 +1,206 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Stores employee records, time cards and related records as arrays of bytes 
+ * under text keys. The keys are such as are given by {@link RecordKeys}, and 
+ * the bytes are usually serialized objects, but this interface doesn't care 
+ * what the bytes mean. Implementations are expected to be safe for use by 
+ * multiple threads.
+ * <p>Three implementations are provided: {@link InMemoryRecordStore}, which 
+ * keeps everything in memory and is thus suitable for testing; {@link 
+ * FilePerRecordStore}, which writes each record to its own file, like the 
+ * original version of this program did; and {@link LogStructuredRecordStore}, 
+ * which appends all records to a single log file.</p>
+ * @author Alonso del Arte
+ */
+public interface RecordStore extends Closeable {
+    
+    /**
+     * Writes a record, replacing whatever record was previously stored under 
+     * the same key.
+     * @param key The key. For example, "PersProgemplSSNded3a56d". Must not be 
+     * null or empty.
+     * @param data The record. The store keeps its own copy, so the caller is 
+     * free to change the array afterwards.
+     * @throws IOException If there is a problem writing the record.
+     */
+    void write(String key, byte[] data) throws IOException;
+    
+    /**
+     * Writes several records, replacing whatever records were previously 
+     * stored under the same keys. The default implementation writes the 
+     * records one at a time; implementations that make each write durable 
+     * before going on to the next, such as {@link LogStructuredRecordStore}, 
+     * should override it so that the whole batch is made durable at once.
+     * @param records The records, keyed by key. For example, all the time 
+     * cards for the week of October 12, 2026, just marked verified. The store 
+     * keeps its own copies.
+     * @throws IOException If there is a problem writing the records, in which 
+     * case some of them may have been written and others not.
+     */
+    default void writeAll(Map<String, byte[]> records) throws IOException {
+        for (Map.Entry<String, byte[]> entry : records.entrySet()) {
+            this.write(entry.getKey(), entry.getValue());
+        }
+    }
+    
+    /**
+     * Reads a record.
+     * @param key The key. For example, "PersProgemplSSNded3a56d".
+     * @return A copy of the record, or null if there is no record stored under 
+     * that key.
+     * @throws IOException If there is a problem reading the record.
+     */
+    byte[] read(String key) throws IOException;
+    
+    /**
+     * Tells whether there is a record stored under a given key.
+     * @param key The key. For example, "PersProgemplSSNded3a56d".
+     * @return True if there is a record stored under <code>key</code>, false 
+     * otherwise.
+     * @throws IOException If there is a problem checking the store.
+     */
+    boolean contains(String key) throws IOException;
+    
+    /**
+     * Deletes a record.
+     * @param key The key. For example, "PersProgcardSSNded3a56d-202610120000".
+     * @return True if there was a record under <code>key</code> to delete, 
+     * false otherwise.
+     * @throws IOException If there is a problem deleting the record.
+     */
+    boolean delete(String key) throws IOException;
+    
+    /**
+     * Lists the keys that start with a given prefix.
+     * @param prefix The prefix. For example, "PersProgcard". May be empty to 
+     * list all keys.
+     * @return The matching keys, sorted in ascending order. It will be an empty 
+     * list if there are no matches.
+     * @throws IOException If there is a problem listing the keys.
+     */
+    List<String> keys(String prefix) throws IOException;
+    
+    /**
+     * Lists the keys in a given range. This is how the indexes kept in the 
+     * store are scanned, since their keys are built so that key order is the 
+     * order of whatever is being indexed. The default implementation filters 
+     * the full list of keys; implementations that keep their keys sorted 
+     * should override it.
+     * @param fromKey The lowest key to include. For example, 
+     * "PersProgidxperiod202610120000".
+     * @param toKey The key to stop at, which is itself not included. For 
+     * example, "PersProgidxperiod202610190000".
+     * @return The keys that are at least <code>fromKey</code> but less than 
+     * <code>toKey</code>, sorted in ascending order. It will be an empty list 
+     * if there are no such keys.
+     * @throws IOException If there is a problem listing the keys.
+     */
+    default List<String> keys(String fromKey, String toKey) 
+            throws IOException {
+        List<String> list = new ArrayList<>();
+        for (String key : this.keys("")) {
+            if (key.compareTo(fromKey) >= 0 && key.compareTo(toKey) < 0) {
+                list.add(key);
+            }
+        }
+        return list;
+    }
+    
+    /**
+     * Reads all the records whose keys start with a given prefix. The default 
+     * implementation lists the keys and reads them one at a time; 
+     * implementations that can do better, for example by reading from several 
+     * disks at once, should override it. A record deleted between the listing 
+     * and the reading is left out.
+     * @param prefix The prefix. For example, "PersProgcard".
+     * @return The records, keyed and sorted by key. It will be an empty map if 
+     * there are no matches.
+     * @throws IOException If there is a problem listing or reading the 
+     * records.
+     */
+    default SortedMap<String, byte[]> readAll(String prefix) 
+            throws IOException {
+        SortedMap<String, byte[]> records = new TreeMap<>();
+        for (String key : this.keys(prefix)) {
+            byte[] data = this.read(key);
+            if (data != null) {
+                records.put(key, data);
+            }
+        }
+        return records;
+    }
+    
+    /**
+     * Writes a record to a channel, preceded by its length as an eight-byte 
+     * big-endian integer so that whoever reads the channel can tell where the 
+     * record ends. This is how records are exported in bulk; see {@link 
+     * RecordExporter}. The default implementation reads the record into an 
+     * array and writes that; implementations that keep records in files 
+     * should override it to transfer the bytes straight from the file to the 
+     * channel, without copying them through the Java heap.
+     * @param key The key. For example, "PersProgarch202610120000".
+     * @param target The channel to write to. For example, a 
+     * <code>FileChannel</code> for a backup file or a 
+     * <code>SocketChannel</code> to the payroll provider. It must be in 
+     * blocking mode.
+     * @return The length of the record, not counting the eight bytes for the 
+     * length itself. For example, 2048. Or &minus;1 if there is no record 
+     * under <code>key</code>, in which case nothing is written.
+     * @throws java.nio.channels.IllegalBlockingModeException If 
+     * <code>target</code> is a selectable channel in non-blocking mode.
+     * @throws IOException If there is a problem reading the record or writing 
+     * to the channel.
+     */
+    default long transferTo(String key, WritableByteChannel target) 
+            throws IOException {
+        RecordExporter.checkBlocking(target);
+        byte[] data = this.read(key);
+        if (data == null) {
+            return -1L;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES + data.length);
+        buffer.putLong(data.length).put(data).flip();
+        while (buffer.hasRemaining()) {
+            target.write(buffer);
+        }
+        return data.length;
+    }
+    
+    /**
+     * Releases whatever resources this store holds. The default implementation 
+     * does nothing, which is fine for stores that don't hold open files.
+     * @throws IOException If there is a problem releasing the resources.
+     */
+    @Override
+    default void close() throws IOException {
+    }
+    
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Wraps a {@link RecordStore} so that every write and delete is also added to 
+ * a {@link ReplicationLog}, for a {@link LogFollower} to apply to a standby 
+ * copy of the store. Reads go straight to the wrapped store.
+ * <p>Each change is added to the log before it is made to the wrapped store, 
+ * and changes are logged in the same order they are made, so the follower 
+ * applying the log in order ends up with the same records. If the program 
+ * crashes between the two steps, the follower may have one change the store 
+ * itself doesn't; that change was never reported as done, so it's safe for 
+ * the follower to have it.</p>
+ * <p>When a new, empty log is opened on a store that already has records, 
+ * all the records are first added to the log, so that a new follower starting 
+ * from an empty directory gets the whole store and not just the changes made 
+ * since. They are read one at a time and added to the log in chunks of 
+ * {@value #SEED_CHUNK_SIZE}, so that seeding a large store neither holds the 
+ * whole store in memory nor forces the log to the disk once per record.</p>
+ * @author Alonso del Arte
+ */
+public class ReplicatingRecordStore implements RecordStore {
+
+    /**
+     * How many records are added to a new log at a time when it is seeded 
+     * with the records already in the store.
+     */
+    static final int SEED_CHUNK_SIZE = 256;
+
+    private final RecordStore base;
+
+    private final ReplicationLog log;
+
+    private final Object writeLock = new Object();
+
+    @Override
+    public void write(String key, byte[] data) throws IOException {
+        InMemoryRecordStore.checkKey(key);
+        synchronized (this.writeLock) {
+            this.log.append(key, data);
+            this.base.write(key, data);
+        }
+    }
+
+    /**
+     * {@inheritDoc} The whole batch is logged, and forced to the disk once, 
+     * before any of it is written to the base store.
+     */
+    @Override
+    public void writeAll(Map<String, byte[]> records) throws IOException {
+        for (String key : records.keySet()) {
+            InMemoryRecordStore.checkKey(key);
+        }
+        synchronized (this.writeLock) {
+            this.log.appendAll(records);
+            this.base.writeAll(records);
+        }
+    }
+
+    @Override
+    public byte[] read(String key) throws IOException {
+        return this.base.read(key);
+    }
+
+    @Override
+    public long transferTo(String key, WritableByteChannel target) 
+            throws IOException {
+        return this.base.transferTo(key, target);
+    }
+
+    @Override
+    public boolean contains(String key) throws IOException {
+        return this.base.contains(key);
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        synchronized (this.writeLock) {
+            if (!this.base.contains(key)) {
+                return false;
+            }
+            this.log.append(key, null);
+            return this.base.delete(key);
+        }
+    }
+
+    @Override
+    public List<String> keys(String prefix) throws IOException {
+        return this.base.keys(prefix);
+    }
+
+    @Override
+    public List<String> keys(String fromKey, String toKey) 
+            throws IOException {
+        return this.base.keys(fromKey, toKey);
+    }
+
+    @Override
+    public SortedMap<String, byte[]> readAll(String prefix) 
+            throws IOException {
+        return this.base.readAll(prefix);
+    }
+
+    /**
+     * Gives the log the changes are added to.
+     * @return The log.
+     */
+    public ReplicationLog getLog() {
+        return this.log;
+    }
+
+    /**
+     * Gives the store this store wraps.
+     * @return The wrapped store.
+     */
+    public RecordStore getBase() {
+        return this.base;
+    }
+
+    /**
+     * Closes the log and the wrapped store.
+     * @throws IOException If there is a problem closing either.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this.writeLock) {
+            try {
+                this.log.close();
+            } finally {
+                this.base.close();
+            }
+        }
+    }
+
+    /**
+     * Constructor. If the log is empty, all the records already in the store 
+     * are added to it.
+     * @param store The store to wrap. All writes to it must go through this 
+     * wrapper from now on, or the follower will miss them.
+     * @param changeLog The log to add the changes to.
+     * @throws IOException If there is a problem reading the store or writing 
+     * the log.
+     */
+    public ReplicatingRecordStore(RecordStore store, ReplicationLog changeLog) 
+            throws IOException {
+        this.base = store;
+        this.log = changeLog;
+        if (changeLog.getLastSequence() == 0L) {
+            Map<String, byte[]> chunk = new LinkedHashMap<>();
+            for (String key : store.keys("")) {
+                byte[] data = store.read(key);
+                if (data != null) {
+                    chunk.put(key, data);
+                }
+                if (chunk.size() == SEED_CHUNK_SIZE) {
+                    changeLog.appendAll(chunk);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                changeLog.appendAll(chunk);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,311 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * An ordered log of the changes made to a {@link RecordStore}, for a follower 
+ * to apply to a copy of the store. The log is written by a {@link 
+ * ReplicatingRecordStore} and read by a {@link LogFollower}, which may be in 
+ * another process, even on another machine if the log file is on a shared 
+ * disk.
+ * <p>Each entry in the log consists of the sequence number, the time the 
+ * change was made in milliseconds since the epoch, the key length, the key in 
+ * UTF-8, the data length (&minus;1 for a delete), the data, and a CRC-32 
+ * checksum of all that. Sequence numbers start at 1 and go up by 1 with each 
+ * entry. An entry that is only partly written, either because the writer is 
+ * still writing it or because the writer crashed, fails the checksum, so 
+ * readers stop short of it. A crashed writer cuts it off the next time it 
+ * opens the log.</p>
+ * <p>The log only grows. Once every follower has caught up, it can be 
+ * deleted while the writer is stopped, and the next writer will start a new 
+ * log with a full copy of the store.</p>
+ * @author Alonso del Arte
+ */
+public class ReplicationLog implements Closeable {
+
+    private static final int DELETE_LENGTH = -1;
+
+    private static final int HEADER_LENGTH = Long.BYTES * 2 + Integer.BYTES;
+
+    private final File logFile;
+
+    private final FileChannel channel;
+
+    private long logLength;
+
+    private long lastSequence;
+
+    /**
+     * A change read back from the log.
+     */
+    static class Entry {
+
+        final long sequence;
+
+        final long timestamp;
+
+        final String key;
+
+        /**
+         * The new record, or null if the record was deleted.
+         */
+        final byte[] data;
+
+        /**
+         * Where in the log the next entry starts.
+         */
+        final long nextPosition;
+
+        Entry(long seq, long time, String k, byte[] d, long next) {
+            this.sequence = seq;
+            this.timestamp = time;
+            this.key = k;
+            this.data = d;
+            this.nextPosition = next;
+        }
+
+    }
+
+    private static ByteBuffer encodeEntry(long sequence, long timestamp, 
+            String key, byte[] data) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        int dataLen = (data == null) ? 0 : data.length;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH 
+                + keyBytes.length + Integer.BYTES + dataLen + Integer.BYTES);
+        buffer.putLong(sequence);
+        buffer.putLong(timestamp);
+        buffer.putInt(keyBytes.length);
+        buffer.put(keyBytes);
+        buffer.putInt((data == null) ? DELETE_LENGTH : dataLen);
+        if (data != null) {
+            buffer.put(data);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+        return buffer;
+    }
+
+    private static boolean readFully(FileChannel source, ByteBuffer buffer, 
+            long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int count = source.read(buffer, position);
+            if (count < 0) {
+                return false;
+            }
+            position += count;
+        }
+        buffer.flip();
+        return true;
+    }
+
+    /**
+     * Reads the entry at a given position in a log.
+     * @param source The log, open for reading.
+     * @param position Where the entry starts. For example, 0 for the first 
+     * entry.
+     * @return The entry, or null if there isn't a complete, intact entry at 
+     * <code>position</code>, as when <code>position</code> is the end of the 
+     * log or the entry there is still being written.
+     * @throws IOException If there is a problem reading the log.
+     */
+    static Entry readEntry(FileChannel source, long position) 
+            throws IOException {
+        long available = source.size() - position;
+        if (available < HEADER_LENGTH + Integer.BYTES * 2) {
+            return null;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+        if (!readFully(source, header, position)) {
+            return null;
+        }
+        header.getLong();
+        header.getLong();
+        int keyLen = header.getInt();
+        if (keyLen <= 0 || HEADER_LENGTH + keyLen + Integer.BYTES 
+                > available) {
+            return null;
+        }
+        ByteBuffer lengthBuffer = ByteBuffer.allocate(Integer.BYTES);
+        if (!readFully(source, lengthBuffer, position + HEADER_LENGTH 
+                + keyLen)) {
+            return null;
+        }
+        int dataLen = lengthBuffer.getInt();
+        long entryLength = HEADER_LENGTH + keyLen + Integer.BYTES 
+                + Math.max(dataLen, 0) + Integer.BYTES;
+        if (dataLen < DELETE_LENGTH || entryLength > available) {
+            return null;
+        }
+        ByteBuffer entryBuffer = ByteBuffer.allocate((int) entryLength);
+        if (!readFully(source, entryBuffer, position)) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(entryBuffer.array(), 0, entryBuffer.limit() 
+                - Integer.BYTES);
+        entryBuffer.position(entryBuffer.limit() - Integer.BYTES);
+        if (entryBuffer.getInt() != (int) crc.getValue()) {
+            return null;
+        }
+        entryBuffer.rewind();
+        long sequence = entryBuffer.getLong();
+        long timestamp = entryBuffer.getLong();
+        byte[] keyBytes = new byte[entryBuffer.getInt()];
+        entryBuffer.get(keyBytes);
+        entryBuffer.getInt();
+        byte[] data = null;
+        if (dataLen != DELETE_LENGTH) {
+            data = new byte[dataLen];
+            entryBuffer.get(data);
+        }
+        return new Entry(sequence, timestamp, 
+                new String(keyBytes, StandardCharsets.UTF_8), data, 
+                position + entryLength);
+    }
+
+    /**
+     * Scans the log to find its last sequence number, cutting off any 
+     * incomplete or corrupted entry at the end.
+     */
+    private void recover() throws IOException {
+        long position = 0L;
+        Entry entry = readEntry(this.channel, position);
+        while (entry != null) {
+            this.lastSequence = entry.sequence;
+            position = entry.nextPosition;
+            entry = readEntry(this.channel, position);
+        }
+        if (position < this.channel.size()) {
+            this.channel.truncate(position);
+            this.channel.force(true);
+        }
+        this.logLength = position;
+    }
+
+    /**
+     * Adds a change to the end of the log. The entry is forced to the disk 
+     * before this returns.
+     * @param key The key of the record that changed. For example, 
+     * "PersProgemplSSNded3a56d".
+     * @param data The new record, or null if the record was deleted.
+     * @return The sequence number given to the change. For example, 1729.
+     * @throws IOException If there is a problem writing to the log.
+     */
+    public synchronized long append(String key, byte[] data) 
+            throws IOException {
+        long sequence = this.lastSequence + 1;
+        ByteBuffer buffer = encodeEntry(sequence, System.currentTimeMillis(), 
+                key, data);
+        long position = this.logLength;
+        while (buffer.hasRemaining()) {
+            position += this.channel.write(buffer, position);
+        }
+        this.channel.force(false);
+        this.logLength = position;
+        this.lastSequence = sequence;
+        return sequence;
+    }
+
+    /**
+     * Adds several changes to the end of the log, forcing them to the disk 
+     * once for the whole batch. The changes are given consecutive sequence 
+     * numbers in the iteration order of <code>changes</code>.
+     * @param changes The new records, keyed by key. Null values stand for 
+     * deleted records.
+     * @return The sequence number given to the last change. For example, 
+     * 1729. If <code>changes</code> is empty, this is the sequence number of 
+     * the latest change already in the log.
+     * @throws IOException If there is a problem writing to the log.
+     */
+    public synchronized long appendAll(Map<String, byte[]> changes) 
+            throws IOException {
+        long sequence = this.lastSequence;
+        long position = this.logLength;
+        long timestamp = System.currentTimeMillis();
+        for (Map.Entry<String, byte[]> change : changes.entrySet()) {
+            sequence++;
+            ByteBuffer buffer = encodeEntry(sequence, timestamp, 
+                    change.getKey(), change.getValue());
+            while (buffer.hasRemaining()) {
+                position += this.channel.write(buffer, position);
+            }
+        }
+        this.channel.force(false);
+        this.logLength = position;
+        this.lastSequence = sequence;
+        return sequence;
+    }
+
+    /**
+     * Gives the sequence number of the latest change in the log.
+     * @return The sequence number, or 0 if the log is empty. For example, 
+     * 1729.
+     */
+    public synchronized long getLastSequence() {
+        return this.lastSequence;
+    }
+
+    /**
+     * Gives the length of the log.
+     * @return The length in bytes. For example, 65536.
+     */
+    public synchronized long getLength() {
+        return this.logLength;
+    }
+
+    /**
+     * Gives the log file.
+     * @return The file. For example, PersProg.replog in the data directory.
+     */
+    public File getFile() {
+        return this.logFile;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        this.channel.close();
+    }
+
+    /**
+     * Constructor. Opens the log for writing, creating it if it doesn't exist 
+     * yet. Only one writer should have a log open at a time.
+     * @param file The log file. For example, PersProg.replog in the data 
+     * directory.
+     * @throws IOException If the log can't be opened or read.
+     */
+    public ReplicationLog(File file) throws IOException {
+        this.logFile = file;
+        this.channel = FileChannel.open(file.toPath(), 
+                StandardOpenOption.CREATE, StandardOpenOption.READ, 
+                StandardOpenOption.WRITE);
+        this.recover();
+    }
+
+}
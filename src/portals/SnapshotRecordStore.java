@@ -0,0 +1,400 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Wraps a {@link RecordStore} so that readers can take snapshots of it. A 
+ * snapshot is a read-only view of the store as it was at the moment the 
+ * snapshot was opened, no matter what is written to the store afterwards. This 
+ * way a long report sees every record as of the same moment, while employees 
+ * punching in and out go on writing without waiting for the report.
+ * <p>This works along the lines of multiversion concurrency control. Each 
+ * write or delete is given a version number. While any snapshot is open, the 
+ * record a write or delete is about to replace is first kept, tagged with the 
+ * version of the change that replaced it. A snapshot opened at version 
+ * <i>v</i> reading a key looks for the earliest such kept record replaced 
+ * after version <i>v</i>; if there is one, that's what the key held at 
+ * version <i>v</i>, and if not, the key hasn't changed since, and the live 
+ * record is read. Kept records are dropped once no open snapshot could need 
+ * them, so when no snapshots are open, writes cost almost nothing extra.</p>
+ * <p>Writers take turns with each other and with the opening of snapshots, 
+ * but not with reads from snapshots or from the wrapped store. All writes 
+ * must go through this wrapper for the snapshots to be consistent.</p>
+ * @author Alonso del Arte
+ */
+public class SnapshotRecordStore implements RecordStore {
+
+    /**
+     * Marks a key that had no record before a change. Compared by identity, 
+     * so that empty records are still told apart from missing ones.
+     */
+    private static final byte[] ABSENT = new byte[0];
+
+    private final RecordStore base;
+
+    private final Object writeLock = new Object();
+
+    private long version = 0L;
+
+    private final ConcurrentHashMap<String, 
+            ConcurrentSkipListMap<Long, byte[]>> history 
+            = new ConcurrentHashMap<>();
+
+    private final ConcurrentSkipListMap<Long, Integer> openSnapshots 
+            = new ConcurrentSkipListMap<>();
+
+    /**
+     * A read-only view of a {@link SnapshotRecordStore} as of the moment it 
+     * was opened. Should be closed when no longer needed, so that the records 
+     * kept for it can be dropped.
+     */
+    public final class Snapshot implements RecordStore {
+
+        private final long snapshotVersion;
+
+        private volatile boolean closed = false;
+
+        /**
+         * Tells the version of the store this snapshot shows.
+         * @return The version. For example, 0 for a snapshot opened before 
+         * anything was written through the store.
+         */
+        public long getVersion() {
+            return this.snapshotVersion;
+        }
+
+        private void checkOpen() {
+            if (this.closed) {
+                throw new IllegalStateException("Snapshot has been closed");
+            }
+        }
+
+        /**
+         * Always throws an exception, as snapshots are read-only.
+         * @throws UnsupportedOperationException Always.
+         */
+        @Override
+        public void write(String key, byte[] data) {
+            String excMsg = "Can't write " + key + " to read-only snapshot";
+            throw new UnsupportedOperationException(excMsg);
+        }
+
+        @Override
+        public byte[] read(String key) throws IOException {
+            this.checkOpen();
+            byte[] live = SnapshotRecordStore.this.base.read(key);
+            byte[] kept = SnapshotRecordStore.this.keptFor(key, 
+                    this.snapshotVersion);
+            if (kept == null) {
+                return live;
+            }
+            return kept == ABSENT ? null : Arrays.copyOf(kept, kept.length);
+        }
+
+        @Override
+        public boolean contains(String key) throws IOException {
+            this.checkOpen();
+            boolean live = SnapshotRecordStore.this.base.contains(key);
+            byte[] kept = SnapshotRecordStore.this.keptFor(key, 
+                    this.snapshotVersion);
+            if (kept == null) {
+                return live;
+            }
+            return kept != ABSENT;
+        }
+
+        /**
+         * Always throws an exception, as snapshots are read-only.
+         * @throws UnsupportedOperationException Always.
+         */
+        @Override
+        public boolean delete(String key) {
+            String excMsg = "Can't delete " + key + " from read-only snapshot";
+            throw new UnsupportedOperationException(excMsg);
+        }
+
+        @Override
+        public List<String> keys(String prefix) throws IOException {
+            this.checkOpen();
+            TreeSet<String> keys 
+                    = new TreeSet<>(SnapshotRecordStore.this.base.keys(prefix));
+            for (String key : SnapshotRecordStore.this.history.keySet()) {
+                if (key.startsWith(prefix)) {
+                    this.adjust(keys, key);
+                }
+            }
+            return new ArrayList<>(keys);
+        }
+
+        @Override
+        public List<String> keys(String fromKey, String toKey) 
+                throws IOException {
+            this.checkOpen();
+            TreeSet<String> keys = new TreeSet<>(SnapshotRecordStore.this.base
+                    .keys(fromKey, toKey));
+            for (String key : SnapshotRecordStore.this.history.keySet()) {
+                if (key.compareTo(fromKey) >= 0 && key.compareTo(toKey) < 0) {
+                    this.adjust(keys, key);
+                }
+            }
+            return new ArrayList<>(keys);
+        }
+
+        @Override
+        public SortedMap<String, byte[]> readAll(String prefix) 
+                throws IOException {
+            this.checkOpen();
+            SortedMap<String, byte[]> records 
+                    = SnapshotRecordStore.this.base.readAll(prefix);
+            for (String key : SnapshotRecordStore.this.history.keySet()) {
+                if (key.startsWith(prefix)) {
+                    byte[] kept = SnapshotRecordStore.this.keptFor(key, 
+                            this.snapshotVersion);
+                    if (kept == ABSENT) {
+                        records.remove(key);
+                    } else if (kept != null) {
+                        records.put(key, Arrays.copyOf(kept, kept.length));
+                    }
+                }
+            }
+            return records;
+        }
+
+        private void adjust(TreeSet<String> keys, String key) {
+            byte[] kept = SnapshotRecordStore.this.keptFor(key, 
+                    this.snapshotVersion);
+            if (kept == ABSENT) {
+                keys.remove(key);
+            } else if (kept != null) {
+                keys.add(key);
+            }
+        }
+
+        /**
+         * Closes this snapshot, letting the store drop whatever records it 
+         * was keeping only for this snapshot. Closing a snapshot more than 
+         * once has no further effect.
+         */
+        @Override
+        public void close() {
+            if (!this.closed) {
+                this.closed = true;
+                SnapshotRecordStore.this.release(this.snapshotVersion);
+            }
+        }
+
+        private Snapshot(long v) {
+            this.snapshotVersion = v;
+        }
+
+    }
+
+    /**
+     * Finds the record a key held at a given version, if it has changed since.
+     * @return The kept record, {@link #ABSENT} if the key had no record, or 
+     * null if the key has not changed since the given version.
+     */
+    private byte[] keptFor(String key, long atVersion) {
+        ConcurrentSkipListMap<Long, byte[]> versions = this.history.get(key);
+        if (versions == null) {
+            return null;
+        }
+        Map.Entry<Long, byte[]> entry = versions.higherEntry(atVersion);
+        return entry == null ? null : entry.getValue();
+    }
+
+    /**
+     * Keeps the record about to be replaced at a key, if any open snapshot 
+     * might need it. Must be called with the write lock held, before the 
+     * change is made to the wrapped store.
+     */
+    private void keepBeforeImage(String key, long changeVersion) 
+            throws IOException {
+        if (this.openSnapshots.isEmpty()) {
+            return;
+        }
+        byte[] current = this.base.read(key);
+        this.history.computeIfAbsent(key, 
+                (k) -> new ConcurrentSkipListMap<>())
+                .put(changeVersion, current == null ? ABSENT : current);
+    }
+
+    private void release(long snapshotVersion) {
+        synchronized (this.writeLock) {
+            this.openSnapshots.computeIfPresent(snapshotVersion, 
+                    (v, count) -> count == 1 ? null : count - 1);
+            if (this.openSnapshots.isEmpty()) {
+                this.history.clear();
+                return;
+            }
+            long oldest = this.openSnapshots.firstKey();
+            this.history.values().removeIf((versions) -> {
+                versions.headMap(oldest, true).clear();
+                return versions.isEmpty();
+            });
+        }
+    }
+
+    /**
+     * Opens a snapshot of the store as it is right now. If a write is in 
+     * progress, this waits for it to finish.
+     * @return A read-only view of the store as of now. Should be closed when 
+     * no longer needed, preferably with a try-with-resources statement.
+     */
+    public Snapshot openSnapshot() {
+        synchronized (this.writeLock) {
+            this.openSnapshots.merge(this.version, 1, Integer::sum);
+            return new Snapshot(this.version);
+        }
+    }
+
+    /**
+     * Tells how many snapshots are open.
+     * @return The number of open snapshots. For example, 0.
+     */
+    public int getOpenSnapshotCount() {
+        int count = 0;
+        for (int n : this.openSnapshots.values()) {
+            count += n;
+        }
+        return count;
+    }
+
+    /**
+     * Tells how many replaced records are being kept for open snapshots.
+     * @return The number of kept records. For example, 0 if no snapshots are 
+     * open.
+     */
+    public int getKeptRecordCount() {
+        int count = 0;
+        for (ConcurrentSkipListMap<Long, byte[]> versions 
+                : this.history.values()) {
+            count += versions.size();
+        }
+        return count;
+    }
+
+    /**
+     * Gives the store this one wraps.
+     * @return The wrapped store. Writing to it directly will make open 
+     * snapshots inconsistent.
+     */
+    public RecordStore getBase() {
+        return this.base;
+    }
+
+    @Override
+    public void write(String key, byte[] data) throws IOException {
+        synchronized (this.writeLock) {
+            long changeVersion = this.version + 1;
+            this.keepBeforeImage(key, changeVersion);
+            this.base.write(key, data);
+            this.version = changeVersion;
+        }
+    }
+
+    /**
+     * {@inheritDoc} The whole batch counts as a single change, so a snapshot 
+     * sees either all of it or none of it.
+     */
+    @Override
+    public void writeAll(Map<String, byte[]> records) throws IOException {
+        synchronized (this.writeLock) {
+            long changeVersion = this.version + 1;
+            for (String key : records.keySet()) {
+                this.keepBeforeImage(key, changeVersion);
+            }
+            this.base.writeAll(records);
+            this.version = changeVersion;
+        }
+    }
+
+    @Override
+    public byte[] read(String key) throws IOException {
+        return this.base.read(key);
+    }
+
+    @Override
+    public boolean contains(String key) throws IOException {
+        return this.base.contains(key);
+    }
+
+    @Override
+    public SortedMap<String, byte[]> readAll(String prefix) 
+            throws IOException {
+        return this.base.readAll(prefix);
+    }
+
+    @Override
+    public long transferTo(String key, WritableByteChannel target) 
+            throws IOException {
+        return this.base.transferTo(key, target);
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        synchronized (this.writeLock) {
+            long changeVersion = this.version + 1;
+            this.keepBeforeImage(key, changeVersion);
+            boolean deleted = this.base.delete(key);
+            this.version = changeVersion;
+            return deleted;
+        }
+    }
+
+    @Override
+    public List<String> keys(String prefix) throws IOException {
+        return this.base.keys(prefix);
+    }
+
+    @Override
+    public List<String> keys(String fromKey, String toKey) 
+            throws IOException {
+        return this.base.keys(fromKey, toKey);
+    }
+
+    /**
+     * Closes the wrapped store. Open snapshots can't be read afterwards.
+     * @throws IOException If there is a problem closing the wrapped store.
+     */
+    @Override
+    public void close() throws IOException {
+        this.base.close();
+    }
+
+    /**
+     * Constructor.
+     * @param store The store to wrap. For example, a {@link 
+     * FilePerRecordStore} for the data directory.
+     */
+    public SnapshotRecordStore(RecordStore store) {
+        this.base = store;
+    }
+
+}
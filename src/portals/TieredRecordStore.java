@@ -0,0 +1,433 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import payroll.PayCalendar;
+import time.TimeSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the time cards for the current pay period in memory and everything 
+ * else in another store on disk. Nearly every punch in or out is to a card 
+ * for the current period, so nearly every read of a card is served from 
+ * memory. The cards in memory are the hot tier, the other store is the cold 
+ * tier.
+ * <p>So as not to lose the hot cards if the program exits, each write to a 
+ * hot card is first appended to a {@link LogStructuredRecordStore} used as a 
+ * write-ahead log, and the hot tier is loaded back from that log when the 
+ * store is opened. Cards for the current period that are found in the cold 
+ * tier when the store is opened, as when switching over from a plain {@link 
+ * FilePerRecordStore}, are promoted to the hot tier.</p>
+ * <p>When a new pay period starts, the cards for the previous period are 
+ * demoted: written to the cold tier and removed from the log. This happens 
+ * on the first access after the rollover, or when {@link #rollOver()} is 
+ * called.</p>
+ * <p>The snapshots, events and sequence records of the current period's 
+ * cards kept as streams of events by {@link CardEventJournal} are in the hot 
+ * tier too, so that a punch through the journal is also served from memory. 
+ * Anything else, such as employee records and index entries, always goes to 
+ * the cold tier.</p>
+ * @author Alonso del Arte
+ */
+public class TieredRecordStore implements RecordStore {
+
+    private final InMemoryRecordStore hot = new InMemoryRecordStore();
+
+    private final LogStructuredRecordStore writeAheadLog;
+
+    private final RecordStore cold;
+
+    private final Supplier<LocalDateTime> periodStartSupplier;
+
+    private volatile LocalDateTime hotPeriodStart;
+
+    private volatile String hotKeySuffix;
+
+    private volatile String hotSequencePrefix;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private static String keySuffix(LocalDateTime periodStart) {
+        return "-" + periodStart.format(RecordKeys.PERIOD_FORMATTER);
+    }
+
+    /**
+     * Tells whether a key is for the hot tier: a card for the hot period, or 
+     * the snapshot, an event or the sequence record of the event stream of 
+     * such a card.
+     */
+    private boolean isHot(String key) {
+        if (key.startsWith(RecordKeys.CARD_PREFIX)) {
+            return key.endsWith(this.hotKeySuffix);
+        }
+        if (key.startsWith(RecordKeys.EVENT_PREFIX)) {
+            int dotIndex = key.indexOf('.');
+            String streamKey = (dotIndex < 0) ? key 
+                    : key.substring(0, dotIndex);
+            return streamKey.endsWith(this.hotKeySuffix);
+        }
+        return key.startsWith(this.hotSequencePrefix);
+    }
+
+    private void setHotPeriodStart(LocalDateTime periodStart) {
+        this.hotPeriodStart = periodStart;
+        this.hotKeySuffix = keySuffix(periodStart);
+        this.hotSequencePrefix = RecordKeys.eventSequencePrefix(periodStart);
+    }
+
+    /**
+     * Demotes the cards of the previous pay period if a new period has 
+     * started.
+     */
+    private void checkRollOver() throws IOException {
+        if (this.periodStartSupplier.get().isAfter(this.hotPeriodStart)) {
+            this.rollOver();
+        }
+    }
+
+    /**
+     * Moves to the cold tier every record in the hot tier that isn't for the 
+     * hot period, then moves into the hot tier every card and event stream 
+     * record for the hot period that's in the cold tier. Must be called with 
+     * the write lock held.
+     */
+    private void rebalance() throws IOException {
+        boolean demoted = false;
+        for (String key : this.writeAheadLog.keys("")) {
+            if (!this.isHot(key)) {
+                byte[] data = this.writeAheadLog.read(key);
+                this.cold.write(key, data);
+                this.writeAheadLog.delete(key);
+                this.hot.delete(key);
+                demoted = true;
+            }
+        }
+        if (demoted) {
+            this.writeAheadLog.compact();
+        }
+        List<String> coldKeys = new ArrayList<>();
+        coldKeys.addAll(this.cold.keys(RecordKeys.CARD_PREFIX));
+        coldKeys.addAll(this.cold.keys(RecordKeys.EVENT_PREFIX));
+        coldKeys.addAll(this.cold.keys(this.hotSequencePrefix));
+        for (String key : coldKeys) {
+            if (this.isHot(key)) {
+                byte[] data = this.cold.read(key);
+                this.writeAheadLog.write(key, data);
+                this.hot.write(key, data);
+                this.cold.delete(key);
+            }
+        }
+    }
+
+    /**
+     * Demotes the cards of the previous pay period to the cold tier if a new 
+     * period has started. There is no need to call this, as it's done on the 
+     * first access after the new period starts anyway, but it may be called 
+     * from a scheduled task to keep the first punch of the week from waiting 
+     * on the demotion.
+     * @throws IOException If there is a problem moving the cards.
+     */
+    public void rollOver() throws IOException {
+        this.lock.writeLock().lock();
+        try {
+            LocalDateTime periodStart = this.periodStartSupplier.get();
+            if (!periodStart.equals(this.hotPeriodStart)) {
+                this.setHotPeriodStart(periodStart);
+                this.rebalance();
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gives the start of the pay period whose cards are in the hot tier.
+     * @return The period start. For example, October 12, 2026 at 12:00 a.m.
+     */
+    public LocalDateTime getHotPeriodStart() {
+        return this.hotPeriodStart;
+    }
+
+    /**
+     * Tells how many cards are in the hot tier.
+     * @return The number of cards. For example, 120.
+     */
+    public int getHotCardCount() {
+        return this.hot.keys(RecordKeys.CARD_PREFIX).size();
+    }
+
+    /**
+     * Gives the store used as the cold tier.
+     * @return The cold tier.
+     */
+    public RecordStore getColdStore() {
+        return this.cold;
+    }
+
+    @Override
+    public void write(String key, byte[] data) throws IOException {
+        InMemoryRecordStore.checkKey(key);
+        this.checkRollOver();
+        this.lock.readLock().lock();
+        try {
+            if (this.isHot(key)) {
+                this.writeAheadLog.write(key, data);
+                this.hot.write(key, data);
+            } else {
+                this.cold.write(key, data);
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc} The current-period cards in the batch go to the 
+     * write-ahead log as one batch, and everything else goes to the cold tier 
+     * as another.
+     */
+    @Override
+    public void writeAll(Map<String, byte[]> records) throws IOException {
+        for (String key : records.keySet()) {
+            InMemoryRecordStore.checkKey(key);
+        }
+        this.checkRollOver();
+        this.lock.readLock().lock();
+        try {
+            Map<String, byte[]> hotRecords = new HashMap<>();
+            Map<String, byte[]> coldRecords = new HashMap<>();
+            for (Map.Entry<String, byte[]> entry : records.entrySet()) {
+                if (this.isHot(entry.getKey())) {
+                    hotRecords.put(entry.getKey(), entry.getValue());
+                } else {
+                    coldRecords.put(entry.getKey(), entry.getValue());
+                }
+            }
+            if (!hotRecords.isEmpty()) {
+                this.writeAheadLog.writeAll(hotRecords);
+                this.hot.writeAll(hotRecords);
+            }
+            if (!coldRecords.isEmpty()) {
+                this.cold.writeAll(coldRecords);
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public byte[] read(String key) throws IOException {
+        this.checkRollOver();
+        this.lock.readLock().lock();
+        try {
+            if (this.isHot(key)) {
+                return this.hot.read(key);
+            }
+            return this.cold.read(key);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public long transferTo(String key, WritableByteChannel target) 
+            throws IOException {
+        this.checkRollOver();
+        this.lock.readLock().lock();
+        try {
+            if (this.isHot(key)) {
+                return this.hot.transferTo(key, target);
+            }
+            return this.cold.transferTo(key, target);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean contains(String key) throws IOException {
+        this.checkRollOver();
+        this.lock.readLock().lock();
+        try {
+            if (this.isHot(key)) {
+                return this.hot.contains(key);
+            }
+            return this.cold.contains(key);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        this.checkRollOver();
+        this.lock.readLock().lock();
+        try {
+            if (this.isHot(key)) {
+                this.writeAheadLog.delete(key);
+                return this.hot.delete(key);
+            }
+            return this.cold.delete(key);
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    private static List<String> merge(List<String> hotKeys, 
+            List<String> coldKeys) {
+        if (hotKeys.isEmpty()) {
+            return coldKeys;
+        }
+        List<String> merged = new ArrayList<>(hotKeys.size() 
+                + coldKeys.size());
+        merged.addAll(hotKeys);
+        merged.addAll(coldKeys);
+        Collections.sort(merged);
+        return merged;
+    }
+
+    @Override
+    public List<String> keys(String prefix) throws IOException {
+        this.checkRollOver();
+        this.lock.readLock().lock();
+        try {
+            return merge(this.hot.keys(prefix), this.cold.keys(prefix));
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<String> keys(String fromKey, String toKey) 
+            throws IOException {
+        this.checkRollOver();
+        this.lock.readLock().lock();
+        try {
+            return merge(this.hot.keys(fromKey, toKey), 
+                    this.cold.keys(fromKey, toKey));
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public SortedMap<String, byte[]> readAll(String prefix) 
+            throws IOException {
+        this.checkRollOver();
+        this.lock.readLock().lock();
+        try {
+            SortedMap<String, byte[]> records = this.cold.readAll(prefix);
+            records.putAll(this.hot.readAll(prefix));
+            return records;
+        } finally {
+            this.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Closes the write-ahead log and the cold tier. The hot tier needs no 
+     * closing, since everything in it is also in the log.
+     * @throws IOException If there is a problem closing either.
+     */
+    @Override
+    public void close() throws IOException {
+        this.lock.writeLock().lock();
+        try {
+            try {
+                this.writeAheadLog.close();
+            } finally {
+                this.cold.close();
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Constructor. Loads the hot tier from the write-ahead log, demotes any 
+     * cards in it from earlier periods and promotes any cards for the current 
+     * period from the cold tier. The current period is the one in the default 
+     * {@link PayCalendar}.
+     * @param logFile The file for the write-ahead log of the hot tier. For 
+     * example, PersProgHot.log in the data directory. It will be created if 
+     * it doesn't exist yet.
+     * @param coldStore The store to use as the cold tier. For example, a 
+     * {@link FilePerRecordStore} for the data directory.
+     * @throws IOException If there is a problem reading the log or moving 
+     * cards between the tiers.
+     */
+    public TieredRecordStore(File logFile, RecordStore coldStore) 
+            throws IOException {
+        this(logFile, coldStore, PayCalendar.getDefault());
+    }
+
+    /**
+     * Constructor. Loads the hot tier from the write-ahead log, demotes any 
+     * cards in it from earlier periods and promotes any cards for the current 
+     * period in the given pay calendar from the cold tier.
+     * @param logFile The file for the write-ahead log of the hot tier. For 
+     * example, PersProgHot.log in the data directory. It will be created if 
+     * it doesn't exist yet.
+     * @param coldStore The store to use as the cold tier. For example, a 
+     * {@link FilePerRecordStore} for the data directory.
+     * @param payCalendar The pay calendar to find the current period in. For 
+     * example, a biweekly calendar.
+     * @throws IOException If there is a problem reading the log or moving 
+     * cards between the tiers.
+     */
+    public TieredRecordStore(File logFile, RecordStore coldStore, 
+            PayCalendar payCalendar) throws IOException {
+        this(logFile, coldStore, 
+                () -> payCalendar.getPeriodStart(TimeSource.now()));
+    }
+
+    /**
+     * Constructor with a given source for the start of the current pay 
+     * period, so that tests don't have to wait a week for a rollover.
+     */
+    TieredRecordStore(File logFile, RecordStore coldStore, 
+            Supplier<LocalDateTime> currentPeriodStart) throws IOException {
+        this.cold = coldStore;
+        this.periodStartSupplier = currentPeriodStart;
+        this.setHotPeriodStart(currentPeriodStart.get());
+        this.writeAheadLog = new LogStructuredRecordStore(logFile);
+        for (Map.Entry<String, byte[]> entry 
+                : this.writeAheadLog.readAll("").entrySet()) {
+            this.hot.write(entry.getKey(), entry.getValue());
+        }
+        this.lock.writeLock().lock();
+        try {
+            this.rebalance();
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+}
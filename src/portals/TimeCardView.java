@@ -0,0 +1,248 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import entities.Employee;
+import payroll.TimeCard;
+import time.DateTimeRange;
+import time.TimeSource;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * A lightweight view of a time card kept in an {@link OffHeapCardStore}. A 
+ * view holds nothing but a reference to the store and the number of the card, 
+ * so reading a card's times through a view does not create any 
+ * <code>LocalDateTime</code> or <code>DateTimeRange</code> objects unless 
+ * they're asked for. The times are given as seconds since 1970, counted as if 
+ * local time were UTC, by the functions whose names end in "Seconds."
+ * <p>The functions that change a card follow the same rules as the 
+ * corresponding functions of {@link TimeCard}. For example, {@link 
+ * #markPaid()} throws an exception if the card has not been verified. Unlike 
+ * {@link TimeCard}, views don't notify listeners.</p>
+ * @author Alonso del Arte
+ */
+public final class TimeCardView {
+
+    private final OffHeapCardStore store;
+
+    private final int cardNumber;
+
+    /**
+     * Gives the number of the card in the store.
+     * @return The card number. For example, 0.
+     */
+    public int getCardNumber() {
+        return this.cardNumber;
+    }
+
+    public Employee getEmployee() {
+        return this.store.getOwner(this.cardNumber);
+    }
+
+    public long getStartSeconds() {
+        return this.store.getPeriodStart(this.cardNumber);
+    }
+
+    public long getEndSeconds() {
+        return this.store.getPeriodEnd(this.cardNumber);
+    }
+
+    public LocalDateTime getStartTime() {
+        return OffHeapCardStore.toLocalDateTime(this.getStartSeconds());
+    }
+
+    public LocalDateTime getEndTime() {
+        return OffHeapCardStore.toLocalDateTime(this.getEndSeconds());
+    }
+
+    private boolean hasFlag(int flag) {
+        return (this.store.getFlags(this.cardNumber) & flag) != 0;
+    }
+
+    private void setFlag(int flag, boolean value) {
+        if (value) {
+            this.store.updateFlags(this.cardNumber, flag, 0);
+        } else {
+            this.store.updateFlags(this.cardNumber, 0, flag);
+        }
+    }
+
+    public boolean isActive() {
+        return this.hasFlag(OffHeapCardStore.ACTIVE_FLAG);
+    }
+
+    public boolean hasBeenVerified() {
+        return this.hasFlag(OffHeapCardStore.VERIFIED_FLAG);
+    }
+
+    public boolean hasBeenPaid() {
+        return this.hasFlag(OffHeapCardStore.PAID_FLAG);
+    }
+
+    public boolean isPunchedIn() {
+        return this.hasFlag(OffHeapCardStore.PUNCHED_IN_FLAG);
+    }
+
+    /**
+     * Tells whether the pay period of this card includes the present moment, 
+     * according to {@link TimeSource}.
+     * @return True if the period started before now and ends after now, false 
+     * otherwise.
+     */
+    public boolean isCurrent() {
+        long now = OffHeapCardStore.toSeconds(TimeSource.now());
+        return this.getStartSeconds() < now && now < this.getEndSeconds();
+    }
+
+    public int getBlockCount() {
+        return this.store.getBlockCount(this.cardNumber);
+    }
+
+    /**
+     * Gives the start of one of the card's time blocks.
+     * @param index Which block, counting from 0 in order of start time.
+     * @return The start of the block, in seconds since 1970. For example, 
+     * 1791792000 for 8:00 a.m. on October 12, 2026.
+     * @throws IndexOutOfBoundsException If <code>index</code> is negative or 
+     * not less than {@link #getBlockCount()}.
+     */
+    public long getBlockStartSeconds(int index) {
+        return this.store.getBlockStart(this.cardNumber, index);
+    }
+
+    /**
+     * Gives the end of one of the card's time blocks.
+     * @param index Which block, counting from 0 in order of start time.
+     * @return The end of the block, in seconds since 1970. For example, 
+     * 1791806400 for 12:00 p.m. on October 12, 2026.
+     * @throws IndexOutOfBoundsException If <code>index</code> is negative or 
+     * not less than {@link #getBlockCount()}.
+     */
+    public long getBlockEndSeconds(int index) {
+        return this.store.getBlockEnd(this.cardNumber, index);
+    }
+
+    public DateTimeRange getTimeBlock(int index) {
+        long start = this.getBlockStartSeconds(index);
+        long end = this.getBlockEndSeconds(index);
+        return new DateTimeRange(OffHeapCardStore.toLocalDateTime(start), 
+                OffHeapCardStore.toLocalDateTime(end));
+    }
+
+    public long getMinutesSoFar() {
+        return this.store.sumBlockSeconds(this.cardNumber) / 60;
+    }
+
+    public void addTimeBlock(DateTimeRange block) throws IOException {
+        if (!this.isActive()) {
+            String excMsg = "Can't add time block to inactive card";
+            throw new IllegalStateException(excMsg);
+        }
+        long start = OffHeapCardStore.toSeconds(block.getStart());
+        long end = OffHeapCardStore.toSeconds(block.getEnd());
+        if (start < this.getStartSeconds() || end > this.getEndSeconds()) {
+            String excMsg = "Can't add " + block.toString() + " to time card " 
+                    + this.getStartTime() + " to " + this.getEndTime();
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.store.insertBlock(this.cardNumber, start, end);
+    }
+
+    public void punchIn() {
+        if (!this.isPunchedIn()) {
+            this.store.setLastPunchIn(this.cardNumber, 
+                    OffHeapCardStore.toSeconds(TimeSource.now()));
+            this.setFlag(OffHeapCardStore.PUNCHED_IN_FLAG, true);
+        }
+    }
+
+    public void punchOut() throws IOException {
+        if (this.isPunchedIn()) {
+            LocalDateTime punchInTime = OffHeapCardStore.toLocalDateTime(
+                    this.store.getLastPunchIn(this.cardNumber));
+            this.addTimeBlock(new DateTimeRange(punchInTime, 
+                    TimeSource.now()));
+            this.setFlag(OffHeapCardStore.PUNCHED_IN_FLAG, false);
+        }
+    }
+
+    public void markActive() {
+        this.setFlag(OffHeapCardStore.ACTIVE_FLAG, true);
+    }
+
+    public void markInactive() {
+        this.setFlag(OffHeapCardStore.ACTIVE_FLAG, false);
+    }
+
+    public void markVerified() {
+        if (this.isCurrent()) {
+            String excMsg = "Card can't be verified before " 
+                    + this.getEndTime().toString();
+            throw new IllegalStateException(excMsg);
+        }
+        this.setFlag(OffHeapCardStore.VERIFIED_FLAG, true);
+    }
+
+    public void markPaid() {
+        if (!this.hasBeenVerified()) {
+            String excMsg = "Unverified card can't be marked as paid";
+            throw new IllegalStateException(excMsg);
+        }
+        this.store.updateFlags(this.cardNumber, OffHeapCardStore.PAID_FLAG, 
+                OffHeapCardStore.ACTIVE_FLAG);
+    }
+
+    /**
+     * Copies the card into a new {@link TimeCard} object on the heap, for 
+     * example to write it to a {@link RecordStore}.
+     * @return A new <code>TimeCard</code> with the same owner, period, flags 
+     * and time blocks as this card.
+     */
+    public TimeCard toTimeCard() {
+        TimeCard card = new TimeCard(this.getEmployee(), 
+                new DateTimeRange(this.getStartTime(), this.getEndTime()));
+        int count = this.getBlockCount();
+        for (int i = 0; i < count; i++) {
+            card.addTimeBlock(this.getTimeBlock(i));
+        }
+        if (this.isPunchedIn()) {
+            card.punchIn(OffHeapCardStore.toLocalDateTime(
+                    this.store.getLastPunchIn(this.cardNumber)));
+        }
+        if (this.hasBeenVerified()) {
+            card.markVerified();
+        }
+        if (this.hasBeenPaid()) {
+            card.markPaid();
+        }
+        if (this.isActive()) {
+            card.markActive();
+        } else {
+            card.markInactive();
+        }
+        return card;
+    }
+
+    TimeCardView(OffHeapCardStore cardStore, int number) {
+        this.store = cardStore;
+        this.cardNumber = number;
+    }
+
+}
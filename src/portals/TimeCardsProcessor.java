@@ -17,16 +17,19 @@
  */
 package portals;
 
+import currency.CurrencyAmount;
+import entities.Employee;
+import payroll.ClockedInRoster;
 import payroll.TimeCard;
 
-import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 
 /**
- *
+ * Writes and retrieves time cards. The functions that don't take a {@link 
+ * RecordStore} use the files in the directory specified through {@link 
+ * DataDirectoryInitializer}.
  * @author Alonso del Arte
  */
 public class TimeCardsProcessor {
@@ -34,20 +37,203 @@ public class TimeCardsProcessor {
     // TODO: Move from portals.text the functionality pertaining to time cards 
     // that will be common to portals.text and portals.gui
     
-    public static ArrayList<TimeCard> getCards() 
+    /**
+     * Writes a time card to a given store. If the store already has the same 
+     * card (same employee, same period), it is replaced. The card is also 
+     * added to the store's {@link PeriodIndex}, if it's not already there, 
+     * and its flags are brought up to date in the {@link CardStatusIndex}. If 
+     * the card is kept as a stream of events by a {@link CardEventJournal}, 
+     * the card as given takes the place of the events so far.
+     * @param store The store to write to. For example, an {@link 
+     * InMemoryRecordStore}.
+     * @param card The card to write.
+     * @throws IOException If there is a problem writing the card.
+     */
+    public static void putCard(RecordStore store, TimeCard card) 
+            throws IOException {
+        synchronized (store) {
+            CardEventJournal.supersede(store, card, false);
+            writeCard(store, card);
+        }
+    }
+
+    /**
+     * Writes a time card under its usual key and brings the indexes up to 
+     * date, without regard to its stream of events, if it has one.
+     */
+    static void writeCard(RecordStore store, TimeCard card) 
+            throws IOException {
+        store.write(RecordKeys.cardKey(card), RecordCodec.encode(card));
+        new PeriodIndex(store).add(card);
+        new CardStatusIndex(store).update(card);
+    }
+
+    /**
+     * Reads the time card under a given key, without regard to its stream of 
+     * events, if it has one.
+     * @return The card, or null if there is no record under that key.
+     */
+    static TimeCard readCard(RecordStore store, String cardKey) 
             throws ClassNotFoundException, IOException {
-        if (!DataDirectoryInitializer.hasBeenSet()) {
-            DataDirectoryInitializer.setDir();
+        byte[] bytes = store.read(cardKey);
+        if (bytes == null) {
+            return null;
+        }
+        return RecordCodec.decode(bytes, TimeCard.class);
+    }
+    
+    /**
+     * Works out the pay for a time card before taxes, without overtime, at 
+     * the rates in the employee's current record in a given store, rather than 
+     * the rates in the copy of the employee kept on the card. The employee 
+     * record is read directly by its key. See {@link 
+     * TimeCard#getPreTaxTotal(Employee)}.
+     * @param store The store to look up the employee record in. For example, 
+     * an {@link InMemoryRecordStore}.
+     * @param card The card. For example, John Lopez's card for the week of 
+     * October 12, 2026.
+     * @return The pay. For example, $150.00 for four hours, if John Lopez got 
+     * a raise to $37.50 an hour after the card was written. If the store has 
+     * no record for the employee, the rates on the card are used.
+     * @throws ClassNotFoundException If there is a deserialization problem 
+     * with the employee record.
+     * @throws IOException If there is a problem reading the employee record.
+     */
+    public static CurrencyAmount getPreTaxTotal(RecordStore store, 
+            TimeCard card) throws ClassNotFoundException, IOException {
+        Employee current = EmployeeRecordsProcessor.getRecord(store, 
+                card.getEmployee().getTIN());
+        if (current == null) {
+            return card.getPreTaxTotal();
         }
-        File dir = DataDirectoryInitializer.getDir();
-        TimeCardFilter filter = new TimeCardFilter();
-        File[] matches = dir.listFiles(filter);
+        return card.getPreTaxTotal(current);
+    }
+    
+    /**
+     * Retrieves an employee's time card for the pay period starting at a given 
+     * time from a given store. The card is read directly by its key, without 
+     * scanning the store, and any events recorded for it by a {@link 
+     * CardEventJournal} are replayed.
+     * @param store The store to read from. For example, an {@link 
+     * InMemoryRecordStore}.
+     * @param employee The employee. For example, John Lopez, SSN 750-10-1729.
+     * @param periodStart The start of the pay period. For example, October 12, 
+     * 2026 at 12:00 a.m.
+     * @return The card, or null if the store has no current card for that 
+     * employee and period.
+     * @throws ClassNotFoundException If there is a deserialization problem.
+     * @throws IOException If there is a problem reading the card.
+     */
+    public static TimeCard getCard(RecordStore store, Employee employee, 
+            LocalDateTime periodStart) 
+            throws ClassNotFoundException, IOException {
+        return CardEventJournal.readCurrent(store, employee, periodStart);
+    }
+    
+    public static ArrayList<TimeCard> getCards() 
+            throws ClassNotFoundException, IOException {
+        return getCards(DataDirectoryInitializer.getDefaultStore());
+    }
+    
+    /**
+     * Retrieves all the time cards in a given store, not counting the archived 
+     * cards. Any events recorded for the cards by a {@link CardEventJournal} 
+     * are replayed.
+     * @param store The store to read from. For example, an {@link 
+     * InMemoryRecordStore}.
+     * @return A list of time cards. It will be an empty list if the store has 
+     * no time cards.
+     * @throws ClassNotFoundException If there is a deserialization problem.
+     * @throws IOException If there is a problem reading the cards.
+     */
+    public static ArrayList<TimeCard> getCards(RecordStore store) 
+            throws ClassNotFoundException, IOException {
         ArrayList<TimeCard> list = new ArrayList<>();
-        for (File file : matches) {
-            FileInputStream fileStream = new FileInputStream(file);
-            ObjectInputStream objStream = new ObjectInputStream(fileStream);
-            TimeCard card = (TimeCard) objStream.readObject();
-            list.add(card);
+        for (byte[] bytes : store.readAll(RecordKeys.CARD_PREFIX).values()) {
+            list.add(RecordCodec.decode(bytes, TimeCard.class));
+        }
+        CardEventJournal.bringUpToDate(store, list);
+        return list;
+    }
+    
+    /**
+     * Retrieves the time cards for the pay period starting at a given time, 
+     * using the store's {@link PeriodIndex} so that only those cards are read.
+     * @param store The store to read from. For example, an {@link 
+     * InMemoryRecordStore}.
+     * @param periodStart The start of the pay period. For example, October 12, 
+     * 2026 at 12:00 a.m.
+     * @return A list of time cards. It will be an empty list if there are no 
+     * current cards for that period.
+     * @throws ClassNotFoundException If there is a deserialization problem.
+     * @throws IOException If there is a problem reading the cards.
+     */
+    public static ArrayList<TimeCard> getCards(RecordStore store, 
+            LocalDateTime periodStart) 
+            throws ClassNotFoundException, IOException {
+        return new PeriodIndex(store).getCards(periodStart);
+    }
+    
+    /**
+     * Makes a roster of who is clocked in, starting with the employees whose 
+     * cards for a given pay period are punched in. The roster is not kept up 
+     * to date with later punches unless it's given the cards to track.
+     * @param store The store to read the cards from. For example, the default 
+     * store.
+     * @param periodStart The start of the pay period, normally the current 
+     * one. For example, October 12, 2026 at 12:00 a.m.
+     * @return The roster. For example, a roster with John Lopez clocked in 
+     * since 8:00 a.m. on October 12, 2026.
+     * @throws ClassNotFoundException If there is a deserialization problem 
+     * with the cards in the store.
+     * @throws IOException If there is a problem reading the store.
+     */
+    public static ClockedInRoster getClockedInRoster(RecordStore store, 
+            LocalDateTime periodStart) 
+            throws ClassNotFoundException, IOException {
+        ClockedInRoster roster = new ClockedInRoster();
+        for (TimeCard card : getCards(store, periodStart)) {
+            if (card.isPunchedIn()) {
+                roster.punchedIn(card);
+            }
+        }
+        return roster;
+    }
+    
+    /**
+     * Retrieves time cards, optionally including the paid cards that have been 
+     * moved to the archives by {@link PaidCardArchiver}.
+     * @param includeHistory Whether to also retrieve the archived cards. If 
+     * false, this is the same as {@link #getCards()}.
+     * @return A list of time cards. The cards still in the data directory come 
+     * first, followed by the archived cards, if requested, ordered by pay 
+     * period.
+     * @throws ClassNotFoundException If there is a deserialization problem.
+     * @throws IOException If there is a problem reading the files.
+     */
+    public static ArrayList<TimeCard> getCards(boolean includeHistory) 
+            throws ClassNotFoundException, IOException {
+        return getCards(DataDirectoryInitializer.getDefaultStore(), 
+                includeHistory);
+    }
+    
+    /**
+     * Retrieves time cards from a given store, optionally including the paid 
+     * cards that have been moved to the archives by {@link PaidCardArchiver}.
+     * @param store The store to read from. For example, an {@link 
+     * InMemoryRecordStore}.
+     * @param includeHistory Whether to also retrieve the archived cards.
+     * @return A list of time cards. The current cards come first, followed by 
+     * the archived cards, if requested, ordered by pay period.
+     * @throws ClassNotFoundException If there is a deserialization problem.
+     * @throws IOException If there is a problem reading the cards.
+     */
+    public static ArrayList<TimeCard> getCards(RecordStore store, 
+            boolean includeHistory) 
+            throws ClassNotFoundException, IOException {
+        ArrayList<TimeCard> list = getCards(store);
+        if (includeHistory) {
+            list.addAll(PaidCardArchiver.getArchivedCards(store));
         }
         return list;
     }
@@ -20,6 +20,9 @@ package portals.text;
 import entities.Employee;
 import entities.idnumbers.SocialSecurityNumber;
 
+import portals.DataDirectoryInitializer;
+import portals.RecordStore;
+
 import java.io.IOException;
 import java.util.ArrayList;
 
@@ -36,8 +39,8 @@ public class EmployeeRecordsLister {
         System.out.println();
         System.out.println("Employee Records Lister program, version 0.1");
         System.out.println();
-        try {
-            ArrayList<Employee> records = getRecords();
+        try (RecordStore snapshot = DataDirectoryInitializer.openSnapshot()) {
+            ArrayList<Employee> records = getRecords(snapshot);
             System.out.println("Found " + records.size() + " records...");
             System.out.println();
             records.stream().map((record) -> {
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals.text;
+
+import portals.DataDirectoryInitializer;
+import portals.RecordExporter;
+import portals.RecordStore;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Scanner;
+
+/**
+ * Program to export a pay period's records from the command line, to a file 
+ * or to a host and port, such as the payroll provider's intake server.
+ * @author Alonso del Arte
+ */
+public class PeriodExporter {
+    
+    /**
+     * Tells whether a target given by the user is a host and port rather than 
+     * a file path.
+     * @param target The target. For example, "payroll.example.com:7070" or 
+     * "/mnt/backup/week42.ppex".
+     * @return True if <code>target</code> is a host name or address followed 
+     * by a colon and a port number, false otherwise.
+     */
+    static boolean isHostAndPort(String target) {
+        return target.matches("[\\w.-]+:\\d{1,5}") 
+                && !target.matches("[A-Za-z]:\\d+");
+    }
+    
+    public static void main(String[] args) {
+        System.out.println();
+        System.out.println("Pay Period Exporter program, version 0.1");
+        System.out.println();
+        try (Scanner input = new Scanner(System.in)) {
+            System.out.print("Please enter pay period start date (yyyy-mm-dd): ");
+            LocalDate date = LocalDate.parse(input.nextLine().trim());
+            LocalDateTime periodStart = LocalDateTime.of(date, 
+                    LocalTime.MIDNIGHT);
+            System.out.print("Please enter file path or host:port to export to: ");
+            String target = input.nextLine().trim();
+            RecordStore store = DataDirectoryInitializer.getDefaultStore();
+            int count;
+            if (isHostAndPort(target)) {
+                int colonIndex = target.lastIndexOf(':');
+                InetSocketAddress address = new InetSocketAddress(
+                        target.substring(0, colonIndex), 
+                        Integer.parseInt(target.substring(colonIndex + 1)));
+                try (SocketChannel channel = SocketChannel.open(address)) {
+                    count = RecordExporter.exportPeriod(store, periodStart, 
+                            channel);
+                }
+            } else {
+                count = RecordExporter.export(store, 
+                        RecordExporter.periodKeys(store, periodStart), 
+                        new File(target));
+            }
+            System.out.println("Exported " + count + " records to " + target);
+        } catch (DateTimeParseException dtpe) {
+            System.out.println("Sorry, didn't catch that date: ");
+            System.out.println("\"" + dtpe.getMessage() + "\"");
+        } catch (IOException ioe) {
+            System.out.println(ioe.getClass().getName() + " occurred...");
+            System.out.println("\"" + ioe.getMessage() + "\"");
+        }
+    }
+
+}
@@ -23,6 +23,7 @@ import payroll.TimeCard;
 import portals.CurrentTimeCardFetcher;
 import portals.EmployeeRecordsProcessor;
 import time.DateTimeRange;
+import time.TimeSource;
 
 import java.io.IOException;
 import java.time.LocalTime;
@@ -92,15 +93,13 @@ public class TimeCardClock {
                     System.out.println(block.toString());
                 });
                 System.out.println("Total minutes: " + card.getMinutesSoFar());
-                boolean punchStatusChange = false;
                 System.out.print("You are currently ");
                 if (card.isPunchedIn()) {
                     System.out.println("punched in. ");
                     System.out.print("Would you like to punch out? ");
                     String choice = input.nextLine();
                     if (choice.toLowerCase().startsWith("y")) {
-                        card.punchOut();
-                        punchStatusChange = true;
+                        fetcher.punchOut();
                         System.out.println("Completed time blocks:");
                         blocks = card.getTimeBlocks();
                         blocks.forEach((block) -> {
@@ -112,17 +111,11 @@ public class TimeCardClock {
                     System.out.print("Would you like to punch in? ");
                     String choice = input.nextLine();
                     if (choice.toLowerCase().startsWith("y")) {
-                        card.punchIn();
-                        punchStatusChange = true;
+                        fetcher.punchIn();
                         System.out.println("You are now punched in as of "
-                                + LocalTime.now());
+                                + LocalTime.now(TimeSource.getClock()));
                     }
                 }
-                if (punchStatusChange) {
-                    fetcher.putCardBack(card);
-                } else {
-                    fetcher.putCardBack();
-                }
             } catch (ClassNotFoundException cnfe) {
                 System.out.println("ClassNotFoundException occurred while trying to fetch time card...");
                 System.out.println("\"" + cnfe.getMessage() + "\"");
@@ -5,15 +5,20 @@
  */
 package portals.text;
 
+import entities.Employee;
+import entities.idnumbers.TaxpayerIdentificationNumber;
 import payroll.TimeCard;
 import portals.DataDirectoryInitializer;
-import portals.TimeCardFilter;
+import portals.EmployeeRecordsProcessor;
+import portals.RecordStore;
+import portals.TimeCardsProcessor;
+import time.TimeSource;
 
-import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  *
@@ -21,22 +26,19 @@ import java.util.ArrayList;
  */
 public class TimeCardLister {
     
+    /**
+     * Retrieves the time cards from a snapshot of the data directory, so that 
+     * the list is consistent even if employees punch in or out while it's 
+     * being read.
+     * @return A list of time cards as of the moment this was called.
+     * @throws ClassNotFoundException If there is a deserialization problem.
+     * @throws IOException If there is a problem reading the cards.
+     */
     public static ArrayList<TimeCard> getCards() 
             throws ClassNotFoundException, IOException {
-        if (!DataDirectoryInitializer.hasBeenSet()) {
-            DataDirectoryInitializer.setDir();
+        try (RecordStore snapshot = DataDirectoryInitializer.openSnapshot()) {
+            return TimeCardsProcessor.getCards(snapshot);
         }
-        File dir = DataDirectoryInitializer.getDir();
-        TimeCardFilter filter = new TimeCardFilter();
-        File[] matches = dir.listFiles(filter);
-        ArrayList<TimeCard> list = new ArrayList<>();
-        for (File file : matches) {
-            FileInputStream fileStream = new FileInputStream(file);
-            ObjectInputStream objStream = new ObjectInputStream(fileStream);
-            TimeCard card = (TimeCard) objStream.readObject();
-            list.add(card);
-        }
-        return list;
     }
     
     public static void main(String[] args) {
@@ -44,7 +46,18 @@ public class TimeCardLister {
         System.out.println("Time Card Lister program, version 0.1");
         System.out.println();
         try {
-            ArrayList<TimeCard> cards = getCards();
+            ArrayList<TimeCard> cards;
+            Map<TaxpayerIdentificationNumber, Employee> employees 
+                    = new HashMap<>();
+            try (RecordStore snapshot 
+                    = DataDirectoryInitializer.openSnapshot()) {
+                cards = TimeCardsProcessor.getCards(snapshot);
+                for (Employee employee 
+                        : EmployeeRecordsProcessor.getRecords(snapshot)) {
+                    employees.put(employee.getTIN(), employee);
+                }
+            }
+            LocalDateTime now = TimeSource.now();
             System.out.println("Found " + cards.size() + " records...");
             cards.stream().map((card) -> {
                 System.out.println();
@@ -57,7 +70,7 @@ public class TimeCardLister {
                 System.out.println("Card period start: " + card.getStartTime());
                 return card;
             }).map((card) -> {
-                System.out.println("Card is current: " + card.isCurrent());
+                System.out.println("Card is current: " + card.isCurrent(now));
                 return card; 
             }).map((card) -> {
                 System.out.println("Card has been verified: "
@@ -71,8 +84,10 @@ public class TimeCardLister {
                         + card.getMinutesSoFar());
                 return card; 
             }).map((TimeCard card) -> {
+                Employee current = employees.getOrDefault(card.getEmployee()
+                        .getTIN(), card.getEmployee());
                 System.out.println("Card estimated pre-tax total: "
-                        + card.getPreTaxTotal().toString());
+                        + card.getPreTaxTotal(current).toString());
                 return card;
             });
         } catch (ClassNotFoundException cnfe) {
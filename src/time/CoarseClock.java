@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package time;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A clock that only reads another clock every so often, such as every 
+ * second, and gives the last reading in between. Reading this clock is just 
+ * reading a field, with no call to the operating system, so it can be read 
+ * once per record in a scan of thousands of records without slowing the scan 
+ * down. The price is that the time it gives may be behind by up to the 
+ * resolution.
+ * <p>The readings are taken on a background thread, shared by all the coarse 
+ * clocks, until the clock is closed. After that, the clock gives the last 
+ * reading it took.</p>
+ * @author Alonso del Arte
+ */
+public class CoarseClock extends Clock implements AutoCloseable {
+
+    private static final ScheduledExecutorService TICKER 
+            = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+                Thread thread = new Thread(runnable, "CoarseClock");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final Clock base;
+
+    private final Duration resolution;
+
+    private volatile long cachedMillis;
+
+    private final ScheduledFuture<?> ticking;
+
+    /**
+     * The clock read by {@link #withZone(ZoneId)} copies, which share the 
+     * readings of the clock they were made from.
+     */
+    private final CoarseClock source;
+
+    private final ZoneId zone;
+
+    private void tick() {
+        this.cachedMillis = this.base.millis();
+    }
+
+    @Override
+    public long millis() {
+        return this.source.cachedMillis;
+    }
+
+    @Override
+    public Instant instant() {
+        return Instant.ofEpochMilli(this.millis());
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return this.zone;
+    }
+
+    /**
+     * Gives a clock with the same readings as this clock but in a different 
+     * time zone. Closing either stops the readings for both.
+     * @param newZone The time zone. For example, America/Los_Angeles.
+     * @return A clock in <code>newZone</code>.
+     */
+    @Override
+    public Clock withZone(ZoneId newZone) {
+        if (newZone.equals(this.zone)) {
+            return this;
+        }
+        return new CoarseClock(this.source, newZone);
+    }
+
+    /**
+     * Tells how often the clock takes a reading. Two readings less than this 
+     * far apart may give the same instant.
+     * @return The reading interval given when the clock was started. For 
+     * example, 10 milliseconds. Clocks in other zones made from this one by 
+     * {@link #withZone(ZoneId)} give the same interval.
+     */
+    public Duration getResolution() {
+        return this.source.resolution;
+    }
+
+    /**
+     * Stops taking readings. The clock will give the last reading from then 
+     * on.
+     */
+    @Override
+    public void close() {
+        if (this.source.ticking != null) {
+            this.source.ticking.cancel(false);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CoarseClock[" + this.source.base + ", " 
+                + this.source.resolution + ", " + this.zone + "]";
+    }
+
+    private CoarseClock(CoarseClock clock, ZoneId newZone) {
+        this.base = clock.base;
+        this.resolution = clock.resolution;
+        this.ticking = null;
+        this.source = clock;
+        this.zone = newZone;
+    }
+
+    /**
+     * Constructor. Takes the first reading right away.
+     * @param baseClock The clock to read. For example, 
+     * <code>Clock.systemDefaultZone()</code>.
+     * @param readingInterval How often to read <code>baseClock</code>. For 
+     * example, one second.
+     * @throws IllegalArgumentException If <code>readingInterval</code> is 
+     * less than a millisecond.
+     */
+    public CoarseClock(Clock baseClock, Duration readingInterval) {
+        if (readingInterval.toMillis() < 1L) {
+            String excMsg = "Resolution " + readingInterval 
+                    + " is less than a millisecond";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.base = baseClock;
+        this.resolution = readingInterval;
+        this.source = this;
+        this.zone = baseClock.getZone();
+        this.tick();
+        long interval = readingInterval.toMillis();
+        this.ticking = TICKER.scheduleAtFixedRate(this::tick, interval, 
+                interval, TimeUnit.MILLISECONDS);
+    }
+
+}
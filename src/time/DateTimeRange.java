@@ -20,6 +20,10 @@ package time;
 import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Represents a period of local time, without regard for time zones.
@@ -116,6 +120,94 @@ public class DateTimeRange implements Comparable<DateTimeRange>, Serializable {
         return array;
     }
 
+    /**
+     * Merges any number of ranges into as few ranges as possible. Ranges that 
+     * overlap or touch, such as 8:00 a.m. to 12:00 p.m. and 12:00 p.m. to 
+     * 5:00 p.m., become one range. This is for cleaning up time blocks that 
+     * were entered twice, as when an employee punches in at two terminals. The 
+     * ranges are sorted once and then merged in a single pass, so this takes 
+     * time proportional to <i>n</i> log <i>n</i> for <i>n</i> ranges, rather 
+     * than the <i>n</i><sup>2</sup> it would take to merge them two at a time 
+     * with {@link #merge(DateTimeRange)}.
+     * @param ranges The ranges to merge. May be empty, may be in any order.
+     * @return The merged ranges, sorted, none overlapping or touching any 
+     * other. For example, given 8:00 a.m. to 12:00 p.m., 1:00 p.m. to 5:00 
+     * p.m. and 11:00 a.m. to 12:30 p.m., the list 8:00 a.m. to 12:30 p.m. and 
+     * 1:00 p.m. to 5:00 p.m.
+     */
+    public static List<DateTimeRange> coalesce(Collection<DateTimeRange> 
+            ranges) {
+        List<DateTimeRange> sorted = new ArrayList<>(ranges);
+        Collections.sort(sorted);
+        List<DateTimeRange> coalesced = new ArrayList<>();
+        if (sorted.isEmpty()) {
+            return coalesced;
+        }
+        LocalDateTime currStart = sorted.get(0).startTime;
+        LocalDateTime currEnd = sorted.get(0).finishTime;
+        for (DateTimeRange range : sorted) {
+            if (range.startTime.isAfter(currEnd)) {
+                coalesced.add(new DateTimeRange(currStart, currEnd));
+                currStart = range.startTime;
+                currEnd = range.finishTime;
+            } else if (range.finishTime.isAfter(currEnd)) {
+                currEnd = range.finishTime;
+            }
+        }
+        coalesced.add(new DateTimeRange(currStart, currEnd));
+        return coalesced;
+    }
+
+    /**
+     * Carves exclusions, such as breaks or leave, out of time blocks. Both 
+     * are first put in order with {@link #coalesce(Collection)}, then the 
+     * exclusions are carved out in a single pass over the two lists, so this 
+     * takes time proportional to <i>n</i> log <i>n</i> for <i>n</i> blocks 
+     * and exclusions, or to <i>n</i> if both are already coalesced.
+     * @param blocks The ranges to carve from. For example, 8:00 a.m. to 5:00 
+     * p.m.
+     * @param exclusions The ranges to carve out. For example, 12:00 p.m. to 
+     * 1:00 p.m.
+     * @return What's left of the blocks, sorted. For example, 8:00 a.m. to 
+     * 12:00 p.m. and 1:00 p.m. to 5:00 p.m. As with {@link 
+     * #split(DateTimeRange)}, the pieces share their endpoints with the 
+     * exclusions. Pieces of no length are left out.
+     */
+    public static List<DateTimeRange> subtract(Collection<DateTimeRange> 
+            blocks, Collection<DateTimeRange> exclusions) {
+        List<DateTimeRange> from = coalesce(blocks);
+        List<DateTimeRange> cuts = coalesce(exclusions);
+        List<DateTimeRange> remaining = new ArrayList<>();
+        int cutIndex = 0;
+        for (DateTimeRange block : from) {
+            LocalDateTime pieceStart = block.startTime;
+            while (cutIndex < cuts.size() 
+                    && cuts.get(cutIndex).finishTime.isBefore(pieceStart)) {
+                cutIndex++;
+            }
+            int index = cutIndex;
+            while (index < cuts.size() 
+                    && !cuts.get(index).startTime.isAfter(block.finishTime)) {
+                DateTimeRange cut = cuts.get(index);
+                if (cut.startTime.isAfter(pieceStart)) {
+                    remaining.add(new DateTimeRange(pieceStart, 
+                            cut.startTime));
+                }
+                if (cut.finishTime.isAfter(pieceStart)) {
+                    pieceStart = cut.finishTime;
+                }
+                index++;
+            }
+            if (block.finishTime.isAfter(pieceStart)) {
+                remaining.add(new DateTimeRange(pieceStart, block.finishTime));
+            }
+            if (index > cutIndex) {
+                cutIndex = index - 1;
+            }
+        }
+        return remaining;
+    }
+
     @Override
     public String toString() {
         return this.startTime.toString() + " to " + this.finishTime.toString();
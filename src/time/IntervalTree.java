@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package time;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Indexes many items by {@link DateTimeRange} so as to quickly find the ones 
+ * overlapping a given window of time, or containing a given moment. For 
+ * example, the items might be time cards indexed by their time blocks, to find 
+ * everyone who was on the clock during an incident. Each query takes time 
+ * proportional to the logarithm of the number of items plus the number of 
+ * items found, rather than time proportional to the number of items.
+ * <p>The ranges are kept sorted by start time in an array, which is treated as 
+ * a balanced binary search tree: the middle of any stretch of the array is 
+ * the root of the subtree for that stretch. Each node also records the latest 
+ * end time in its subtree, so that a query can skip a whole subtree that ends 
+ * before the window starts, just as it skips everything after a node that 
+ * starts after the window ends.</p>
+ * <p>Ranges are treated as closed, so a range ending at 12:00 p.m. overlaps a 
+ * range starting at 12:00 p.m. Two ranges overlap if each starts no later than 
+ * the other ends, so a range also overlaps any range that contains it. The 
+ * tree can't be changed once built.</p>
+ * @param <T> The type of the items indexed. For example, {@link 
+ * DateTimeRange} itself.
+ * @author Alonso del Arte
+ */
+public class IntervalTree<T> {
+
+    private final Object[] items;
+
+    private final LocalDateTime[] starts;
+
+    private final LocalDateTime[] ends;
+
+    /**
+     * The latest end time in the subtree rooted at each position.
+     */
+    private final LocalDateTime[] maxEnds;
+
+    private LocalDateTime fillMaxEnds(int lo, int hi) {
+        int mid = (lo + hi) >>> 1;
+        LocalDateTime max = this.ends[mid];
+        if (lo < mid) {
+            LocalDateTime leftMax = this.fillMaxEnds(lo, mid);
+            if (leftMax.isAfter(max)) {
+                max = leftMax;
+            }
+        }
+        if (mid + 1 < hi) {
+            LocalDateTime rightMax = this.fillMaxEnds(mid + 1, hi);
+            if (rightMax.isAfter(max)) {
+                max = rightMax;
+            }
+        }
+        this.maxEnds[mid] = max;
+        return max;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void collectOverlapping(int lo, int hi, LocalDateTime from, 
+            LocalDateTime to, List<T> found) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        if (this.maxEnds[mid].isBefore(from)) {
+            return;
+        }
+        this.collectOverlapping(lo, mid, from, to, found);
+        if (this.starts[mid].isAfter(to)) {
+            return;
+        }
+        if (!this.ends[mid].isBefore(from)) {
+            found.add((T) this.items[mid]);
+        }
+        this.collectOverlapping(mid + 1, hi, from, to, found);
+    }
+
+    /**
+     * Finds the items whose ranges overlap a given window of time.
+     * @param window The window. For example, October 14, 2026 from 1:15 p.m. 
+     * to 1:45 p.m.
+     * @return The items whose ranges share at least one moment with 
+     * <code>window</code>, ordered by range. It will be an empty list if there 
+     * are none.
+     */
+    public List<T> findOverlapping(DateTimeRange window) {
+        List<T> found = new ArrayList<>();
+        this.collectOverlapping(0, this.items.length, window.getStart(), 
+                window.getEnd(), found);
+        return found;
+    }
+
+    /**
+     * Finds the items whose ranges contain a given moment.
+     * @param time The moment. For example, October 14, 2026 at 1:30 p.m.
+     * @return The items whose ranges start no later than <code>time</code> 
+     * and end no earlier than <code>time</code>, ordered by range. It will be 
+     * an empty list if there are none.
+     */
+    public List<T> findContaining(LocalDateTime time) {
+        List<T> found = new ArrayList<>();
+        this.collectOverlapping(0, this.items.length, time, time, found);
+        return found;
+    }
+
+    /**
+     * Finds the items whose ranges lie entirely within a given window of time.
+     * @param window The window. For example, the week of October 12, 2026.
+     * @return The items whose ranges start no earlier than 
+     * <code>window</code> starts and end no later than <code>window</code> 
+     * ends, ordered by range. It will be an empty list if there are none.
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> findContainedIn(DateTimeRange window) {
+        int index = this.firstStartingAtOrAfter(window.getStart());
+        List<T> found = new ArrayList<>();
+        while (index < this.items.length 
+                && !this.starts[index].isAfter(window.getEnd())) {
+            if (!this.ends[index].isAfter(window.getEnd())) {
+                found.add((T) this.items[index]);
+            }
+            index++;
+        }
+        return found;
+    }
+
+    private int firstStartingAtOrAfter(LocalDateTime time) {
+        int lo = 0;
+        int hi = this.starts.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (this.starts[mid].isBefore(time)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Tells how many items are in the tree.
+     * @return The number of items. For example, 1729.
+     */
+    public int size() {
+        return this.items.length;
+    }
+
+    /**
+     * Builds a tree of ranges indexed by themselves.
+     * @param ranges The ranges. For example, all the time blocks of all the 
+     * time cards for the week of October 12, 2026.
+     * @return A tree whose items are the ranges.
+     * @throws NullPointerException If any of the ranges is null.
+     */
+    public static IntervalTree<DateTimeRange> of(Collection<DateTimeRange> 
+            ranges) {
+        return new IntervalTree<>(ranges, Function.identity());
+    }
+
+    /**
+     * Constructor. Takes time proportional to <i>n</i> log <i>n</i>, where 
+     * <i>n</i> is the number of items.
+     * @param elements The items to index. Several items may have the same 
+     * range.
+     * @param rangeOf Gives the range of each item. For example, for items 
+     * that pair a time card with one of its blocks, a function that gives the 
+     * block.
+     * @throws NullPointerException If <code>rangeOf</code> gives null for any 
+     * of the items.
+     */
+    public IntervalTree(Collection<? extends T> elements, 
+            Function<? super T, DateTimeRange> rangeOf) {
+        List<T> sorted = new ArrayList<>(elements);
+        List<DateTimeRange> ranges = new ArrayList<>(sorted.size());
+        for (T element : sorted) {
+            DateTimeRange range = rangeOf.apply(element);
+            if (range == null) {
+                String excMsg = "No range for " + element;
+                throw new NullPointerException(excMsg);
+            }
+            ranges.add(range);
+        }
+        Integer[] order = new Integer[sorted.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) 
+                -> ranges.get(a).compareTo(ranges.get(b)));
+        this.items = new Object[order.length];
+        this.starts = new LocalDateTime[order.length];
+        this.ends = new LocalDateTime[order.length];
+        this.maxEnds = new LocalDateTime[order.length];
+        for (int i = 0; i < order.length; i++) {
+            this.items[i] = sorted.get(order[i]);
+            this.starts[i] = ranges.get(order[i]).getStart();
+            this.ends[i] = ranges.get(order[i]).getEnd();
+        }
+        if (order.length > 0) {
+            this.fillMaxEnds(0, order.length);
+        }
+    }
+
+}
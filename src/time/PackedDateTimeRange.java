@@ -0,0 +1,257 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package time;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Packs a {@link DateTimeRange} into a single <code>long</code>, for keeping 
+ * large numbers of ranges in arrays and working on them without creating 
+ * objects. A <code>DateTimeRange</code> takes up more than a hundred bytes 
+ * counting its <code>LocalDateTime</code> objects and the 
+ * <code>LocalDate</code> and <code>LocalTime</code> objects in those, while a 
+ * packed range takes up eight.
+ * <p>The start and end are each counted in minutes since the epoch, January 
+ * 1, 1970 at 12:00 a.m., without regard for time zones. The start goes in the 
+ * upper 32 bits and the end, with its sign bit flipped, in the lower 32 bits. 
+ * That way packed ranges compare as numbers the same way the ranges compare 
+ * with {@link DateTimeRange#compareTo(DateTimeRange)}, so an array of packed 
+ * ranges can be sorted with <code>Arrays.sort()</code>. Any time in the years 
+ * from about 2000 BCE to about 6000 CE can be packed.</p>
+ * <p>Seconds and fractions of a second are dropped when packing. The other 
+ * functions have the same meaning as the <code>DateTimeRange</code> functions 
+ * of the same names.</p>
+ * @author Alonso del Arte
+ */
+public final class PackedDateTimeRange {
+
+    private static final long LOW_BITS = 0xFFFFFFFFL;
+
+    private static int toEpochMinutes(LocalDateTime time) {
+        long minutes = Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60L);
+        if (minutes < Integer.MIN_VALUE || minutes > Integer.MAX_VALUE) {
+            String excMsg = time.toString() + " is too far from 1970 to pack";
+            throw new IllegalArgumentException(excMsg);
+        }
+        return (int) minutes;
+    }
+
+    private static LocalDateTime fromEpochMinutes(int minutes) {
+        return LocalDateTime.ofEpochSecond(minutes * 60L, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Packs a start and end given in minutes since the epoch.
+     * @param startMinutes The start. For example, 29862720 for October 12, 
+     * 2026 at 12:00 a.m.
+     * @param endMinutes The end. For example, 29872799 for October 18, 2026 
+     * at 11:59 p.m.
+     * @return The packed range.
+     * @throws IllegalArgumentException If <code>endMinutes</code> is less 
+     * than <code>startMinutes</code>.
+     */
+    public static long pack(int startMinutes, int endMinutes) {
+        if (endMinutes < startMinutes) {
+            String excMsg = "Range can't end (" + endMinutes 
+                    + ") before it starts (" + startMinutes + ")";
+            throw new IllegalArgumentException(excMsg);
+        }
+        return ((long) startMinutes << 32) 
+                | ((endMinutes ^ Integer.MIN_VALUE) & LOW_BITS);
+    }
+
+    /**
+     * Packs a start and end time.
+     * @param start The start. For example, October 12, 2026 at 12:00 a.m.
+     * @param end The end. For example, October 18, 2026 at 11:59 p.m.
+     * @return The packed range, to the minute.
+     * @throws IllegalArgumentException If <code>end</code> is before 
+     * <code>start</code> once seconds are dropped, or if either is too far 
+     * from 1970 to pack.
+     */
+    public static long pack(LocalDateTime start, LocalDateTime end) {
+        return pack(toEpochMinutes(start), toEpochMinutes(end));
+    }
+
+    /**
+     * Packs a range.
+     * @param range The range. For example, October 12, 2026 from 8:00 a.m. to 
+     * 12:00 p.m.
+     * @return The packed range, to the minute.
+     * @throws IllegalArgumentException If the start or end of 
+     * <code>range</code> is too far from 1970 to pack.
+     */
+    public static long pack(DateTimeRange range) {
+        return pack(range.getStart(), range.getEnd());
+    }
+
+    /**
+     * Unpacks a range.
+     * @param packed The packed range.
+     * @return A new <code>DateTimeRange</code> with the same start and end, 
+     * to the minute.
+     */
+    public static DateTimeRange unpack(long packed) {
+        return new DateTimeRange(getStart(packed), getEnd(packed));
+    }
+
+    /**
+     * Gives the start of a packed range in minutes since the epoch.
+     * @param packed The packed range.
+     * @return The start. For example, 29862720 for October 12, 2026 at 12:00 
+     * a.m.
+     */
+    public static int getStartMinutes(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    /**
+     * Gives the end of a packed range in minutes since the epoch.
+     * @param packed The packed range.
+     * @return The end. For example, 29872799 for October 18, 2026 at 11:59 
+     * p.m.
+     */
+    public static int getEndMinutes(long packed) {
+        return ((int) packed) ^ Integer.MIN_VALUE;
+    }
+
+    public static LocalDateTime getStart(long packed) {
+        return fromEpochMinutes(getStartMinutes(packed));
+    }
+
+    public static LocalDateTime getEnd(long packed) {
+        return fromEpochMinutes(getEndMinutes(packed));
+    }
+
+    /**
+     * Gives the length of a packed range.
+     * @param packed The packed range.
+     * @param unit The unit to measure in. For example, 
+     * <code>ChronoUnit.MINUTES</code>.
+     * @return The length in whole units, same as {@link 
+     * DateTimeRange#getDuration(ChronoUnit)}. For example, 240 for a range 
+     * from 8:00 a.m. to 12:00 p.m. measured in minutes.
+     */
+    public static long getDuration(long packed, ChronoUnit unit) {
+        if (unit == ChronoUnit.MINUTES) {
+            return getDurationMinutes(packed);
+        }
+        return unit.between(getStart(packed), getEnd(packed));
+    }
+
+    /**
+     * Gives the length of a packed range in minutes.
+     * @param packed The packed range.
+     * @return The length. For example, 240 for a range from 8:00 a.m. to 
+     * 12:00 p.m.
+     */
+    public static long getDurationMinutes(long packed) {
+        return (long) getEndMinutes(packed) - getStartMinutes(packed);
+    }
+
+    public static int compare(long packed, long other) {
+        return Long.compare(packed, other);
+    }
+
+    public static boolean contains(long packed, LocalDateTime time) {
+        return containsMinute(packed, toEpochMinutes(time));
+    }
+
+    /**
+     * Determines whether a packed range contains a given minute, counting the 
+     * start and end.
+     * @param packed The packed range.
+     * @param minutes The minute, in minutes since the epoch. For example, 
+     * 29863200 for October 12, 2026 at 8:00 a.m.
+     * @return True if <code>minutes</code> is neither before the start nor 
+     * after the end, false otherwise.
+     */
+    public static boolean containsMinute(long packed, int minutes) {
+        return getStartMinutes(packed) <= minutes 
+                && minutes <= getEndMinutes(packed);
+    }
+
+    public static boolean contains(long packed, long other) {
+        return getStartMinutes(packed) <= getStartMinutes(other) 
+                && getEndMinutes(other) <= getEndMinutes(packed);
+    }
+
+    /**
+     * Determines whether one packed range overlaps another the same way as 
+     * {@link DateTimeRange#overlaps(DateTimeRange)}, that is, whether the 
+     * first range contains the start or end of the second range.
+     * @param packed The first packed range.
+     * @param other The second packed range.
+     * @return True if <code>packed</code> contains the start or the end of 
+     * <code>other</code>, false otherwise.
+     */
+    public static boolean overlaps(long packed, long other) {
+        return containsMinute(packed, getStartMinutes(other)) 
+                || containsMinute(packed, getEndMinutes(other));
+    }
+
+    /**
+     * Merges two overlapping packed ranges.
+     * @param packed The first packed range.
+     * @param other The second packed range.
+     * @return A packed range from the earlier start to the later end.
+     * @throws IllegalArgumentException If <code>packed</code> doesn't overlap 
+     * <code>other</code>.
+     */
+    public static long merge(long packed, long other) {
+        if (!overlaps(packed, other)) {
+            String excMsg = "Can't merge non-overlapping ranges " 
+                    + toString(packed) + " and " + toString(other);
+            throw new IllegalArgumentException(excMsg);
+        }
+        return pack(Math.min(getStartMinutes(packed), getStartMinutes(other)), 
+                Math.max(getEndMinutes(packed), getEndMinutes(other)));
+    }
+
+    /**
+     * Splits a packed range around another.
+     * @param packed The packed range to split.
+     * @param intervening The packed range to cut out.
+     * @return Two packed ranges, the first from the start of 
+     * <code>packed</code> to the start of <code>intervening</code>, the 
+     * second from the end of <code>intervening</code> to the end of 
+     * <code>packed</code>.
+     * @throws IllegalArgumentException If <code>intervening</code> starts 
+     * before <code>packed</code> or ends after it.
+     */
+    public static long[] split(long packed, long intervening) {
+        long preCut = pack(getStartMinutes(packed), 
+                getStartMinutes(intervening));
+        long postCut = pack(getEndMinutes(intervening), 
+                getEndMinutes(packed));
+        long[] array = {preCut, postCut};
+        return array;
+    }
+
+    public static String toString(long packed) {
+        return getStart(packed).toString() + " to " 
+                + getEnd(packed).toString();
+    }
+
+    private PackedDateTimeRange() {
+        // Prevent instantiation
+    }
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package time;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Where this program gets the current date and time. By default that's the 
+ * system clock in the system's default time zone, but any {@link Clock} can 
+ * be put in its place: a fixed clock for tests and benchmarks that need to 
+ * give the same results on every run, or a {@link CoarseClock} for a long scan 
+ * of the records that would otherwise ask the operating system for the time 
+ * once per time card.
+ * @author Alonso del Arte
+ */
+public final class TimeSource {
+
+    private static volatile Clock clock = Clock.systemDefaultZone();
+
+    /**
+     * Gives the clock currently in use.
+     * @return The clock. For example, <code>Clock.systemDefaultZone()</code>.
+     */
+    public static Clock getClock() {
+        return clock;
+    }
+
+    /**
+     * Puts a clock in place of the one currently in use.
+     * @param newClock The clock to use from now on. For example, 
+     * <code>Clock.fixed(Instant.parse("2026-10-14T17:30:00Z"), 
+     * ZoneOffset.UTC)</code>.
+     * @throws NullPointerException If <code>newClock</code> is null.
+     */
+    public static void setClock(Clock newClock) {
+        if (newClock == null) {
+            String excMsg = "Clock must not be null";
+            throw new NullPointerException(excMsg);
+        }
+        clock = newClock;
+    }
+
+    /**
+     * Goes back to the system clock in the system's default time zone.
+     */
+    public static void useSystemClock() {
+        clock = Clock.systemDefaultZone();
+    }
+
+    /**
+     * Gives the current date and time according to the clock in use.
+     * @return The current date and time. For example, October 14, 2026 at 
+     * 1:30 p.m.
+     */
+    public static LocalDateTime now() {
+        return LocalDateTime.now(clock);
+    }
+
+    /**
+     * Gives the current date according to the clock in use.
+     * @return The current date. For example, October 14, 2026.
+     */
+    public static LocalDate today() {
+        return LocalDate.now(clock);
+    }
+
+    private TimeSource() {
+        // Prevent instantiation
+    }
+
+}
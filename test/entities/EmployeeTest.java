@@ -18,9 +18,15 @@
 package entities;
 
 import currency.CurrencyAmount;
+import currency.CurrencyConversionNeededException;
 import entities.idnumbers.SocialSecurityNumber;
+import time.DateTimeRange;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Currency;
+import java.util.List;
 import java.util.Locale;
 
 import org.junit.Test;
@@ -64,4 +70,145 @@ public class EmployeeTest {
         fail("The test case is a prototype.");
     }
     
+    private static final Currency DOLLARS = Currency.getInstance(Locale.US);
+    
+    private static final LocalDateTime RAISE_TIME 
+            = LocalDateTime.of(2026, 10, 15, 0, 0);
+    
+    private static Employee makeEmployeeWithRaise() {
+        Employee employee = new Employee("Gloria Ramirez", 
+                new SocialSecurityNumber(750101729));
+        employee.setHourlyRate(new CurrencyAmount(3500, DOLLARS));
+        employee.setHourlyRate(new CurrencyAmount(3750, DOLLARS), RAISE_TIME);
+        return employee;
+    }
+    
+    /**
+     * Test of getHourlyRate method, of class Employee, as of a given moment.
+     */
+    @Test
+    public void testGetHourlyRateAsOf() {
+        Employee employee = makeEmployeeWithRaise();
+        employee.setHourlyRate(new CurrencyAmount(4000, DOLLARS), 
+                RAISE_TIME.plusDays(7));
+        assertEquals(3500, employee.getHourlyRate(RAISE_TIME.minusSeconds(1))
+                .getAmountInCents());
+        assertEquals(3750, employee.getHourlyRate(RAISE_TIME)
+                .getAmountInCents());
+        assertEquals(3750, employee.getHourlyRate(RAISE_TIME.plusDays(6))
+                .getAmountInCents());
+        assertEquals(4000, employee.getHourlyRate(RAISE_TIME.plusDays(30))
+                .getAmountInCents());
+    }
+    
+    /**
+     * Test of setHourlyRate method, of class Employee, with an effective 
+     * time. Changes set out of order should still be looked up in order, and 
+     * a change at the same moment as an earlier one should replace it.
+     */
+    @Test
+    public void testSetHourlyRateEffective() {
+        System.out.println("setHourlyRate(CurrencyAmount, LocalDateTime)");
+        Employee employee = new Employee("Gloria Ramirez", 
+                new SocialSecurityNumber(750101729));
+        employee.setHourlyRate(new CurrencyAmount(3000, DOLLARS));
+        List<Integer> days = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            days.add(i);
+        }
+        Collections.shuffle(days);
+        for (int day : days) {
+            employee.setHourlyRate(new CurrencyAmount(3000 + 10 * day, 
+                    DOLLARS), RAISE_TIME.plusDays(day));
+        }
+        employee.setHourlyRate(new CurrencyAmount(9999, DOLLARS), 
+                RAISE_TIME.plusDays(5));
+        assertEquals(20, employee.getRateChangeCount());
+        for (int day = 0; day < 20; day++) {
+            long expected = (day == 5) ? 9999 : 3000 + 10 * day;
+            assertEquals(expected, employee.getHourlyRate(RAISE_TIME
+                    .plusDays(day).plusHours(12)).getAmountInCents());
+        }
+        employee.setHourlyRate(new CurrencyAmount(3000, DOLLARS));
+        assertEquals(0, employee.getRateChangeCount());
+        assertEquals(3000, employee.getHourlyRate(RAISE_TIME.plusDays(10))
+                .getAmountInCents());
+    }
+    
+    @Test(expected = CurrencyConversionNeededException.class)
+    public void testRateChangeInOtherCurrency() {
+        Employee employee = makeEmployeeWithRaise();
+        CurrencyAmount euros 
+                = new CurrencyAmount(3500, Currency.getInstance("EUR"));
+        employee.setHourlyRate(euros, RAISE_TIME.plusDays(1));
+        System.out.println("Should not have accepted rate change in euros");
+    }
+    
+    /**
+     * Test of getPayFor method, of class Employee. The block that straddles 
+     * the raise should be split at the raise.
+     */
+    @Test
+    public void testGetPayFor() {
+        System.out.println("getPayFor");
+        Employee employee = makeEmployeeWithRaise();
+        List<DateTimeRange> blocks = new ArrayList<>();
+        LocalDateTime before = RAISE_TIME.minusDays(1).plusHours(9);
+        blocks.add(new DateTimeRange(before, before.plusHours(8)));
+        LocalDateTime straddle = RAISE_TIME.minusHours(2);
+        blocks.add(new DateTimeRange(straddle, straddle.plusHours(4)));
+        LocalDateTime after = RAISE_TIME.plusHours(9);
+        blocks.add(new DateTimeRange(after, after.plusHours(8)));
+        long expected = 10 * 3500 + 10 * 3750;
+        assertEquals(expected, employee.getPayFor(blocks)
+                .getAmountInCents());
+    }
+    
+    @Test
+    public void testGetPayForNoRateChanges() {
+        Employee employee = new Employee("Gloria Ramirez", 
+                new SocialSecurityNumber(750101729));
+        employee.setHourlyRate(new CurrencyAmount(3333, DOLLARS));
+        LocalDateTime start = RAISE_TIME.plusHours(9);
+        List<DateTimeRange> blocks = new ArrayList<>();
+        blocks.add(new DateTimeRange(start, start.plusMinutes(100)));
+        long expected = new CurrencyAmount(3333, DOLLARS).times(100.0 / 60)
+                .getAmountInCents();
+        assertEquals(expected, employee.getPayFor(blocks).getAmountInCents());
+    }
+    
+    /**
+     * Test of getPayFor method, of class Employee, over a year of daily 
+     * blocks with a rate change every week. The pay should match what we get 
+     * by looking up the rate for each hour.
+     */
+    @Test
+    public void testGetPayForManyChanges() {
+        Employee employee = new Employee("Gloria Ramirez", 
+                new SocialSecurityNumber(750101729));
+        employee.setHourlyRate(new CurrencyAmount(2000, DOLLARS));
+        LocalDateTime yearStart = LocalDateTime.of(2026, 1, 1, 0, 0);
+        for (int week = 0; week < 52; week++) {
+            employee.setHourlyRate(new CurrencyAmount(2000 + week, DOLLARS), 
+                    yearStart.plusWeeks(week).plusHours(12));
+        }
+        List<DateTimeRange> blocks = new ArrayList<>();
+        long expected = 0L;
+        for (int day = 0; day < 365; day++) {
+            LocalDateTime start = yearStart.plusDays(day).plusHours(8);
+            blocks.add(new DateTimeRange(start, start.plusHours(8)));
+            for (int hour = 0; hour < 8; hour++) {
+                expected += employee.getHourlyRate(start.plusHours(hour))
+                        .getAmountInCents();
+            }
+        }
+        long startNanos = System.nanoTime();
+        CurrencyAmount actual = employee.getPayFor(blocks);
+        long elapsedNanos = System.nanoTime() - startNanos;
+        assertEquals(expected, actual.getAmountInCents());
+        System.out.println("Paid " + blocks.size() + " blocks over " 
+                + employee.getRateChangeCount() + " rate changes in " 
+                + (elapsedNanos / 1000) + " microseconds");
+    }
+    
 }
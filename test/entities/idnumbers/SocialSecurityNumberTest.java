@@ -112,6 +112,45 @@ public class SocialSecurityNumberTest {
         assertEquals(msg, numberOfSSNs, numberOfHashes);
     }
 
+    /**
+     * Test of the toRecordKey function, of the class SocialSecurityNumber. 
+     * Unlike hash codes, record keys must never collide. For example, 
+     * 001-50-0001 and 240-03-0001 have the same hash code but should have 
+     * different record keys.
+     */
+    @Test
+    public void testToRecordKey() {
+        System.out.println("toRecordKey");
+        SocialSecurityNumber ssnA = new SocialSecurityNumber(1500001);
+        SocialSecurityNumber ssnB = new SocialSecurityNumber(240030001);
+        assertEquals(ssnA.hashCode(), ssnB.hashCode());
+        assertNotEquals(ssnA.toRecordKey(), ssnB.toRecordKey());
+        SocialSecurityNumber sameSSN = new SocialSecurityNumber(1500001);
+        assertEquals(ssnA.toRecordKey(), sameSSN.toRecordKey());
+    }
+    
+    @Test
+    public void testToRecordKeyUniqueness() {
+        HashSet<String> keys = new HashSet<>();
+        int start = RANDOM.nextInt(772000000);
+        for (int number = start; number < start + 100000; number++) {
+            keys.add(new SocialSecurityNumber(number).toRecordKey());
+        }
+        String msg = "Each SSN instance should have a unique record key";
+        assertEquals(msg, 100000, keys.size());
+    }
+    
+    @Test
+    public void testToRecordKeyDoesNotShowNumber() {
+        SocialSecurityNumber ssn = new SocialSecurityNumber(750101729);
+        String key = ssn.toRecordKey();
+        System.out.println("Record key for " + ssn + " is " + key);
+        assert key.startsWith("SSN") : "Key should start with SSN";
+        assert key.matches("[A-Za-z0-9]+") 
+                : "Key should only have ASCII letters and digits";
+        assert !key.contains("1729") : "Key should not show last four";
+    }
+    
     /**
      * Test of the toString function, of the class SocialSecurityNumber. The 
      * Social Security Administration asserts that an SSN with area number 000 
@@ -94,6 +94,20 @@ public class TaxpayerIdentificationNumberTest {
         assertNotEquals(someTIN.hashCode(), someSSN.hashCode());
     }
     
+    @Test
+    public void testToRecordKeySameNumberDiffClass() {
+        System.out.println("toRecordKey");
+        int number = 72000000 + RANDOM.nextInt(1000000);
+        TaxpayerIdentificationNumber someTIN 
+                = new TaxpayerIdentificationNumberImpl(number);
+        SocialSecurityNumber someSSN = new SocialSecurityNumber(number);
+        EmployerIdentificationNumber someEIN 
+                = new EmployerIdentificationNumber(number);
+        assertNotEquals(someTIN.toRecordKey(), someSSN.toRecordKey());
+        assertNotEquals(someSSN.toRecordKey(), someEIN.toRecordKey());
+        assertNotEquals(someTIN.toRecordKey(), someEIN.toRecordKey());
+    }
+    
     private boolean containsNoDigitCharacters(String s) {
         boolean flag = true;
         char[] characters = s.toCharArray();
@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package payroll;
+
+import entities.Employee;
+import entities.idnumbers.SocialSecurityNumber;
+import time.DateTimeRange;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the ClockedInRoster class.
+ * @author Alonso del Arte
+ */
+public class ClockedInRosterTest {
+    
+    /**
+     * Monday, October 12, 2026 at 12:00 a.m.
+     */
+    private static final LocalDateTime WEEK_START 
+            = LocalDateTime.of(2026, 10, 12, 0, 0);
+    
+    private static final LocalDateTime MORNING = WEEK_START.plusHours(8);
+    
+    private List<TimeCard> cards;
+    
+    private ClockedInRoster roster;
+    
+    @Before
+    public void setUp() {
+        this.cards = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            this.cards.add(TimeCardMaker.makeCard(i, WEEK_START));
+        }
+        this.roster = new ClockedInRoster();
+        this.roster.trackAll(this.cards);
+    }
+    
+    private Employee employee(int i) {
+        return this.cards.get(i).getEmployee();
+    }
+    
+    /**
+     * Test of punchedIn method, of class ClockedInRoster.
+     */
+    @Test
+    public void testPunchedIn() {
+        System.out.println("punchedIn");
+        this.cards.get(2).punchIn(MORNING);
+        assert this.roster.isClockedIn(this.employee(2)) 
+                : "Employee should be clocked in after punching in";
+        assert !this.roster.isClockedIn(this.employee(1)) 
+                : "Employee who didn't punch in should not be clocked in";
+        assertEquals(MORNING, this.roster.getClockedInSince(this.employee(2)));
+        assertEquals(1, this.roster.getCount());
+    }
+    
+    /**
+     * Test of punchedOut method, of class ClockedInRoster.
+     */
+    @Test
+    public void testPunchedOut() {
+        System.out.println("punchedOut");
+        this.cards.get(0).punchIn(MORNING);
+        this.cards.get(1).punchIn(MORNING);
+        this.cards.get(0).punchOut(MORNING.plusHours(4));
+        assert !this.roster.isClockedIn(this.employee(0)) 
+                : "Employee should not be clocked in after punching out";
+        assertNull(this.roster.getClockedInSince(this.employee(0)));
+        assertEquals(1, this.roster.getCount());
+        this.cards.get(0).punchOut(MORNING.plusHours(5));
+        assertEquals(1, this.roster.getCount());
+    }
+    
+    /**
+     * Test of getClockedIn method, of class ClockedInRoster.
+     */
+    @Test
+    public void testGetClockedIn() {
+        System.out.println("getClockedIn");
+        this.cards.get(3).punchIn(MORNING.plusMinutes(10));
+        this.cards.get(1).punchIn(MORNING);
+        this.cards.get(4).punchIn(MORNING.plusMinutes(5));
+        List<Employee> expected = Arrays.asList(this.employee(1), 
+                this.employee(4), this.employee(3));
+        assertEquals(expected, this.roster.getClockedIn());
+    }
+    
+    /**
+     * Test of getClockedInLongerThan method, of class ClockedInRoster.
+     */
+    @Test
+    public void testGetClockedInLongerThan() {
+        System.out.println("getClockedInLongerThan");
+        for (int i = 0; i < 5; i++) {
+            this.cards.get(i).punchIn(MORNING.plusHours(i));
+        }
+        LocalDateTime asOf = MORNING.plusHours(12);
+        List<Employee> expected = Arrays.asList(this.employee(0), 
+                this.employee(1));
+        assertEquals(expected, this.roster.getClockedInLongerThan(
+                Duration.ofHours(10), asOf));
+        assertEquals(3, this.roster.getClockedInLongerThan(
+                Duration.ofHours(10).minusMinutes(1), asOf).size());
+        assertEquals(0, this.roster.getClockedInLongerThan(
+                Duration.ofHours(12), asOf).size());
+    }
+    
+    /**
+     * Test of track method, of class ClockedInRoster. A card that is already 
+     * punched in should put the employee on the roster right away.
+     */
+    @Test
+    public void testTrack() {
+        System.out.println("track");
+        Employee employee = new Employee("Hank Hill", 
+                new SocialSecurityNumber(750304850));
+        TimeCard card = new TimeCard(employee, new DateTimeRange(WEEK_START, 
+                WEEK_START.plusDays(7).minusMinutes(1)));
+        card.punchIn(MORNING);
+        this.roster.track(card);
+        assert this.roster.isClockedIn(employee) 
+                : "Employee punched in before tracking should be clocked in";
+        this.roster.untrack(card);
+        assert !this.roster.isClockedIn(employee) 
+                : "Untracked employee should not be on roster";
+        card.punchOut(MORNING.plusHours(1));
+        card.punchIn(MORNING.plusHours(2));
+        assertEquals(0, this.roster.getCount());
+    }
+    
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package payroll;
+
+import entities.Employee;
+import time.DateTimeRange;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the LaborHistogram class.
+ * @author Alonso del Arte
+ */
+public class LaborHistogramTest {
+    
+    /**
+     * Monday, October 12, 2026 at 12:00 a.m.
+     */
+    private static final LocalDateTime WEEK_START 
+            = LocalDateTime.of(2026, 10, 12, 0, 0);
+    
+    private static TimeCard makeCard(int i, String title) {
+        Employee employee = TimeCardMaker.makeEmployee(i);
+        employee.setJobTitle(title);
+        return TimeCardMaker.makeCard(employee, WEEK_START);
+    }
+    
+    /**
+     * Test of add method, of class LaborHistogram. A block should be split 
+     * up among the hours it spans.
+     */
+    @Test
+    public void testAdd() {
+        System.out.println("add");
+        LaborHistogram histogram = new LaborHistogram();
+        LocalDateTime start = WEEK_START.plusHours(8).plusMinutes(30);
+        histogram.add(new DateTimeRange(start, 
+                start.plusHours(1).plusMinutes(45)));
+        assertEquals(30L, histogram.getMinutes(DayOfWeek.MONDAY, 8));
+        assertEquals(60L, histogram.getMinutes(DayOfWeek.MONDAY, 9));
+        assertEquals(15L, histogram.getMinutes(DayOfWeek.MONDAY, 10));
+        assertEquals(0L, histogram.getMinutes(DayOfWeek.MONDAY, 11));
+        assertEquals(105L, histogram.getTotalMinutes());
+    }
+    
+    /**
+     * Another test of add method, of class LaborHistogram. A block that goes 
+     * past midnight should count partly toward each day, including from 
+     * Sunday into Monday.
+     */
+    @Test
+    public void testAddPastMidnight() {
+        LaborHistogram histogram = new LaborHistogram();
+        LocalDateTime sundayNight = WEEK_START.minusHours(2);
+        histogram.add(new DateTimeRange(sundayNight, 
+                sundayNight.plusHours(5)));
+        assertEquals(120L, histogram.getMinutes(DayOfWeek.SUNDAY));
+        assertEquals(180L, histogram.getMinutes(DayOfWeek.MONDAY));
+        assertEquals(60L, histogram.getMinutes(DayOfWeek.SUNDAY, 23));
+        assertEquals(60L, histogram.getMinutes(DayOfWeek.MONDAY, 2));
+    }
+    
+    /**
+     * Test of toArray method, of class LaborHistogram.
+     */
+    @Test
+    public void testToArray() {
+        System.out.println("toArray");
+        LaborHistogram histogram = new LaborHistogram();
+        LocalDateTime wednesday = WEEK_START.plusDays(2).plusHours(13);
+        histogram.add(new DateTimeRange(wednesday, wednesday.plusHours(1)));
+        long[][] array = histogram.toArray();
+        assertEquals(7, array.length);
+        assertEquals(24, array[2].length);
+        assertEquals(60L, array[2][13]);
+        array[2][13] = 0L;
+        assertEquals(60L, histogram.getMinutes(DayOfWeek.WEDNESDAY, 13));
+    }
+    
+    /**
+     * Test of of method, of class LaborHistogram. The histogram of many cards 
+     * worked out in parallel should be the same as adding the cards one at a 
+     * time, and its total should be the minutes on the cards.
+     */
+    @Test
+    public void testOf() {
+        System.out.println("of");
+        Random random = new Random(1729L);
+        List<TimeCard> cards = new ArrayList<>();
+        long expectedTotal = 0L;
+        LaborHistogram expected = new LaborHistogram();
+        for (int i = 0; i < 200; i++) {
+            TimeCard card = makeCard(i, "Employee");
+            for (int day = 0; day < 7; day++) {
+                LocalDateTime start = WEEK_START.plusDays(day)
+                        .plusMinutes(random.nextInt(16 * 60));
+                card.addTimeBlock(new DateTimeRange(start, 
+                        start.plusMinutes(random.nextInt(8 * 60))));
+            }
+            expectedTotal += card.getMinutesSoFar();
+            expected.add(card);
+            cards.add(card);
+        }
+        LaborHistogram histogram = LaborHistogram.of(cards);
+        assertEquals(expectedTotal, histogram.getTotalMinutes());
+        for (int day = 0; day < 7; day++) {
+            assertArrayEquals(expected.toArray()[day], 
+                    histogram.toArray()[day]);
+        }
+    }
+    
+    /**
+     * Test of byGroup method, of class LaborHistogram.
+     */
+    @Test
+    public void testByGroup() {
+        System.out.println("byGroup");
+        List<TimeCard> cards = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            TimeCard card = makeCard(i, i % 3 == 0 ? "Night" : "Day");
+            int startHour = i % 3 == 0 ? 22 : 8;
+            LocalDateTime start = WEEK_START.plusHours(startHour);
+            card.addTimeBlock(new DateTimeRange(start, start.plusHours(8)));
+            cards.add(card);
+        }
+        Map<String, LaborHistogram> byTitle = LaborHistogram.byGroup(cards, 
+                (card) -> card.getEmployee().getJobTitle());
+        assertEquals(2, byTitle.size());
+        assertEquals(10 * 8 * 60L, byTitle.get("Night").getTotalMinutes());
+        assertEquals(10 * 60L, byTitle.get("Night")
+                .getMinutes(DayOfWeek.TUESDAY, 3));
+        assertEquals(0L, byTitle.get("Day").getMinutes(DayOfWeek.TUESDAY));
+        assertEquals(20 * 60L, byTitle.get("Day")
+                .getMinutes(DayOfWeek.MONDAY, 12));
+    }
+    
+    /**
+     * Test of byGroup method, of class LaborHistogram. A card the grouping 
+     * function gives no group for should be rejected by name rather than 
+     * failing deep inside the collector.
+     */
+    @Test
+    public void testByGroupRejectsNullGroup() {
+        List<TimeCard> cards = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            cards.add(makeCard(i, i == 3 ? null : "Day"));
+        }
+        try {
+            Map<String, LaborHistogram> byTitle = LaborHistogram.byGroup(cards, 
+                    (card) -> card.getEmployee().getJobTitle());
+            String msg = "Should not have grouped card with no job title, got " 
+                    + byTitle.keySet();
+            fail(msg);
+        } catch (IllegalArgumentException iae) {
+            System.out.println("Grouping card with no job title correctly " 
+                    + "caused IllegalArgumentException");
+            System.out.println("\"" + iae.getMessage() + "\"");
+            String name = cards.get(3).getEmployee().getFullName();
+            String msg = "Message should name " + name;
+            assert iae.getMessage().contains(name) : msg;
+        } catch (RuntimeException re) {
+            String msg = re.getClass().getName() 
+                    + " is the wrong exception for card with no job title";
+            fail(msg);
+        }
+        Map<String, LaborHistogram> byTitle = LaborHistogram.byGroup(cards, 
+                (card) -> card.getEmployee().getJobTitle() == null ? "(none)" 
+                        : card.getEmployee().getJobTitle());
+        assertEquals(2, byTitle.size());
+        assert byTitle.containsKey("(none)") : "Should have (none) group";
+    }
+    
+}
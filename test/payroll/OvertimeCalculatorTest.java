@@ -0,0 +1,239 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package payroll;
+
+import currency.CurrencyAmount;
+import entities.Employee;
+import entities.idnumbers.SocialSecurityNumber;
+import time.DateTimeRange;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the OvertimeCalculator class.
+ * @author Alonso del Arte
+ */
+public class OvertimeCalculatorTest {
+    
+    private static final Currency DOLLARS = Currency.getInstance(Locale.US);
+    
+    /**
+     * Monday, October 12, 2026 at 12:00 a.m.
+     */
+    private static final LocalDateTime WEEK_START 
+            = LocalDateTime.of(2026, 10, 12, 0, 0);
+    
+    private static Employee makeEmployee() {
+        Employee employee = new Employee("John Lopez", 
+                new SocialSecurityNumber(750101729));
+        employee.setHourlyRate(new CurrencyAmount(4000, DOLLARS));
+        return employee;
+    }
+    
+    private static TimeCard makeCard() {
+        return TimeCardMaker.makeCard(makeEmployee(), WEEK_START);
+    }
+    
+    /**
+     * Adds a block to a card starting at 8:00 a.m. on a given day of the week.
+     */
+    private static void addShift(TimeCard card, int day, int hours) {
+        LocalDateTime start = WEEK_START.plusDays(day).plusHours(8);
+        card.addTimeBlock(new DateTimeRange(start, start.plusHours(hours)));
+    }
+    
+    private static void assertBreakdown(long regularHours, long overtimeHours, 
+            long doubleTimeHours, OvertimeBreakdown breakdown) {
+        assertEquals("Regular", regularHours * 60, 
+                breakdown.getRegularMinutes());
+        assertEquals("Overtime", overtimeHours * 60, 
+                breakdown.getOvertimeMinutes());
+        assertEquals("Double time", doubleTimeHours * 60, 
+                breakdown.getDoubleTimeMinutes());
+    }
+    
+    /**
+     * Test of calculate method, of class OvertimeCalculator. Under the federal 
+     * rules, only hours over 40 in the week are overtime.
+     */
+    @Test
+    public void testCalculateFederal() {
+        System.out.println("calculate");
+        TimeCard card = makeCard();
+        for (int day = 0; day < 5; day++) {
+            addShift(card, day, 10);
+        }
+        assertBreakdown(40, 10, 0, 
+                OvertimeCalculator.calculate(card, OvertimeRules.FEDERAL));
+    }
+    
+    /**
+     * Another test of calculate method, of class OvertimeCalculator. Under 
+     * California's rules, hours over 8 in a day are overtime, hours over 12 
+     * in a day are double time, and daily overtime doesn't count toward the 
+     * weekly 40.
+     */
+    @Test
+    public void testCalculateCalifornia() {
+        TimeCard card = makeCard();
+        for (int day = 0; day < 5; day++) {
+            addShift(card, day, 10);
+        }
+        assertBreakdown(40, 10, 0, 
+                OvertimeCalculator.calculate(card, OvertimeRules.CALIFORNIA));
+        card = makeCard();
+        addShift(card, 0, 14);
+        addShift(card, 1, 6);
+        assertBreakdown(14, 4, 2, 
+                OvertimeCalculator.calculate(card, OvertimeRules.CALIFORNIA));
+        card = makeCard();
+        for (int day = 0; day < 6; day++) {
+            addShift(card, day, 8);
+        }
+        assertBreakdown(40, 8, 0, 
+                OvertimeCalculator.calculate(card, OvertimeRules.CALIFORNIA));
+    }
+    
+    /**
+     * Another test of calculate method, of class OvertimeCalculator. On a 
+     * biweekly card, 40 hours in each week is no overtime at all, but 50 
+     * hours in one week and 30 in the other is 10 hours of overtime.
+     */
+    @Test
+    public void testCalculateBiweekly() {
+        PayCalendar calendar = new PayCalendar(
+                PayCalendar.PaySchedule.BIWEEKLY, WEEK_START.toLocalDate());
+        TimeCard card = new TimeCard(makeEmployee(), 
+                calendar.getPeriod(WEEK_START));
+        for (int day = 0; day < 5; day++) {
+            addShift(card, day, 8);
+            addShift(card, day + 7, 8);
+        }
+        assertBreakdown(80, 0, 0, OvertimeCalculator.calculate(card, 
+                OvertimeRules.FEDERAL, calendar.getWorkweekStart()));
+        assertBreakdown(80, 0, 0, 
+                OvertimeCalculator.calculate(card, OvertimeRules.FEDERAL));
+        card = new TimeCard(makeEmployee(), calendar.getPeriod(WEEK_START));
+        for (int day = 0; day < 5; day++) {
+            addShift(card, day, 10);
+            addShift(card, day + 7, 6);
+        }
+        assertBreakdown(70, 10, 0, 
+                OvertimeCalculator.calculate(card, OvertimeRules.FEDERAL));
+    }
+    
+    /**
+     * Another test of calculate method, of class OvertimeCalculator. A shift 
+     * past midnight should count toward each day separately, and duplicate 
+     * blocks should be counted once.
+     */
+    @Test
+    public void testCalculateOvernightAndDuplicates() {
+        TimeCard card = makeCard();
+        LocalDateTime start = WEEK_START.plusHours(18);
+        DateTimeRange overnight = new DateTimeRange(start, 
+                start.plusHours(12));
+        card.addTimeBlock(overnight);
+        card.addTimeBlock(overnight);
+        assertBreakdown(12, 0, 0, 
+                OvertimeCalculator.calculate(card, OvertimeRules.ALASKA));
+        assertBreakdown(12, 0, 0, 
+                OvertimeCalculator.calculate(card, OvertimeRules.FEDERAL));
+    }
+    
+    /**
+     * Test of getPay method, of class OvertimeBreakdown, by way of 
+     * getPreTaxTotal method, of class TimeCard.
+     */
+    @Test
+    public void testGetPay() {
+        System.out.println("getPay");
+        TimeCard card = makeCard();
+        addShift(card, 0, 14);
+        long expected = 4000 * 8 + 6000 * 4 + 8000 * 2;
+        CurrencyAmount actual = card.getPreTaxTotal(OvertimeRules.CALIFORNIA);
+        assertEquals(expected, actual.getAmountInCents());
+        assertEquals(DOLLARS, actual.getCurrency());
+        assertEquals(card.getPreTaxTotal().getAmountInCents(), 
+                card.getPreTaxTotal(OvertimeRules.FEDERAL)
+                        .getAmountInCents());
+    }
+    
+    /**
+     * Test of calculatePay method, of class OvertimeCalculator. With a raise 
+     * partway through the week, the overtime worked after the raise should 
+     * be paid at the new rate, and the regular time at whichever rate was in 
+     * effect when it was worked.
+     */
+    @Test
+    public void testCalculatePay() {
+        System.out.println("calculatePay");
+        Employee employee = makeEmployee();
+        employee.setHourlyRate(new CurrencyAmount(5000, DOLLARS), 
+                WEEK_START.plusDays(2));
+        TimeCard card = TimeCardMaker.makeCard(employee, WEEK_START);
+        for (int day = 0; day < 5; day++) {
+            addShift(card, day, 10);
+        }
+        long expected = 4000 * 20 + 5000 * 20 + 7500 * 10;
+        CurrencyAmount actual = OvertimeCalculator.calculatePay(card, 
+                employee, OvertimeRules.FEDERAL);
+        assertEquals(expected, actual.getAmountInCents());
+        assertEquals(expected, card.getPreTaxTotal(OvertimeRules.FEDERAL)
+                .getAmountInCents());
+    }
+    
+    /**
+     * Test of calculateAll method, of class OvertimeCalculator. The results 
+     * should be in the same order as the cards and the same as calculating 
+     * one at a time.
+     */
+    @Test
+    public void testCalculateAll() {
+        System.out.println("calculateAll");
+        Random random = new Random(1729L);
+        List<TimeCard> cards = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            TimeCard card = makeCard();
+            for (int day = 0; day < 7; day++) {
+                addShift(card, day, random.nextInt(15));
+            }
+            cards.add(card);
+        }
+        List<OvertimeBreakdown> breakdowns 
+                = OvertimeCalculator.calculateAll(cards, 
+                        OvertimeRules.CALIFORNIA);
+        assertEquals(cards.size(), breakdowns.size());
+        for (int i = 0; i < cards.size(); i++) {
+            OvertimeBreakdown expected = OvertimeCalculator
+                    .calculate(cards.get(i), OvertimeRules.CALIFORNIA);
+            assertEquals(expected.toString(), breakdowns.get(i).toString());
+            assertEquals(cards.get(i).getMinutesSoFar(), 
+                    breakdowns.get(i).getTotalMinutes());
+        }
+    }
+    
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package payroll;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the OvertimeRules class.
+ * @author Alonso del Arte
+ */
+public class OvertimeRulesTest {
+    
+    /**
+     * Test of forJurisdiction method, of class OvertimeRules.
+     */
+    @Test
+    public void testForJurisdiction() {
+        System.out.println("forJurisdiction");
+        assertSame(OvertimeRules.CALIFORNIA, 
+                OvertimeRules.forJurisdiction("US-CA"));
+        assertSame(OvertimeRules.FEDERAL, OvertimeRules.forJurisdiction("US"));
+        assertSame(OvertimeRules.FEDERAL, 
+                OvertimeRules.forJurisdiction("US-TX"));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testForJurisdictionRejectsUnknown() {
+        OvertimeRules rules = OvertimeRules.forJurisdiction("MX");
+        System.out.println("Should not have given " + rules);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorRejectsDoubleTimeBeforeOvertime() {
+        OvertimeRules rules = new OvertimeRules(720, 480, 2400, 1.5, 2.0);
+        System.out.println("Should not have created " + rules);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorRejectsRateBelowOne() {
+        OvertimeRules rules = new OvertimeRules(480, 720, 2400, 0.5, 2.0);
+        System.out.println("Should not have created " + rules);
+    }
+    
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package payroll;
+
+import time.DateTimeRange;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the PayCalendar class.
+ * @author Alonso del Arte
+ */
+public class PayCalendarTest {
+    
+    /**
+     * Monday, October 12, 2026 at 12:00 a.m.
+     */
+    private static final LocalDateTime WEEK_START 
+            = LocalDateTime.of(2026, 10, 12, 0, 0);
+    
+    private static final LocalDateTime WEDNESDAY_AFTERNOON 
+            = WEEK_START.plusDays(2).plusHours(13).plusMinutes(30);
+    
+    private static DateTimeRange period(LocalDateTime start, 
+            LocalDateTime nextStart) {
+        return new DateTimeRange(start, nextStart.minusMinutes(1));
+    }
+    
+    /**
+     * Test of getPeriod method, of class PayCalendar, for the default weekly 
+     * calendar. Periods should run from Monday to Sunday.
+     */
+    @Test
+    public void testGetPeriodWeekly() {
+        System.out.println("getPeriod");
+        PayCalendar calendar = PayCalendar.getDefault();
+        DateTimeRange expected = period(WEEK_START, WEEK_START.plusWeeks(1));
+        assertEquals(expected, calendar.getPeriod(WEDNESDAY_AFTERNOON));
+        assertEquals(expected, calendar.getPeriod(WEEK_START));
+        assertEquals(expected, calendar.getPeriod(WEEK_START.plusWeeks(1)
+                .minusSeconds(1)));
+        LocalDateTime newYearsEve = LocalDateTime.of(2026, 12, 31, 23, 0);
+        assertEquals(period(LocalDateTime.of(2026, 12, 28, 0, 0), 
+                LocalDateTime.of(2027, 1, 4, 0, 0)), 
+                calendar.getPeriod(newYearsEve));
+    }
+    
+    /**
+     * Another test of getPeriod method, of class PayCalendar. Each time 
+     * should fall in a period of the right length starting at midnight on a 
+     * Monday, the same as the start worked out directly.
+     */
+    @Test
+    public void testGetPeriodMatchesDirectCalculation() {
+        PayCalendar calendar = PayCalendar.getDefault();
+        Random random = new Random(1729L);
+        for (int i = 0; i < 1000; i++) {
+            LocalDateTime time = WEEK_START.plusMinutes(random.nextInt(
+                    5 * 365 * 24 * 60) - 2 * 365 * 24 * 60);
+            LocalDate date = time.toLocalDate();
+            LocalDateTime expected = date.minusDays(date.getDayOfWeek()
+                    .ordinal()).atStartOfDay();
+            assertEquals(expected, calendar.getPeriodStart(time));
+        }
+    }
+    
+    /**
+     * Another test of getPeriod method, of class PayCalendar, for a biweekly 
+     * calendar.
+     */
+    @Test
+    public void testGetPeriodBiweekly() {
+        PayCalendar calendar = new PayCalendar(PayCalendar.PaySchedule
+                .BIWEEKLY, LocalDate.of(2026, 1, 5));
+        DateTimeRange expected = period(WEEK_START, WEEK_START.plusWeeks(2));
+        assertEquals(expected, calendar.getPeriod(WEDNESDAY_AFTERNOON));
+        assertEquals(expected, calendar.getPeriod(WEEK_START.plusDays(10)));
+        assertEquals(period(WEEK_START.minusWeeks(2), WEEK_START), 
+                calendar.getPeriod(WEEK_START.minusDays(1)));
+    }
+    
+    /**
+     * Another test of getPeriod method, of class PayCalendar, for a 
+     * semi-monthly calendar.
+     */
+    @Test
+    public void testGetPeriodSemiMonthly() {
+        PayCalendar calendar = new PayCalendar(PayCalendar.PaySchedule
+                .SEMI_MONTHLY, LocalDate.of(2026, 1, 1));
+        assertEquals(period(LocalDateTime.of(2026, 10, 1, 0, 0), 
+                LocalDateTime.of(2026, 10, 16, 0, 0)), 
+                calendar.getPeriod(WEDNESDAY_AFTERNOON));
+        assertEquals(period(LocalDateTime.of(2027, 2, 16, 0, 0), 
+                LocalDateTime.of(2027, 3, 1, 0, 0)), 
+                calendar.getPeriod(LocalDateTime.of(2027, 2, 28, 12, 0)));
+    }
+    
+    /**
+     * Another test of getPeriod method, of class PayCalendar, for a monthly 
+     * calendar.
+     */
+    @Test
+    public void testGetPeriodMonthly() {
+        PayCalendar calendar = new PayCalendar(PayCalendar.PaySchedule
+                .MONTHLY, LocalDate.of(2026, 1, 1));
+        assertEquals(period(LocalDateTime.of(2026, 10, 1, 0, 0), 
+                LocalDateTime.of(2026, 11, 1, 0, 0)), 
+                calendar.getPeriod(WEDNESDAY_AFTERNOON));
+        assertEquals(period(LocalDateTime.of(2028, 2, 1, 0, 0), 
+                LocalDateTime.of(2028, 3, 1, 0, 0)), 
+                calendar.getPeriod(LocalDateTime.of(2028, 2, 29, 23, 59)));
+    }
+    
+    /**
+     * Test of getPeriods method, of class PayCalendar. The periods should 
+     * follow one another with no gaps.
+     */
+    @Test
+    public void testGetPeriods() {
+        System.out.println("getPeriods");
+        PayCalendar weekly = PayCalendar.getDefault();
+        List<DateTimeRange> weeks = weekly.getPeriods(2026);
+        assertEquals(52, weeks.size());
+        assertEquals(LocalDateTime.of(2026, 1, 5, 0, 0), 
+                weeks.get(0).getStart());
+        for (int i = 1; i < weeks.size(); i++) {
+            assertEquals(weeks.get(i - 1).getEnd().plusMinutes(1), 
+                    weeks.get(i).getStart());
+            assertEquals(DayOfWeek.MONDAY, 
+                    weeks.get(i).getStart().getDayOfWeek());
+        }
+        PayCalendar semiMonthly = new PayCalendar(PayCalendar.PaySchedule
+                .SEMI_MONTHLY, LocalDate.of(2026, 1, 1));
+        List<DateTimeRange> halves = semiMonthly.getPeriods(2026);
+        assertEquals(24, halves.size());
+        assertEquals(15 * 24 * 60 - 1, halves.get(0)
+                .getDuration(ChronoUnit.MINUTES));
+    }
+    
+    /**
+     * Test of getWorkweekStart method, of class PayCalendar.
+     */
+    @Test
+    public void testGetWorkweekStart() {
+        System.out.println("getWorkweekStart");
+        assertEquals(DayOfWeek.MONDAY, 
+                PayCalendar.getDefault().getWorkweekStart());
+        LocalDate wednesday = WEEK_START.toLocalDate().plusDays(2);
+        assertEquals(DayOfWeek.WEDNESDAY, new PayCalendar(PayCalendar
+                .PaySchedule.BIWEEKLY, wednesday).getWorkweekStart());
+        assertEquals(OvertimeCalculator.DEFAULT_WORKWEEK_START, 
+                new PayCalendar(PayCalendar.PaySchedule.MONTHLY, wednesday)
+                        .getWorkweekStart());
+    }
+    
+    @Test(expected = NullPointerException.class)
+    public void testConstructorRejectsNullSchedule() {
+        PayCalendar calendar = new PayCalendar(null, LocalDate.of(2026, 1, 5));
+        System.out.println("Should not have created " + calendar);
+    }
+    
+}
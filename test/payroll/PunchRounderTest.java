@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package payroll;
+
+import entities.Employee;
+import entities.idnumbers.SocialSecurityNumber;
+import time.DateTimeRange;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the PunchRounder class.
+ * @author Alonso del Arte
+ */
+public class PunchRounderTest {
+    
+    /**
+     * Monday, October 12, 2026 at 12:00 a.m.
+     */
+    private static final LocalDateTime WEEK_START 
+            = LocalDateTime.of(2026, 10, 12, 0, 0);
+    
+    private static TimeCard makeCard(String name, int ssn, String title) {
+        Employee employee = new Employee(name, new SocialSecurityNumber(ssn));
+        employee.setJobTitle(title);
+        TimeCard card = TimeCardMaker.makeCard(employee, WEEK_START);
+        for (int day = 0; day < 5; day++) {
+            LocalDateTime start = WEEK_START.plusDays(day).plusHours(8)
+                    .plusMinutes(4);
+            card.addTimeBlock(new DateTimeRange(start, 
+                    start.plusHours(8).plusMinutes(3)));
+        }
+        return card;
+    }
+    
+    /**
+     * Test of roundAll method, of class PunchRounder.
+     */
+    @Test
+    public void testRoundAll() {
+        System.out.println("roundAll");
+        List<TimeCard> cards = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            cards.add(makeCard("Employee " + i, 750101729 + i, "Employee"));
+        }
+        int changed = PunchRounder.roundAll(cards, 
+                RoundingRules.NEAREST_QUARTER_HOUR);
+        assertEquals(20 * 5, changed);
+        for (TimeCard card : cards) {
+            assertEquals(5 * 8 * 60, card.getMinutesSoFar());
+        }
+        assertEquals(0, PunchRounder.roundAll(cards, 
+                RoundingRules.NEAREST_QUARTER_HOUR));
+    }
+    
+    /**
+     * Test of byJobTitle method, of class PunchRounder.
+     */
+    @Test
+    public void testByJobTitle() {
+        System.out.println("byJobTitle");
+        Map<String, RoundingRules> byTitle = new HashMap<>();
+        byTitle.put("Manager", RoundingRules.NONE);
+        Function<TimeCard, RoundingRules> rulesFor 
+                = PunchRounder.byJobTitle(byTitle, 
+                        RoundingRules.NEAREST_QUARTER_HOUR);
+        byTitle.clear();
+        TimeCard managerCard = makeCard("Peggy Hill", 750304851, "Manager");
+        TimeCard clerkCard = makeCard("Hank Hill", 750304850, "Clerk");
+        assertSame(RoundingRules.NONE, rulesFor.apply(managerCard));
+        assertSame(RoundingRules.NEAREST_QUARTER_HOUR, 
+                rulesFor.apply(clerkCard));
+        List<TimeCard> cards = new ArrayList<>();
+        cards.add(managerCard);
+        cards.add(clerkCard);
+        assertEquals(5, PunchRounder.roundAll(cards, rulesFor));
+        assertEquals(5 * (8 * 60 + 3), managerCard.getMinutesSoFar());
+        assertEquals(5 * 8 * 60, clerkCard.getMinutesSoFar());
+    }
+    
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package payroll;
+
+import time.PackedDateTimeRange;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the RoundingRules class.
+ * @author Alonso del Arte
+ */
+public class RoundingRulesTest {
+    
+    /**
+     * Monday, October 12, 2026 at 12:00 a.m., in minutes since the epoch.
+     */
+    private static final int DAY_START = 29862720;
+    
+    private static int at(int hour, int minute) {
+        return DAY_START + 60 * hour + minute;
+    }
+    
+    /**
+     * Test of roundIn method, of class RoundingRules.
+     */
+    @Test
+    public void testRoundIn() {
+        System.out.println("roundIn");
+        RoundingRules rules = RoundingRules.NEAREST_QUARTER_HOUR;
+        assertEquals(at(8, 0), rules.roundIn(at(8, 0)));
+        assertEquals(at(8, 0), rules.roundIn(at(8, 7)));
+        assertEquals(at(8, 15), rules.roundIn(at(8, 8)));
+        assertEquals(at(8, 0), rules.roundIn(at(7, 53)));
+        assertEquals(at(24, 0), rules.roundIn(at(23, 55)));
+    }
+    
+    /**
+     * Test of roundOut method, of class RoundingRules.
+     */
+    @Test
+    public void testRoundOut() {
+        System.out.println("roundOut");
+        RoundingRules rules = RoundingRules.NEAREST_QUARTER_HOUR;
+        assertEquals(at(12, 0), rules.roundOut(at(11, 58)));
+        assertEquals(at(12, 0), rules.roundOut(at(12, 7)));
+        assertEquals(at(12, 15), rules.roundOut(at(12, 8)));
+    }
+    
+    /**
+     * Test of roundIn and roundOut methods, of class RoundingRules, rounding 
+     * down.
+     */
+    @Test
+    public void testRoundDown() {
+        RoundingRules rules = new RoundingRules(6, RoundingRules.Mode.DOWN, 
+                0);
+        assertEquals(at(8, 6), rules.roundIn(at(8, 11)));
+        assertEquals(at(17, 54), rules.roundOut(at(17, 59)));
+        assertEquals(at(17, 54), rules.roundOut(at(17, 54)));
+    }
+    
+    /**
+     * Test of roundIn and roundOut methods, of class RoundingRules, rounding 
+     * up.
+     */
+    @Test
+    public void testRoundUp() {
+        RoundingRules rules = new RoundingRules(30, RoundingRules.Mode.UP, 0);
+        assertEquals(at(8, 30), rules.roundIn(at(8, 1)));
+        assertEquals(at(18, 0), rules.roundOut(at(17, 31)));
+        assertEquals(at(9, 0), rules.roundOut(at(9, 0)));
+    }
+    
+    /**
+     * Test of roundIn and roundOut methods, of class RoundingRules, with a 
+     * grace period. Punches in a little late and punches out a little early 
+     * should be forgiven, but not punches outside the grace period.
+     */
+    @Test
+    public void testGracePeriod() {
+        RoundingRules rules = new RoundingRules(15, RoundingRules.Mode.UP, 5);
+        assertEquals(at(8, 0), rules.roundIn(at(8, 5)));
+        assertEquals(at(8, 15), rules.roundIn(at(8, 6)));
+        assertEquals(at(17, 0), rules.roundOut(at(16, 55)));
+        assertEquals(at(17, 0), rules.roundOut(at(16, 54)));
+        rules = new RoundingRules(15, RoundingRules.Mode.DOWN, 5);
+        assertEquals(at(16, 45), rules.roundOut(at(16, 54)));
+        assertEquals(at(17, 0), rules.roundOut(at(16, 55)));
+    }
+    
+    /**
+     * Test of round method, of class RoundingRules.
+     */
+    @Test
+    public void testRound() {
+        System.out.println("round");
+        long packed = PackedDateTimeRange.pack(at(8, 7), at(11, 58));
+        long expected = PackedDateTimeRange.pack(at(8, 0), at(12, 0));
+        assertEquals(expected, RoundingRules.NEAREST_QUARTER_HOUR
+                .round(packed));
+        assertEquals(packed, RoundingRules.NONE.round(packed));
+    }
+    
+    /**
+     * Another test of round method, of class RoundingRules. A short block 
+     * should be left with no time rather than end before it starts.
+     */
+    @Test
+    public void testRoundShortBlock() {
+        long packed = PackedDateTimeRange.pack(at(8, 8), at(8, 12));
+        long rounded = RoundingRules.NEAREST_QUARTER_HOUR.round(packed);
+        assertEquals(0L, PackedDateTimeRange.getDurationMinutes(rounded));
+    }
+    
+    /**
+     * Test of roundAll method, of class RoundingRules. This rounds a million 
+     * punches, enough to be worked on in parallel, and checks them against 
+     * rounding one at a time.
+     */
+    @Test
+    public void testRoundAll() {
+        System.out.println("roundAll");
+        int count = 1000000;
+        assert count > RoundingRules.PARALLEL_THRESHOLD 
+                : "Test should exercise parallel rounding";
+        RoundingRules rules = new RoundingRules(15, 
+                RoundingRules.Mode.NEAREST, 7);
+        Random random = new Random(1729L);
+        long[] packed = new long[count];
+        for (int i = 0; i < count; i++) {
+            int start = DAY_START + random.nextInt(365 * 1440);
+            packed[i] = PackedDateTimeRange.pack(start, 
+                    start + random.nextInt(12 * 60));
+        }
+        long[] expected = new long[count];
+        for (int i = 0; i < count; i++) {
+            expected[i] = rules.round(packed[i]);
+        }
+        long startNanos = System.nanoTime();
+        rules.roundAll(packed);
+        long elapsedNanos = System.nanoTime() - startNanos;
+        assertArrayEquals(expected, packed);
+        System.out.println("Rounded " + count + " punches in " 
+                + (elapsedNanos / 1000000) + " ms, about " 
+                + (long) (count * 1.0E9 / Math.max(elapsedNanos, 1L)) 
+                + " per second");
+        for (long block : packed) {
+            assert PackedDateTimeRange.getEndMinutes(block) 
+                    >= PackedDateTimeRange.getStartMinutes(block) 
+                    : "Rounded block should not end before it starts";
+        }
+    }
+    
+    /**
+     * Test of round method, of class RoundingRules, around the epoch, where 
+     * minutes are negative.
+     */
+    @Test
+    public void testRoundBeforeEpoch() {
+        int minutes = (int) (LocalDateTime.of(1969, 12, 31, 23, 52)
+                .toEpochSecond(ZoneOffset.UTC) / 60);
+        assertEquals(-15, RoundingRules.NEAREST_QUARTER_HOUR.roundIn(minutes));
+        assertEquals(0, RoundingRules.NEAREST_QUARTER_HOUR
+                .roundIn(minutes + 1));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorRejectsUnevenIncrement() {
+        RoundingRules rules = new RoundingRules(7, RoundingRules.Mode.NEAREST, 
+                0);
+        System.out.println("Should not have created " + rules);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorRejectsLongGracePeriod() {
+        RoundingRules rules = new RoundingRules(15, RoundingRules.Mode.DOWN, 
+                15);
+        System.out.println("Should not have created " + rules);
+    }
+    
+}
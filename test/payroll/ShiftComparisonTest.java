@@ -0,0 +1,178 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package payroll;
+
+import entities.Employee;
+import time.DateTimeRange;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the ShiftComparison class.
+ * @author Alonso del Arte
+ */
+public class ShiftComparisonTest {
+    
+    /**
+     * Monday, October 12, 2026 at 12:00 a.m.
+     */
+    private static final LocalDateTime WEEK_START 
+            = LocalDateTime.of(2026, 10, 12, 0, 0);
+    
+    private static TimeCard makeCard(Employee employee) {
+        return TimeCardMaker.makeCard(employee, WEEK_START);
+    }
+    
+    private static LocalDateTime at(int day, int hour, int minute) {
+        return WEEK_START.plusDays(day).plusHours(hour).plusMinutes(minute);
+    }
+    
+    /**
+     * Makes a schedule of 8:00 a.m. to 5:00 p.m. Monday through Friday.
+     */
+    private static ShiftSchedule makeSchedule(Employee employee) {
+        List<DateTimeRange> shifts = new ArrayList<>();
+        for (int day = 4; day >= 0; day--) {
+            shifts.add(new DateTimeRange(at(day, 8, 0), at(day, 17, 0)));
+        }
+        return new ShiftSchedule(employee, shifts);
+    }
+    
+    /**
+     * Test of compare method, of class ShiftComparison. Working the schedule 
+     * exactly should give no variance.
+     */
+    @Test
+    public void testCompare() {
+        System.out.println("compare");
+        Employee employee = TimeCardMaker.makeEmployee(0);
+        TimeCard card = makeCard(employee);
+        for (int day = 0; day < 5; day++) {
+            card.addTimeBlock(new DateTimeRange(at(day, 8, 0), 
+                    at(day, 12, 0)));
+            card.addTimeBlock(new DateTimeRange(at(day, 12, 0), 
+                    at(day, 17, 0)));
+        }
+        ShiftVariance variance = ShiftComparison.compare(card, 
+                makeSchedule(employee));
+        assertEquals(employee, variance.getEmployee());
+        assertEquals(0, variance.getLateArrivals());
+        assertEquals(0, variance.getEarlyDepartures());
+        assertEquals(0, variance.getMissedShifts());
+        assertEquals(0L, variance.getUnscheduledMinutes());
+    }
+    
+    /**
+     * Another test of compare method, of class ShiftComparison. Late 
+     * arrivals, early departures, missed shifts and unscheduled time should 
+     * all be counted.
+     */
+    @Test
+    public void testCompareWithVariances() {
+        Employee employee = TimeCardMaker.makeEmployee(0);
+        TimeCard card = makeCard(employee);
+        card.addTimeBlock(new DateTimeRange(at(0, 8, 10), at(0, 12, 0)));
+        card.addTimeBlock(new DateTimeRange(at(0, 13, 0), at(0, 17, 30)));
+        card.addTimeBlock(new DateTimeRange(at(1, 7, 45), at(1, 16, 40)));
+        card.addTimeBlock(new DateTimeRange(at(2, 8, 5), at(2, 16, 50)));
+        card.addTimeBlock(new DateTimeRange(at(4, 8, 0), at(4, 17, 0)));
+        card.addTimeBlock(new DateTimeRange(at(5, 9, 0), at(5, 11, 0)));
+        ShiftVariance variance = ShiftComparison.compare(card, 
+                makeSchedule(employee));
+        System.out.println(variance);
+        assertEquals(2, variance.getLateArrivals());
+        assertEquals(15L, variance.getLateMinutes());
+        assertEquals(2, variance.getEarlyDepartures());
+        assertEquals(30L, variance.getEarlyMinutes());
+        assertEquals(1, variance.getMissedShifts());
+        assertEquals(30L + 15L + 120L, variance.getUnscheduledMinutes());
+    }
+    
+    /**
+     * Another test of compare method, of class ShiftComparison. A block 
+     * spanning two shifts should count toward both, and one schedule shift 
+     * ending when the next begins should not throw off the merge.
+     */
+    @Test
+    public void testCompareBlockSpanningShifts() {
+        Employee employee = TimeCardMaker.makeEmployee(0);
+        List<DateTimeRange> shifts = new ArrayList<>();
+        shifts.add(new DateTimeRange(at(0, 6, 0), at(0, 14, 0)));
+        shifts.add(new DateTimeRange(at(0, 14, 0), at(0, 22, 0)));
+        TimeCard card = makeCard(employee);
+        card.addTimeBlock(new DateTimeRange(at(0, 6, 20), at(0, 21, 0)));
+        ShiftVariance variance = ShiftComparison.compare(card, 
+                new ShiftSchedule(employee, shifts));
+        assertEquals(1, variance.getLateArrivals());
+        assertEquals(20L, variance.getLateMinutes());
+        assertEquals(1, variance.getEarlyDepartures());
+        assertEquals(60L, variance.getEarlyMinutes());
+        assertEquals(0, variance.getMissedShifts());
+        assertEquals(0L, variance.getUnscheduledMinutes());
+    }
+    
+    /**
+     * Another test of compare method, of class ShiftComparison. With no 
+     * schedule, all the time on the card is unscheduled.
+     */
+    @Test
+    public void testCompareWithoutSchedule() {
+        TimeCard card = makeCard(TimeCardMaker.makeEmployee(0));
+        card.addTimeBlock(new DateTimeRange(at(0, 8, 0), at(0, 12, 0)));
+        ShiftVariance variance = ShiftComparison.compare(card, null);
+        assertEquals(240L, variance.getUnscheduledMinutes());
+        assertEquals(0, variance.getMissedShifts());
+    }
+    
+    /**
+     * Test of compareAll method, of class ShiftComparison.
+     */
+    @Test
+    public void testCompareAll() {
+        System.out.println("compareAll");
+        List<TimeCard> cards = new ArrayList<>();
+        Map<Employee, ShiftSchedule> schedules = new HashMap<>();
+        for (int i = 0; i < 50; i++) {
+            Employee employee = TimeCardMaker.makeEmployee(i);
+            TimeCard card = makeCard(employee);
+            for (int day = 0; day < 5; day++) {
+                card.addTimeBlock(new DateTimeRange(at(day, 8, i % 10), 
+                        at(day, 17, 0)));
+            }
+            cards.add(card);
+            schedules.put(employee, makeSchedule(employee));
+        }
+        List<ShiftVariance> variances = ShiftComparison.compareAll(cards, 
+                (card) -> schedules.get(card.getEmployee()));
+        assertEquals(cards.size(), variances.size());
+        for (int i = 0; i < cards.size(); i++) {
+            ShiftVariance variance = variances.get(i);
+            assertEquals(cards.get(i).getEmployee(), variance.getEmployee());
+            assertEquals(i % 10 == 0 ? 0 : 5, variance.getLateArrivals());
+            assertEquals(5L * (i % 10), variance.getLateMinutes());
+        }
+    }
+    
+}
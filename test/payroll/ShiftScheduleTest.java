@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package payroll;
+
+import entities.Employee;
+import entities.idnumbers.SocialSecurityNumber;
+import time.DateTimeRange;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the ShiftSchedule class.
+ * @author Alonso del Arte
+ */
+public class ShiftScheduleTest {
+    
+    private static final Employee TEST_EMPLOYEE 
+            = new Employee("John Lopez", new SocialSecurityNumber(750101729));
+    
+    /**
+     * Monday, October 12, 2026 at 8:00 a.m.
+     */
+    private static final LocalDateTime MONDAY_MORNING 
+            = LocalDateTime.of(2026, 10, 12, 8, 0);
+    
+    /**
+     * Test of getShifts method, of class ShiftSchedule. The shifts should be 
+     * put in order, and the list should not be affected by changes to the 
+     * collection the schedule was made from.
+     */
+    @Test
+    public void testGetShifts() {
+        System.out.println("getShifts");
+        List<DateTimeRange> shifts = new ArrayList<>();
+        DateTimeRange tuesday = new DateTimeRange(MONDAY_MORNING.plusDays(1), 
+                MONDAY_MORNING.plusDays(1).plusHours(9));
+        DateTimeRange monday = new DateTimeRange(MONDAY_MORNING, 
+                MONDAY_MORNING.plusHours(9));
+        shifts.add(tuesday);
+        shifts.add(monday);
+        ShiftSchedule schedule = new ShiftSchedule(TEST_EMPLOYEE, shifts);
+        shifts.clear();
+        List<DateTimeRange> expected = new ArrayList<>();
+        expected.add(monday);
+        expected.add(tuesday);
+        assertEquals(expected, schedule.getShifts());
+        assertEquals(18 * 60L, schedule.getScheduledMinutes());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorRejectsOverlappingShifts() {
+        List<DateTimeRange> shifts = new ArrayList<>();
+        shifts.add(new DateTimeRange(MONDAY_MORNING, 
+                MONDAY_MORNING.plusHours(9)));
+        shifts.add(new DateTimeRange(MONDAY_MORNING.plusHours(8), 
+                MONDAY_MORNING.plusHours(12)));
+        ShiftSchedule schedule = new ShiftSchedule(TEST_EMPLOYEE, shifts);
+        System.out.println("Should not have created " + schedule);
+    }
+    
+    @Test(expected = NullPointerException.class)
+    public void testConstructorRejectsNullEmployee() {
+        ShiftSchedule schedule = new ShiftSchedule(null, 
+                new ArrayList<>());
+        System.out.println("Should not have created " + schedule);
+    }
+    
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package payroll;
+
+import entities.Employee;
+import entities.idnumbers.SocialSecurityNumber;
+import time.DateTimeRange;
+
+import java.time.LocalDateTime;
+
+/**
+ * Makes the employees and blank time cards that many of the tests need, so 
+ * that each test class doesn't have to have its own copy of the same helpers.
+ * @author Alonso del Arte
+ */
+public class TimeCardMaker {
+    
+    /**
+     * Makes an employee with a made-up name and Social Security Number (SSN) 
+     * given by a number. SSNs with area number 750 have never been issued as 
+     * of June 25, 2011.
+     * @param number The number. For example, 3.
+     * @return The employee. For example, "Employee 3" with SSN 750-10-0003.
+     */
+    public static Employee makeEmployee(int number) {
+        return new Employee("Employee " + number, 
+                new SocialSecurityNumber(750100000 + number));
+    }
+    
+    /**
+     * Makes a blank time card for a one-week pay period.
+     * @param employee The employee. For example, John Lopez, SSN 750-10-1729.
+     * @param start The start of the pay period. For example, Monday, October 
+     * 12, 2026 at 12:00 a.m.
+     * @return The card, for a period ending one minute short of a week after 
+     * <code>start</code>. For example, Sunday, October 18, 2026 at 11:59 p.m.
+     */
+    public static TimeCard makeCard(Employee employee, LocalDateTime start) {
+        return new TimeCard(employee, new DateTimeRange(start, 
+                start.plusDays(7).minusMinutes(1)));
+    }
+    
+    /**
+     * Makes a blank time card for a one-week pay period for the employee 
+     * given by {@link #makeEmployee(int)}.
+     * @param number The number of the employee. For example, 3.
+     * @param start The start of the pay period. For example, Monday, October 
+     * 12, 2026 at 12:00 a.m.
+     * @return The card. For example, a card for "Employee 3" for the week of 
+     * October 12, 2026.
+     */
+    public static TimeCard makeCard(int number, LocalDateTime start) {
+        return makeCard(makeEmployee(number), start);
+    }
+    
+    private TimeCardMaker() {
+        // Prevent instantiation
+    }
+    
+}
@@ -21,13 +21,17 @@ import currency.CurrencyAmount;
 import entities.Employee;
 import entities.idnumbers.SocialSecurityNumber;
 import time.DateTimeRange;
+import time.TimeSource;
 
+import java.time.Clock;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.time.format.FormatStyle;
+import java.util.ArrayList;
 import java.util.Currency;
 import java.util.Locale;
 
@@ -170,6 +174,67 @@ public class TimeCardTest {
         assertEquals(expected, actual);
     }
     
+    /**
+     * Test of getPreTaxTotal method, of class TimeCard, with a raise partway 
+     * through the period. Time worked before the raise should be paid at the 
+     * old rate, even if the raise takes effect in the middle of a block.
+     */
+    @Test
+    public void testGetPreTaxTotalWithRaise() {
+        Employee employee = new Employee("Gloria Ramirez", 
+                new SocialSecurityNumber(750101729));
+        employee.setHourlyRate(TEST_HOURLY_WAGE);
+        LocalDateTime raiseTime = TEST_PRIOR_PERIOD_START.plusDays(2)
+                .plusHours(12);
+        employee.setHourlyRate(TEST_HOURLY_WAGE.times(2), raiseTime);
+        TimeCard card = new TimeCard(employee, TEST_PRIOR_PERIOD);
+        LocalDateTime blockBegin = TEST_PRIOR_PERIOD_START.plusHours(8);
+        card.addTimeBlock(new DateTimeRange(blockBegin, 
+                blockBegin.plusHours(8)));
+        card.addTimeBlock(new DateTimeRange(raiseTime.minusHours(4), 
+                raiseTime.plusHours(4)));
+        CurrencyAmount expected = TEST_HOURLY_WAGE.times(12)
+                .plus(TEST_HOURLY_WAGE.times(2).times(4));
+        assertEquals(expected.getAmountInCents(), 
+                card.getPreTaxTotal().getAmountInCents());
+    }
+    
+    /**
+     * Test of getPreTaxTotal method, of class TimeCard, with the rates taken 
+     * from a newer record of the employee than the one on the card.
+     */
+    @Test
+    public void testGetPreTaxTotalWithCurrentRecord() {
+        Employee onCard = new Employee("Gloria Ramirez", 
+                new SocialSecurityNumber(750101729));
+        onCard.setHourlyRate(TEST_HOURLY_WAGE);
+        TimeCard card = new TimeCard(onCard, TEST_PRIOR_PERIOD);
+        LocalDateTime blockBegin = TEST_PRIOR_PERIOD_START.plusHours(8);
+        card.addTimeBlock(new DateTimeRange(blockBegin, 
+                blockBegin.plusHours(4)));
+        Employee current = new Employee("Gloria Ramirez", 
+                new SocialSecurityNumber(750101729));
+        current.setHourlyRate(TEST_HOURLY_WAGE.times(2));
+        assertEquals(TEST_HOURLY_WAGE.times(8).getAmountInCents(), 
+                card.getPreTaxTotal(current).getAmountInCents());
+        assertEquals(TEST_HOURLY_WAGE.times(4).getAmountInCents(), 
+                card.getPreTaxTotal().getAmountInCents());
+    }
+    
+    /**
+     * Test of getPreTaxTotal method, of class TimeCard, with the rates of a 
+     * different employee. That should cause an exception.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetPreTaxTotalWithOtherEmployee() {
+        Employee other = new Employee("Hank Hill", 
+                new SocialSecurityNumber(750304850));
+        CurrencyAmount total = testCurrentPeriodCard.getPreTaxTotal(other);
+        System.out.println("Should not have calculated " + total.toString() 
+                + " for " + TEST_EMPLOYEE.getFullName() + " at rates of " 
+                + other.getFullName());
+    }
+    
     /**
      * Test of isCurrent method, of class TimeCard.
      */
@@ -336,6 +401,154 @@ public class TimeCardTest {
         assert !testCurrentPeriodCard.isPunchedIn() : msg;
     }
 
+    /**
+     * A punch out that the card rejects should leave the card punched in, 
+     * with the same punch in time, and listeners should not be told of it.
+     */
+    @Test
+    public void testRejectedPunchOutLeavesCardPunchedIn() {
+        LocalDateTime punchInTime = TEST_PRIOR_PERIOD_START.plusHours(8);
+        testPriorPeriodCard.punchIn(punchInTime);
+        int[] punchOutCount = {0};
+        testPriorPeriodCard.addTimeCardListener(new TimeCardListener() {
+            
+            @Override
+            public void statusChanged(TimeCard card) {
+            }
+            
+            @Override
+            public void punchedOut(TimeCard card) {
+                punchOutCount[0]++;
+            }
+            
+        });
+        LocalDateTime[] badTimes = {punchInTime.minusHours(1), 
+            TEST_PRIOR_PERIOD_END.plusHours(1)};
+        for (LocalDateTime badTime : badTimes) {
+            try {
+                testPriorPeriodCard.punchOut(badTime);
+                fail("Should not have punched out at " + badTime);
+            } catch (IllegalArgumentException iae) {
+                System.out.println("Punching out at " + badTime 
+                        + " correctly caused IllegalArgumentException");
+            }
+            assert testPriorPeriodCard.isPunchedIn() 
+                    : "Card should still be punched in after rejected punch";
+            assertEquals(punchInTime, testPriorPeriodCard.getLastPunchIn());
+        }
+        assertEquals(0, punchOutCount[0]);
+        assertEquals(0, testPriorPeriodCard.getTimeBlocks().size());
+        testPriorPeriodCard.punchOut(punchInTime.plusHours(4));
+        assertEquals(1, punchOutCount[0]);
+    }
+    
+    @Test
+    public void testPunchInPunchOutAtGivenTimes() {
+        LocalDateTime punchInTime = TEST_PRIOR_PERIOD_START.plusHours(8);
+        LocalDateTime punchOutTime = punchInTime.plusHours(4);
+        testPriorPeriodCard.punchIn(punchInTime);
+        assertEquals(punchInTime, testPriorPeriodCard.getLastPunchIn());
+        testPriorPeriodCard.punchOut(punchOutTime);
+        String msg = "Card should not be punched in after punching out";
+        assert !testPriorPeriodCard.isPunchedIn() : msg;
+        DateTimeRange expected = new DateTimeRange(punchInTime, punchOutTime);
+        assert testPriorPeriodCard.getTimeBlocks().contains(expected) 
+                : "Card should have block " + expected.toString();
+    }
+    
+    @Test
+    public void testGetLastPunchIn() {
+        System.out.println("getLastPunchIn");
+        assertNull(testCurrentPeriodCard.getLastPunchIn());
+        LocalDateTime before = LocalDateTime.now();
+        testCurrentPeriodCard.punchIn();
+        LocalDateTime lastPunchIn = testCurrentPeriodCard.getLastPunchIn();
+        String msg = "Last punch in should not be before " + before.toString();
+        assert !lastPunchIn.isBefore(before) : msg;
+    }
+
+    /**
+     * Test of coalesceTimeBlocks method, of class TimeCard. Blocks entered 
+     * twice should become one.
+     */
+    @Test
+    public void testCoalesceTimeBlocks() {
+        System.out.println("coalesceTimeBlocks");
+        LocalDateTime start = TEST_PRIOR_PERIOD_START.plusHours(8);
+        DateTimeRange morning = new DateTimeRange(start, start.plusHours(4));
+        DateTimeRange afternoon = new DateTimeRange(start.plusHours(5), 
+                start.plusHours(9));
+        testPriorPeriodCard.addTimeBlock(morning);
+        testPriorPeriodCard.addTimeBlock(afternoon);
+        testPriorPeriodCard.addTimeBlock(morning);
+        testPriorPeriodCard.addTimeBlock(new DateTimeRange(start.plusHours(1), 
+                start.plusHours(3)));
+        assertEquals(2, testPriorPeriodCard.coalesceTimeBlocks());
+        ArrayList<DateTimeRange> expected = new ArrayList<>();
+        expected.add(morning);
+        expected.add(afternoon);
+        assertEquals(expected, testPriorPeriodCard.getTimeBlocks());
+        assertEquals(0, testPriorPeriodCard.coalesceTimeBlocks());
+    }
+    
+    /**
+     * Test of isCurrent method, of class TimeCard, as of a given time.
+     */
+    @Test
+    public void testIsCurrentAsOf() {
+        LocalDateTime duringPriorPeriod = TEST_PRIOR_PERIOD_START.plusDays(2);
+        assert testPriorPeriodCard.isCurrent(duringPriorPeriod) 
+                : "Card should be current during its period";
+        assert !testCurrentPeriodCard.isCurrent(duringPriorPeriod) 
+                : "Card should not be current before its period";
+    }
+    
+    /**
+     * Test of punchIn and punchOut methods, of class TimeCard, with a fixed 
+     * clock in place of the system clock.
+     */
+    @Test
+    public void testPunchWithFixedClock() {
+        LocalDateTime punchIn = TEST_PRIOR_PERIOD_START.plusHours(8);
+        try {
+            TimeSource.setClock(Clock.fixed(punchIn.toInstant(ZoneOffset.UTC), 
+                    ZoneOffset.UTC));
+            testPriorPeriodCard.punchIn();
+            assertEquals(punchIn, testPriorPeriodCard.getLastPunchIn());
+            TimeSource.setClock(Clock.fixed(punchIn.plusHours(4)
+                    .toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+            testPriorPeriodCard.punchOut();
+        } finally {
+            TimeSource.useSystemClock();
+        }
+        assertEquals(240L, testPriorPeriodCard.getMinutesSoFar());
+    }
+    
+    /**
+     * Test of roundTimeBlocks method, of class TimeCard.
+     */
+    @Test
+    public void testRoundTimeBlocks() {
+        System.out.println("roundTimeBlocks");
+        LocalDateTime morning = TEST_PRIOR_PERIOD_START.plusHours(8);
+        testPriorPeriodCard.addTimeBlock(new DateTimeRange(
+                morning.plusMinutes(7).plusSeconds(40), 
+                morning.plusHours(4).minusMinutes(2)));
+        testPriorPeriodCard.addTimeBlock(new DateTimeRange(
+                morning.plusHours(5), morning.plusHours(9)));
+        testPriorPeriodCard.addTimeBlock(new DateTimeRange(
+                morning.plusHours(10).plusMinutes(8), 
+                morning.plusHours(10).plusMinutes(12)));
+        int changed = testPriorPeriodCard.roundTimeBlocks(
+                RoundingRules.NEAREST_QUARTER_HOUR);
+        assertEquals(2, changed);
+        ArrayList<DateTimeRange> expected = new ArrayList<>();
+        expected.add(new DateTimeRange(morning, morning.plusHours(4)));
+        expected.add(new DateTimeRange(morning.plusHours(5), 
+                morning.plusHours(9)));
+        assertEquals(expected, testPriorPeriodCard.getTimeBlocks());
+    }
+    
     /**
      * Test of hasBeenVerified method, of class TimeCard.
      */
@@ -391,6 +604,38 @@ public class TimeCardTest {
         assert !testPriorPeriodCard.isActive() : msg;
     }
     
+    /**
+     * Test of addTimeCardListener method, of class TimeCard.
+     */
+    @Test
+    public void testAddTimeCardListener() {
+        System.out.println("addTimeCardListener");
+        ArrayList<TimeCard> notifications = new ArrayList<>();
+        TimeCardListener listener = notifications::add;
+        testPriorPeriodCard.addTimeCardListener(listener);
+        testPriorPeriodCard.markVerified();
+        testPriorPeriodCard.markPaid();
+        testPriorPeriodCard.markActive();
+        testPriorPeriodCard.markInactive();
+        assertEquals(4, notifications.size());
+        assertEquals(testPriorPeriodCard, notifications.get(0));
+    }
+    
+    /**
+     * Test of removeTimeCardListener method, of class TimeCard.
+     */
+    @Test
+    public void testRemoveTimeCardListener() {
+        System.out.println("removeTimeCardListener");
+        ArrayList<TimeCard> notifications = new ArrayList<>();
+        TimeCardListener listener = notifications::add;
+        testPriorPeriodCard.addTimeCardListener(listener);
+        testPriorPeriodCard.markInactive();
+        testPriorPeriodCard.removeTimeCardListener(listener);
+        testPriorPeriodCard.markActive();
+        assertEquals(1, notifications.size());
+    }
+    
     @After
     public void tearDown() {
         // TODO: Remember why I thought I needed tear down
@@ -0,0 +1,239 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import entities.Employee;
+import payroll.TimeCard;
+import payroll.TimeCardMaker;
+import time.DateTimeRange;
+import time.TimeSource;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the CardBatchProcessor class.
+ * @author Alonso del Arte
+ */
+public class CardBatchProcessorTest {
+    
+    /**
+     * Monday, October 5, 2026 at 12:00 a.m.
+     */
+    private static final LocalDateTime PRIOR_WEEK_START 
+            = LocalDateTime.of(2026, 10, 5, 0, 0);
+    
+    /**
+     * Monday, October 12, 2026 at 12:00 a.m.
+     */
+    private static final LocalDateTime CURRENT_WEEK_START 
+            = PRIOR_WEEK_START.plusWeeks(1);
+    
+    private static final int EMPLOYEE_COUNT = 30;
+    
+    /**
+     * A store that counts the writes of time cards one at a time, and the 
+     * batches, of time cards or anything else.
+     */
+    private static class CountingStore extends InMemoryRecordStore {
+        
+        private int cardWriteCount = 0;
+        
+        private int batchCount = 0;
+        
+        @Override
+        public void write(String key, byte[] data) {
+            if (key.startsWith(RecordKeys.CARD_PREFIX)) {
+                this.cardWriteCount++;
+            }
+            super.write(key, data);
+        }
+        
+        @Override
+        public void writeAll(Map<String, byte[]> records) throws IOException {
+            this.batchCount++;
+            for (Map.Entry<String, byte[]> entry : records.entrySet()) {
+                super.write(entry.getKey(), entry.getValue());
+            }
+        }
+        
+    }
+    
+    private CountingStore store;
+    
+    private static TimeCard makeCard(int i, LocalDateTime start) {
+        Employee employee = TimeCardMaker.makeEmployee(i);
+        if (i % 10 == 0) {
+            employee.setJobTitle("Manager");
+        } else if (i % 10 == 5) {
+            employee.setJobTitle("Lead");
+        }
+        TimeCard card = TimeCardMaker.makeCard(employee, start);
+        card.addTimeBlock(new DateTimeRange(start.plusHours(8), 
+                start.plusHours(16)));
+        return card;
+    }
+    
+    @Before
+    public void setUp() throws IOException {
+        TimeSource.setClock(Clock.fixed(CURRENT_WEEK_START.plusDays(2)
+                .toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+        this.store = new CountingStore();
+        for (int i = 0; i < EMPLOYEE_COUNT; i++) {
+            TimeCardsProcessor.putCard(this.store, 
+                    makeCard(i, PRIOR_WEEK_START));
+            TimeCardsProcessor.putCard(this.store, 
+                    makeCard(i, CURRENT_WEEK_START));
+        }
+        this.store.cardWriteCount = 0;
+        this.store.batchCount = 0;
+    }
+    
+    @After
+    public void tearDown() {
+        TimeSource.useSystemClock();
+    }
+    
+    /**
+     * Test of verifyAll method, of class CardBatchProcessor. All the cards of 
+     * the period should be verified and written back in one batch.
+     */
+    @Test
+    public void testVerifyAll() throws Exception {
+        System.out.println("verifyAll");
+        CardBatchProcessor processor = new CardBatchProcessor(this.store);
+        CardBatchProcessor.BatchResult result 
+                = processor.verifyAll(PRIOR_WEEK_START, (card) -> true);
+        assertEquals(EMPLOYEE_COUNT, result.getProcessedCount());
+        assertEquals(0, result.getSkippedCount());
+        assert result.getFailures().isEmpty() : "Should be no failures";
+        assertEquals(0, this.store.cardWriteCount);
+        assertEquals(2, this.store.batchCount);
+        for (TimeCard card : TimeCardsProcessor.getCards(this.store, 
+                PRIOR_WEEK_START)) {
+            assert card.hasBeenVerified() : "Card should be verified";
+        }
+        CardStatusIndex index = new CardStatusIndex(this.store);
+        assertEquals(EMPLOYEE_COUNT, index.getKeysAwaitingPayment().size());
+        result = processor.verifyAll(PRIOR_WEEK_START, (card) -> true);
+        assertEquals(0, result.getProcessedCount());
+        assertEquals(EMPLOYEE_COUNT, result.getSkippedCount());
+    }
+    
+    /**
+     * Another test of verifyAll method, of class CardBatchProcessor. Cards 
+     * kept as streams of events should stay verified when read back, rather 
+     * than have their verification undone by replaying their events.
+     */
+    @Test
+    public void testVerifyAllJournaledCards() throws Exception {
+        RecordStore journaledStore = new InMemoryRecordStore();
+        CardEventJournal journal = new CardEventJournal(journaledStore);
+        List<TimeCard> cards = new ArrayList<>();
+        for (int i = 0; i < EMPLOYEE_COUNT; i++) {
+            TimeCard card = TimeCardMaker.makeCard(i, PRIOR_WEEK_START);
+            journal.create(card);
+            LocalDateTime start = PRIOR_WEEK_START.plusHours(8);
+            journal.adjust(card, new DateTimeRange(start, 
+                    start.plusHours(8)));
+            cards.add(card);
+        }
+        CardBatchProcessor processor 
+                = new CardBatchProcessor(journaledStore);
+        CardBatchProcessor.BatchResult result 
+                = processor.verifyAll(PRIOR_WEEK_START, (card) -> true);
+        assertEquals(EMPLOYEE_COUNT, result.getProcessedCount());
+        for (TimeCard card : TimeCardsProcessor.getCards(journaledStore, 
+                PRIOR_WEEK_START)) {
+            assert card.hasBeenVerified() : "Card should be verified";
+            assertEquals(1, card.getTimeBlocks().size());
+        }
+        for (TimeCard card : cards) {
+            TimeCard readBack = journal.getCard(card.getEmployee(), 
+                    PRIOR_WEEK_START);
+            assert readBack.hasBeenVerified() 
+                    : "Card read from journal should be verified";
+            assertEquals(0, journal.getPendingEventCount(card.getEmployee(), 
+                    PRIOR_WEEK_START));
+        }
+        CardStatusIndex index = new CardStatusIndex(journaledStore);
+        assert index.getCardsAwaitingVerification().isEmpty() 
+                : "No card should be awaiting verification";
+        assertEquals(EMPLOYEE_COUNT, index.getCardsAwaitingPayment().size());
+        result = processor.verifyAll(PRIOR_WEEK_START, (card) -> true);
+        assertEquals(0, result.getProcessedCount());
+        assertEquals(EMPLOYEE_COUNT, result.getSkippedCount());
+    }
+    
+    /**
+     * Another test of verifyAll method, of class CardBatchProcessor. Cards 
+     * still current should be reported as failures and left unverified.
+     */
+    @Test
+    public void testVerifyAllCurrentCardsFail() throws Exception {
+        CardBatchProcessor processor = new CardBatchProcessor(this.store);
+        CardBatchProcessor.BatchResult result 
+                = processor.verifyAll(CURRENT_WEEK_START, (card) -> true);
+        assertEquals(0, result.getProcessedCount());
+        assertEquals(EMPLOYEE_COUNT, result.getFailures().size());
+        String reason = result.getFailures().values().iterator().next();
+        assert reason.startsWith("Card can't be verified") 
+                : "Unexpected reason \"" + reason + "\"";
+        System.out.println(result + ": \"" + reason + "\"");
+        for (TimeCard card : TimeCardsProcessor.getCards(this.store, 
+                CURRENT_WEEK_START)) {
+            assert !card.hasBeenVerified() : "Card should not be verified";
+        }
+    }
+    
+    /**
+     * Test of payAll method, of class CardBatchProcessor. Only the cards 
+     * matching the filter should be paid, and unverified cards should be 
+     * reported as failures.
+     */
+    @Test
+    public void testPayAll() throws Exception {
+        System.out.println("payAll");
+        CardBatchProcessor processor = new CardBatchProcessor(this.store);
+        processor.verifyAll(PRIOR_WEEK_START, (card) 
+                -> !card.getEmployee().getJobTitle().equals("Employee"));
+        CardBatchProcessor.BatchResult result = processor.payAll(
+                PRIOR_WEEK_START, (card) -> card.getEmployee().getJobTitle()
+                        .equals("Manager"));
+        assertEquals(3, result.getProcessedCount());
+        assertEquals(0, result.getFailures().size());
+        result = processor.payAll(PRIOR_WEEK_START, (card) -> true);
+        assertEquals(3, result.getProcessedCount());
+        assertEquals(3, result.getSkippedCount());
+        assertEquals(EMPLOYEE_COUNT - 6, result.getFailures().size());
+        assertEquals(0, this.store.cardWriteCount);
+        assertEquals(6, new CardStatusIndex(this.store)
+                .count(CardStatusIndex.Flag.PAID, true));
+    }
+    
+}
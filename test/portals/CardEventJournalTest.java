@@ -0,0 +1,358 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import entities.Employee;
+import entities.idnumbers.SocialSecurityNumber;
+import payroll.TimeCard;
+import payroll.TimeCardMaker;
+import time.DateTimeRange;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the CardEventJournal class.
+ * @author Alonso del Arte
+ */
+public class CardEventJournalTest {
+    
+    private static final Employee TEST_EMPLOYEE 
+            = new Employee("John Lopez", new SocialSecurityNumber(750101729));
+    
+    /**
+     * Monday, October 5, 2026 at 12:00 a.m.
+     */
+    private static final LocalDateTime WEEK_START 
+            = LocalDateTime.of(2026, 10, 5, 0, 0);
+    
+    private static final int INTERVAL = 4;
+    
+    /**
+     * A store that remembers the prefixes it was asked to list the keys of.
+     */
+    private static class KeyListingStore extends InMemoryRecordStore {
+        
+        private final List<String> listedPrefixes = new ArrayList<>();
+        
+        @Override
+        public List<String> keys(String prefix) {
+            this.listedPrefixes.add(prefix);
+            return super.keys(prefix);
+        }
+        
+    }
+    
+    private InMemoryRecordStore store;
+    
+    private CardEventJournal journal;
+    
+    private TimeCard card;
+    
+    private String cardKey() {
+        return RecordKeys.cardKey(TEST_EMPLOYEE, WEEK_START);
+    }
+    
+    @Before
+    public void setUp() throws IOException {
+        this.store = new InMemoryRecordStore();
+        this.journal = new CardEventJournal(this.store, INTERVAL);
+        this.card = new TimeCard(TEST_EMPLOYEE, new DateTimeRange(WEEK_START, 
+                WEEK_START.plusDays(7).minusMinutes(1)));
+        this.journal.create(this.card);
+    }
+    
+    /**
+     * Test of punchIn method, of class CardEventJournal. A punch should be 
+     * a single small write, leaving the card record alone.
+     */
+    @Test
+    public void testPunchIn() throws Exception {
+        System.out.println("punchIn");
+        byte[] cardBefore = this.store.read(this.cardKey());
+        LocalDateTime time = WEEK_START.plusHours(8);
+        this.journal.punchIn(this.card, time);
+        assertArrayEquals(cardBefore, this.store.read(this.cardKey()));
+        assertEquals(1, this.journal.getPendingEventCount(TEST_EMPLOYEE, 
+                WEEK_START));
+        TimeCard replayed = this.journal.getCard(TEST_EMPLOYEE, WEEK_START);
+        assert replayed.isPunchedIn() : "Replayed card should be punched in";
+        assertEquals(time, replayed.getLastPunchIn());
+    }
+    
+    /**
+     * Test of getCard method, of class CardEventJournal. The card put back 
+     * together should have the same blocks and flags as the card the events 
+     * were applied to, whether or not a snapshot was taken along the way.
+     */
+    @Test
+    public void testGetCard() throws Exception {
+        System.out.println("getCard");
+        for (int day = 0; day < 5; day++) {
+            LocalDateTime morning = WEEK_START.plusDays(day).plusHours(8);
+            this.journal.punchIn(this.card, morning.plusSeconds(17)
+                    .plusNanos(250000000));
+            this.journal.punchOut(this.card, morning.plusHours(4));
+            TimeCard replayed = this.journal.getCard(TEST_EMPLOYEE, 
+                    WEEK_START);
+            assertEquals(this.card.getTimeBlocks(), 
+                    replayed.getTimeBlocks());
+            assertEquals(this.card.getMinutesSoFar(), 
+                    replayed.getMinutesSoFar());
+        }
+        this.journal.adjust(this.card, new DateTimeRange(
+                WEEK_START.plusDays(5).plusHours(9), 
+                WEEK_START.plusDays(5).plusHours(11)));
+        this.journal.markVerified(this.card);
+        this.journal.markPaid(this.card);
+        TimeCard replayed = this.journal.getCard(TEST_EMPLOYEE, WEEK_START);
+        assertEquals(this.card.getTimeBlocks(), replayed.getTimeBlocks());
+        assert replayed.hasBeenVerified() : "Card should be verified";
+        assert replayed.hasBeenPaid() : "Card should be paid";
+        assert !replayed.isActive() : "Paid card should not be active";
+    }
+    
+    /**
+     * Test of snapshot method, of class CardEventJournal. Replays should never 
+     * be longer than the snapshot interval, and the card record should be 
+     * brought up to date at each snapshot.
+     */
+    @Test
+    public void testSnapshot() throws Exception {
+        System.out.println("snapshot");
+        for (int day = 0; day < 6; day++) {
+            LocalDateTime morning = WEEK_START.plusDays(day).plusHours(8);
+            this.journal.punchIn(this.card, morning);
+            this.journal.punchOut(this.card, morning.plusHours(8));
+            int pending = this.journal.getPendingEventCount(TEST_EMPLOYEE, 
+                    WEEK_START);
+            assert pending < INTERVAL : "Pending " + pending 
+                    + " should be less than " + INTERVAL;
+        }
+        assertEquals(0, this.journal.getPendingEventCount(TEST_EMPLOYEE, 
+                WEEK_START));
+        TimeCard written = TimeCardsProcessor.getCard(this.store, 
+                TEST_EMPLOYEE, WEEK_START);
+        assertEquals(6 * 8 * 60, written.getMinutesSoFar());
+        this.journal.punchIn(this.card, WEEK_START.plusDays(6));
+        this.journal.snapshot(this.card);
+        assertEquals(0, this.journal.getPendingEventCount(TEST_EMPLOYEE, 
+                WEEK_START));
+        assert TimeCardsProcessor.getCard(this.store, TEST_EMPLOYEE, 
+                WEEK_START).isPunchedIn() : "Written card should be punched in";
+    }
+    
+    /**
+     * Another test of getCard method, of class CardEventJournal. A journal 
+     * opened later on the same store should carry on with the sequence 
+     * numbers where the earlier journal left off.
+     */
+    @Test
+    public void testGetCardAfterReopen() throws Exception {
+        this.journal.punchIn(this.card, WEEK_START.plusHours(8));
+        this.journal.punchOut(this.card, WEEK_START.plusHours(12));
+        this.journal.punchIn(this.card, WEEK_START.plusHours(13));
+        CardEventJournal reopened = new CardEventJournal(this.store, INTERVAL);
+        TimeCard replayed = reopened.getCard(TEST_EMPLOYEE, WEEK_START);
+        reopened.punchOut(replayed, WEEK_START.plusHours(17));
+        reopened.punchIn(replayed, WEEK_START.plusDays(1).plusHours(8));
+        assertEquals(1, reopened.getPendingEventCount(TEST_EMPLOYEE, 
+                WEEK_START));
+        TimeCard again = new CardEventJournal(this.store, INTERVAL)
+                .getCard(TEST_EMPLOYEE, WEEK_START);
+        assertEquals(480L, again.getMinutesSoFar());
+        assert again.isPunchedIn() : "Card should be punched in";
+    }
+    
+    /**
+     * Another test of getCard method, of class CardEventJournal. A card 
+     * written before the journal was used should be the starting point for 
+     * its events.
+     */
+    @Test
+    public void testGetCardWithoutSnapshot() throws Exception {
+        Employee other = new Employee("Hank Hill", 
+                new SocialSecurityNumber(750304850));
+        TimeCard legacy = new TimeCard(other, new DateTimeRange(WEEK_START, 
+                WEEK_START.plusDays(7).minusMinutes(1)));
+        legacy.addTimeBlock(new DateTimeRange(WEEK_START.plusHours(8), 
+                WEEK_START.plusHours(10)));
+        TimeCardsProcessor.putCard(this.store, legacy);
+        this.journal.punchIn(legacy, WEEK_START.plusHours(11));
+        this.journal.punchOut(legacy, WEEK_START.plusHours(12));
+        TimeCard replayed = this.journal.getCard(other, WEEK_START);
+        assertEquals(180L, replayed.getMinutesSoFar());
+        assertNull(this.journal.getCard(other, WEEK_START.plusWeeks(1)));
+    }
+    
+    /**
+     * Test of markVerified method, of class CardEventJournal. A change the 
+     * card rejects should not be recorded.
+     */
+    @Test
+    public void testRejectedChangeNotRecorded() throws Exception {
+        System.out.println("markVerified");
+        try {
+            this.journal.markPaid(this.card);
+            fail("Should not have marked unverified card paid");
+        } catch (IllegalStateException ise) {
+            System.out.println("\"" + ise.getMessage() + "\"");
+        }
+        assertEquals(0, this.journal.getPendingEventCount(TEST_EMPLOYEE, 
+                WEEK_START));
+    }
+    
+    /**
+     * Two journals on the same store should not hand out the same sequence 
+     * numbers, or one would write over the other's events.
+     */
+    @Test
+    public void testTwoJournalsOnSameStore() throws Exception {
+        CardEventJournal other = new CardEventJournal(this.store, INTERVAL);
+        this.journal.punchIn(this.card, WEEK_START.plusHours(8));
+        TimeCard otherCopy = other.getCard(TEST_EMPLOYEE, WEEK_START);
+        other.adjust(otherCopy, new DateTimeRange(WEEK_START.plusHours(13), 
+                WEEK_START.plusHours(14)));
+        this.journal.punchOut(this.card, WEEK_START.plusHours(12));
+        assertEquals(3, this.journal.getPendingEventCount(TEST_EMPLOYEE, 
+                WEEK_START));
+        TimeCard replayed = this.journal.getCard(TEST_EMPLOYEE, WEEK_START);
+        assertEquals(300L, replayed.getMinutesSoFar());
+    }
+    
+    /**
+     * The functions that retrieve cards from the store should see the events 
+     * recorded since the latest snapshot, not just the card as of that 
+     * snapshot.
+     */
+    @Test
+    public void testReadersSeePendingEvents() throws Exception {
+        this.journal.punchIn(this.card, WEEK_START.plusHours(8));
+        this.journal.punchOut(this.card, WEEK_START.plusHours(12));
+        this.journal.punchIn(this.card, WEEK_START.plusHours(13));
+        assertEquals(240L, TimeCardsProcessor.getCard(this.store, 
+                TEST_EMPLOYEE, WEEK_START).getMinutesSoFar());
+        TimeCard fromScan = TimeCardsProcessor.getCards(this.store).get(0);
+        assertEquals(240L, fromScan.getMinutesSoFar());
+        assert fromScan.isPunchedIn() : "Scanned card should be punched in";
+        TimeCard fromIndex = TimeCardsProcessor.getCards(this.store, 
+                WEEK_START).get(0);
+        assertEquals(240L, fromIndex.getMinutesSoFar());
+    }
+    
+    /**
+     * A card written whole after events were recorded for it, as by a batch 
+     * verification, should take the place of those events rather than be 
+     * undone by them.
+     */
+    @Test
+    public void testPutCardSupersedesEvents() throws Exception {
+        this.journal.punchIn(this.card, WEEK_START.plusHours(8));
+        this.journal.punchOut(this.card, WEEK_START.plusHours(12));
+        TimeCard copy = TimeCardsProcessor.getCard(this.store, TEST_EMPLOYEE, 
+                WEEK_START);
+        copy.markVerified();
+        TimeCardsProcessor.putCard(this.store, copy);
+        assertEquals(0, this.journal.getPendingEventCount(TEST_EMPLOYEE, 
+                WEEK_START));
+        TimeCard replayed = this.journal.getCard(TEST_EMPLOYEE, WEEK_START);
+        assert replayed.hasBeenVerified() : "Card should be verified";
+        assertEquals(240L, replayed.getMinutesSoFar());
+        this.journal.markPaid(replayed);
+        assertEquals(1, new CardStatusIndex(this.store)
+                .count(CardStatusIndex.Flag.PAID, true));
+        assert TimeCardsProcessor.getCard(this.store, TEST_EMPLOYEE, 
+                WEEK_START).hasBeenPaid() : "Card should be paid";
+    }
+    
+    /**
+     * A punch should only read and write the card's own records. Listing the 
+     * keys would mean going through the whole data directory for a {@link 
+     * FilePerRecordStore}.
+     */
+    @Test
+    public void testPunchDoesNotListKeys() throws Exception {
+        KeyListingStore listingStore = new KeyListingStore();
+        CardEventJournal listingJournal 
+                = new CardEventJournal(listingStore, INTERVAL);
+        TimeCard listedCard = TimeCardMaker.makeCard(TEST_EMPLOYEE, 
+                WEEK_START);
+        listingJournal.create(listedCard);
+        for (int day = 0; day < 5; day++) {
+            LocalDateTime start = WEEK_START.plusDays(day).plusHours(8);
+            listingJournal.punchIn(listedCard, start);
+            listingJournal.punchOut(listedCard, start.plusHours(8));
+        }
+        assert listingStore.listedPrefixes.isEmpty() 
+                : "Punches should not list keys, but listed " 
+                + listingStore.listedPrefixes;
+        TimeCard replayed = listingJournal.getCard(TEST_EMPLOYEE, WEEK_START);
+        assertEquals(2400L, replayed.getMinutesSoFar());
+        assert listingStore.listedPrefixes.isEmpty() 
+                : "Reading a card should not list keys";
+    }
+    
+    /**
+     * Reading the cards of a period should only look for the event streams 
+     * of that period.
+     */
+    @Test
+    public void testGetCardsListsOnlyThatPeriod() throws Exception {
+        KeyListingStore listingStore = new KeyListingStore();
+        CardEventJournal listingJournal 
+                = new CardEventJournal(listingStore, INTERVAL);
+        for (int week = 0; week < 3; week++) {
+            LocalDateTime start = WEEK_START.plusWeeks(week);
+            TimeCard weekCard = TimeCardMaker.makeCard(TEST_EMPLOYEE, start);
+            listingJournal.create(weekCard);
+            listingJournal.punchIn(weekCard, start.plusHours(8));
+        }
+        listingStore.listedPrefixes.clear();
+        List<TimeCard> cards = TimeCardsProcessor.getCards(listingStore, 
+                WEEK_START.plusWeeks(1));
+        assertEquals(1, cards.size());
+        assert cards.get(0).isPunchedIn() : "Card should be punched in";
+        for (String prefix : listingStore.listedPrefixes) {
+            assert !prefix.startsWith(RecordKeys.EVENT_PREFIX) 
+                    : "Should not have listed " + prefix;
+            if (prefix.startsWith(RecordKeys.EVENT_SEQUENCE_PREFIX)) {
+                assertEquals(RecordKeys.eventSequencePrefix(WEEK_START
+                        .plusWeeks(1)), prefix);
+            }
+        }
+    }
+    
+    @Test(expected = IOException.class)
+    public void testApplyUnrecognizedEvent() throws IOException {
+        CardEventJournal.applyEvent(this.card, new byte[]{(byte) 99});
+        System.out.println("Should not have applied unrecognized event");
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorRejectsZeroInterval() {
+        CardEventJournal bad = new CardEventJournal(this.store, 0);
+        System.out.println("Should not have created " + bad);
+    }
+    
+}
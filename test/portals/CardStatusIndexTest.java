@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import payroll.TimeCard;
+import payroll.TimeCardMaker;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the CardStatusIndex class.
+ * @author Alonso del Arte
+ */
+public class CardStatusIndexTest {
+    
+    /**
+     * Monday, October 5, 2026 at 12:00 a.m. Cards for this week are in the 
+     * past as far as these tests are concerned.
+     */
+    private static final LocalDateTime WEEK_START 
+            = LocalDateTime.of(2026, 10, 5, 0, 0);
+    
+    private RecordStore store;
+    
+    private static TimeCard makeCard(int number) {
+        return TimeCardMaker.makeCard(number, WEEK_START);
+    }
+    
+    @Before
+    public void setUp() {
+        this.store = new InMemoryRecordStore();
+    }
+    
+    /**
+     * Test of update method, of class CardStatusIndex.
+     */
+    @Test
+    public void testUpdate() throws IOException {
+        System.out.println("update");
+        CardStatusIndex index = new CardStatusIndex(this.store);
+        TimeCard card = makeCard(1);
+        index.update(card);
+        assertEquals(1, index.count(CardStatusIndex.Flag.PRESENT, true));
+        assertEquals(1, index.count(CardStatusIndex.Flag.ACTIVE, true));
+        assertEquals(0, index.count(CardStatusIndex.Flag.VERIFIED, true));
+        card.markVerified();
+        index.update(card);
+        assertEquals(1, index.count(CardStatusIndex.Flag.VERIFIED, true));
+        assertEquals(1, index.count(CardStatusIndex.Flag.PAID, false));
+    }
+    
+    /**
+     * Test of getKeysAwaitingVerification method, of class CardStatusIndex.
+     */
+    @Test
+    public void testGetKeysAwaitingVerification() throws IOException {
+        System.out.println("getKeysAwaitingVerification");
+        TimeCard verifiedCard = makeCard(1);
+        verifiedCard.markVerified();
+        TimeCard unverifiedCard = makeCard(2);
+        TimeCardsProcessor.putCard(this.store, verifiedCard);
+        TimeCardsProcessor.putCard(this.store, unverifiedCard);
+        List<String> keys = new CardStatusIndex(this.store)
+                .getKeysAwaitingVerification();
+        assertEquals(1, keys.size());
+        assertEquals(RecordKeys.cardKey(unverifiedCard), keys.get(0));
+    }
+    
+    /**
+     * Test of getCardsAwaitingPayment method, of class CardStatusIndex.
+     */
+    @Test
+    public void testGetCardsAwaitingPayment() throws Exception {
+        System.out.println("getCardsAwaitingPayment");
+        TimeCard paidCard = makeCard(1);
+        paidCard.markVerified();
+        paidCard.markPaid();
+        TimeCard verifiedCard = makeCard(2);
+        verifiedCard.markVerified();
+        TimeCardsProcessor.putCard(this.store, paidCard);
+        TimeCardsProcessor.putCard(this.store, verifiedCard);
+        TimeCardsProcessor.putCard(this.store, makeCard(3));
+        ArrayList<TimeCard> cards = new CardStatusIndex(this.store)
+                .getCardsAwaitingPayment();
+        assertEquals(1, cards.size());
+        assertEquals(verifiedCard, cards.get(0));
+    }
+    
+    /**
+     * Test of statusChanged method, of class CardStatusIndex. As a listener, 
+     * the index should be updated as soon as the card is marked, before the 
+     * card is put back.
+     */
+    @Test
+    public void testStatusChanged() throws Exception {
+        System.out.println("statusChanged");
+        TimeCard card = makeCard(1);
+        TimeCardsProcessor.putCard(this.store, card);
+        CardStatusIndex index = new CardStatusIndex(this.store);
+        card.addTimeCardListener(index);
+        card.markVerified();
+        assert index.getKeysAwaitingVerification().isEmpty() 
+                : "Verified card should not still be awaiting verification";
+        assertEquals(1, index.getKeysAwaitingPayment().size());
+        card.markInactive();
+        assertEquals(0, index.count(CardStatusIndex.Flag.ACTIVE, true));
+        ArrayList<TimeCard> cards = index.getCardsAwaitingPayment();
+        assert cards.isEmpty() 
+                : "Card in store not verified yet, so shouldn't be retrieved";
+    }
+    
+    /**
+     * Test of remove method, of class CardStatusIndex.
+     */
+    @Test
+    public void testRemove() throws IOException {
+        System.out.println("remove");
+        CardStatusIndex index = new CardStatusIndex(this.store);
+        TimeCard card = makeCard(1);
+        index.update(card);
+        index.update(makeCard(2));
+        index.remove(card);
+        assertEquals(1, index.count(CardStatusIndex.Flag.PRESENT, true));
+        assertEquals(1, index.getKeysAwaitingVerification().size());
+        index.update(card);
+        assertEquals(2, index.count(CardStatusIndex.Flag.PRESENT, true));
+    }
+    
+    /**
+     * Test of getCardKeys method, of class CardStatusIndex, with enough cards 
+     * to need more than one segment.
+     */
+    @Test
+    public void testGetCardKeysAcrossSegments() throws IOException {
+        System.out.println("getCardKeys");
+        CardStatusIndex index = new CardStatusIndex(this.store);
+        int total = CardStatusIndex.SEGMENT_SIZE + 100;
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < total; i++) {
+            TimeCard card = makeCard(i);
+            if (i % 1000 == 7) {
+                expected.add(RecordKeys.cardKey(card));
+            } else {
+                card.markVerified();
+            }
+            index.update(card);
+        }
+        List<String> actual = index.getCardKeys(CardStatusIndex.Flag.VERIFIED, 
+                false);
+        assertEquals(expected, actual);
+        assertEquals(total - expected.size(), 
+                index.count(CardStatusIndex.Flag.VERIFIED, true));
+    }
+    
+    /**
+     * If the program stops after the record for a new ordinal is written but 
+     * before the count is updated, the next card added should not be given 
+     * the same ordinal, or the index would report on the wrong card.
+     */
+    @Test
+    public void testInterruptedAdditionDoesNotReuseOrdinal() 
+            throws IOException {
+        CardStatusIndex index = new CardStatusIndex(this.store);
+        TimeCard first = makeCard(1);
+        index.update(first);
+        TimeCard interrupted = makeCard(2);
+        this.store.write(CardStatusIndex.keyRecordKey(1), 
+                RecordKeys.cardKey(interrupted).getBytes("UTF-8"));
+        TimeCard next = makeCard(3);
+        next.markVerified();
+        index.update(next);
+        List<String> expected = new ArrayList<>();
+        expected.add(RecordKeys.cardKey(first));
+        assertEquals(expected, index.getKeysAwaitingVerification());
+        expected.set(0, RecordKeys.cardKey(next));
+        assertEquals(expected, index.getCardKeys(CardStatusIndex.Flag.VERIFIED, 
+                true));
+    }
+    
+}
@@ -20,12 +20,17 @@ package portals;
 import currency.CurrencyAmount;
 import entities.Employee;
 import entities.idnumbers.SocialSecurityNumber;
+import payroll.ClockedInRoster;
+import payroll.PayCalendar;
 import payroll.TimeCard;
 import time.DateTimeRange;
+import time.TimeSource;
 
+import java.time.Clock;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.ZoneOffset;
 import java.util.Currency;
 
 import org.junit.Test;
@@ -90,6 +95,150 @@ public class CurrentTimeCardFetcherTest {
         fail("The test case is a prototype.");
     }
 
+    /**
+     * Test of the CurrentTimeCardFetcher constructor with a given store. The 
+     * first fetch should write a new, blank card to the store, and the second 
+     * fetch should find the card that was put back.
+     */
+    @Test
+    public void testFetchFromGivenStore() throws Exception {
+        RecordStore store = new InMemoryRecordStore();
+        Employee employee = new Employee("Hank Hill", 
+                new SocialSecurityNumber(750304850));
+        CurrentTimeCardFetcher fetcher 
+                = new CurrentTimeCardFetcher(employee, store);
+        TimeCard card = fetcher.retrieveCard();
+        assert card.isCurrent() : "New card should be current";
+        assertEquals(1, TimeCardsProcessor.getCards(store).size());
+        LocalDateTime blockStart = card.getStartTime().plusMinutes(1);
+        card.addTimeBlock(new DateTimeRange(blockStart, 
+                blockStart.plusMinutes(30)));
+        fetcher.putCardBack(card);
+        CurrentTimeCardFetcher refetcher 
+                = new CurrentTimeCardFetcher(employee, store);
+        assertEquals(30L, refetcher.retrieveCard().getMinutesSoFar());
+        assertEquals(1, TimeCardsProcessor.getCards(store).size());
+    }
+
+    /**
+     * In the last minute of a pay period, and at the very start of one, the 
+     * card already in the store for that period should be fetched, not 
+     * replaced with a blank card.
+     */
+    @Test
+    public void testFetchAtEdgesOfPeriod() throws Exception {
+        RecordStore store = new InMemoryRecordStore();
+        Employee employee = new Employee("Hank Hill", 
+                new SocialSecurityNumber(750304850));
+        DateTimeRange period = PayCalendar.getDefault()
+                .getPeriod(LocalDateTime.of(2026, 10, 14, 13, 30));
+        TimeCard card = new TimeCard(employee, period);
+        LocalDateTime blockStart = period.getStart().plusHours(8);
+        card.addTimeBlock(new DateTimeRange(blockStart, 
+                blockStart.plusHours(4)));
+        TimeCardsProcessor.putCard(store, card);
+        LocalDateTime[] edges = {period.getStart(), period.getEnd(), 
+            period.getEnd().plusSeconds(59)};
+        try {
+            for (LocalDateTime edge : edges) {
+                TimeSource.setClock(Clock.fixed(edge.toInstant(ZoneOffset.UTC), 
+                        ZoneOffset.UTC));
+                CurrentTimeCardFetcher fetcher 
+                        = new CurrentTimeCardFetcher(employee, store);
+                assertEquals("Card fetched at " + edge, 240L, 
+                        fetcher.retrieveCard().getMinutesSoFar());
+            }
+        } finally {
+            TimeSource.useSystemClock();
+        }
+        assertEquals(1, TimeCardsProcessor.getCards(store).size());
+    }
+
+    /**
+     * Test of punchIn and punchOut methods, of class CurrentTimeCardFetcher. 
+     * A punch should be recorded without rewriting the card, and a fetcher 
+     * made afterwards should see it.
+     */
+    @Test
+    public void testPunchInPunchOut() throws Exception {
+        System.out.println("punchIn");
+        RecordStore store = new InMemoryRecordStore();
+        Employee employee = new Employee("Hank Hill", 
+                new SocialSecurityNumber(750304850));
+        LocalDateTime start = LocalDateTime.of(2026, 10, 14, 8, 0);
+        try {
+            TimeSource.setClock(Clock.fixed(start.toInstant(ZoneOffset.UTC), 
+                    ZoneOffset.UTC));
+            CurrentTimeCardFetcher fetcher 
+                    = new CurrentTimeCardFetcher(employee, store);
+            String cardKey = RecordKeys.cardKey(fetcher.retrieveCard());
+            byte[] cardBefore = store.read(cardKey);
+            fetcher.punchIn();
+            assertArrayEquals(cardBefore, store.read(cardKey));
+            CurrentTimeCardFetcher refetcher 
+                    = new CurrentTimeCardFetcher(employee, store);
+            assert refetcher.retrieveCard().isPunchedIn() 
+                    : "Punch in should be seen by a new fetcher";
+            LocalDateTime end = start.plusHours(4);
+            TimeSource.setClock(Clock.fixed(end.toInstant(ZoneOffset.UTC), 
+                    ZoneOffset.UTC));
+            refetcher.punchOut();
+            TimeCard card = TimeCardsProcessor.getCard(store, employee, 
+                    refetcher.retrieveCard().getStartTime());
+            assert !card.isPunchedIn() : "Card should be punched out";
+            assertEquals(240L, card.getMinutesSoFar());
+        } finally {
+            TimeSource.useSystemClock();
+        }
+    }
+
+    /**
+     * Test of getRoster method, of class CurrentTimeCardFetcher. The roster 
+     * from TimeCardsProcessor should start out with whoever is already 
+     * punched in for the current period, and once given to the fetchers for 
+     * the store, follow the punches made through those fetchers.
+     */
+    @Test
+    public void testGetRoster() throws Exception {
+        System.out.println("getRoster");
+        RecordStore store = new InMemoryRecordStore();
+        LocalDateTime start = LocalDateTime.of(2026, 10, 14, 8, 0);
+        Employee early = new Employee("Peggy Hill", 
+                new SocialSecurityNumber(750304851));
+        Employee late = new Employee("Bobby Hill", 
+                new SocialSecurityNumber(750304852));
+        try {
+            TimeSource.setClock(Clock.fixed(start.toInstant(ZoneOffset.UTC), 
+                    ZoneOffset.UTC));
+            TimeCard earlyCard = new TimeCard(early, 
+                    PayCalendar.getDefault().getPeriod(start));
+            earlyCard.punchIn(start.minusHours(1));
+            TimeCardsProcessor.putCard(store, earlyCard);
+            PayCalendar calendar = PayCalendar.getDefault();
+            ClockedInRoster roster = TimeCardsProcessor.getClockedInRoster(
+                    store, calendar.getPeriodStart(start));
+            CurrentTimeCardFetcher fetcher 
+                    = new CurrentTimeCardFetcher(late, store, calendar, roster);
+            assertSame(roster, fetcher.getRoster());
+            assert roster.isClockedIn(early) 
+                    : "Roster should start with who was punched in";
+            assert !roster.isClockedIn(late) 
+                    : "Employee who hasn't punched in should not be in";
+            fetcher.punchIn();
+            assert roster.isClockedIn(late) 
+                    : "Punch in through fetcher should be on roster";
+            CurrentTimeCardFetcher other = new CurrentTimeCardFetcher(early, 
+                    store, calendar, roster);
+            other.punchOut();
+            assert !roster.isClockedIn(early) 
+                    : "Punch out through fetcher should be off roster";
+            assertEquals(1, roster.getCount());
+            assertNull(new CurrentTimeCardFetcher(early, store).getRoster());
+        } finally {
+            TimeSource.useSystemClock();
+        }
+    }
+
     /**
      * Test of getEmployee method, of class CurrentTimeCardFetcher.
      */
@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+import entities.Employee;
+import entities.idnumbers.SocialSecurityNumber;
+import payroll.ClockedInRoster;
+import payroll.PayCalendar;
+import payroll.TimeCard;
+import time.TimeSource;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the DataDirectoryInitializer class.
+ * @author Alonso del Arte
+ */
+public class DataDirectoryInitializerTest {
+    
+    private static final Employee EMPLOYEE 
+            = new Employee("John Lopez", new SocialSecurityNumber(750101729));
+    
+    /**
+     * Wednesday, October 14, 2026 at 8:00 a.m.
+     */
+    private static final LocalDateTime WEDNESDAY_MORNING 
+            = LocalDateTime.of(2026, 10, 14, 8, 0);
+    
+    private static void setNow(LocalDateTime now) {
+        TimeSource.setClock(Clock.fixed(now.toInstant(ZoneOffset.UTC), 
+                ZoneOffset.UTC));
+    }
+    
+    @Before
+    public void setUp() throws Exception {
+        File dir = Files.createTempDirectory("PersProgTest").toFile();
+        dir.deleteOnExit();
+        DataDirectoryInitializer.setDir(dir);
+        setNow(WEDNESDAY_MORNING);
+    }
+    
+    @After
+    public void tearDown() {
+        TimeSource.useSystemClock();
+    }
+    
+    /**
+     * Test of getRoster method, of class DataDirectoryInitializer. The roster 
+     * should start with whoever is punched in, be the one the fetchers for 
+     * the default store keep up to date, and be started over when a new pay 
+     * period starts.
+     */
+    @Test
+    public void testGetRoster() throws Exception {
+        System.out.println("getRoster");
+        PayCalendar calendar = DataDirectoryInitializer.getPayCalendar();
+        TimeCard card = new TimeCard(EMPLOYEE, 
+                calendar.getPeriod(WEDNESDAY_MORNING));
+        card.punchIn(WEDNESDAY_MORNING.minusHours(1));
+        TimeCardsProcessor.putCard(DataDirectoryInitializer.getDefaultStore(), 
+                card);
+        ClockedInRoster roster = DataDirectoryInitializer.getRoster();
+        assert roster.isClockedIn(EMPLOYEE) 
+                : "Roster should start with who was punched in";
+        CurrentTimeCardFetcher fetcher = new CurrentTimeCardFetcher(EMPLOYEE);
+        assertSame(roster, fetcher.getRoster());
+        setNow(WEDNESDAY_MORNING.plusHours(4));
+        fetcher.punchOut();
+        assert !roster.isClockedIn(EMPLOYEE) 
+                : "Punch out through fetcher should be off roster";
+        setNow(WEDNESDAY_MORNING.plusWeeks(1));
+        ClockedInRoster nextRoster = DataDirectoryInitializer.getRoster();
+        assert nextRoster != roster 
+                : "New pay period should start a new roster";
+        assertEquals(0, nextRoster.getCount());
+    }
+    
+}
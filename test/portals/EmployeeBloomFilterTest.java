@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import entities.Employee;
+import entities.idnumbers.EmployerIdentificationNumber;
+import entities.idnumbers.SocialSecurityNumber;
+
+import java.io.IOException;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the EmployeeBloomFilter class.
+ * @author Alonso del Arte
+ */
+public class EmployeeBloomFilterTest {
+    
+    /**
+     * Test of add method, of class EmployeeBloomFilter. A TIN that has been 
+     * added should always be reported as possibly contained.
+     */
+    @Test
+    public void testAdd() {
+        System.out.println("add");
+        EmployeeBloomFilter filter = new EmployeeBloomFilter(2000);
+        for (int i = 0; i < 2000; i++) {
+            filter.add(new SocialSecurityNumber(750100000 + 37 * i));
+        }
+        for (int i = 0; i < 2000; i++) {
+            SocialSecurityNumber ssn 
+                    = new SocialSecurityNumber(750100000 + 37 * i);
+            String msg = "Filter should not give false negative for " + ssn;
+            assert filter.mightContain(ssn) : msg;
+        }
+        assertEquals(2000, filter.getInsertionCount());
+        assert !filter.isOverCapacity() : "Filter should not be over capacity";
+    }
+    
+    /**
+     * Test of mightContain method, of class EmployeeBloomFilter. The false 
+     * positive rate for TINs that were not added should be close to the 
+     * target rate.
+     */
+    @Test
+    public void testMightContain() {
+        System.out.println("mightContain");
+        EmployeeBloomFilter filter = new EmployeeBloomFilter(5000);
+        for (int i = 0; i < 5000; i++) {
+            filter.add(new SocialSecurityNumber(750100000 + 2 * i));
+        }
+        int trials = 50000;
+        int falsePositives = 0;
+        for (int i = 0; i < trials; i++) {
+            if (filter.mightContain(new SocialSecurityNumber(760100001 
+                    + 2 * i))) {
+                falsePositives++;
+            }
+        }
+        double rate = (double) falsePositives / trials;
+        System.out.println("Measured false positive rate " + rate);
+        double maximum = 2 * EmployeeBloomFilter.TARGET_FALSE_POSITIVE_RATE;
+        String msg = "False positive rate " + rate + " should be below " 
+                + maximum;
+        assert rate < maximum : msg;
+    }
+    
+    /**
+     * Another test of mightContain method, of class EmployeeBloomFilter. An 
+     * employer identification number (EIN) with the same digits as a Social 
+     * Security Number (SSN) is a different TIN.
+     */
+    @Test
+    public void testMightContainDistinguishesEINFromSSN() {
+        EmployeeBloomFilter filter = new EmployeeBloomFilter(1);
+        filter.add(new SocialSecurityNumber(78051120));
+        assert filter.mightContain(new SocialSecurityNumber(78051120));
+        assertNotEquals(EmployeeBloomFilter.hash64(new 
+                SocialSecurityNumber(78051120)), EmployeeBloomFilter
+                .hash64(new EmployerIdentificationNumber(78051120)));
+    }
+    
+    /**
+     * Test of isOverCapacity method, of class EmployeeBloomFilter.
+     */
+    @Test
+    public void testIsOverCapacity() {
+        System.out.println("isOverCapacity");
+        EmployeeBloomFilter filter = new EmployeeBloomFilter(1);
+        assertEquals(EmployeeBloomFilter.MINIMUM_CAPACITY, 
+                filter.getCapacity());
+        for (int i = 0; i <= EmployeeBloomFilter.MINIMUM_CAPACITY; i++) {
+            filter.add(new SocialSecurityNumber(750100000 + i));
+        }
+        assert filter.isOverCapacity() : "Filter should be over capacity";
+    }
+    
+    /**
+     * Test of save and open methods, of class EmployeeBloomFilter.
+     */
+    @Test
+    public void testSaveAndOpen() throws Exception {
+        System.out.println("save, open");
+        RecordStore store = new InMemoryRecordStore();
+        Employee employee = new Employee("John Lopez", 
+                new SocialSecurityNumber(750101729));
+        EmployeeRecordsProcessor.addRecord(store, employee);
+        EmployeeBloomFilter filter = new EmployeeBloomFilter(100);
+        filter.add(employee.getTIN());
+        filter.save(store);
+        EmployeeBloomFilter opened = EmployeeBloomFilter.open(store);
+        assertEquals(1, opened.getInsertionCount());
+        assert opened.mightContain(employee.getTIN()) 
+                : "Opened filter should contain " + employee.getTIN();
+    }
+    
+    /**
+     * Test of open method, of class EmployeeBloomFilter. If records were added 
+     * to the store without going through the filter, opening the filter should 
+     * rebuild it.
+     */
+    @Test
+    public void testOpenRebuildsStaleFilter() throws Exception {
+        RecordStore store = new InMemoryRecordStore();
+        EmployeeBloomFilter.open(store).save(store);
+        Employee employee = new Employee("Hank Hill", 
+                new SocialSecurityNumber(750304850));
+        EmployeeRecordsProcessor.addRecord(store, employee);
+        EmployeeBloomFilter filter = EmployeeBloomFilter.open(store);
+        assertEquals(1, filter.getInsertionCount());
+        assert filter.mightContain(employee.getTIN()) 
+                : "Rebuilt filter should contain " + employee.getTIN();
+    }
+    
+    /**
+     * Test of open method, of class EmployeeBloomFilter. A filter that can't 
+     * be read should be rebuilt rather than cause an exception.
+     */
+    @Test
+    public void testOpenRebuildsCorruptFilter() throws IOException, 
+            ClassNotFoundException {
+        RecordStore store = new InMemoryRecordStore();
+        store.write(EmployeeBloomFilter.FILTER_KEY, new byte[]{0, 0, 4, 0, 
+            0, 0, 0, 7});
+        EmployeeBloomFilter filter = EmployeeBloomFilter.open(store);
+        assertEquals(0, filter.getInsertionCount());
+    }
+    
+}
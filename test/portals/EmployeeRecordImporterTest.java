@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import entities.Employee;
+import entities.idnumbers.SocialSecurityNumber;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the EmployeeRecordImporter class.
+ * @author Alonso del Arte
+ */
+public class EmployeeRecordImporterTest {
+    
+    private static final SocialSecurityNumber EXISTING_SSN 
+            = new SocialSecurityNumber(750101729);
+    
+    private static final Employee EXISTING_EMPLOYEE 
+            = new Employee("John Lopez", EXISTING_SSN);
+    
+    private RecordStore store;
+    
+    private static List<Employee> makeEmployees(int count) {
+        List<Employee> employees = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            employees.add(new Employee("Employee " + i, 
+                    new SocialSecurityNumber(750200000 + 13 * i)));
+        }
+        return employees;
+    }
+    
+    @Before
+    public void setUp() throws IOException {
+        this.store = new InMemoryRecordStore();
+        EmployeeRecordsProcessor.addRecord(this.store, EXISTING_EMPLOYEE);
+    }
+    
+    /**
+     * Test of isDuplicate method, of class EmployeeRecordImporter.
+     */
+    @Test
+    public void testIsDuplicate() throws Exception {
+        System.out.println("isDuplicate");
+        EmployeeRecordImporter importer 
+                = new EmployeeRecordImporter(this.store);
+        Employee sameTIN = new Employee("Juan Lopez", EXISTING_SSN);
+        assert importer.isDuplicate(sameTIN) 
+                : "Employee with same TIN should be a duplicate";
+        Employee newHire = new Employee("Hank Hill", 
+                new SocialSecurityNumber(750304850));
+        assert !importer.isDuplicate(newHire) 
+                : "Employee with new TIN should not be a duplicate";
+    }
+    
+    /**
+     * Test of importRecords method, of class EmployeeRecordImporter. With 
+     * the reject policy, existing records should be left alone.
+     */
+    @Test
+    public void testImportRecordsRejectingDuplicates() throws Exception {
+        System.out.println("importRecords");
+        EmployeeRecordImporter importer 
+                = new EmployeeRecordImporter(this.store);
+        List<Employee> employees = makeEmployees(500);
+        Employee sameTIN = new Employee("Juan Lopez", EXISTING_SSN);
+        employees.add(sameTIN);
+        EmployeeRecordImporter.ImportResult result = importer.importRecords(
+                employees, EmployeeRecordImporter.DuplicatePolicy.REJECT);
+        assertEquals(500, result.getAddedCount());
+        assertEquals(Arrays.asList(sameTIN), result.getDuplicates());
+        Employee stored = RecordCodec.decode(this.store.read(RecordKeys
+                .employeeKey(EXISTING_EMPLOYEE)), Employee.class);
+        assertEquals(EXISTING_EMPLOYEE.getFirstName(), stored.getFirstName());
+        assertEquals(501, this.store.keys(RecordKeys.EMPLOYEE_PREFIX).size());
+    }
+    
+    /**
+     * Test of importRecords method, of class EmployeeRecordImporter. With 
+     * the flag policy, existing records should be replaced and reported.
+     */
+    @Test
+    public void testImportRecordsFlaggingDuplicates() throws Exception {
+        EmployeeRecordImporter importer 
+                = new EmployeeRecordImporter(this.store);
+        Employee sameTIN = new Employee("Juan Lopez", EXISTING_SSN);
+        EmployeeRecordImporter.ImportResult result = importer.importRecords(
+                Arrays.asList(sameTIN), 
+                EmployeeRecordImporter.DuplicatePolicy.FLAG);
+        assertEquals(1, result.getAddedCount());
+        assertEquals(Arrays.asList(sameTIN), result.getDuplicates());
+        Employee stored = RecordCodec.decode(this.store.read(RecordKeys
+                .employeeKey(EXISTING_EMPLOYEE)), Employee.class);
+        assertEquals(sameTIN.getFirstName(), stored.getFirstName());
+    }
+    
+    /**
+     * Test of importRecords method, of class EmployeeRecordImporter. An 
+     * employee listed twice in the same import is a duplicate the second 
+     * time.
+     */
+    @Test
+    public void testImportRecordsDuplicateWithinBatch() throws Exception {
+        EmployeeRecordImporter importer 
+                = new EmployeeRecordImporter(this.store);
+        Employee newHire = new Employee("Hank Hill", 
+                new SocialSecurityNumber(750304850));
+        EmployeeRecordImporter.ImportResult result = importer.importRecords(
+                Arrays.asList(newHire, newHire), 
+                EmployeeRecordImporter.DuplicatePolicy.REJECT);
+        assertEquals(1, result.getAddedCount());
+        assertEquals(Arrays.asList(newHire), result.getDuplicates());
+    }
+    
+    /**
+     * Test of importRecords method, of class EmployeeRecordImporter. For new 
+     * employees, the store should only rarely need to be checked.
+     */
+    @Test
+    public void testImportRecordsRarelyChecksStore() throws Exception {
+        EmployeeRecordImporter importer 
+                = new EmployeeRecordImporter(this.store);
+        EmployeeRecordImporter.ImportResult result = importer.importRecords(
+                makeEmployees(3000), 
+                EmployeeRecordImporter.DuplicatePolicy.REJECT);
+        assertEquals(3000, result.getAddedCount());
+        assertEquals(0, result.getDuplicates().size());
+        int checks = result.getStoreCheckCount();
+        System.out.println("Store checked " + checks 
+                + " times for 3000 new employees");
+        String msg = "Store should be checked fewer than 90 times, was " 
+                + checks;
+        assert checks < 90 : msg;
+        EmployeeBloomFilter filter = EmployeeBloomFilter.open(this.store);
+        assertEquals(3001, filter.getInsertionCount());
+    }
+    
+}
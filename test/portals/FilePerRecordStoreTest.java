@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the FilePerRecordStore class.
+ * @author Alonso del Arte
+ */
+public class FilePerRecordStoreTest extends RecordStoreTest {
+    
+    @Override
+    protected RecordStore makeStore() throws IOException {
+        File dir = Files.createTempDirectory("PersProgTest").toFile();
+        dir.deleteOnExit();
+        return new FilePerRecordStore(dir);
+    }
+    
+    /**
+     * Test of write method, of class FilePerRecordStore. The record should be 
+     * in a file named after the key, the same as in the original version of 
+     * this program.
+     */
+    @Test
+    public void testFileLayout() throws IOException {
+        this.store.write("PersProgempl172970408", bytesOf("John Lopez"));
+        File dir = ((FilePerRecordStore) this.store).getDir();
+        File file = new File(dir, "PersProgempl172970408.dat");
+        assert file.isFile() : "Record should be in " + file.getName();
+        assert new EmployeeRecordFilter().accept(dir, file.getName()) 
+                : "Employee record filter should accept " + file.getName();
+        assertEquals(1, dir.list().length);
+    }
+    
+    /**
+     * Another test of write method, of class FilePerRecordStore. Several 
+     * threads writing the same record at once should each succeed, the record 
+     * should end up as one of the values written, whole, and no temporary 
+     * files should be left behind.
+     */
+    @Test
+    public void testConcurrentWritesOfSameKey() throws Exception {
+        String key = "PersProgempl172970408";
+        int threadCount = 8;
+        int length = 1 << 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            byte[] data = new byte[length];
+            Arrays.fill(data, (byte) i);
+            futures.add(executor.submit(() -> {
+                for (int j = 0; j < 25; j++) {
+                    this.store.write(key, data);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        byte[] actual = this.store.read(key);
+        assertEquals(length, actual.length);
+        for (byte b : actual) {
+            assertEquals(actual[0], b);
+        }
+        File dir = ((FilePerRecordStore) this.store).getDir();
+        assertEquals(1, dir.list().length);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorRejectsFile() throws IOException {
+        File file = File.createTempFile("PersProgTest", ".txt");
+        file.deleteOnExit();
+        RecordStore badStore = new FilePerRecordStore(file);
+        System.out.println("Should not have created store " + badStore);
+    }
+    
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the LogFollower class.
+ * @author Alonso del Arte
+ */
+public class LogFollowerTest {
+    
+    private static byte[] bytesOf(String s) {
+        return RecordStoreTest.bytesOf(s);
+    }
+    
+    /**
+     * Test of poll method, of class LogFollower. After polling, the standby 
+     * should have the same records as the main store.
+     */
+    @Test
+    public void testPoll() throws IOException {
+        System.out.println("poll");
+        File logFile = ReplicatingRecordStoreTest.makeLogFile();
+        RecordStore standby = new InMemoryRecordStore();
+        try (ReplicatingRecordStore main = new ReplicatingRecordStore(
+                new InMemoryRecordStore(), new ReplicationLog(logFile)); 
+                LogFollower follower = new LogFollower(logFile, standby)) {
+            main.write("PersProgempl1", bytesOf("Hank Hill"));
+            main.write("PersProgempl2", bytesOf("Buck Strickland"));
+            assertEquals(2, follower.poll());
+            main.write("PersProgempl1", bytesOf("Hank Rutherford Hill"));
+            main.delete("PersProgempl2");
+            main.write("PersProgempl3", bytesOf("Dale Gribble"));
+            assertEquals(3, follower.poll());
+            assertEquals(0, follower.poll());
+            assertEquals(main.keys("PersProgempl"), 
+                    standby.keys("PersProgempl"));
+            for (String key : main.keys("PersProgempl")) {
+                assertArrayEquals(main.read(key), standby.read(key));
+            }
+            assertEquals(main.getLog().getLastSequence(), 
+                    follower.getAppliedSequence());
+        }
+    }
+    
+    /**
+     * Another test of poll method, of class LogFollower. A follower opened 
+     * again on the same standby should pick up where the last one left off.
+     */
+    @Test
+    public void testPollResumes() throws IOException {
+        File logFile = ReplicatingRecordStoreTest.makeLogFile();
+        RecordStore standby = new InMemoryRecordStore();
+        try (ReplicatingRecordStore main = new ReplicatingRecordStore(
+                new InMemoryRecordStore(), new ReplicationLog(logFile))) {
+            main.write("PersProgempl1", bytesOf("Hank Hill"));
+            try (LogFollower follower = new LogFollower(logFile, standby)) {
+                assertEquals(1, follower.poll());
+            }
+            main.write("PersProgempl2", bytesOf("Buck Strickland"));
+            try (LogFollower follower = new LogFollower(logFile, standby)) {
+                assertEquals(1L, follower.getAppliedSequence());
+                assertEquals(1, follower.poll());
+                assertEquals(2L, follower.getAppliedSequence());
+            }
+            assertEquals(Arrays.asList("PersProgempl1", "PersProgempl2"), 
+                    standby.keys("PersProgempl"));
+        }
+    }
+    
+    /**
+     * Another test of poll method, of class LogFollower. An entry that is 
+     * still being written should be left for the next poll.
+     */
+    @Test
+    public void testPollStopsAtPartialEntry() throws IOException {
+        File logFile = ReplicatingRecordStoreTest.makeLogFile();
+        RecordStore standby = new InMemoryRecordStore();
+        try (ReplicationLog log = new ReplicationLog(logFile)) {
+            log.append("PersProgempl1", bytesOf("Hank Hill"));
+        }
+        long firstLength = logFile.length();
+        try (ReplicationLog log = new ReplicationLog(logFile)) {
+            log.append("PersProgempl2", bytesOf("Buck Strickland"));
+        }
+        long fullLength = logFile.length();
+        try (RandomAccessFile file = new RandomAccessFile(logFile, "rw")) {
+            file.setLength(fullLength - 5);
+        }
+        try (LogFollower follower = new LogFollower(logFile, standby)) {
+            assertEquals(1, follower.poll());
+            assertEquals(fullLength - 5 - firstLength, follower.getLagBytes());
+            assertEquals(0L, follower.getLagMillis());
+        }
+    }
+    
+    /**
+     * Test of getLagBytes and getLagMillis methods, of class LogFollower.
+     */
+    @Test
+    public void testLag() throws IOException, InterruptedException {
+        System.out.println("getLagBytes, getLagMillis");
+        File logFile = ReplicatingRecordStoreTest.makeLogFile();
+        try (ReplicatingRecordStore main = new ReplicatingRecordStore(
+                new InMemoryRecordStore(), new ReplicationLog(logFile)); 
+                LogFollower follower = new LogFollower(logFile, 
+                        new InMemoryRecordStore())) {
+            assertEquals(0L, follower.getLagBytes());
+            assertEquals(0L, follower.getLagMillis());
+            main.write("PersProgempl1", bytesOf("Hank Hill"));
+            Thread.sleep(20L);
+            assertEquals(main.getLog().getLength(), follower.getLagBytes());
+            long lagMillis = follower.getLagMillis();
+            assert lagMillis >= 20L : "Lag " + lagMillis 
+                    + " ms should be at least 20 ms";
+            follower.poll();
+            assertEquals(0L, follower.getLagBytes());
+            assertEquals(0L, follower.getLagMillis());
+        }
+    }
+    
+    /**
+     * Test of start method, of class LogFollower. The background thread 
+     * should catch the standby up without explicit polls.
+     */
+    @Test
+    public void testStart() throws IOException, InterruptedException {
+        System.out.println("start");
+        File logFile = ReplicatingRecordStoreTest.makeLogFile();
+        RecordStore standby = new InMemoryRecordStore();
+        try (ReplicatingRecordStore main = new ReplicatingRecordStore(
+                new InMemoryRecordStore(), new ReplicationLog(logFile)); 
+                LogFollower follower = new LogFollower(logFile, standby)) {
+            follower.start(5L);
+            for (int i = 0; i < 100; i++) {
+                main.write("PersProgempl" + i, bytesOf("Employee " + i));
+            }
+            long deadline = System.currentTimeMillis() + 10000L;
+            while (follower.getAppliedSequence() < 100L 
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5L);
+            }
+            assertNull(follower.getLastError());
+            assertEquals(100L, follower.getAppliedSequence());
+            assertEquals(100, standby.keys("PersProgempl").size());
+        }
+    }
+    
+    /**
+     * Another test of poll method, of class LogFollower. If the log was 
+     * replaced by a new one, the follower should refuse to apply it rather 
+     * than quietly mix up the two.
+     */
+    @Test(expected = IOException.class)
+    public void testPollRejectsReplacedLog() throws IOException {
+        File logFile = ReplicatingRecordStoreTest.makeLogFile();
+        RecordStore standby = new InMemoryRecordStore();
+        try (ReplicationLog log = new ReplicationLog(logFile)) {
+            log.append("PersProgempl1", bytesOf("Hank Hill"));
+            log.append("PersProgempl2", bytesOf("Buck Strickland"));
+        }
+        try (LogFollower follower = new LogFollower(logFile, standby)) {
+            follower.poll();
+        }
+        logFile.delete();
+        try (ReplicationLog log = new ReplicationLog(logFile)) {
+            log.append("PersProgempl3", bytesOf("Dale Gribble"));
+            log.append("PersProgempl4", bytesOf("Bill Dauterive"));
+            log.append("PersProgempl5", bytesOf("Boomhauer"));
+        }
+        try (LogFollower follower = new LogFollower(logFile, standby)) {
+            int count = follower.poll();
+            System.out.println("Should not have applied " + count 
+                    + " changes from replaced log");
+        }
+    }
+    
+}
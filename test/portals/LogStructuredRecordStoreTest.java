@@ -0,0 +1,205 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the LogStructuredRecordStore class.
+ * @author Alonso del Arte
+ */
+public class LogStructuredRecordStoreTest extends RecordStoreTest {
+    
+    private File logFile;
+    
+    @Override
+    protected RecordStore makeStore() throws IOException {
+        this.logFile = File.createTempFile("PersProgTest", ".log");
+        this.logFile.deleteOnExit();
+        return new LogStructuredRecordStore(this.logFile);
+    }
+    
+    /**
+     * Test of the LogStructuredRecordStore constructor. Reopening the log 
+     * should bring back the latest version of each record and leave out the 
+     * deleted records.
+     */
+    @Test
+    public void testReopen() throws IOException {
+        this.store.write("PersProgempl1", bytesOf("Hank Hill"));
+        this.store.write("PersProgempl2", bytesOf("Buck Strickland"));
+        this.store.write("PersProgempl1", bytesOf("Hank Rutherford Hill"));
+        this.store.delete("PersProgempl2");
+        this.store.close();
+        this.store = new LogStructuredRecordStore(this.logFile);
+        assertArrayEquals(bytesOf("Hank Rutherford Hill"), 
+                this.store.read("PersProgempl1"));
+        assert !this.store.contains("PersProgempl2") 
+                : "Deleted record should stay deleted";
+    }
+    
+    /**
+     * Test of writeAll method, of class LogStructuredRecordStore. A batch 
+     * should be brought back when the log is reopened.
+     */
+    @Test
+    public void testWriteAllThenReopen() throws IOException {
+        Map<String, byte[]> records = new TreeMap<>();
+        records.put("PersProgempl1", bytesOf("Hank Hill"));
+        records.put("PersProgempl2", bytesOf("Buck Strickland"));
+        records.put("PersProgempl3", bytesOf("Keiko Yamada"));
+        this.store.writeAll(records);
+        this.store.close();
+        this.store = new LogStructuredRecordStore(this.logFile);
+        assertEquals(new ArrayList<>(records.keySet()), 
+                this.store.keys("PersProgempl"));
+        assertArrayEquals(bytesOf("Keiko Yamada"), 
+                this.store.read("PersProgempl3"));
+    }
+    
+    /**
+     * Test of the LogStructuredRecordStore constructor. An entry cut short by 
+     * a crash should be dropped, and the entries before it kept.
+     */
+    @Test
+    public void testRecoverFromTornWrite() throws IOException {
+        this.store.write("PersProgempl1", bytesOf("Hank Hill"));
+        long goodLength = ((LogStructuredRecordStore) this.store)
+                .getLogLength();
+        this.store.write("PersProgempl2", bytesOf("Buck Strickland"));
+        this.store.close();
+        try (RandomAccessFile raf = new RandomAccessFile(this.logFile, "rw")) {
+            raf.setLength(raf.length() - 3);
+        }
+        LogStructuredRecordStore reopened 
+                = new LogStructuredRecordStore(this.logFile);
+        this.store = reopened;
+        assertArrayEquals(bytesOf("Hank Hill"), reopened.read("PersProgempl1"));
+        assert !reopened.contains("PersProgempl2") : "Torn entry dropped";
+        assertEquals(goodLength, reopened.getLogLength());
+        assertEquals(goodLength, this.logFile.length());
+    }
+    
+    /**
+     * Test of compact method, of class LogStructuredRecordStore.
+     */
+    @Test
+    public void testCompact() throws IOException {
+        System.out.println("compact");
+        LogStructuredRecordStore logStore 
+                = (LogStructuredRecordStore) this.store;
+        for (int i = 0; i < 100; i++) {
+            logStore.write("PersProgcard1", bytesOf("Version " + i));
+        }
+        logStore.write("PersProgcard2", bytesOf("Other card"));
+        logStore.delete("PersProgcard2");
+        long lengthBefore = logStore.getLogLength();
+        logStore.compact();
+        long lengthAfter = logStore.getLogLength();
+        String msg = "Log should shrink from " + lengthBefore + " bytes";
+        assert lengthAfter < lengthBefore / 50 : msg;
+        assertArrayEquals(bytesOf("Version 99"), 
+                logStore.read("PersProgcard1"));
+        logStore.write("PersProgcard3", bytesOf("After compaction"));
+        logStore.close();
+        this.store = new LogStructuredRecordStore(this.logFile);
+        assertArrayEquals(bytesOf("Version 99"), 
+                this.store.read("PersProgcard1"));
+        assertArrayEquals(bytesOf("After compaction"), 
+                this.store.read("PersProgcard3"));
+        assertEquals(2, this.store.keys("").size());
+    }
+    
+    /**
+     * Another test of compact method, of class LogStructuredRecordStore. If 
+     * the new log can't be written, the store should go on working with the 
+     * old log.
+     */
+    @Test
+    public void testCompactFailureLeavesStoreUsable() throws IOException {
+        LogStructuredRecordStore logStore 
+                = (LogStructuredRecordStore) this.store;
+        logStore.write("PersProgcard1", bytesOf("Version 1"));
+        File blocker = new File(this.logFile.getPath() + ".compact");
+        boolean madeBlocker = blocker.mkdir();
+        assertTrue("Should have made " + blocker, madeBlocker);
+        File inside = new File(blocker, "placeholder");
+        boolean madeInside = inside.createNewFile();
+        assertTrue("Should have made " + inside, madeInside);
+        try {
+            logStore.compact();
+            fail("Compaction should have failed with " + blocker 
+                    + " in the way");
+        } catch (IOException ioe) {
+            System.out.println("Compaction with " + blocker.getName() 
+                    + " in the way correctly caused " 
+                    + ioe.getClass().getName());
+        } finally {
+            inside.delete();
+            blocker.delete();
+        }
+        assertArrayEquals(bytesOf("Version 1"), 
+                logStore.read("PersProgcard1"));
+        logStore.write("PersProgcard2", bytesOf("After failure"));
+        logStore.compact();
+        assertArrayEquals(bytesOf("After failure"), 
+                logStore.read("PersProgcard2"));
+    }
+    
+    /**
+     * Another test of compact method, of class LogStructuredRecordStore. 
+     * While the log is being compacted over and over, a record that is in the 
+     * store the whole time should never seem to be missing.
+     */
+    @Test
+    public void testContainsDuringCompaction() throws Exception {
+        LogStructuredRecordStore logStore 
+                = (LogStructuredRecordStore) this.store;
+        for (int i = 0; i < 200; i++) {
+            logStore.write("PersProgcard" + i, bytesOf("Card " + i));
+        }
+        AtomicBoolean done = new AtomicBoolean(false);
+        AtomicInteger misses = new AtomicInteger(0);
+        Thread checker = new Thread(() -> {
+            while (!done.get()) {
+                if (!logStore.contains("PersProgcard100") 
+                        || logStore.keys("PersProgcard").size() != 200) {
+                    misses.incrementAndGet();
+                }
+            }
+        });
+        checker.start();
+        for (int i = 0; i < 50; i++) {
+            logStore.compact();
+        }
+        done.set(true);
+        checker.join();
+        assertEquals(0, misses.get());
+    }
+    
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import entities.Employee;
+import entities.idnumbers.SocialSecurityNumber;
+import payroll.TimeCard;
+import payroll.TimeCardMaker;
+import time.DateTimeRange;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the OffHeapCardStore class and the TimeCardView class.
+ * @author Alonso del Arte
+ */
+public class OffHeapCardStoreTest {
+    
+    private static final Employee EMPLOYEE 
+            = new Employee("John Lopez", new SocialSecurityNumber(750101729));
+    
+    /**
+     * Monday, October 12, 2026 at 12:00 a.m.
+     */
+    private static final LocalDateTime WEEK_START 
+            = LocalDateTime.of(2026, 10, 12, 0, 0);
+    
+    private static TimeCard makeCard(Employee employee, LocalDateTime start) {
+        TimeCard card = TimeCardMaker.makeCard(employee, start);
+        for (int day = 0; day < 5; day++) {
+            LocalDateTime morning = start.plusDays(day).plusHours(8);
+            card.addTimeBlock(new DateTimeRange(morning, 
+                    morning.plusHours(4)));
+            card.addTimeBlock(new DateTimeRange(morning.plusHours(5), 
+                    morning.plusHours(9)));
+        }
+        return card;
+    }
+    
+    /**
+     * Test of put method, of class OffHeapCardStore.
+     */
+    @Test
+    public void testPut() throws IOException {
+        System.out.println("put");
+        OffHeapCardStore store = new OffHeapCardStore(4096);
+        TimeCard card = makeCard(EMPLOYEE, WEEK_START);
+        card.markVerified();
+        TimeCardView view = store.put(card);
+        assertEquals(EMPLOYEE, view.getEmployee());
+        assertEquals(WEEK_START, view.getStartTime());
+        assertEquals(card.getEndTime(), view.getEndTime());
+        assertEquals(10, view.getBlockCount());
+        assertEquals(card.getMinutesSoFar(), view.getMinutesSoFar());
+        assert view.isActive() : "Card should be active";
+        assert view.hasBeenVerified() : "Card should be verified";
+        assert !view.hasBeenPaid() : "Card should not be paid";
+        TimeCard copy = view.toTimeCard();
+        assertEquals(card, copy);
+        assertEquals(card.getTimeBlocks(), copy.getTimeBlocks());
+        assert copy.hasBeenVerified() : "Copy should be verified";
+    }
+    
+    /**
+     * Another test of put method, of class OffHeapCardStore. Putting a card 
+     * for the same employee and period again should overwrite it.
+     */
+    @Test
+    public void testPutOverwrites() throws IOException {
+        OffHeapCardStore store = new OffHeapCardStore(4096);
+        store.put(new TimeCard(EMPLOYEE, new DateTimeRange(WEEK_START, 
+                WEEK_START.plusDays(7).minusMinutes(1))));
+        store.put(makeCard(EMPLOYEE, WEEK_START));
+        assertEquals(1, store.getCardCount());
+        assertEquals(10, store.find(EMPLOYEE, WEEK_START).getBlockCount());
+    }
+    
+    /**
+     * Test of find method, of class OffHeapCardStore.
+     */
+    @Test
+    public void testFind() throws IOException {
+        System.out.println("find");
+        OffHeapCardStore store = new OffHeapCardStore(64);
+        int employeeCount = 300;
+        for (int i = 0; i < employeeCount; i++) {
+            Employee employee = TimeCardMaker.makeEmployee(i);
+            for (int week = 0; week < 10; week++) {
+                store.put(makeCard(employee, WEEK_START.plusWeeks(week)));
+            }
+        }
+        assertEquals(employeeCount * 10, store.getCardCount());
+        Employee employee = TimeCardMaker.makeEmployee(123);
+        TimeCardView view = store.find(employee, WEEK_START.plusWeeks(7));
+        assertEquals(employee.getTIN(), view.getEmployee().getTIN());
+        assertEquals(WEEK_START.plusWeeks(7), view.getStartTime());
+        assertNull(store.find(employee, WEEK_START.plusWeeks(10)));
+        assertNull(store.find(new Employee("Hank Hill", 
+                new SocialSecurityNumber(750304850)), WEEK_START));
+    }
+    
+    /**
+     * Test of addTimeBlock method, of class TimeCardView. Blocks should be 
+     * kept in order, and the card should be moved when it runs out of room.
+     */
+    @Test
+    public void testAddTimeBlock() throws IOException {
+        System.out.println("addTimeBlock");
+        OffHeapCardStore store = new OffHeapCardStore(4096);
+        TimeCardView view = store.put(new TimeCard(EMPLOYEE, 
+                new DateTimeRange(WEEK_START, 
+                        WEEK_START.plusDays(7).minusMinutes(1))));
+        int blockCount = 3 * OffHeapCardStore.INITIAL_BLOCK_CAPACITY;
+        for (int i = blockCount - 1; i >= 0; i--) {
+            LocalDateTime start = WEEK_START.plusHours(2 * i);
+            view.addTimeBlock(new DateTimeRange(start, start.plusHours(1)));
+        }
+        assertEquals(blockCount, view.getBlockCount());
+        for (int i = 1; i < blockCount; i++) {
+            String msg = "Block " + i + " should start after block " + (i - 1);
+            assert view.getBlockStartSeconds(i) 
+                    > view.getBlockStartSeconds(i - 1) : msg;
+        }
+        assertEquals(blockCount * 60, view.getMinutesSoFar());
+        assert store.getWastedBytes() > 0 : "Card should have been moved";
+        assertEquals(blockCount, store.find(EMPLOYEE, WEEK_START)
+                .getBlockCount());
+    }
+    
+    /**
+     * Another test of addTimeBlock method, of class TimeCardView. A block 
+     * outside the pay period should be rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddTimeBlockOutsidePeriod() throws IOException {
+        OffHeapCardStore store = new OffHeapCardStore(4096);
+        TimeCardView view = store.put(makeCard(EMPLOYEE, WEEK_START));
+        LocalDateTime start = WEEK_START.plusWeeks(2);
+        view.addTimeBlock(new DateTimeRange(start, start.plusHours(4)));
+    }
+    
+    /**
+     * Test of markPaid method, of class TimeCardView.
+     */
+    @Test
+    public void testMarkPaid() throws IOException {
+        System.out.println("markPaid");
+        OffHeapCardStore store = new OffHeapCardStore(4096);
+        TimeCardView view = store.put(makeCard(EMPLOYEE, WEEK_START));
+        try {
+            view.markPaid();
+            fail("Should not have marked unverified card paid");
+        } catch (IllegalStateException ise) {
+            System.out.println("\"" + ise.getMessage() + "\"");
+        }
+        view.markVerified();
+        view.markPaid();
+        assert view.hasBeenPaid() : "Card should be paid";
+        assert !view.isActive() : "Paid card should not be active";
+        TimeCard copy = view.toTimeCard();
+        assert copy.hasBeenPaid() : "Copy should be paid";
+        assert !copy.isActive() : "Copy should not be active";
+    }
+    
+    /**
+     * Test of punchIn and punchOut methods, of class TimeCardView.
+     */
+    @Test
+    public void testPunchInPunchOut() throws IOException {
+        System.out.println("punchIn, punchOut");
+        LocalDateTime start = LocalDateTime.now().minusDays(1);
+        OffHeapCardStore store = new OffHeapCardStore(4096);
+        TimeCardView view = store.put(new TimeCard(EMPLOYEE, 
+                new DateTimeRange(start, start.plusDays(7))));
+        view.punchIn();
+        assert view.isPunchedIn() : "Card should be punched in";
+        assert view.toTimeCard().isPunchedIn() 
+                : "Copy should be punched in";
+        view.punchOut();
+        assert !view.isPunchedIn() : "Card should not be punched in";
+        assertEquals(1, view.getBlockCount());
+    }
+    
+    /**
+     * Test of loadFrom and saveTo methods, of class OffHeapCardStore, with a 
+     * store backed by a file.
+     */
+    @Test
+    public void testLoadFromAndSaveToWithMappedFile() throws Exception {
+        System.out.println("loadFrom, saveTo");
+        RecordStore recordStore = new InMemoryRecordStore();
+        for (int week = 0; week < 4; week++) {
+            TimeCardsProcessor.putCard(recordStore, 
+                    makeCard(EMPLOYEE, WEEK_START.plusWeeks(week)));
+        }
+        File file = File.createTempFile("PersProgcards", ".map");
+        file.deleteOnExit();
+        try (OffHeapCardStore store = new OffHeapCardStore(file, 256)) {
+            assertEquals(4, store.loadFrom(recordStore));
+            LocalDateTime start = WEEK_START.plusWeeks(2).plusDays(5);
+            store.find(EMPLOYEE, WEEK_START.plusWeeks(2))
+                    .addTimeBlock(new DateTimeRange(start, 
+                            start.plusHours(3)));
+            RecordStore copy = new InMemoryRecordStore();
+            store.saveTo(copy);
+            TimeCard card = TimeCardsProcessor.getCard(copy, EMPLOYEE, 
+                    WEEK_START.plusWeeks(2));
+            assertEquals(11, card.getTimeBlocks().size());
+            assertEquals(4, TimeCardsProcessor.getCards(copy).size());
+        }
+    }
+    
+    /**
+     * Changing different flags of the same card from two threads at once 
+     * should not lose either thread's changes. One thread keeps marking the 
+     * card inactive and active again while the other punches in and checks 
+     * right away that the punch in took.
+     */
+    @Test
+    public void testConcurrentFlagChanges() throws Exception {
+        OffHeapCardStore store = new OffHeapCardStore(4096);
+        TimeCardView view = store.put(makeCard(EMPLOYEE, WEEK_START));
+        int cardNumber = view.getCardNumber();
+        AtomicBoolean done = new AtomicBoolean(false);
+        Thread toggler = new Thread(() -> {
+            while (!done.get()) {
+                view.markInactive();
+                view.markActive();
+            }
+        });
+        toggler.start();
+        int lostCount = 0;
+        for (int i = 0; i < 200000; i++) {
+            view.punchIn();
+            if (!view.isPunchedIn()) {
+                lostCount++;
+            }
+            store.updateFlags(cardNumber, 0, OffHeapCardStore.PUNCHED_IN_FLAG);
+        }
+        done.set(true);
+        toggler.join();
+        assertEquals("Lost punch ins", 0, lostCount);
+        assert view.isActive() : "Card should have ended up active";
+    }
+    
+}
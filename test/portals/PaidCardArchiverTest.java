@@ -0,0 +1,256 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import entities.Employee;
+import entities.idnumbers.SocialSecurityNumber;
+import payroll.TimeCard;
+import payroll.TimeCardMaker;
+import time.DateTimeRange;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the PaidCardArchiver class.
+ * @author Alonso del Arte
+ */
+public class PaidCardArchiverTest {
+    
+    private static final Employee FIRST_EMPLOYEE 
+            = new Employee("John Lopez", new SocialSecurityNumber(750101729));
+    
+    private static final Employee SECOND_EMPLOYEE 
+            = new Employee("Hank Hill", new SocialSecurityNumber(750304850));
+    
+    private static final LocalDateTime EARLIER_PERIOD_START;
+    
+    private static final LocalDateTime LATER_PERIOD_START;
+    
+    static {
+        LocalDate monday = LocalDate.now().with(DayOfWeek.MONDAY);
+        LATER_PERIOD_START = monday.minusWeeks(2).atTime(LocalTime.MIDNIGHT);
+        EARLIER_PERIOD_START = LATER_PERIOD_START.minusWeeks(1);
+    }
+    
+    private static TimeCard makeCard(Employee employee, LocalDateTime start) {
+        TimeCard card = TimeCardMaker.makeCard(employee, start);
+        LocalDateTime blockStart = start.plusHours(8);
+        card.addTimeBlock(new DateTimeRange(blockStart, 
+                blockStart.plusHours(4)));
+        return card;
+    }
+    
+    private static void writeCard(TimeCard card) throws IOException {
+        TimeCardsProcessor.putCard(DataDirectoryInitializer.getDefaultStore(), 
+                card);
+    }
+    
+    private static TimeCard makePaidCard(Employee employee, 
+            LocalDateTime start) {
+        TimeCard card = makeCard(employee, start);
+        card.markVerified();
+        card.markPaid();
+        return card;
+    }
+    
+    @Before
+    public void setUp() throws IOException {
+        File dir = Files.createTempDirectory("PersProgTest").toFile();
+        dir.deleteOnExit();
+        DataDirectoryInitializer.setDir(dir);
+    }
+    
+    /**
+     * Test of archivePaidCards method, of class PaidCardArchiver.
+     */
+    @Test
+    public void testArchivePaidCards() throws Exception {
+        System.out.println("archivePaidCards");
+        TimeCard unpaidCard = makeCard(FIRST_EMPLOYEE, LATER_PERIOD_START);
+        writeCard(unpaidCard);
+        writeCard(makePaidCard(FIRST_EMPLOYEE, EARLIER_PERIOD_START));
+        writeCard(makePaidCard(SECOND_EMPLOYEE, EARLIER_PERIOD_START));
+        writeCard(makePaidCard(SECOND_EMPLOYEE, LATER_PERIOD_START));
+        int expected = 3;
+        int actual = PaidCardArchiver.archivePaidCards();
+        assertEquals(expected, actual);
+        ArrayList<TimeCard> hotCards = TimeCardsProcessor.getCards();
+        assertEquals(1, hotCards.size());
+        assertEquals(unpaidCard, hotCards.get(0));
+        RecordStore store = DataDirectoryInitializer.getDefaultStore();
+        assertEquals(2, store.keys(RecordKeys.ARCHIVE_PREFIX).size());
+    }
+    
+    /**
+     * Test of archivePaidCards method, of class PaidCardArchiver. Archiving a 
+     * second time should add to the existing archive for the period rather 
+     * than replace it.
+     */
+    @Test
+    public void testArchivePaidCardsTwice() throws Exception {
+        writeCard(makePaidCard(FIRST_EMPLOYEE, EARLIER_PERIOD_START));
+        PaidCardArchiver.archivePaidCards();
+        writeCard(makePaidCard(SECOND_EMPLOYEE, EARLIER_PERIOD_START));
+        PaidCardArchiver.archivePaidCards();
+        ArrayList<TimeCard> cards 
+                = PaidCardArchiver.getArchivedCards(EARLIER_PERIOD_START);
+        assertEquals(2, cards.size());
+        assertEquals(0, PaidCardArchiver.archivePaidCards());
+    }
+    
+    /**
+     * Another test of archivePaidCards method, of class PaidCardArchiver. 
+     * Cards archived later should go in a new segment, leaving the segment 
+     * already written as it was, and a card already in a segment, as from a 
+     * run cut short before the card was deleted, should not be archived 
+     * again.
+     */
+    @Test
+    public void testArchivePaidCardsAppendsSegment() throws Exception {
+        RecordStore store = DataDirectoryInitializer.getDefaultStore();
+        TimeCard firstCard = makePaidCard(FIRST_EMPLOYEE, 
+                EARLIER_PERIOD_START);
+        writeCard(firstCard);
+        PaidCardArchiver.archivePaidCards(store);
+        String firstKey = RecordKeys.archiveKey(EARLIER_PERIOD_START);
+        byte[] firstSegment = store.read(firstKey);
+        writeCard(firstCard);
+        writeCard(makePaidCard(SECOND_EMPLOYEE, EARLIER_PERIOD_START));
+        assertEquals(2, PaidCardArchiver.archivePaidCards(store));
+        assertArrayEquals(firstSegment, store.read(firstKey));
+        String secondKey = RecordKeys.archiveKey(EARLIER_PERIOD_START, 1);
+        assertEquals(Arrays.asList(firstKey, secondKey), 
+                store.keys(RecordKeys.ARCHIVE_PREFIX));
+        assertEquals(1, PaidCardArchiver.archivedCardKeys(store
+                .read(secondKey)).size());
+        assertEquals(2, PaidCardArchiver
+                .getArchivedCards(store, EARLIER_PERIOD_START).size());
+    }
+    
+    /**
+     * Another test of archivePaidCards method, of class PaidCardArchiver. A 
+     * card punched and paid through the {@link CardEventJournal} should be 
+     * archived as of its last event, and its stream of events deleted.
+     */
+    @Test
+    public void testArchivePaidCardsFromJournal() throws Exception {
+        RecordStore store = DataDirectoryInitializer.getDefaultStore();
+        CardEventJournal journal = new CardEventJournal(store);
+        TimeCard card = makeCard(FIRST_EMPLOYEE, EARLIER_PERIOD_START);
+        journal.create(card);
+        LocalDateTime blockStart = EARLIER_PERIOD_START.plusDays(1)
+                .plusHours(8);
+        journal.adjust(card, new DateTimeRange(blockStart, 
+                blockStart.plusHours(2)));
+        journal.markVerified(card);
+        journal.markPaid(card);
+        assertEquals(1, PaidCardArchiver.archivePaidCards(store));
+        assert store.keys(RecordKeys.EVENT_PREFIX).isEmpty() 
+                : "Stream of archived card should be deleted";
+        assert store.keys(RecordKeys.CARD_PREFIX).isEmpty() 
+                : "Archived card should be deleted";
+        ArrayList<TimeCard> cards 
+                = PaidCardArchiver.getArchivedCards(store, FIRST_EMPLOYEE);
+        assertEquals(1, cards.size());
+        assertEquals(360L, cards.get(0).getMinutesSoFar());
+    }
+    
+    /**
+     * Test of getArchivedCards method, of class PaidCardArchiver.
+     */
+    @Test
+    public void testGetArchivedCards() throws Exception {
+        System.out.println("getArchivedCards");
+        TimeCard earlierCard = makePaidCard(SECOND_EMPLOYEE, 
+                EARLIER_PERIOD_START);
+        TimeCard laterCard = makePaidCard(SECOND_EMPLOYEE, LATER_PERIOD_START);
+        writeCard(laterCard);
+        writeCard(earlierCard);
+        PaidCardArchiver.archivePaidCards();
+        ArrayList<TimeCard> cards = PaidCardArchiver.getArchivedCards();
+        assertEquals(2, cards.size());
+        assertEquals(earlierCard, cards.get(0));
+        assertEquals(laterCard, cards.get(1));
+        TimeCard card = cards.get(0);
+        assert card.hasBeenPaid() : "Archived card should be marked paid";
+        assertEquals(earlierCard.getMinutesSoFar(), card.getMinutesSoFar());
+    }
+    
+    /**
+     * Test of getArchivedCards method, of class PaidCardArchiver, for a given 
+     * pay period.
+     */
+    @Test
+    public void testGetArchivedCardsForPeriod() throws Exception {
+        writeCard(makePaidCard(FIRST_EMPLOYEE, EARLIER_PERIOD_START));
+        writeCard(makePaidCard(SECOND_EMPLOYEE, EARLIER_PERIOD_START));
+        writeCard(makePaidCard(SECOND_EMPLOYEE, LATER_PERIOD_START));
+        PaidCardArchiver.archivePaidCards();
+        ArrayList<TimeCard> cards 
+                = PaidCardArchiver.getArchivedCards(LATER_PERIOD_START);
+        assertEquals(1, cards.size());
+        assertEquals(SECOND_EMPLOYEE, cards.get(0).getEmployee());
+        LocalDateTime unarchivedStart = LATER_PERIOD_START.plusWeeks(1);
+        cards = PaidCardArchiver.getArchivedCards(unarchivedStart);
+        assert cards.isEmpty() : "No cards archived for " + unarchivedStart;
+    }
+    
+    /**
+     * Test of getArchivedCards method, of class PaidCardArchiver, for a given 
+     * employee.
+     */
+    @Test
+    public void testGetArchivedCardsForEmployee() throws Exception {
+        writeCard(makePaidCard(FIRST_EMPLOYEE, EARLIER_PERIOD_START));
+        writeCard(makePaidCard(SECOND_EMPLOYEE, EARLIER_PERIOD_START));
+        writeCard(makePaidCard(FIRST_EMPLOYEE, LATER_PERIOD_START));
+        PaidCardArchiver.archivePaidCards();
+        ArrayList<TimeCard> cards 
+                = PaidCardArchiver.getArchivedCards(FIRST_EMPLOYEE);
+        assertEquals(2, cards.size());
+        cards.forEach((card) -> {
+            assertEquals(FIRST_EMPLOYEE, card.getEmployee());
+        });
+    }
+    
+    /**
+     * Test of getCards method, of class TimeCardsProcessor, asking for the 
+     * history as well.
+     */
+    @Test
+    public void testGetCardsIncludingHistory() throws Exception {
+        writeCard(makeCard(FIRST_EMPLOYEE, LATER_PERIOD_START));
+        writeCard(makePaidCard(FIRST_EMPLOYEE, EARLIER_PERIOD_START));
+        PaidCardArchiver.archivePaidCards();
+        assertEquals(1, TimeCardsProcessor.getCards(false).size());
+        assertEquals(2, TimeCardsProcessor.getCards(true).size());
+    }
+    
+}
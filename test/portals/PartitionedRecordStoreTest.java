@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import entities.Employee;
+import payroll.TimeCard;
+import payroll.TimeCardMaker;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the PartitionedRecordStore class. Besides the tests of the 
+ * partitioning itself, the store is held to the same contract as the other 
+ * stores.
+ * @author Alonso del Arte
+ */
+public class PartitionedRecordStoreTest extends RecordStoreTest {
+    
+    private static final int PARTITION_COUNT = 3;
+    
+    /**
+     * Monday, October 12, 2026 at 12:00 a.m.
+     */
+    private static final LocalDateTime WEEK_START 
+            = LocalDateTime.of(2026, 10, 12, 0, 0);
+    
+    @Override
+    protected RecordStore makeStore() {
+        List<RecordStore> partitions = new ArrayList<>();
+        for (int i = 0; i < PARTITION_COUNT; i++) {
+            partitions.add(new InMemoryRecordStore());
+        }
+        return new PartitionedRecordStore(partitions);
+    }
+    
+    private PartitionedRecordStore partitionedStore() {
+        return (PartitionedRecordStore) this.store;
+    }
+    
+    private static TimeCard makeCard(Employee employee, int weeksAgo) {
+        return TimeCardMaker.makeCard(employee, 
+                WEEK_START.minusWeeks(weeksAgo));
+    }
+    
+    /**
+     * Test of partitionFor method, of class PartitionedRecordStore. An 
+     * employee's record, the employee's cards and the period index entries 
+     * for those cards should all be in the same partition.
+     */
+    @Test
+    public void testPartitionForKeepsEmployeeTogether() {
+        System.out.println("partitionFor");
+        PartitionedRecordStore partitioned = this.partitionedStore();
+        for (int n = 0; n < 50; n++) {
+            Employee employee = TimeCardMaker.makeEmployee(n);
+            int expected = partitioned.partitionFor(RecordKeys
+                    .employeeKey(employee));
+            for (int weeksAgo = 0; weeksAgo < 4; weeksAgo++) {
+                TimeCard card = makeCard(employee, weeksAgo);
+                String msg = "Card for " + employee.getTIN() + " " 
+                        + weeksAgo + " weeks ago";
+                assertEquals(msg, expected, 
+                        partitioned.partitionFor(RecordKeys.cardKey(card)));
+                assertEquals(msg, expected, partitioned.partitionFor(
+                        RecordKeys.periodIndexKey(card)));
+            }
+        }
+    }
+    
+    /**
+     * Another test of partitionFor method, of class PartitionedRecordStore. 
+     * Employees should be spread over all the partitions.
+     */
+    @Test
+    public void testPartitionForSpreadsEmployees() {
+        PartitionedRecordStore partitioned = this.partitionedStore();
+        int[] counts = new int[partitioned.getPartitionCount()];
+        int total = 300;
+        for (int n = 0; n < total; n++) {
+            counts[partitioned.partitionFor(RecordKeys
+                    .employeeKey(TimeCardMaker.makeEmployee(n)))]++;
+        }
+        int expected = total / counts.length;
+        for (int i = 0; i < counts.length; i++) {
+            String msg = "Partition " + i + " has " + counts[i] 
+                    + " of " + total + " employees";
+            assert counts[i] > expected / 2 && counts[i] < expected * 2 : msg;
+        }
+    }
+    
+    /**
+     * Test of write method, of class PartitionedRecordStore. Each record 
+     * should be written to one partition only, the one it belongs to.
+     */
+    @Test
+    public void testWriteGoesToOnePartition() throws IOException {
+        PartitionedRecordStore partitioned = this.partitionedStore();
+        Employee employee = TimeCardMaker.makeEmployee(1729);
+        TimeCard card = makeCard(employee, 0);
+        EmployeeRecordsProcessor.addRecord(partitioned, employee);
+        TimeCardsProcessor.putCard(partitioned, card);
+        String employeeKey = RecordKeys.employeeKey(employee);
+        String cardKey = RecordKeys.cardKey(card);
+        int owner = partitioned.partitionFor(employeeKey);
+        for (int i = 0; i < partitioned.getPartitionCount(); i++) {
+            RecordStore partition = partitioned.getPartition(i);
+            assertEquals(i == owner, partition.contains(employeeKey));
+            assertEquals(i == owner, partition.contains(cardKey));
+        }
+    }
+    
+    /**
+     * Test of getRecords and getCards, of classes EmployeeRecordsProcessor and 
+     * TimeCardsProcessor, through a partitioned store. Records from all the 
+     * partitions should be found.
+     */
+    @Test
+    public void testProcessorsSeeAllPartitions() throws IOException, 
+            ClassNotFoundException {
+        PartitionedRecordStore partitioned = this.partitionedStore();
+        int total = 30;
+        for (int n = 0; n < total; n++) {
+            Employee employee = TimeCardMaker.makeEmployee(n);
+            EmployeeRecordsProcessor.addRecord(partitioned, employee);
+            TimeCardsProcessor.putCard(partitioned, makeCard(employee, 0));
+        }
+        for (int i = 0; i < partitioned.getPartitionCount(); i++) {
+            assert !partitioned.getPartition(i)
+                    .keys(RecordKeys.EMPLOYEE_PREFIX).isEmpty() 
+                    : "Partition " + i + " should have some employees";
+        }
+        assertEquals(total, 
+                EmployeeRecordsProcessor.getRecords(partitioned).size());
+        assertEquals(total, TimeCardsProcessor.getCards(partitioned).size());
+        assertEquals(total, new PeriodIndex(partitioned)
+                .getCards(WEEK_START).size());
+    }
+    
+    /**
+     * Test of ofDirectories method, of class PartitionedRecordStore. Records 
+     * written through one partitioned store should be found by another 
+     * opened later on the same directories.
+     */
+    @Test
+    public void testOfDirectories() throws IOException, 
+            ClassNotFoundException {
+        System.out.println("ofDirectories");
+        List<File> dirs = new ArrayList<>();
+        for (int i = 0; i < PARTITION_COUNT; i++) {
+            File dir = Files.createTempDirectory("PersProgTest").toFile();
+            dir.deleteOnExit();
+            dirs.add(dir);
+        }
+        Employee employee = TimeCardMaker.makeEmployee(1729);
+        try (PartitionedRecordStore first 
+                = PartitionedRecordStore.ofDirectories(dirs)) {
+            EmployeeRecordsProcessor.addRecord(first, employee);
+        }
+        try (PartitionedRecordStore second 
+                = PartitionedRecordStore.ofDirectories(dirs)) {
+            assertEquals(employee.getFirstName(), EmployeeRecordsProcessor
+                    .getRecord(second, employee.getTIN()).getFirstName());
+            assertEquals(Arrays.asList(RecordKeys.employeeKey(employee)), 
+                    second.keys(RecordKeys.EMPLOYEE_PREFIX));
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorRejectsNoPartitions() {
+        RecordStore badStore = new PartitionedRecordStore(new ArrayList<>());
+        System.out.println("Should not have created store " + badStore);
+    }
+    
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import entities.Employee;
+import entities.idnumbers.SocialSecurityNumber;
+import payroll.TimeCard;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import static payroll.TimeCardMaker.makeCard;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the PeriodIndex class.
+ * @author Alonso del Arte
+ */
+public class PeriodIndexTest {
+    
+    private static final Employee FIRST_EMPLOYEE 
+            = new Employee("John Lopez", new SocialSecurityNumber(750101729));
+    
+    private static final Employee SECOND_EMPLOYEE 
+            = new Employee("Hank Hill", new SocialSecurityNumber(750304850));
+    
+    /**
+     * Monday, October 12, 2026 at 12:00 a.m.
+     */
+    private static final LocalDateTime WEEK_START 
+            = LocalDateTime.of(2026, 10, 12, 0, 0);
+    
+    private RecordStore store;
+    
+    @Before
+    public void setUp() throws IOException {
+        this.store = new InMemoryRecordStore();
+        for (int week = -2; week < 3; week++) {
+            LocalDateTime start = WEEK_START.plusWeeks(week);
+            TimeCardsProcessor.putCard(this.store, 
+                    makeCard(FIRST_EMPLOYEE, start));
+            TimeCardsProcessor.putCard(this.store, 
+                    makeCard(SECOND_EMPLOYEE, start));
+        }
+    }
+    
+    /**
+     * Test of getCards method, of class PeriodIndex.
+     */
+    @Test
+    public void testGetCards() throws Exception {
+        System.out.println("getCards");
+        PeriodIndex index = new PeriodIndex(this.store);
+        ArrayList<TimeCard> cards = index.getCards(WEEK_START);
+        assertEquals(2, cards.size());
+        for (TimeCard card : cards) {
+            assertEquals(WEEK_START, card.getStartTime());
+        }
+    }
+    
+    /**
+     * Test of getCards method, of class PeriodIndex, for a range of periods.
+     */
+    @Test
+    public void testGetCardsInRange() throws Exception {
+        PeriodIndex index = new PeriodIndex(this.store);
+        LocalDateTime from = WEEK_START.minusWeeks(1);
+        LocalDateTime to = WEEK_START.plusWeeks(1);
+        ArrayList<TimeCard> cards = index.getCards(from, to);
+        assertEquals(4, cards.size());
+        assertEquals(from, cards.get(0).getStartTime());
+        assertEquals(WEEK_START, cards.get(3).getStartTime());
+    }
+    
+    @Test
+    public void testGetCardsForUnindexedPeriod() throws Exception {
+        PeriodIndex index = new PeriodIndex(this.store);
+        LocalDateTime start = WEEK_START.plusYears(1);
+        assert index.getCards(start).isEmpty() : "Nothing indexed for " + start;
+    }
+    
+    /**
+     * Test of add method, of class PeriodIndex. Putting back the same card 
+     * should not add a second index entry.
+     */
+    @Test
+    public void testAddIsIdempotent() throws Exception {
+        System.out.println("add");
+        TimeCard card = makeCard(FIRST_EMPLOYEE, WEEK_START);
+        TimeCardsProcessor.putCard(this.store, card);
+        TimeCardsProcessor.putCard(this.store, card);
+        List<String> keys = new PeriodIndex(this.store).getCardKeys(WEEK_START);
+        assertEquals(2, keys.size());
+    }
+    
+    /**
+     * Test of remove method, of class PeriodIndex.
+     */
+    @Test
+    public void testRemove() throws Exception {
+        System.out.println("remove");
+        PeriodIndex index = new PeriodIndex(this.store);
+        index.remove(makeCard(SECOND_EMPLOYEE, WEEK_START));
+        ArrayList<TimeCard> cards = index.getCards(WEEK_START);
+        assertEquals(1, cards.size());
+        assertEquals(FIRST_EMPLOYEE, cards.get(0).getEmployee());
+    }
+    
+    /**
+     * Test of rebuild method, of class PeriodIndex.
+     */
+    @Test
+    public void testRebuild() throws Exception {
+        System.out.println("rebuild");
+        for (String key : this.store.keys(RecordKeys.PERIOD_INDEX_PREFIX)) {
+            this.store.delete(key);
+        }
+        this.store.write(RecordKeys.periodIndexKey(makeCard(FIRST_EMPLOYEE, 
+                WEEK_START.plusYears(1))), new byte[0]);
+        PeriodIndex index = new PeriodIndex(this.store);
+        assertEquals(10, index.rebuild());
+        assertEquals(2, index.getCards(WEEK_START).size());
+        assertEquals(10, this.store.keys(RecordKeys.PERIOD_INDEX_PREFIX)
+                .size());
+    }
+    
+    /**
+     * Test of archivePaidCards method, of class PaidCardArchiver. The archived 
+     * cards should drop out of the period index.
+     */
+    @Test
+    public void testArchivedCardsLeaveIndex() throws Exception {
+        LocalDateTime start = WEEK_START.minusWeeks(2);
+        TimeCard card = makeCard(FIRST_EMPLOYEE, start);
+        card.markVerified();
+        card.markPaid();
+        TimeCardsProcessor.putCard(this.store, card);
+        assertEquals(1, PaidCardArchiver.archivePaidCards(this.store));
+        ArrayList<TimeCard> cards = new PeriodIndex(this.store).getCards(start);
+        assertEquals(1, cards.size());
+        assertEquals(SECOND_EMPLOYEE, cards.get(0).getEmployee());
+    }
+    
+}
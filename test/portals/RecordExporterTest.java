@@ -0,0 +1,232 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import entities.Employee;
+import entities.idnumbers.SocialSecurityNumber;
+import payroll.TimeCard;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.IllegalBlockingModeException;
+import java.nio.channels.Pipe;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import static payroll.TimeCardMaker.makeCard;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the RecordExporter class.
+ * @author Alonso del Arte
+ */
+public class RecordExporterTest {
+    
+    private static final Employee FIRST_EMPLOYEE 
+            = new Employee("John Lopez", new SocialSecurityNumber(750101729));
+    
+    private static final Employee SECOND_EMPLOYEE 
+            = new Employee("Hank Hill", new SocialSecurityNumber(750304850));
+    
+    /**
+     * Monday, October 12, 2026 at 12:00 a.m.
+     */
+    private static final LocalDateTime WEEK_START 
+            = LocalDateTime.of(2026, 10, 12, 0, 0);
+    
+    private static void fill(RecordStore store) throws IOException {
+        EmployeeRecordsProcessor.addRecord(store, FIRST_EMPLOYEE);
+        EmployeeRecordsProcessor.addRecord(store, SECOND_EMPLOYEE);
+        for (int week = 0; week < 3; week++) {
+            LocalDateTime start = WEEK_START.plusWeeks(week);
+            TimeCardsProcessor.putCard(store, makeCard(FIRST_EMPLOYEE, start));
+            TimeCardsProcessor.putCard(store, makeCard(SECOND_EMPLOYEE, 
+                    start));
+        }
+        store.write(RecordKeys.archiveKey(WEEK_START), new byte[5000]);
+    }
+    
+    private static void assertSameRecords(RecordStore expected, 
+            RecordStore actual, List<String> keys) throws IOException {
+        for (String key : keys) {
+            assertArrayEquals("Record " + key, expected.read(key), 
+                    actual.read(key));
+        }
+    }
+    
+    /**
+     * Test of periodKeys method, of class RecordExporter.
+     */
+    @Test
+    public void testPeriodKeys() throws IOException {
+        System.out.println("periodKeys");
+        RecordStore store = new InMemoryRecordStore();
+        fill(store);
+        List<String> expected = Arrays.asList(
+                RecordKeys.archiveKey(WEEK_START), 
+                RecordKeys.cardKey(FIRST_EMPLOYEE, WEEK_START), 
+                RecordKeys.cardKey(SECOND_EMPLOYEE, WEEK_START), 
+                RecordKeys.employeeKey(FIRST_EMPLOYEE), 
+                RecordKeys.employeeKey(SECOND_EMPLOYEE));
+        expected.sort(null);
+        assertEquals(expected, RecordExporter.periodKeys(store, WEEK_START));
+    }
+    
+    /**
+     * Test of exportPeriod method, of class RecordExporter, from a store that 
+     * keeps each record in its own file, to a file.
+     */
+    @Test
+    public void testExportPeriod() throws IOException {
+        System.out.println("exportPeriod");
+        File dir = Files.createTempDirectory("PersProgTest").toFile();
+        RecordStore store = new FilePerRecordStore(dir);
+        fill(store);
+        File file = File.createTempFile("PersProgexport", ".ppex");
+        file.deleteOnExit();
+        int count;
+        try (FileChannel target = FileChannel.open(file.toPath(), 
+                StandardOpenOption.WRITE)) {
+            count = RecordExporter.exportPeriod(store, WEEK_START, target);
+        }
+        assertEquals(5, count);
+        RecordStore copy = new InMemoryRecordStore();
+        try (FileChannel source = FileChannel.open(file.toPath())) {
+            assertEquals(5, RecordExporter.importRecords(source, copy));
+        }
+        List<String> keys = RecordExporter.periodKeys(store, WEEK_START);
+        assertEquals(keys, copy.keys(""));
+        assertSameRecords(store, copy, keys);
+    }
+    
+    /**
+     * Test of exportAll method, of class RecordExporter, from a log-structured 
+     * store.
+     */
+    @Test
+    public void testExportAll() throws IOException {
+        System.out.println("exportAll");
+        File logFile = File.createTempFile("PersProgTest", ".log");
+        logFile.deleteOnExit();
+        File file = File.createTempFile("PersProgexport", ".ppex");
+        file.deleteOnExit();
+        try (RecordStore store = new LogStructuredRecordStore(logFile)) {
+            fill(store);
+            List<String> keys = store.keys("");
+            try (FileChannel target = FileChannel.open(file.toPath(), 
+                    StandardOpenOption.WRITE)) {
+                assertEquals(keys.size(), 
+                        RecordExporter.exportAll(store, target));
+            }
+            RecordStore copy = new InMemoryRecordStore();
+            try (FileChannel source = FileChannel.open(file.toPath())) {
+                RecordExporter.importRecords(source, copy);
+            }
+            assertEquals(keys, copy.keys(""));
+            assertSameRecords(store, copy, keys);
+        }
+    }
+    
+    /**
+     * Test of export method, of class RecordExporter. Keys without records 
+     * should be skipped.
+     */
+    @Test
+    public void testExportSkipsMissingRecords() throws IOException {
+        System.out.println("export");
+        RecordStore store = new InMemoryRecordStore();
+        fill(store);
+        File file = File.createTempFile("PersProgexport", ".ppex");
+        file.deleteOnExit();
+        List<String> keys = Arrays.asList(
+                RecordKeys.employeeKey(FIRST_EMPLOYEE), "PersProgempl404");
+        assertEquals(1, RecordExporter.export(store, keys, file));
+        RecordStore copy = new InMemoryRecordStore();
+        try (FileChannel source = FileChannel.open(file.toPath())) {
+            assertEquals(1, RecordExporter.importRecords(source, copy));
+        }
+        assertEquals(Arrays.asList(RecordKeys.employeeKey(FIRST_EMPLOYEE)), 
+                copy.keys(""));
+    }
+    
+    /**
+     * Test of importRecords method, of class RecordExporter. Something that 
+     * is not an export should be rejected.
+     */
+    /**
+     * Test of export method, of class RecordExporter. A channel in 
+     * non-blocking mode may take no bytes at all, so the export should refuse 
+     * it rather than keep trying.
+     */
+    @Test(expected = IllegalBlockingModeException.class)
+    public void testExportRejectsNonBlockingChannel() throws IOException {
+        RecordStore store = new InMemoryRecordStore();
+        fill(store);
+        Pipe pipe = Pipe.open();
+        try {
+            pipe.sink().configureBlocking(false);
+            int count = RecordExporter.export(store, store.keys(""), 
+                    pipe.sink());
+            System.out.println("Should not have exported " + count 
+                    + " records to non-blocking channel");
+        } finally {
+            pipe.sink().close();
+            pipe.source().close();
+        }
+    }
+    
+    /**
+     * Test of transferRegion method, of class RecordExporter. A file store 
+     * should also refuse a channel in non-blocking mode.
+     */
+    @Test(expected = IllegalBlockingModeException.class)
+    public void testTransferRegionRejectsNonBlockingChannel() 
+            throws IOException {
+        File dir = Files.createTempDirectory("PersProgTest").toFile();
+        dir.deleteOnExit();
+        RecordStore store = new FilePerRecordStore(dir);
+        store.write("PersProgempl1", new byte[100000]);
+        Pipe pipe = Pipe.open();
+        try {
+            pipe.sink().configureBlocking(false);
+            long length = store.transferTo("PersProgempl1", pipe.sink());
+            System.out.println("Should not have transferred " + length 
+                    + " bytes to non-blocking channel");
+        } finally {
+            pipe.sink().close();
+            pipe.source().close();
+            store.delete("PersProgempl1");
+        }
+    }
+    
+    @Test(expected = IOException.class)
+    public void testImportRecordsRejectsNonExport() throws IOException {
+        File file = File.createTempFile("PersProgTest", ".txt");
+        file.deleteOnExit();
+        Files.write(file.toPath(), RecordStoreTest.bytesOf("Not an export"));
+        try (FileChannel source = FileChannel.open(file.toPath())) {
+            RecordExporter.importRecords(source, new InMemoryRecordStore());
+        }
+    }
+    
+}
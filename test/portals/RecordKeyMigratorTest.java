@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import entities.Employee;
+import entities.idnumbers.SocialSecurityNumber;
+import payroll.TimeCard;
+import time.DateTimeRange;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the RecordKeyMigrator class.
+ * @author Alonso del Arte
+ */
+public class RecordKeyMigratorTest {
+    
+    private static final Employee EMPLOYEE 
+            = new Employee("John Lopez", new SocialSecurityNumber(750101729));
+    
+    /**
+     * Monday, October 12, 2026 at 12:00 a.m.
+     */
+    private static final LocalDateTime WEEK_START 
+            = LocalDateTime.of(2026, 10, 12, 0, 0);
+    
+    private static final TimeCard CARD = new TimeCard(EMPLOYEE, 
+            new DateTimeRange(WEEK_START, 
+                    WEEK_START.plusDays(7).minusMinutes(1)));
+    
+    private static final String OLD_EMPLOYEE_KEY 
+            = RecordKeys.EMPLOYEE_PREFIX + EMPLOYEE.getTIN().hashCode();
+    
+    private static final String OLD_CARD_KEY 
+            = RecordKeys.CARD_PREFIX + CARD.hashCode();
+    
+    private RecordStore store;
+    
+    /**
+     * Sets up a store the way an earlier version of this program would have 
+     * left it, with keys based on hash codes.
+     */
+    @Before
+    public void setUp() throws IOException {
+        this.store = new InMemoryRecordStore();
+        this.store.write(OLD_EMPLOYEE_KEY, RecordCodec.encode(EMPLOYEE));
+        this.store.write(OLD_CARD_KEY, RecordCodec.encode(CARD));
+        this.store.write(RecordKeys.periodIndexKey(WEEK_START, OLD_CARD_KEY), 
+                new byte[0]);
+    }
+    
+    /**
+     * Test of migrate method, of class RecordKeyMigrator.
+     */
+    @Test
+    public void testMigrate() throws Exception {
+        System.out.println("migrate");
+        assertEquals(1, RecordKeyMigrator.getScheme(this.store));
+        assertEquals(2, RecordKeyMigrator.migrate(this.store));
+        assertEquals(Arrays.asList(RecordKeys.employeeKey(EMPLOYEE)), 
+                this.store.keys(RecordKeys.EMPLOYEE_PREFIX));
+        assertEquals(Arrays.asList(RecordKeys.cardKey(CARD)), 
+                this.store.keys(RecordKeys.CARD_PREFIX));
+        assertEquals(EMPLOYEE.getTIN(), EmployeeRecordsProcessor.getRecord(
+                this.store, EMPLOYEE.getTIN()).getTIN());
+        assertEquals(CARD, TimeCardsProcessor.getCard(this.store, EMPLOYEE, 
+                WEEK_START));
+        assertEquals(Arrays.asList(RecordKeys.cardKey(CARD)), 
+                new PeriodIndex(this.store).getCardKeys(WEEK_START));
+        assertEquals(1, new CardStatusIndex(this.store)
+                .count(CardStatusIndex.Flag.PRESENT, true));
+        assertEquals(RecordKeyMigrator.CURRENT_SCHEME, 
+                RecordKeyMigrator.getScheme(this.store));
+    }
+    
+    /**
+     * Test of migrateIfNeeded method, of class RecordKeyMigrator.
+     */
+    @Test
+    public void testMigrateIfNeeded() throws Exception {
+        System.out.println("migrateIfNeeded");
+        assertEquals(2, RecordKeyMigrator.migrateIfNeeded(this.store));
+        this.store.write(OLD_CARD_KEY, RecordCodec.encode(CARD));
+        assertEquals(0, RecordKeyMigrator.migrateIfNeeded(this.store));
+        assert this.store.contains(OLD_CARD_KEY) 
+                : "Converted store should not be scanned again";
+    }
+    
+    /**
+     * Another test of migrate method, of class RecordKeyMigrator. Records 
+     * already under the current keys should be left alone.
+     */
+    @Test
+    public void testMigrateLeavesCurrentKeysAlone() throws Exception {
+        RecordStore currentStore = new InMemoryRecordStore();
+        EmployeeRecordsProcessor.addRecord(currentStore, EMPLOYEE);
+        TimeCardsProcessor.putCard(currentStore, CARD);
+        assertEquals(0, RecordKeyMigrator.migrate(currentStore));
+        assertEquals(CARD, TimeCardsProcessor.getCard(currentStore, EMPLOYEE, 
+                WEEK_START));
+    }
+    
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the RecordStore interface. Each implementation's test class extends 
+ * this one so that all the implementations are held to the same contract.
+ * @author Alonso del Arte
+ */
+public abstract class RecordStoreTest {
+    
+    protected RecordStore store;
+    
+    /**
+     * Makes a new, empty store of the kind being tested.
+     * @return A new store.
+     * @throws IOException If there is a problem setting up the store.
+     */
+    protected abstract RecordStore makeStore() throws IOException;
+    
+    static byte[] bytesOf(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+    
+    @Before
+    public void setUp() throws IOException {
+        this.store = this.makeStore();
+    }
+    
+    @After
+    public void tearDown() throws IOException {
+        this.store.close();
+    }
+    
+    /**
+     * Test of write and read methods, of interface RecordStore.
+     */
+    @Test
+    public void testWriteThenRead() throws IOException {
+        System.out.println("write, read");
+        byte[] expected = bytesOf("Hank Hill");
+        this.store.write("PersProgempl1", expected);
+        byte[] actual = this.store.read("PersProgempl1");
+        assertArrayEquals(expected, actual);
+    }
+    
+    @Test
+    public void testWriteReplaces() throws IOException {
+        this.store.write("PersProgempl1", bytesOf("Hank Hill"));
+        byte[] expected = bytesOf("Buck Strickland");
+        this.store.write("PersProgempl1", expected);
+        byte[] actual = this.store.read("PersProgempl1");
+        assertArrayEquals(expected, actual);
+    }
+    
+    @Test
+    public void testReadAbsentGivesNull() throws IOException {
+        assertNull(this.store.read("PersProgempl404"));
+    }
+    
+    @Test
+    public void testStoreKeepsOwnCopy() throws IOException {
+        byte[] data = bytesOf("Keiko Yamada");
+        byte[] expected = data.clone();
+        this.store.write("PersProgempl1", data);
+        data[0] = 0;
+        assertArrayEquals(expected, this.store.read("PersProgempl1"));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyKeyRejected() throws IOException {
+        this.store.write("", bytesOf("Nobody"));
+    }
+    
+    /**
+     * Test of contains method, of interface RecordStore.
+     */
+    @Test
+    public void testContains() throws IOException {
+        System.out.println("contains");
+        this.store.write("PersProgcard1", bytesOf("card"));
+        assert this.store.contains("PersProgcard1") : "Should contain card";
+        assert !this.store.contains("PersProgcard2") : "Should not contain";
+    }
+    
+    /**
+     * Test of delete method, of interface RecordStore.
+     */
+    @Test
+    public void testDelete() throws IOException {
+        System.out.println("delete");
+        this.store.write("PersProgcard1", bytesOf("card"));
+        boolean deleted = this.store.delete("PersProgcard1");
+        assertTrue("Should have deleted", deleted);
+        assert !this.store.contains("PersProgcard1") : "Should be gone";
+        boolean deletedAgain = this.store.delete("PersProgcard1");
+        assertFalse("Nothing to delete", deletedAgain);
+    }
+    
+    /**
+     * Test of keys method, of interface RecordStore.
+     */
+    @Test
+    public void testKeys() throws IOException {
+        System.out.println("keys");
+        this.store.write("PersProgcard2", bytesOf("second card"));
+        this.store.write("PersProgempl1", bytesOf("employee"));
+        this.store.write("PersProgcard1", bytesOf("first card"));
+        List<String> expected = Arrays.asList("PersProgcard1", 
+                "PersProgcard2");
+        assertEquals(expected, this.store.keys("PersProgcard"));
+        assertEquals(3, this.store.keys("").size());
+        assert this.store.keys("PersProgarch").isEmpty() : "No archives";
+    }
+    
+    /**
+     * Test of keys method, of interface RecordStore, for a range of keys.
+     */
+    @Test
+    public void testKeysInRange() throws IOException {
+        this.store.write("PersProgidxperiod202610050000.a", new byte[0]);
+        this.store.write("PersProgidxperiod202610120000.b", new byte[0]);
+        this.store.write("PersProgidxperiod202610120000.c", new byte[0]);
+        this.store.write("PersProgidxperiod202610190000.d", new byte[0]);
+        List<String> expected = Arrays.asList(
+                "PersProgidxperiod202610120000.b", 
+                "PersProgidxperiod202610120000.c");
+        List<String> actual = this.store.keys("PersProgidxperiod202610120000", 
+                "PersProgidxperiod202610190000");
+        assertEquals(expected, actual);
+        assert this.store.keys("z", "a").isEmpty() : "Backwards range";
+    }
+    
+    /**
+     * Test of writeAll method, of interface RecordStore.
+     */
+    @Test
+    public void testWriteAll() throws IOException {
+        System.out.println("writeAll");
+        this.store.write("PersProgempl1", bytesOf("Hank Hill"));
+        Map<String, byte[]> records = new HashMap<>();
+        for (int i = 1; i <= 20; i++) {
+            records.put("PersProgcard" + i, bytesOf("Card " + i));
+        }
+        records.put("PersProgempl1", bytesOf("Hank Rutherford Hill"));
+        this.store.writeAll(records);
+        for (Map.Entry<String, byte[]> entry : records.entrySet()) {
+            assertArrayEquals(entry.getValue(), 
+                    this.store.read(entry.getKey()));
+        }
+        assertEquals(20, this.store.keys("PersProgcard").size());
+        this.store.writeAll(new HashMap<>());
+        assertEquals(21, this.store.keys("").size());
+    }
+    
+    /**
+     * Test of readAll method, of interface RecordStore.
+     */
+    @Test
+    public void testReadAll() throws IOException {
+        System.out.println("readAll");
+        this.store.write("PersProgempl2", bytesOf("Buck Strickland"));
+        this.store.write("PersProgempl1", bytesOf("Hank Hill"));
+        this.store.write("PersProgcard1", bytesOf("Card"));
+        SortedMap<String, byte[]> records = this.store.readAll("PersProgempl");
+        assertEquals(Arrays.asList("PersProgempl1", "PersProgempl2"), 
+                new ArrayList<>(records.keySet()));
+        assertArrayEquals(bytesOf("Hank Hill"), records.get("PersProgempl1"));
+        assertArrayEquals(bytesOf("Buck Strickland"), 
+                records.get("PersProgempl2"));
+        assert this.store.readAll("PersProgarch").isEmpty() : "No archives";
+    }
+    
+    /**
+     * Test of transferTo method, of interface RecordStore. The record should 
+     * be written to the channel after its length.
+     */
+    @Test
+    public void testTransferTo() throws IOException {
+        System.out.println("transferTo");
+        byte[] data = new byte[100000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i * 31);
+        }
+        this.store.write("PersProgarch202610120000", data);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        WritableByteChannel target = Channels.newChannel(out);
+        assertEquals(data.length, 
+                this.store.transferTo("PersProgarch202610120000", target));
+        ByteBuffer written = ByteBuffer.wrap(out.toByteArray());
+        assertEquals(data.length, written.getLong());
+        byte[] actual = new byte[written.remaining()];
+        written.get(actual);
+        assertArrayEquals(data, actual);
+        assertEquals(-1L, this.store.transferTo("PersProgarch202610190000", 
+                target));
+        assertEquals(Long.BYTES + data.length, out.size());
+    }
+    
+}
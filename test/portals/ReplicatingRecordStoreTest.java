@@ -0,0 +1,155 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the ReplicatingRecordStore class. Besides the tests of the 
+ * logging itself, the store is held to the same contract as the other stores.
+ * @author Alonso del Arte
+ */
+public class ReplicatingRecordStoreTest extends RecordStoreTest {
+    
+    static File makeLogFile() throws IOException {
+        File file = File.createTempFile("PersProgTest", ".replog");
+        file.deleteOnExit();
+        return file;
+    }
+    
+    @Override
+    protected RecordStore makeStore() throws IOException {
+        return new ReplicatingRecordStore(new InMemoryRecordStore(), 
+                new ReplicationLog(makeLogFile()));
+    }
+    
+    private ReplicationLog log() {
+        return ((ReplicatingRecordStore) this.store).getLog();
+    }
+    
+    /**
+     * Test of write and delete methods, of class ReplicatingRecordStore. Each 
+     * change should be added to the log. Deleting a record that isn't there 
+     * is not a change.
+     */
+    @Test
+    public void testChangesAreLogged() throws IOException {
+        System.out.println("write, delete (logged)");
+        assertEquals(0L, this.log().getLastSequence());
+        this.store.write("PersProgempl1", bytesOf("Hank Hill"));
+        this.store.write("PersProgempl1", bytesOf("Hank Rutherford Hill"));
+        this.store.delete("PersProgempl1");
+        this.store.delete("PersProgempl2");
+        assertEquals(3L, this.log().getLastSequence());
+    }
+    
+    /**
+     * Test of writeAll method, of class ReplicatingRecordStore. Each record of 
+     * the batch should be added to the log as a change of its own.
+     */
+    @Test
+    public void testWriteAllIsLogged() throws IOException {
+        Map<String, byte[]> records = new HashMap<>();
+        records.put("PersProgempl1", bytesOf("Hank Hill"));
+        records.put("PersProgempl2", bytesOf("Buck Strickland"));
+        this.store.writeAll(records);
+        assertEquals(2L, this.log().getLastSequence());
+    }
+    
+    /**
+     * Test of constructor, of class ReplicatingRecordStore. A new log opened 
+     * on a store that already has records should start with a copy of them, 
+     * but a log that already has changes should not get them again.
+     */
+    @Test
+    public void testConstructorSeedsNewLog() throws IOException {
+        RecordStore base = new InMemoryRecordStore();
+        base.write("PersProgempl1", bytesOf("Hank Hill"));
+        base.write("PersProgempl2", bytesOf("Buck Strickland"));
+        File logFile = makeLogFile();
+        new ReplicatingRecordStore(base, new ReplicationLog(logFile)).getLog()
+                .close();
+        try (ReplicationLog reopened = new ReplicationLog(logFile); 
+                ReplicatingRecordStore again 
+                        = new ReplicatingRecordStore(base, reopened)) {
+            assertEquals(2L, reopened.getLastSequence());
+            assertEquals(Arrays.asList("PersProgempl1", "PersProgempl2"), 
+                    again.keys("PersProgempl"));
+        }
+    }
+    
+    /**
+     * Test of constructor, of class ReplicatingRecordStore. A store with more 
+     * records than fit in one chunk should still be copied to the log whole 
+     * and in key order.
+     */
+    @Test
+    public void testConstructorSeedsLargeStoreInChunks() throws IOException {
+        RecordStore base = new InMemoryRecordStore();
+        int count = 2 * ReplicatingRecordStore.SEED_CHUNK_SIZE + 3;
+        for (int i = 0; i < count; i++) {
+            base.write(String.format("PersProgempl%05d", i), 
+                    bytesOf("Employee " + i));
+        }
+        File logFile = makeLogFile();
+        try (ReplicationLog log = new ReplicationLog(logFile)) {
+            new ReplicatingRecordStore(base, log);
+            assertEquals(count, log.getLastSequence());
+        }
+        RecordStore standby = new InMemoryRecordStore();
+        try (LogFollower follower = new LogFollower(logFile, standby)) {
+            follower.poll();
+        }
+        assertEquals(base.keys("PersProgempl"), 
+                standby.keys("PersProgempl"));
+        assertArrayEquals(base.read("PersProgempl00300"), 
+                standby.read("PersProgempl00300"));
+    }
+    
+    /**
+     * Test of constructor, of class ReplicationLog. An entry cut short by a 
+     * crash should be cut off the log when it is opened again.
+     */
+    @Test
+    public void testLogRecoversFromTornEntry() throws IOException {
+        File logFile = makeLogFile();
+        long intactLength;
+        try (ReplicationLog log = new ReplicationLog(logFile)) {
+            log.append("PersProgempl1", bytesOf("Hank Hill"));
+            intactLength = log.getLength();
+            log.append("PersProgempl2", bytesOf("Buck Strickland"));
+        }
+        byte[] bytes = Files.readAllBytes(logFile.toPath());
+        Files.write(logFile.toPath(), Arrays.copyOf(bytes, bytes.length - 3));
+        try (ReplicationLog log = new ReplicationLog(logFile)) {
+            assertEquals(1L, log.getLastSequence());
+            assertEquals(intactLength, log.getLength());
+            assertEquals(2L, log.append("PersProgempl2", 
+                    bytesOf("Buck Strickland")));
+        }
+    }
+    
+}
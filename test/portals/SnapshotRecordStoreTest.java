@@ -0,0 +1,192 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the SnapshotRecordStore class. Besides the tests of the snapshots 
+ * themselves, the store is held to the same contract as the other stores.
+ * @author Alonso del Arte
+ */
+public class SnapshotRecordStoreTest extends RecordStoreTest {
+    
+    @Override
+    protected RecordStore makeStore() {
+        return new SnapshotRecordStore(new InMemoryRecordStore());
+    }
+    
+    private SnapshotRecordStore snapshotStore() {
+        return (SnapshotRecordStore) this.store;
+    }
+    
+    /**
+     * Test of openSnapshot method, of class SnapshotRecordStore. A snapshot 
+     * should see records as they were when it was opened.
+     */
+    @Test
+    public void testOpenSnapshot() throws IOException {
+        System.out.println("openSnapshot");
+        this.store.write("PersProgempl1", bytesOf("Hank Hill"));
+        this.store.write("PersProgempl2", bytesOf("Buck Strickland"));
+        try (SnapshotRecordStore.Snapshot snapshot 
+                = this.snapshotStore().openSnapshot()) {
+            this.store.write("PersProgempl1", bytesOf("Hank Rutherford Hill"));
+            this.store.delete("PersProgempl2");
+            this.store.write("PersProgempl3", bytesOf("Dale Gribble"));
+            assertArrayEquals(bytesOf("Hank Hill"), 
+                    snapshot.read("PersProgempl1"));
+            assertArrayEquals(bytesOf("Buck Strickland"), 
+                    snapshot.read("PersProgempl2"));
+            assertNull(snapshot.read("PersProgempl3"));
+            assert snapshot.contains("PersProgempl2") 
+                    : "Snapshot should still contain deleted record";
+            assert !snapshot.contains("PersProgempl3") 
+                    : "Snapshot should not contain later record";
+            assertEquals(Arrays.asList("PersProgempl1", "PersProgempl2"), 
+                    snapshot.keys("PersProgempl"));
+            assertEquals(Arrays.asList("PersProgempl1", "PersProgempl3"), 
+                    this.store.keys("PersProgempl"));
+        }
+    }
+    
+    /**
+     * Another test of openSnapshot method, of class SnapshotRecordStore. Each 
+     * of several snapshots should see the records as of its own opening.
+     */
+    @Test
+    public void testOpenSeveralSnapshots() throws IOException {
+        this.store.write("PersProgcard1", bytesOf("Version 1"));
+        SnapshotRecordStore.Snapshot first 
+                = this.snapshotStore().openSnapshot();
+        this.store.write("PersProgcard1", bytesOf("Version 2"));
+        SnapshotRecordStore.Snapshot second 
+                = this.snapshotStore().openSnapshot();
+        this.store.write("PersProgcard1", bytesOf("Version 3"));
+        assertArrayEquals(bytesOf("Version 1"), first.read("PersProgcard1"));
+        assertArrayEquals(bytesOf("Version 2"), second.read("PersProgcard1"));
+        first.close();
+        assertArrayEquals(bytesOf("Version 2"), second.read("PersProgcard1"));
+        assertEquals(1, this.snapshotStore().getKeptRecordCount());
+        second.close();
+        assertEquals(0, this.snapshotStore().getKeptRecordCount());
+        assertEquals(0, this.snapshotStore().getOpenSnapshotCount());
+    }
+    
+    /**
+     * Test of keys method, of class SnapshotRecordStore.Snapshot, for a range 
+     * of keys.
+     */
+    @Test
+    public void testSnapshotKeysInRange() throws IOException {
+        this.store.write("PersProgidxperiod202610120000.a", new byte[0]);
+        try (SnapshotRecordStore.Snapshot snapshot 
+                = this.snapshotStore().openSnapshot()) {
+            this.store.write("PersProgidxperiod202610120000.b", new byte[0]);
+            this.store.delete("PersProgidxperiod202610120000.a");
+            assertEquals(Arrays.asList("PersProgidxperiod202610120000.a"), 
+                    snapshot.keys("PersProgidxperiod202610120000", 
+                            "PersProgidxperiod202610190000"));
+            assertArrayEquals(new byte[0], 
+                    snapshot.read("PersProgidxperiod202610120000.a"));
+        }
+    }
+    
+    /**
+     * Test of write method, of class SnapshotRecordStore.Snapshot. Snapshots 
+     * are read-only.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSnapshotIsReadOnly() throws IOException {
+        try (SnapshotRecordStore.Snapshot snapshot 
+                = this.snapshotStore().openSnapshot()) {
+            snapshot.write("PersProgempl1", bytesOf("Hank Hill"));
+        }
+    }
+    
+    /**
+     * Test of close method, of class SnapshotRecordStore.Snapshot. A closed 
+     * snapshot can't be read.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testClosedSnapshotCannotBeRead() throws IOException {
+        SnapshotRecordStore.Snapshot snapshot 
+                = this.snapshotStore().openSnapshot();
+        snapshot.close();
+        snapshot.close();
+        snapshot.read("PersProgempl1");
+    }
+    
+    /**
+     * Test that snapshots are consistent while another thread writes. The 
+     * writer counts up, writing each count first to one record and then to 
+     * another. At any moment, the first record holds the same count as the 
+     * second or one more. A plain reader reading the first record and then 
+     * the second could see the second ahead of the first, but a snapshot 
+     * never should.
+     */
+    @Test
+    public void testSnapshotsConsistentWhileWriting() throws Exception {
+        this.store.write("PersProgcountA", ByteBuffer.allocate(4)
+                .putInt(0).array());
+        this.store.write("PersProgcountB", ByteBuffer.allocate(4)
+                .putInt(0).array());
+        AtomicBoolean done = new AtomicBoolean(false);
+        Thread writer = new Thread(() -> {
+            try {
+                int count = 0;
+                while (!done.get()) {
+                    count++;
+                    byte[] bytes = ByteBuffer.allocate(4).putInt(count)
+                            .array();
+                    this.store.write("PersProgcountA", bytes);
+                    this.store.write("PersProgcountB", bytes);
+                }
+            } catch (IOException ioe) {
+                throw new RuntimeException(ioe);
+            }
+        });
+        writer.start();
+        try {
+            for (int i = 0; i < 2000; i++) {
+                try (SnapshotRecordStore.Snapshot snapshot 
+                        = this.snapshotStore().openSnapshot()) {
+                    int a = ByteBuffer.wrap(snapshot.read("PersProgcountA"))
+                            .getInt();
+                    Thread.yield();
+                    int b = ByteBuffer.wrap(snapshot.read("PersProgcountB"))
+                            .getInt();
+                    String msg = "Snapshot " + snapshot.getVersion() 
+                            + " saw A = " + a + " and B = " + b;
+                    assert a == b || a == b + 1 : msg;
+                }
+            }
+        } finally {
+            done.set(true);
+            writer.join();
+        }
+        assertEquals(0, this.snapshotStore().getKeptRecordCount());
+    }
+    
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import entities.Employee;
+import entities.idnumbers.SocialSecurityNumber;
+import payroll.PayCalendar;
+import payroll.TimeCard;
+import time.TimeSource;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+import static payroll.TimeCardMaker.makeCard;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the TieredRecordStore class. Besides the tests of the tiers 
+ * themselves, the store is held to the same contract as the other stores.
+ * @author Alonso del Arte
+ */
+public class TieredRecordStoreTest extends RecordStoreTest {
+    
+    private static final Employee EMPLOYEE 
+            = new Employee("John Lopez", new SocialSecurityNumber(750101729));
+    
+    /**
+     * Monday, October 12, 2026 at 12:00 a.m.
+     */
+    private static final LocalDateTime WEEK_START 
+            = LocalDateTime.of(2026, 10, 12, 0, 0);
+    
+    private final AtomicReference<LocalDateTime> periodStart 
+            = new AtomicReference<>(WEEK_START);
+    
+    private File logFile;
+    
+    private RecordStore coldStore;
+    
+    private static File makeLogFile() throws IOException {
+        File file = File.createTempFile("PersProgTest", ".log");
+        file.deleteOnExit();
+        return file;
+    }
+    
+    @Override
+    protected RecordStore makeStore() throws IOException {
+        this.logFile = makeLogFile();
+        this.coldStore = new InMemoryRecordStore();
+        return new TieredRecordStore(this.logFile, this.coldStore, 
+                this.periodStart::get);
+    }
+    
+    private TieredRecordStore tieredStore() {
+        return (TieredRecordStore) this.store;
+    }
+    
+    /**
+     * Test of write method, of class TieredRecordStore. A card for the 
+     * current period should go to the hot tier, anything else to the cold 
+     * tier.
+     */
+    @Test
+    public void testWriteRoutesByTier() throws IOException {
+        System.out.println("write (tiers)");
+        String currentKey = RecordKeys.cardKey(makeCard(EMPLOYEE, WEEK_START));
+        String pastKey = RecordKeys.cardKey(makeCard(EMPLOYEE, WEEK_START
+                .minusWeeks(1)));
+        String employeeKey = RecordKeys.employeeKey(EMPLOYEE);
+        this.store.write(currentKey, bytesOf("Current"));
+        this.store.write(pastKey, bytesOf("Past"));
+        this.store.write(employeeKey, bytesOf("John Lopez"));
+        assert !this.coldStore.contains(currentKey) 
+                : "Current card should not be in cold tier";
+        assert this.coldStore.contains(pastKey) 
+                : "Past card should be in cold tier";
+        assert this.coldStore.contains(employeeKey) 
+                : "Employee record should be in cold tier";
+        assertEquals(1, this.tieredStore().getHotCardCount());
+        assertArrayEquals(bytesOf("Current"), this.store.read(currentKey));
+    }
+    
+    /**
+     * Test of rollOver method, of class TieredRecordStore. When a new period 
+     * starts, the cards for the previous period should be moved to the cold 
+     * tier.
+     */
+    @Test
+    public void testRollOver() throws IOException {
+        System.out.println("rollOver");
+        String key = RecordKeys.cardKey(makeCard(EMPLOYEE, WEEK_START));
+        this.store.write(key, bytesOf("Week of October 12"));
+        this.periodStart.set(WEEK_START.plusWeeks(1));
+        this.tieredStore().rollOver();
+        assertEquals(WEEK_START.plusWeeks(1), 
+                this.tieredStore().getHotPeriodStart());
+        assertEquals(0, this.tieredStore().getHotCardCount());
+        assertArrayEquals(bytesOf("Week of October 12"), 
+                this.coldStore.read(key));
+        assertArrayEquals(bytesOf("Week of October 12"), this.store.read(key));
+    }
+    
+    /**
+     * Another test of rollOver method, of class TieredRecordStore. The first 
+     * access after a new period starts should do the rollover without an 
+     * explicit call.
+     */
+    @Test
+    public void testRollOverOnAccess() throws IOException {
+        String key = RecordKeys.cardKey(makeCard(EMPLOYEE, WEEK_START));
+        this.store.write(key, bytesOf("Week of October 12"));
+        this.periodStart.set(WEEK_START.plusWeeks(1));
+        assert this.store.contains(key) : "Card should still be found";
+        assert this.coldStore.contains(key) : "Card should be demoted";
+    }
+    
+    /**
+     * Another test of write method, of class TieredRecordStore. The event 
+     * stream of a card for the current period should be kept in the hot tier 
+     * along with the card, and demoted with it when a new period starts.
+     */
+    @Test
+    public void testEventStreamsAreHot() throws Exception {
+        CardEventJournal journal = new CardEventJournal(this.store);
+        TimeCard card = makeCard(EMPLOYEE, WEEK_START);
+        journal.create(card);
+        journal.punchIn(card, WEEK_START.plusHours(8));
+        journal.punchOut(card, WEEK_START.plusHours(12));
+        assert this.coldStore.keys(RecordKeys.EVENT_PREFIX).isEmpty() 
+                : "Event stream should not be in cold tier";
+        assert this.coldStore.keys(RecordKeys.EVENT_SEQUENCE_PREFIX).isEmpty() 
+                : "Sequence record should not be in cold tier";
+        assertEquals(3, this.store.keys(RecordKeys.EVENT_PREFIX).size());
+        this.periodStart.set(WEEK_START.plusWeeks(1));
+        this.tieredStore().rollOver();
+        assertEquals(3, this.coldStore.keys(RecordKeys.EVENT_PREFIX).size());
+        assertEquals(1, this.coldStore.keys(RecordKeys.EVENT_SEQUENCE_PREFIX)
+                .size());
+        assertEquals(240L, TimeCardsProcessor.getCard(this.store, EMPLOYEE, 
+                WEEK_START).getMinutesSoFar());
+    }
+    
+    /**
+     * Test of constructor, of class TieredRecordStore. The hot tier should be 
+     * loaded back from the write-ahead log, and cards for the current period 
+     * already in the cold tier should be promoted.
+     */
+    @Test
+    public void testReopen() throws IOException {
+        System.out.println("constructor (reopen)");
+        String key = RecordKeys.cardKey(makeCard(EMPLOYEE, WEEK_START));
+        this.store.write(key, bytesOf("Punched in"));
+        Employee other = new Employee("Hank Hill", 
+                new SocialSecurityNumber(750101730));
+        String otherKey = RecordKeys.cardKey(other, WEEK_START);
+        RecordStore newCold = new InMemoryRecordStore();
+        newCold.write(otherKey, bytesOf("Written before tiering"));
+        try (TieredRecordStore reopened = new TieredRecordStore(this.logFile, 
+                newCold, this.periodStart::get)) {
+            assertEquals(2, reopened.getHotCardCount());
+            assertArrayEquals(bytesOf("Punched in"), reopened.read(key));
+            assert !newCold.contains(otherKey) 
+                    : "Current card should have been promoted";
+            assertArrayEquals(bytesOf("Written before tiering"), 
+                    reopened.read(otherKey));
+        }
+    }
+    
+    /**
+     * Another test of constructor, of class TieredRecordStore. Cards left in 
+     * the write-ahead log from an earlier period, as when the program was not 
+     * running when the period rolled over, should be demoted on opening.
+     */
+    @Test
+    public void testReopenAfterPeriodEnded() throws IOException {
+        String key = RecordKeys.cardKey(makeCard(EMPLOYEE, WEEK_START));
+        this.store.write(key, bytesOf("Week of October 12"));
+        RecordStore newCold = new InMemoryRecordStore();
+        try (TieredRecordStore reopened = new TieredRecordStore(this.logFile, 
+                newCold, () -> WEEK_START.plusWeeks(2))) {
+            assertEquals(0, reopened.getHotCardCount());
+            assertArrayEquals(bytesOf("Week of October 12"), 
+                    newCold.read(key));
+        }
+    }
+    
+    /**
+     * Another test of constructor, of class TieredRecordStore. The current 
+     * period should be the one in the given pay calendar, not the default 
+     * weekly period.
+     */
+    @Test
+    public void testConstructorWithPayCalendar() throws IOException {
+        PayCalendar biweekly = new PayCalendar(
+                PayCalendar.PaySchedule.BIWEEKLY, LocalDate.of(2026, 10, 5));
+        LocalDateTime biweeklyStart = WEEK_START.minusWeeks(1);
+        Employee other = new Employee("Hank Hill", 
+                new SocialSecurityNumber(750101730));
+        String biweeklyKey = RecordKeys.cardKey(EMPLOYEE, biweeklyStart);
+        String weeklyKey = RecordKeys.cardKey(other, WEEK_START);
+        RecordStore newCold = new InMemoryRecordStore();
+        try {
+            TimeSource.setClock(Clock.fixed(WEEK_START.plusDays(2)
+                    .toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+            try (TieredRecordStore tiered = new TieredRecordStore(
+                    makeLogFile(), newCold, biweekly)) {
+                assertEquals(biweeklyStart, tiered.getHotPeriodStart());
+                tiered.write(biweeklyKey, bytesOf("Biweekly"));
+                tiered.write(weeklyKey, bytesOf("Weekly"));
+                assertEquals(1, tiered.getHotCardCount());
+                assert newCold.contains(weeklyKey) 
+                        : "Card for other period should be in cold tier";
+            }
+        } finally {
+            TimeSource.useSystemClock();
+        }
+    }
+    
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package portals;
+
+import currency.CurrencyAmount;
+import entities.Employee;
+import entities.idnumbers.SocialSecurityNumber;
+import payroll.TimeCard;
+import time.DateTimeRange;
+
+import java.time.LocalDateTime;
+import java.util.Currency;
+import java.util.Locale;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the TimeCardsProcessor class.
+ * @author Alonso del Arte
+ */
+public class TimeCardsProcessorTest {
+    
+    private static final Currency DOLLARS = Currency.getInstance(Locale.US);
+    
+    /**
+     * Monday, October 12, 2026 at 12:00 a.m.
+     */
+    private static final LocalDateTime WEEK_START 
+            = LocalDateTime.of(2026, 10, 12, 0, 0);
+    
+    /**
+     * Test of getPreTaxTotal method, of class TimeCardsProcessor. A raise 
+     * recorded after the card was written should apply to the time worked 
+     * after the raise, even though the card read back from the store still 
+     * has the employee as of when it was written.
+     */
+    @Test
+    public void testGetPreTaxTotal() throws Exception {
+        System.out.println("getPreTaxTotal");
+        RecordStore store = new InMemoryRecordStore();
+        Employee employee = new Employee("John Lopez", 
+                new SocialSecurityNumber(750101729));
+        CurrencyAmount rate = new CurrencyAmount(3500, DOLLARS);
+        employee.setHourlyRate(rate);
+        EmployeeRecordsProcessor.addRecord(store, employee);
+        TimeCard card = new TimeCard(employee, new DateTimeRange(WEEK_START, 
+                WEEK_START.plusDays(7).minusMinutes(1)));
+        LocalDateTime tuesday = WEEK_START.plusDays(1).plusHours(8);
+        card.addTimeBlock(new DateTimeRange(WEEK_START.plusHours(8), 
+                WEEK_START.plusHours(12)));
+        card.addTimeBlock(new DateTimeRange(tuesday, tuesday.plusHours(4)));
+        TimeCardsProcessor.putCard(store, card);
+        Employee raised = EmployeeRecordsProcessor.getRecord(store, 
+                employee.getTIN());
+        CurrencyAmount newRate = new CurrencyAmount(4000, DOLLARS);
+        raised.setHourlyRate(newRate, WEEK_START.plusDays(1));
+        EmployeeRecordsProcessor.addRecord(store, raised);
+        TimeCard readBack = TimeCardsProcessor.getCard(store, employee, 
+                WEEK_START);
+        assertEquals(rate.times(8).getAmountInCents(), 
+                readBack.getPreTaxTotal().getAmountInCents());
+        CurrencyAmount expected = rate.times(4).plus(newRate.times(4));
+        assertEquals(expected.getAmountInCents(), TimeCardsProcessor 
+                .getPreTaxTotal(store, readBack).getAmountInCents());
+    }
+    
+    /**
+     * Test of getPreTaxTotal method, of class TimeCardsProcessor, for an 
+     * employee with no record in the store. The rates on the card should be 
+     * used.
+     */
+    @Test
+    public void testGetPreTaxTotalWithoutEmployeeRecord() throws Exception {
+        RecordStore store = new InMemoryRecordStore();
+        Employee employee = new Employee("Hank Hill", 
+                new SocialSecurityNumber(750304850));
+        CurrencyAmount rate = new CurrencyAmount(3500, DOLLARS);
+        employee.setHourlyRate(rate);
+        TimeCard card = new TimeCard(employee, new DateTimeRange(WEEK_START, 
+                WEEK_START.plusDays(7).minusMinutes(1)));
+        card.addTimeBlock(new DateTimeRange(WEEK_START.plusHours(8), 
+                WEEK_START.plusHours(12)));
+        assertEquals(rate.times(4).getAmountInCents(), 
+                TimeCardsProcessor.getPreTaxTotal(store, card) 
+                        .getAmountInCents());
+    }
+    
+}
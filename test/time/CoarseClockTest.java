@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package time;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the CoarseClock class.
+ * @author Alonso del Arte
+ */
+public class CoarseClockTest {
+    
+    private static final Instant WEDNESDAY_AFTERNOON 
+            = Instant.parse("2026-10-14T13:30:00Z");
+    
+    /**
+     * A clock that counts how many times it has been read, and moves forward 
+     * a second each time.
+     */
+    private static class CountingClock extends Clock {
+        
+        private volatile int readCount = 0;
+        
+        @Override
+        public long millis() {
+            this.readCount++;
+            return WEDNESDAY_AFTERNOON.toEpochMilli() + 1000L * this.readCount;
+        }
+        
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(this.millis());
+        }
+        
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+        
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException("Not needed for test");
+        }
+        
+    }
+    
+    /**
+     * Test of millis method, of class CoarseClock. Reading the coarse clock 
+     * many times should not read the base clock each time.
+     */
+    @Test
+    public void testMillis() {
+        System.out.println("millis");
+        CountingClock base = new CountingClock();
+        try (CoarseClock clock = new CoarseClock(base, Duration.ofHours(1))) {
+            long first = clock.millis();
+            for (int i = 0; i < 100000; i++) {
+                assertEquals(first, clock.millis());
+            }
+            assertEquals(1, base.readCount);
+            assertEquals(WEDNESDAY_AFTERNOON.plusSeconds(1), clock.instant());
+        }
+    }
+    
+    /**
+     * Another test of millis method, of class CoarseClock. The readings 
+     * should be taken again after the resolution.
+     */
+    @Test
+    public void testMillisAdvances() throws InterruptedException {
+        CountingClock base = new CountingClock();
+        try (CoarseClock clock = new CoarseClock(base, Duration.ofMillis(5))) {
+            long first = clock.millis();
+            long deadline = System.currentTimeMillis() + 10000L;
+            while (clock.millis() == first 
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5L);
+            }
+            assert clock.millis() > first : "Clock should have advanced";
+        }
+    }
+    
+    /**
+     * Test of close method, of class CoarseClock. A closed clock should keep 
+     * giving its last reading.
+     */
+    @Test
+    public void testClose() throws InterruptedException {
+        System.out.println("close");
+        CountingClock base = new CountingClock();
+        CoarseClock clock = new CoarseClock(base, Duration.ofMillis(1));
+        clock.close();
+        Thread.sleep(20L);
+        long reading = clock.millis();
+        int count = base.readCount;
+        Thread.sleep(20L);
+        assertEquals(reading, clock.millis());
+        assertEquals(count, base.readCount);
+    }
+    
+    /**
+     * Test of withZone method, of class CoarseClock.
+     */
+    @Test
+    public void testWithZone() {
+        System.out.println("withZone");
+        Clock base = Clock.fixed(WEDNESDAY_AFTERNOON, ZoneOffset.UTC);
+        try (CoarseClock clock = new CoarseClock(base, Duration.ofSeconds(1))) {
+            ZoneId pacific = ZoneId.of("America/Los_Angeles");
+            Clock zoned = clock.withZone(pacific);
+            assertEquals(pacific, zoned.getZone());
+            assertEquals(clock.instant(), zoned.instant());
+            assertSame(clock, clock.withZone(ZoneOffset.UTC));
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorRejectsTooFineResolution() {
+        CoarseClock clock = new CoarseClock(Clock.systemUTC(), 
+                Duration.ofNanos(1000));
+        System.out.println("Should not have created " + clock);
+    }
+    
+}
@@ -28,7 +28,9 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Currency;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
+import java.util.Random;
 
 import org.junit.Test;
 import static org.junit.Assert.*;
@@ -505,4 +507,128 @@ public class DateTimeRangeTest {
         }
     }
     
+    private static DateTimeRange hours(LocalDate day, int fromMinutes, 
+            int toMinutes) {
+        LocalDateTime midnight = day.atStartOfDay();
+        return new DateTimeRange(midnight.plusMinutes(fromMinutes), 
+                midnight.plusMinutes(toMinutes));
+    }
+    
+    /**
+     * Test of coalesce method, of class DateTimeRange. Overlapping, touching 
+     * and duplicate ranges should be merged, and the rest left alone.
+     */
+    @Test
+    public void testCoalesce() {
+        System.out.println("coalesce");
+        LocalDate day = LocalDate.of(2026, 10, 12);
+        List<DateTimeRange> blocks = Arrays.asList(hours(day, 780, 1020), 
+                hours(day, 480, 720), hours(day, 660, 750), 
+                hours(day, 480, 720), hours(day, 1020, 1080), 
+                hours(day, 1200, 1230));
+        List<DateTimeRange> expected = Arrays.asList(hours(day, 480, 750), 
+                hours(day, 780, 1080), hours(day, 1200, 1230));
+        assertEquals(expected, DateTimeRange.coalesce(blocks));
+        assert DateTimeRange.coalesce(new ArrayList<>()).isEmpty() 
+                : "Nothing to coalesce";
+    }
+    
+    /**
+     * Another test of coalesce method, of class DateTimeRange. The result 
+     * should be the same as merging the ranges two at a time.
+     */
+    @Test
+    public void testCoalesceMatchesPairwiseMerge() {
+        LocalDate day = LocalDate.of(2026, 10, 12);
+        Random random = new Random(1729L);
+        for (int trial = 0; trial < 50; trial++) {
+            List<DateTimeRange> blocks = new ArrayList<>();
+            for (int i = 0; i < 30; i++) {
+                int start = random.nextInt(24 * 60);
+                blocks.add(hours(day, start, start + random.nextInt(90)));
+            }
+            List<DateTimeRange> expected = new ArrayList<>(blocks);
+            Collections.sort(expected);
+            boolean mergedAny = true;
+            while (mergedAny) {
+                mergedAny = false;
+                for (int i = 0; i + 1 < expected.size() && !mergedAny; i++) {
+                    DateTimeRange a = expected.get(i);
+                    DateTimeRange b = expected.get(i + 1);
+                    if (a.overlaps(b)) {
+                        expected.set(i, a.merge(b));
+                        expected.remove(i + 1);
+                        mergedAny = true;
+                    }
+                }
+            }
+            assertEquals(expected, DateTimeRange.coalesce(blocks));
+        }
+    }
+    
+    /**
+     * Test of subtract method, of class DateTimeRange.
+     */
+    @Test
+    public void testSubtract() {
+        System.out.println("subtract");
+        LocalDate day = LocalDate.of(2026, 10, 12);
+        List<DateTimeRange> blocks = Arrays.asList(hours(day, 480, 1020), 
+                hours(day, 1080, 1200));
+        List<DateTimeRange> exclusions = Arrays.asList(hours(day, 720, 780), 
+                hours(day, 600, 615), hours(day, 1000, 1100), 
+                hours(day, 1180, 1300), hours(day, 0, 60));
+        List<DateTimeRange> expected = Arrays.asList(hours(day, 480, 600), 
+                hours(day, 615, 720), hours(day, 780, 1000), 
+                hours(day, 1100, 1180));
+        assertEquals(expected, DateTimeRange.subtract(blocks, exclusions));
+        assertEquals(DateTimeRange.coalesce(blocks), 
+                DateTimeRange.subtract(blocks, new ArrayList<>()));
+        List<DateTimeRange> wholeDay = Arrays.asList(hours(day, 0, 1440));
+        assert DateTimeRange.subtract(blocks, wholeDay).isEmpty() 
+                : "Nothing should be left after subtracting the whole day";
+    }
+    
+    /**
+     * Another test of subtract method, of class DateTimeRange. The result 
+     * should be the same as splitting the blocks one exclusion at a time.
+     */
+    @Test
+    public void testSubtractMatchesSplit() {
+        LocalDate day = LocalDate.of(2026, 10, 12);
+        Random random = new Random(4104L);
+        for (int trial = 0; trial < 50; trial++) {
+            List<DateTimeRange> blocks = new ArrayList<>();
+            List<DateTimeRange> exclusions = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                int start = random.nextInt(24 * 60);
+                blocks.add(hours(day, start, start + random.nextInt(240)));
+                start = random.nextInt(24 * 60);
+                exclusions.add(hours(day, start, start + random.nextInt(60)));
+            }
+            List<DateTimeRange> expected = DateTimeRange.coalesce(blocks);
+            for (DateTimeRange cut : exclusions) {
+                List<DateTimeRange> next = new ArrayList<>();
+                for (DateTimeRange block : expected) {
+                    LocalDateTime from = cut.getStart().isBefore(block
+                            .getStart()) ? block.getStart() : cut.getStart();
+                    LocalDateTime to = cut.getEnd().isAfter(block.getEnd()) 
+                            ? block.getEnd() : cut.getEnd();
+                    if (from.isAfter(to)) {
+                        next.add(block);
+                    } else {
+                        for (DateTimeRange piece : block.split(
+                                new DateTimeRange(from, to))) {
+                            if (piece.getDuration(ChronoUnit.NANOS) > 0) {
+                                next.add(piece);
+                            }
+                        }
+                    }
+                }
+                expected = next;
+            }
+            assertEquals(expected, DateTimeRange.subtract(blocks, exclusions));
+        }
+    }
+    
 }
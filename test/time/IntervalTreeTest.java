@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package time;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the IntervalTree class. The queries are checked against plain 
+ * scans of the same ranges.
+ * @author Alonso del Arte
+ */
+public class IntervalTreeTest {
+    
+    /**
+     * Monday, October 12, 2026 at 12:00 a.m.
+     */
+    private static final LocalDateTime WEEK_START 
+            = LocalDateTime.of(2026, 10, 12, 0, 0);
+    
+    private static final DateTimeRange MORNING = new DateTimeRange(
+            WEEK_START.plusHours(8), WEEK_START.plusHours(12));
+    
+    private static final DateTimeRange AFTERNOON = new DateTimeRange(
+            WEEK_START.plusHours(12), WEEK_START.plusHours(17));
+    
+    private static final DateTimeRange LONG_SHIFT = new DateTimeRange(
+            WEEK_START.plusHours(6), WEEK_START.plusHours(18));
+    
+    private static final DateTimeRange NEXT_DAY = new DateTimeRange(
+            WEEK_START.plusHours(32), WEEK_START.plusHours(36));
+    
+    private static final IntervalTree<DateTimeRange> TREE 
+            = IntervalTree.of(Arrays.asList(NEXT_DAY, AFTERNOON, MORNING, 
+                    LONG_SHIFT));
+    
+    private static boolean overlapsClosed(DateTimeRange a, DateTimeRange b) {
+        return !a.getStart().isAfter(b.getEnd()) 
+                && !b.getStart().isAfter(a.getEnd());
+    }
+    
+    private static List<DateTimeRange> randomRanges(Random random, int n) {
+        List<DateTimeRange> ranges = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            LocalDateTime start = WEEK_START.plusMinutes(random
+                    .nextInt(7 * 24 * 60));
+            ranges.add(new DateTimeRange(start, 
+                    start.plusMinutes(random.nextInt(12 * 60))));
+        }
+        return ranges;
+    }
+    
+    /**
+     * Test of findOverlapping method, of class IntervalTree.
+     */
+    @Test
+    public void testFindOverlapping() {
+        System.out.println("findOverlapping");
+        DateTimeRange lunch = new DateTimeRange(WEEK_START.plusHours(11), 
+                WEEK_START.plusHours(13));
+        List<DateTimeRange> expected = Arrays.asList(LONG_SHIFT, MORNING, 
+                AFTERNOON);
+        assertEquals(expected, TREE.findOverlapping(lunch));
+    }
+    
+    /**
+     * Another test of findOverlapping method, of class IntervalTree. A window 
+     * inside a range should overlap the range, and ranges touching at an 
+     * endpoint should overlap.
+     */
+    @Test
+    public void testFindOverlappingEdgeCases() {
+        DateTimeRange inside = new DateTimeRange(WEEK_START.plusHours(33), 
+                WEEK_START.plusHours(34));
+        assertEquals(Collections.singletonList(NEXT_DAY), 
+                TREE.findOverlapping(inside));
+        DateTimeRange touching = new DateTimeRange(WEEK_START.plusHours(18), 
+                WEEK_START.plusHours(20));
+        assertEquals(Collections.singletonList(LONG_SHIFT), 
+                TREE.findOverlapping(touching));
+        DateTimeRange gap = new DateTimeRange(WEEK_START.plusHours(19), 
+                WEEK_START.plusHours(31));
+        assert TREE.findOverlapping(gap).isEmpty() : "Nothing in the gap";
+    }
+    
+    /**
+     * Another test of findOverlapping method, of class IntervalTree. The tree 
+     * should find the same ranges as a scan.
+     */
+    @Test
+    public void testFindOverlappingMatchesScan() {
+        Random random = new Random(1729L);
+        List<DateTimeRange> ranges = randomRanges(random, 2000);
+        IntervalTree<DateTimeRange> tree = IntervalTree.of(ranges);
+        assertEquals(ranges.size(), tree.size());
+        for (DateTimeRange window : randomRanges(random, 200)) {
+            List<DateTimeRange> expected = new ArrayList<>();
+            for (DateTimeRange range : ranges) {
+                if (overlapsClosed(range, window)) {
+                    expected.add(range);
+                }
+            }
+            Collections.sort(expected);
+            assertEquals(expected, tree.findOverlapping(window));
+        }
+    }
+    
+    /**
+     * Test of findContaining method, of class IntervalTree.
+     */
+    @Test
+    public void testFindContaining() {
+        System.out.println("findContaining");
+        assertEquals(Arrays.asList(LONG_SHIFT, MORNING, AFTERNOON), 
+                TREE.findContaining(WEEK_START.plusHours(12)));
+        assertEquals(Collections.singletonList(LONG_SHIFT), 
+                TREE.findContaining(WEEK_START.plusHours(7)));
+        assert TREE.findContaining(WEEK_START).isEmpty() 
+                : "Nobody on the clock at midnight";
+    }
+    
+    /**
+     * Test of findContainedIn method, of class IntervalTree.
+     */
+    @Test
+    public void testFindContainedIn() {
+        System.out.println("findContainedIn");
+        DateTimeRange workDay = new DateTimeRange(WEEK_START.plusHours(8), 
+                WEEK_START.plusHours(17));
+        assertEquals(Arrays.asList(MORNING, AFTERNOON), 
+                TREE.findContainedIn(workDay));
+        Random random = new Random(1729L);
+        List<DateTimeRange> ranges = randomRanges(random, 2000);
+        IntervalTree<DateTimeRange> tree = IntervalTree.of(ranges);
+        for (DateTimeRange window : randomRanges(random, 100)) {
+            List<DateTimeRange> expected = new ArrayList<>();
+            for (DateTimeRange range : ranges) {
+                if (window.contains(range)) {
+                    expected.add(range);
+                }
+            }
+            Collections.sort(expected);
+            assertEquals(expected, tree.findContainedIn(window));
+        }
+    }
+    
+    /**
+     * Test of constructor, of class IntervalTree. Items other than ranges 
+     * should be indexed by the ranges given for them.
+     */
+    @Test
+    public void testConstructor() {
+        List<String> names = Arrays.asList("Hank", "Dale", "Bill");
+        List<DateTimeRange> shifts = Arrays.asList(MORNING, AFTERNOON, 
+                NEXT_DAY);
+        IntervalTree<String> tree = new IntervalTree<>(names, 
+                (name) -> shifts.get(names.indexOf(name)));
+        assertEquals(Arrays.asList("Hank", "Dale"), 
+                tree.findContaining(WEEK_START.plusHours(12)));
+        assert IntervalTree.of(new ArrayList<>()).findOverlapping(MORNING)
+                .isEmpty() : "Empty tree should find nothing";
+    }
+    
+}
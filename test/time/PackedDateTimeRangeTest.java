@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package time;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the PackedDateTimeRange class. Most of the tests check that packed 
+ * ranges behave the same as the <code>DateTimeRange</code> objects they were 
+ * packed from.
+ * @author Alonso del Arte
+ */
+public class PackedDateTimeRangeTest {
+    
+    /**
+     * Monday, October 12, 2026 at 12:00 a.m.
+     */
+    private static final LocalDateTime WEEK_START 
+            = LocalDateTime.of(2026, 10, 12, 0, 0);
+    
+    private static final int WEEK_START_MINUTES = 29862720;
+    
+    private static List<DateTimeRange> randomRanges(Random random, int n) {
+        List<DateTimeRange> ranges = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            LocalDateTime start = WEEK_START.plusMinutes(random
+                    .nextInt(14 * 24 * 60) - 7 * 24 * 60);
+            ranges.add(new DateTimeRange(start, 
+                    start.plusMinutes(random.nextInt(24 * 60))));
+        }
+        return ranges;
+    }
+    
+    /**
+     * Test of pack and unpack methods, of class PackedDateTimeRange.
+     */
+    @Test
+    public void testPackUnpack() {
+        System.out.println("pack, unpack");
+        DateTimeRange week = new DateTimeRange(WEEK_START, 
+                WEEK_START.plusDays(7).minusMinutes(1));
+        long packed = PackedDateTimeRange.pack(week);
+        assertEquals(WEEK_START_MINUTES, 
+                PackedDateTimeRange.getStartMinutes(packed));
+        assertEquals(WEEK_START_MINUTES + 7 * 24 * 60 - 1, 
+                PackedDateTimeRange.getEndMinutes(packed));
+        assertEquals(week, PackedDateTimeRange.unpack(packed));
+        DateTimeRange early = new DateTimeRange(
+                LocalDateTime.of(1776, 7, 4, 9, 30), 
+                LocalDateTime.of(1776, 7, 4, 17, 0));
+        assertEquals(early, PackedDateTimeRange.unpack(PackedDateTimeRange
+                .pack(early)));
+    }
+    
+    /**
+     * Another test of pack method, of class PackedDateTimeRange. Seconds 
+     * should be dropped.
+     */
+    @Test
+    public void testPackDropsSeconds() {
+        DateTimeRange range = new DateTimeRange(WEEK_START.plusSeconds(59), 
+                WEEK_START.plusMinutes(1).plusSeconds(30));
+        DateTimeRange expected = new DateTimeRange(WEEK_START, 
+                WEEK_START.plusMinutes(1));
+        assertEquals(expected, PackedDateTimeRange.unpack(PackedDateTimeRange
+                .pack(range)));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testPackRejectsBackwardsRange() {
+        long packed = PackedDateTimeRange.pack(WEEK_START_MINUTES, 
+                WEEK_START_MINUTES - 1);
+        System.out.println("Should not have packed " 
+                + PackedDateTimeRange.toString(packed));
+    }
+    
+    /**
+     * Test of compare method, of class PackedDateTimeRange. Sorting packed 
+     * ranges should give the same order as sorting the ranges.
+     */
+    @Test
+    public void testCompare() {
+        System.out.println("compare");
+        List<DateTimeRange> ranges = randomRanges(new Random(1729L), 1000);
+        ranges.add(new DateTimeRange(LocalDateTime.of(1960, 1, 1, 0, 0), 
+                LocalDateTime.of(1960, 1, 2, 0, 0)));
+        ranges.add(new DateTimeRange(LocalDateTime.of(1960, 1, 1, 0, 0), 
+                LocalDateTime.of(1980, 1, 2, 0, 0)));
+        long[] packed = new long[ranges.size()];
+        for (int i = 0; i < packed.length; i++) {
+            packed[i] = PackedDateTimeRange.pack(ranges.get(i));
+        }
+        Collections.sort(ranges);
+        Arrays.sort(packed);
+        for (int i = 0; i < packed.length; i++) {
+            assertEquals(ranges.get(i), PackedDateTimeRange.unpack(packed[i]));
+        }
+    }
+    
+    /**
+     * Test of contains, overlaps, merge and split methods, of class 
+     * PackedDateTimeRange. Each should agree with the method of the same name 
+     * of class DateTimeRange.
+     */
+    @Test
+    public void testSameAsDateTimeRange() {
+        System.out.println("contains, overlaps, merge, split");
+        Random random = new Random(4104L);
+        List<DateTimeRange> ranges = randomRanges(random, 300);
+        for (DateTimeRange range : ranges) {
+            long packed = PackedDateTimeRange.pack(range);
+            LocalDateTime time = WEEK_START.plusMinutes(random.nextInt(24 * 60));
+            assertEquals(range.contains(time), 
+                    PackedDateTimeRange.contains(packed, time));
+            assertEquals(range.getDuration(ChronoUnit.MINUTES), 
+                    PackedDateTimeRange.getDuration(packed, 
+                            ChronoUnit.MINUTES));
+            assertEquals(range.getDuration(ChronoUnit.HOURS), 
+                    PackedDateTimeRange.getDuration(packed, ChronoUnit.HOURS));
+            for (DateTimeRange other : ranges) {
+                long otherPacked = PackedDateTimeRange.pack(other);
+                String msg = range + " vs. " + other;
+                assertEquals(msg, range.contains(other), 
+                        PackedDateTimeRange.contains(packed, otherPacked));
+                assertEquals(msg, range.overlaps(other), 
+                        PackedDateTimeRange.overlaps(packed, otherPacked));
+                assertEquals(msg, Integer.signum(range.compareTo(other)), 
+                        Integer.signum(PackedDateTimeRange.compare(packed, 
+                                otherPacked)));
+                if (range.overlaps(other)) {
+                    assertEquals(msg, range.merge(other), 
+                            PackedDateTimeRange.unpack(PackedDateTimeRange
+                                    .merge(packed, otherPacked)));
+                }
+                if (range.contains(other)) {
+                    DateTimeRange[] expected = range.split(other);
+                    long[] actual = PackedDateTimeRange.split(packed, 
+                            otherPacked);
+                    assertEquals(msg, expected[0], 
+                            PackedDateTimeRange.unpack(actual[0]));
+                    assertEquals(msg, expected[1], 
+                            PackedDateTimeRange.unpack(actual[1]));
+                }
+            }
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeRejectsNonOverlapping() {
+        long monday = PackedDateTimeRange.pack(WEEK_START_MINUTES + 480, 
+                WEEK_START_MINUTES + 1020);
+        long tuesday = PackedDateTimeRange.pack(WEEK_START_MINUTES + 1920, 
+                WEEK_START_MINUTES + 2460);
+        long merged = PackedDateTimeRange.merge(monday, tuesday);
+        System.out.println("Should not have merged to " 
+                + PackedDateTimeRange.toString(merged));
+    }
+    
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2026 Alonso del Arte
+ *
+ * This program is free software; you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation; either version 2 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program; if not, write to the Free Software Foundation, Inc., 59 Temple 
+ * Place - Suite 330, Boston, MA  02111-1307, USA.
+ */
+package time;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the TimeSource class.
+ * @author Alonso del Arte
+ */
+public class TimeSourceTest {
+    
+    /**
+     * Test of setClock method, of class TimeSource. The time given should 
+     * come from the clock set.
+     */
+    @Test
+    public void testSetClock() {
+        System.out.println("setClock");
+        Clock fixed = Clock.fixed(Instant.parse("2026-10-14T13:30:00Z"), 
+                ZoneOffset.UTC);
+        try {
+            TimeSource.setClock(fixed);
+            assertSame(fixed, TimeSource.getClock());
+            assertEquals(LocalDateTime.of(2026, 10, 14, 13, 30), 
+                    TimeSource.now());
+            assertEquals(LocalDate.of(2026, 10, 14), TimeSource.today());
+        } finally {
+            TimeSource.useSystemClock();
+        }
+        LocalDateTime now = TimeSource.now();
+        assert !now.isBefore(LocalDateTime.of(2026, 1, 1, 0, 0)) 
+                : "Should be back on the system clock, not " + now;
+    }
+    
+    @Test(expected = NullPointerException.class)
+    public void testSetClockRejectsNull() {
+        TimeSource.setClock(null);
+    }
+    
+}